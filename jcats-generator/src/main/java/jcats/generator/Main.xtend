@@ -9,19 +9,31 @@ import java.util.List
 import jcats.generator.collection.AVLCommonGenerator
 import jcats.generator.collection.ArrayBuilderGenerator
 import jcats.generator.collection.ArrayGenerator
+import jcats.generator.collection.ArraySliceGenerator
+import jcats.generator.collection.BooleanPackedSeqGenerator
 import jcats.generator.collection.ContainerGenerator
 import jcats.generator.collection.ContainerViewGenerator
+import jcats.generator.collection.DequeGenerator
 import jcats.generator.collection.DictBuilderGenerator
 import jcats.generator.collection.DictGenerator
 import jcats.generator.collection.HashTableCommonGenerator
+import jcats.generator.collection.HashTableStatisticsGenerator
 import jcats.generator.collection.IndexedContainerGenerator
 import jcats.generator.collection.IndexedContainerViewGenerator
 import jcats.generator.collection.KeyValueGenerator
 import jcats.generator.collection.KeyValueViewGenerator
 import jcats.generator.collection.OrderedContainerGenerator
 import jcats.generator.collection.OrderedContainerViewGenerator
+import jcats.generator.collection.PrimitiveDictBuilderGenerator
+import jcats.generator.collection.PrimitiveDictGenerator
+import jcats.generator.collection.PrimitiveSortedDictBuilderGenerator
+import jcats.generator.collection.PrimitiveSortedDictGenerator
 import jcats.generator.collection.PrimitiveStream2Generator
 import jcats.generator.collection.RangeGenerator
+import jcats.generator.collection.RelaxedSeqGenerator
+import jcats.generator.collection.SeqCursorGenerator
+import jcats.generator.collection.SeqSpliteratorGenerator
+import jcats.generator.collection.TransientSeqGenerator
 import jcats.generator.collection.RepeatedIndexedContainerGenerator
 import jcats.generator.collection.Seq0Generator
 import jcats.generator.collection.Seq1Generator
@@ -51,6 +63,7 @@ import jcats.generator.collection.UniqueGenerator
 import jcats.generator.collection.VNGenerators
 import jcats.generator.function.Eff0Generator
 import jcats.generator.function.Eff0XGenerator
+import jcats.generator.function.ChunkEffGenerator
 import jcats.generator.function.Eff2Generator
 import jcats.generator.function.EffGenerator
 import jcats.generator.function.EffNGenerators
@@ -132,12 +145,14 @@ final class Main {
 			new SortedDictGenerator,
 			new SortedDictBuilderGenerator,
 			new HashTableCommonGenerator,
+			new HashTableStatisticsGenerator,
 			new AVLCommonGenerator,
 			new CommonGenerator,
 			new CastGenerator,
 			new String1Generator,
 			new Stream2Generator,
 			new SizeOverflowExceptionGenerator,
+			new BooleanPackedSeqGenerator,
 			varianceAnnotationGenerator(true),
 			varianceAnnotationGenerator(false),
 			new jcats.generator.collection.CommonGenerator
@@ -151,6 +166,7 @@ final class Main {
 			F0Generator.generators,
 			EffGenerator.generators,
 			Eff2Generator.generators,
+			ChunkEffGenerator.generators,
 			F2Generator.generators,
 			FNGenerators.generators,
 			EffNGenerators.generators,
@@ -165,9 +181,11 @@ final class Main {
 			SortedUniqueContainerGenerator.generators,
 			SortedUniqueContainerViewGenerator.generators,
 			ArrayGenerator.generators,
+			ArraySliceGenerator.generators,
 			ArrayBuilderGenerator.generators,
 			StackGenerator.generators,
 			StackBuilderGenerator.generators,
+			DequeGenerator.generators,
 			SeqGenerator.generators,
 			Seq0Generator.generators,
 			Seq1Generator.generators,
@@ -176,11 +194,19 @@ final class Main {
 			Seq4Generator.generators,
 			Seq5Generator.generators,
 			Seq6Generator.generators,
+			RelaxedSeqGenerator.generators,
+			SeqSpliteratorGenerator.generators,
+			TransientSeqGenerator.generators,
+			SeqCursorGenerator.generators,
 			SeqBuilderGenerator.generators,
 			UniqueGenerator.generators,
 			UniqueBuilderGenerator.generators,
 			SortedUniqueGenerator.generators,
 			SortedUniqueBuilderGenerator.generators,
+			PrimitiveDictGenerator.generators,
+			PrimitiveDictBuilderGenerator.generators,
+			PrimitiveSortedDictGenerator.generators,
+			PrimitiveSortedDictBuilderGenerator.generators,
 			PNGenerators.generators,
 			PGenerator.generators,
 			IndexedGenerator.generators,
@@ -11,13 +11,26 @@ final class AVLCommonGenerator implements ClassGenerator {
 	override sourceCode() '''
 		package «Constants.COLLECTION»;
 
+		import java.util.Collection;
+
 		import «Constants.ORD»;
 		import «Constants.ORDER»;
+		import «Constants.SIZED»;
 
 		import static java.util.Objects.requireNonNull;
 
 		final class AVLCommon {
 
+			static final int UNION = 0;
+			static final int INTERSECTION = 1;
+			static final int DIFFERENCE = 2;
+			static final int SYMMETRIC_DIFFERENCE = 3;
+
+			/**
+			 * Set operations on trees with fewer entries than this run sequentially
+			 */
+			static final int PARALLEL_THRESHOLD = 1 << 13;
+
 			private AVLCommon() {
 			}
 
@@ -36,6 +49,50 @@ final class AVLCommonGenerator implements ClassGenerator {
 					throw new IllegalArgumentException("from > to");
 				}
 			}
+
+			/**
+			 * Height of a tree with the given number of entries built by {@code fromSortedArray()}
+			 */
+			static int sortedArrayTreeHeight(final int size) {
+				return Integer.SIZE - Integer.numberOfLeadingZeros(size);
+			}
+
+			static int sortedArrayCapacity(final Iterable<?> iterable) {
+				if (iterable instanceof Sized && ((Sized) iterable).hasKnownFixedSize()) {
+					return Math.max(((Sized) iterable).size(), 1);
+				} else if (iterable instanceof Collection<?>) {
+					return Math.max(((Collection<?>) iterable).size(), 1);
+				} else {
+					return 16;
+				}
+			}
+		}
+	'''
+
+	def static fromSorted(String genericName, String diamondName, String params, String arrayType, String entryCast, String ordGenericName) '''
+		/**
+		 * Builds a tree from {@code entries[from..to)}, which must be strictly increasing, in O(n) time.
+		 * The middle entry becomes the root, so the right subtree is never higher than the left one.
+		 */
+		static «params»«genericName» fromSortedArray(final «arrayType» entries, final int from, final int to, final «ordGenericName» ord) {
+			if (from == to) {
+				return null;
+			} else {
+				final int middle = (from + to) >>> 1;
+				final «genericName» left = fromSortedArray(entries, from, middle, ord);
+				final «genericName» right = fromSortedArray(entries, middle + 1, to, ord);
+				final int balance = sortedArrayTreeHeight(to - middle - 1) - sortedArrayTreeHeight(middle - from);
+				return new «diamondName»(«entryCast»entries[middle], left, right, ord, balance);
+			}
+		}
+
+		/**
+		 * Returns the same tree with the children of every node swapped, which is this tree ordered by the reversed ord
+		 */
+		private «genericName» mirror(final «ordGenericName» ord) {
+			final «genericName» newLeft = (this.right == null) ? null : this.right.mirror(ord);
+			final «genericName» newRight = (this.left == null) ? null : this.left.mirror(ord);
+			return new «diamondName»(this.entry, newLeft, newRight, ord, -this.balance);
 		}
 	'''
 
@@ -302,6 +359,593 @@ final class AVLCommonGenerator implements ClassGenerator {
 		}
 	'''
 
+	def static join(String genericName, String diamondName, String params, String entryGenericName, String ordGenericName) '''
+		private static «params»int height(«genericName» tree) {
+			int height = 0;
+			while (tree != null) {
+				height++;
+				tree = (tree.balance < 0) ? tree.left : tree.right;
+			}
+			return height;
+		}
+
+		/**
+		 * Returns a tree that contains the entries of the left tree, the given entry and the entries of the right tree, in this order.
+		 * Only the nodes on one spine of the higher tree are copied, which takes O(|leftHeight - rightHeight|) time.
+		 */
+		private static «params»«genericName» join(final «genericName» left, final int leftHeight, final «entryGenericName» entry,
+				final «genericName» right, final int rightHeight, final «ordGenericName» ord, final SplitResult result) {
+			if (leftHeight > rightHeight + 1) {
+				final InsertResult insertResult = new InsertResult();
+				final «genericName» joined = left.joinRight(leftHeight, entry, right, rightHeight, insertResult);
+				result.height = insertResult.heightIncreased ? leftHeight + 1 : leftHeight;
+				return joined;
+			} else if (rightHeight > leftHeight + 1) {
+				final InsertResult insertResult = new InsertResult();
+				final «genericName» joined = right.joinLeft(rightHeight, entry, left, leftHeight, insertResult);
+				result.height = insertResult.heightIncreased ? rightHeight + 1 : rightHeight;
+				return joined;
+			} else {
+				result.height = Math.max(leftHeight, rightHeight) + 1;
+				return new «diamondName»(entry, left, right, ord, rightHeight - leftHeight);
+			}
+		}
+
+		private «genericName» joinRight(final int height, final «entryGenericName» entry, final «genericName» right, final int rightHeight, final InsertResult result) {
+			// assume(height > rightHeight + 1)
+			final int childHeight = (this.balance >= 0) ? height - 1 : height - 2;
+			final «genericName» newRight;
+			if (childHeight <= rightHeight + 1) {
+				result.heightIncreased = true;
+				newRight = new «diamondName»(entry, this.right, right, this.ord, rightHeight - childHeight);
+			} else {
+				newRight = this.right.joinRight(childHeight, entry, right, rightHeight, result);
+				if (!result.heightIncreased) {
+					return new «diamondName»(this.entry, this.left, newRight, this.ord, this.balance);
+				}
+			}
+			if (this.balance == -1) {
+				result.heightIncreased = false;
+				return new «diamondName»(this.entry, this.left, newRight, this.ord, 0);
+			} else if (this.balance == 0) {
+				result.heightIncreased = true;
+				return new «diamondName»(this.entry, this.left, newRight, this.ord, 1);
+			} else {
+				return insertAndRotateLeft(newRight, result);
+			}
+		}
+
+		private «genericName» joinLeft(final int height, final «entryGenericName» entry, final «genericName» left, final int leftHeight, final InsertResult result) {
+			// assume(height > leftHeight + 1)
+			final int childHeight = (this.balance <= 0) ? height - 1 : height - 2;
+			final «genericName» newLeft;
+			if (childHeight <= leftHeight + 1) {
+				result.heightIncreased = true;
+				newLeft = new «diamondName»(entry, left, this.left, this.ord, childHeight - leftHeight);
+			} else {
+				newLeft = this.left.joinLeft(childHeight, entry, left, leftHeight, result);
+				if (!result.heightIncreased) {
+					return new «diamondName»(this.entry, newLeft, this.right, this.ord, this.balance);
+				}
+			}
+			if (this.balance == 1) {
+				result.heightIncreased = false;
+				return new «diamondName»(this.entry, newLeft, this.right, this.ord, 0);
+			} else if (this.balance == 0) {
+				result.heightIncreased = true;
+				return new «diamondName»(this.entry, newLeft, this.right, this.ord, -1);
+			} else {
+				return insertAndRotateRight(newLeft, result);
+			}
+		}
+	'''
+
+	def static split(String genericName, String params, String keyGenericName, String getKey) '''
+		/**
+		 * Returns the entries of the tree that follow the key (or are equal to it if inclusive).
+		 * Subtrees that lie entirely in the range are shared, so it takes O(log n) time.
+		 */
+		private static «params»«genericName» splitFrom(final «genericName» tree, final int height, final «keyGenericName» from, final boolean inclusive,
+				final SplitResult result) {
+			if (tree == null) {
+				result.height = 0;
+				return null;
+			}
+
+			final int leftHeight = (tree.balance <= 0) ? height - 1 : height - 2;
+			final int rightHeight = (tree.balance >= 0) ? height - 1 : height - 2;
+			final Order order = tree.ord.order(from, tree.«getKey»);
+			if (order == LT) {
+				final «genericName» newLeft = splitFrom(tree.left, leftHeight, from, inclusive, result);
+				if (newLeft == tree.left) {
+					result.height = height;
+					return tree;
+				} else {
+					return join(newLeft, result.height, tree.entry, tree.right, rightHeight, tree.ord, result);
+				}
+			} else if (order == EQ) {
+				if (!inclusive) {
+					result.height = rightHeight;
+					return tree.right;
+				} else if (tree.left == null) {
+					result.height = height;
+					return tree;
+				} else {
+					return join(null, 0, tree.entry, tree.right, rightHeight, tree.ord, result);
+				}
+			} else if (order == GT) {
+				return splitFrom(tree.right, rightHeight, from, inclusive, result);
+			} else {
+				throw nullOrder(order);
+			}
+		}
+
+		/**
+		 * Returns the entries of the tree that precede the key (or are equal to it if inclusive).
+		 * Subtrees that lie entirely in the range are shared, so it takes O(log n) time.
+		 */
+		private static «params»«genericName» splitTo(final «genericName» tree, final int height, final «keyGenericName» to, final boolean inclusive,
+				final SplitResult result) {
+			if (tree == null) {
+				result.height = 0;
+				return null;
+			}
+
+			final int leftHeight = (tree.balance <= 0) ? height - 1 : height - 2;
+			final int rightHeight = (tree.balance >= 0) ? height - 1 : height - 2;
+			final Order order = tree.ord.order(to, tree.«getKey»);
+			if (order == GT) {
+				final «genericName» newRight = splitTo(tree.right, rightHeight, to, inclusive, result);
+				if (newRight == tree.right) {
+					result.height = height;
+					return tree;
+				} else {
+					return join(tree.left, leftHeight, tree.entry, newRight, result.height, tree.ord, result);
+				}
+			} else if (order == EQ) {
+				if (!inclusive) {
+					result.height = leftHeight;
+					return tree.left;
+				} else if (tree.right == null) {
+					result.height = height;
+					return tree;
+				} else {
+					return join(tree.left, leftHeight, tree.entry, null, 0, tree.ord, result);
+				}
+			} else if (order == LT) {
+				return splitTo(tree.left, leftHeight, to, inclusive, result);
+			} else {
+				throw nullOrder(order);
+			}
+		}
+	'''
+
+	def static slice(String genericName, String shortName, String keyGenericName, String checkRange, boolean primitive) '''
+		public «genericName» slice(final «keyGenericName» from, final boolean fromInclusive, final «keyGenericName» to, final boolean toInclusive) {
+			«checkRange»(this.ord, from, to);
+			if (isEmpty()) {
+				return this;
+			} else {
+				final SplitResult result = new SplitResult();
+				final «genericName» sliced = splitTo(splitFrom(this, height(this), from, fromInclusive, result), result.height, to, toInclusive, result);
+				return (sliced == null) ? empty«shortName»By(this.ord) : sliced;
+			}
+		}
+
+		public «genericName» sliceFrom(final «keyGenericName» from, final boolean inclusive) {
+			«IF !primitive»
+				requireNonNull(from);
+			«ENDIF»
+			if (isEmpty()) {
+				return this;
+			} else {
+				final «genericName» sliced = splitFrom(this, height(this), from, inclusive, new SplitResult());
+				return (sliced == null) ? empty«shortName»By(this.ord) : sliced;
+			}
+		}
+
+		public «genericName» sliceTo(final «keyGenericName» to, final boolean inclusive) {
+			«IF !primitive»
+				requireNonNull(to);
+			«ENDIF»
+			if (isEmpty()) {
+				return this;
+			} else {
+				final «genericName» sliced = splitTo(this, height(this), to, inclusive, new SplitResult());
+				return (sliced == null) ? empty«shortName»By(this.ord) : sliced;
+			}
+		}
+	'''
+
+	def static positional(String genericName, String shortName, String params, String entryGenericName, String keyGenericName, String getKey,
+			String getName, String checkRange, boolean primitive) '''
+		public «entryGenericName» «getName»(final int index) throws IndexOutOfBoundsException {
+			if (index < 0 || index >= this.size) {
+				throw new IndexOutOfBoundsException(getIndexOutOfBoundsMessage(index, this));
+			}
+			«genericName» tree = this;
+			int i = index;
+			while (true) {
+				final int leftSize = (tree.left == null) ? 0 : tree.left.size;
+				if (i < leftSize) {
+					tree = tree.left;
+				} else if (i == leftSize) {
+					return tree.entry;
+				} else {
+					i -= leftSize + 1;
+					tree = tree.right;
+				}
+			}
+		}
+
+		/**
+		 * Returns the number of keys that precede the given key.
+		 * If the key is present, this is its index.
+		 */
+		public int rankOf(final «keyGenericName» key) {
+			«IF !primitive»
+				requireNonNull(key);
+			«ENDIF»
+			return isEmpty() ? 0 : countTo(this, key, false);
+		}
+
+		/**
+		 * Returns the size of {@code slice(from, fromInclusive, to, toInclusive)} without building it
+		 */
+		public int countInRange(final «keyGenericName» from, final boolean fromInclusive, final «keyGenericName» to, final boolean toInclusive) {
+			«checkRange»(this.ord, from, to);
+			if (isEmpty()) {
+				return 0;
+			} else {
+				return Math.max(countTo(this, to, toInclusive) - countTo(this, from, !fromInclusive), 0);
+			}
+		}
+
+		public «genericName» sliceByIndex(final int fromIndexInclusive, final int toIndexExclusive) throws IndexOutOfBoundsException {
+			sliceRangeCheck(fromIndexInclusive, toIndexExclusive, this.size);
+			if (fromIndexInclusive == toIndexExclusive) {
+				return isEmpty() ? this : empty«shortName»By(this.ord);
+			} else {
+				final SplitResult result = new SplitResult();
+				final «genericName» from = splitFromIndex(this, height(this), fromIndexInclusive, result);
+				return splitToIndex(from, result.height, toIndexExclusive - fromIndexInclusive, result);
+			}
+		}
+
+		/**
+		 * Returns the number of keys of the tree that precede the given key (or are equal to it if inclusive)
+		 */
+		private static «params»int countTo(«genericName» tree, final «keyGenericName» key, final boolean inclusive) {
+			int count = 0;
+			while (tree != null) {
+				final int leftSize = (tree.left == null) ? 0 : tree.left.size;
+				final Order order = tree.ord.order(key, tree.«getKey»);
+				if (order == LT) {
+					tree = tree.left;
+				} else if (order == EQ) {
+					return inclusive ? count + leftSize + 1 : count + leftSize;
+				} else if (order == GT) {
+					count += leftSize + 1;
+					tree = tree.right;
+				} else {
+					throw nullOrder(order);
+				}
+			}
+			return count;
+		}
+
+		/**
+		 * Returns the entries of the tree starting at the given index, sharing the subtrees that are kept whole
+		 */
+		private static «params»«genericName» splitFromIndex(final «genericName» tree, final int height, final int index, final SplitResult result) {
+			if (tree == null) {
+				result.height = 0;
+				return null;
+			}
+
+			final int leftHeight = (tree.balance <= 0) ? height - 1 : height - 2;
+			final int rightHeight = (tree.balance >= 0) ? height - 1 : height - 2;
+			final int leftSize = (tree.left == null) ? 0 : tree.left.size;
+			if (index < leftSize) {
+				final «genericName» newLeft = splitFromIndex(tree.left, leftHeight, index, result);
+				if (newLeft == tree.left) {
+					result.height = height;
+					return tree;
+				} else {
+					return join(newLeft, result.height, tree.entry, tree.right, rightHeight, tree.ord, result);
+				}
+			} else if (index == leftSize) {
+				if (tree.left == null) {
+					result.height = height;
+					return tree;
+				} else {
+					return join(null, 0, tree.entry, tree.right, rightHeight, tree.ord, result);
+				}
+			} else {
+				return splitFromIndex(tree.right, rightHeight, index - leftSize - 1, result);
+			}
+		}
+
+		/**
+		 * Returns the entries of the tree preceding the given index, sharing the subtrees that are kept whole
+		 */
+		private static «params»«genericName» splitToIndex(final «genericName» tree, final int height, final int index, final SplitResult result) {
+			if (tree == null) {
+				result.height = 0;
+				return null;
+			}
+
+			final int leftHeight = (tree.balance <= 0) ? height - 1 : height - 2;
+			final int rightHeight = (tree.balance >= 0) ? height - 1 : height - 2;
+			final int leftSize = (tree.left == null) ? 0 : tree.left.size;
+			if (index < leftSize) {
+				return splitToIndex(tree.left, leftHeight, index, result);
+			} else if (index == leftSize) {
+				result.height = leftHeight;
+				return tree.left;
+			} else if (index == tree.size) {
+				result.height = height;
+				return tree;
+			} else {
+				final «genericName» newRight = splitToIndex(tree.right, rightHeight, index - leftSize - 1, result);
+				return join(tree.left, leftHeight, tree.entry, newRight, result.height, tree.ord, result);
+			}
+		}
+	'''
+
+	def static navigation(String genericName, String keyGenericName, String getKey, String paramName, String optionGenericName,
+			String someName, String noneName, String suffix, boolean primitive) '''
+		/**
+		 * Returns the «IF !suffix.empty»entry with the «ENDIF»greatest «paramName» less than or equal to {@code «paramName»}
+		 */
+		public «optionGenericName» floor«suffix»(final «keyGenericName» «paramName») {
+			return findNearest(«paramName», true, true);
+		}
+
+		/**
+		 * Returns the «IF !suffix.empty»entry with the «ENDIF»least «paramName» greater than or equal to {@code «paramName»}
+		 */
+		public «optionGenericName» ceiling«suffix»(final «keyGenericName» «paramName») {
+			return findNearest(«paramName», false, true);
+		}
+
+		/**
+		 * Returns the «IF !suffix.empty»entry with the «ENDIF»greatest «paramName» strictly less than {@code «paramName»}
+		 */
+		public «optionGenericName» lower«suffix»(final «keyGenericName» «paramName») {
+			return findNearest(«paramName», true, false);
+		}
+
+		/**
+		 * Returns the «IF !suffix.empty»entry with the «ENDIF»least «paramName» strictly greater than {@code «paramName»}
+		 */
+		public «optionGenericName» higher«suffix»(final «keyGenericName» «paramName») {
+			return findNearest(«paramName», false, false);
+		}
+
+		private «optionGenericName» findNearest(final «keyGenericName» «paramName», final boolean below, final boolean inclusive) {
+			«IF !primitive»
+				requireNonNull(«paramName»);
+			«ENDIF»
+			if (isEmpty()) {
+				return «noneName»();
+			}
+
+			«genericName» tree = this;
+			«genericName» nearest = null;
+			while (tree != null) {
+				final Order order = this.ord.order(«paramName», tree.«getKey»);
+				if (order == EQ) {
+					if (inclusive) {
+						return «someName»(tree.entry);
+					} else {
+						tree = below ? tree.left : tree.right;
+					}
+				} else if (order == LT) {
+					if (!below) {
+						nearest = tree;
+					}
+					tree = tree.left;
+				} else if (order == GT) {
+					if (below) {
+						nearest = tree;
+					}
+					tree = tree.right;
+				} else {
+					throw nullOrder(order);
+				}
+			}
+			return (nearest == null) ? «noneName»() : «someName»(nearest.entry);
+		}
+	'''
+
+	def static combine(String genericName, String shortName, String params, String keyGenericName, String getKey, String entryGenericName,
+			String typeParams, String extraParam, String extraArg, String mergeEntry) '''
+		private «genericName» combineWith(final «genericName» other, final int operation«extraParam») {
+			requireNonNull(other);
+			if (this.ord != other.ord) {
+				throw new IllegalArgumentException("Both instances of «shortName» must have the same Ord");
+			}
+			final «genericName» tree1 = isEmpty() ? null : this;
+			final «genericName» tree2 = other.isEmpty() ? null : other;
+			final CombineTask«typeParams» task = new CombineTask«IF !typeParams.empty»<>«ENDIF»(tree1, height(tree1), tree2, height(tree2), operation«extraArg»);
+			final «genericName» combined;
+			if (this.size + other.size >= PARALLEL_THRESHOLD) {
+				combined = ForkJoinPool.commonPool().invoke(task);
+			} else {
+				combined = task.compute();
+			}
+			return (combined == null) ? empty«shortName»By(this.ord) : combined;
+		}
+
+		/**
+		 * Combines two trees by splitting the second one around the root of the first one and joining the combined halves.
+		 * A subtree that has no counterpart in the other tree is returned as is.
+		 * The halves of large trees are combined in parallel.
+		 */
+		static «params»«genericName» combine(final «genericName» tree1, final int height1, final «genericName» tree2, final int height2,
+				final int operation«extraParam», final SplitResult result) {
+			if (tree1 == null) {
+				if (operation == UNION || operation == SYMMETRIC_DIFFERENCE) {
+					result.height = height2;
+					return tree2;
+				} else {
+					result.height = 0;
+					return null;
+				}
+			} else if (tree2 == null) {
+				if (operation == INTERSECTION) {
+					result.height = 0;
+					return null;
+				} else {
+					result.height = height1;
+					return tree1;
+				}
+			}
+
+			final int leftHeight1 = (tree1.balance <= 0) ? height1 - 1 : height1 - 2;
+			final int rightHeight1 = (tree1.balance >= 0) ? height1 - 1 : height1 - 2;
+			final SplitParts«typeParams» parts = new SplitParts«IF !typeParams.empty»<>«ENDIF»();
+			splitAround(tree2, height2, tree1.«getKey», parts, result);
+
+			final «genericName» left;
+			final int leftHeight;
+			final «genericName» right;
+			final int rightHeight;
+			if (tree1.size + tree2.size >= PARALLEL_THRESHOLD) {
+				final CombineTask«typeParams» leftTask = new CombineTask«IF !typeParams.empty»<>«ENDIF»(tree1.left, leftHeight1, parts.left, parts.leftHeight, operation«extraArg»);
+				leftTask.fork();
+				right = combine(tree1.right, rightHeight1, parts.right, parts.rightHeight, operation«extraArg», result);
+				rightHeight = result.height;
+				left = leftTask.join();
+				leftHeight = leftTask.height;
+			} else {
+				left = combine(tree1.left, leftHeight1, parts.left, parts.leftHeight, operation«extraArg», result);
+				leftHeight = result.height;
+				right = combine(tree1.right, rightHeight1, parts.right, parts.rightHeight, operation«extraArg», result);
+				rightHeight = result.height;
+			}
+
+			final boolean keep = parts.found ? (operation == UNION || operation == INTERSECTION) : (operation != INTERSECTION);
+			if (keep) {
+				«IF mergeEntry.empty»
+					final «entryGenericName» entry = tree1.entry;
+				«ELSE»
+					final «entryGenericName» entry = parts.found ? «mergeEntry» : tree1.entry;
+				«ENDIF»
+				if (left == tree1.left && right == tree1.right && entry == tree1.entry) {
+					result.height = height1;
+					return tree1;
+				} else {
+					return join(left, leftHeight, entry, right, rightHeight, tree1.ord, result);
+				}
+			} else {
+				return concat(left, leftHeight, right, rightHeight, result);
+			}
+		}
+
+		/**
+		 * Splits the tree into the entries that precede the key and the entries that follow it
+		 */
+		private static «params»void splitAround(final «genericName» tree, final int height, final «keyGenericName» key,
+				final SplitParts«typeParams» parts, final SplitResult result) {
+			if (tree == null) {
+				parts.left = null;
+				parts.leftHeight = 0;
+				parts.right = null;
+				parts.rightHeight = 0;
+				parts.found = false;
+				return;
+			}
+
+			final int leftHeight = (tree.balance <= 0) ? height - 1 : height - 2;
+			final int rightHeight = (tree.balance >= 0) ? height - 1 : height - 2;
+			final Order order = tree.ord.order(key, tree.«getKey»);
+			if (order == LT) {
+				splitAround(tree.left, leftHeight, key, parts, result);
+				parts.right = join(parts.right, parts.rightHeight, tree.entry, tree.right, rightHeight, tree.ord, result);
+				parts.rightHeight = result.height;
+			} else if (order == EQ) {
+				parts.left = tree.left;
+				parts.leftHeight = leftHeight;
+				parts.right = tree.right;
+				parts.rightHeight = rightHeight;
+				parts.found = true;
+				parts.entry = tree.entry;
+			} else if (order == GT) {
+				splitAround(tree.right, rightHeight, key, parts, result);
+				parts.left = join(tree.left, leftHeight, tree.entry, parts.left, parts.leftHeight, tree.ord, result);
+				parts.leftHeight = result.height;
+			} else {
+				throw nullOrder(order);
+			}
+		}
+
+		/**
+		 * Joins two trees, all entries of the left one preceding the entries of the right one
+		 */
+		private static «params»«genericName» concat(final «genericName» left, final int leftHeight, final «genericName» right, final int rightHeight,
+				final SplitResult result) {
+			if (left == null) {
+				result.height = rightHeight;
+				return right;
+			} else if (right == null) {
+				result.height = leftHeight;
+				return left;
+			} else {
+				«genericName» last = left;
+				while (last.right != null) {
+					last = last.right;
+				}
+				final «genericName» init = splitTo(left, leftHeight, last.«getKey», false, result);
+				return join(init, result.height, last.entry, right, rightHeight, left.ord, result);
+			}
+		}
+	'''
+
+	def static combineClasses(String genericName, String entryGenericName, String typeParams, boolean merge) '''
+		static final class SplitParts«typeParams» {
+			«genericName» left;
+			int leftHeight;
+			«genericName» right;
+			int rightHeight;
+			boolean found;
+			«entryGenericName» entry;
+		}
+
+		static final class CombineTask«typeParams» extends RecursiveTask<«genericName»> {
+			private final «genericName» tree1;
+			private final int height1;
+			private final «genericName» tree2;
+			private final int height2;
+			private final int operation;
+			«IF merge»
+				private final F3<K, A, A, A> mergeFunction;
+			«ENDIF»
+			int height;
+
+			CombineTask(final «genericName» tree1, final int height1, final «genericName» tree2, final int height2, final int operation«IF merge»,
+					final F3<K, A, A, A> mergeFunction«ENDIF») {
+				this.tree1 = tree1;
+				this.height1 = height1;
+				this.tree2 = tree2;
+				this.height2 = height2;
+				this.operation = operation;
+				«IF merge»
+					this.mergeFunction = mergeFunction;
+				«ENDIF»
+			}
+
+			@Override
+			protected «genericName» compute() {
+				final SplitResult result = new SplitResult();
+				final «genericName» combined = combine(this.tree1, this.height1, this.tree2, this.height2, this.operation«IF merge», this.mergeFunction«ENDIF», result);
+				this.height = result.height;
+				return combined;
+			}
+		}
+	'''
+
 	def static getFirstOrLast(String name, String leftOrRight) '''
 		while («name».«leftOrRight» != null) {
 			«name» = «name».«leftOrRight»;
@@ -164,7 +164,7 @@ final class ArrayBuilderGenerator implements ClassGenerator {
 			public «genericName» appendAll(final Iterable<«type.genericBoxedName»> iterable) {
 				requireNonNull(iterable);
 				if (iterable instanceof «type.arrayWildcardName») {
-					return appendArray(((«arrayGenericName») iterable).array);
+					return appendArray(((«arrayGenericName») iterable).«IF type == Type.BOOLEAN»toPrimitiveArray()«ELSE»array«ENDIF»);
 				} else if (iterable instanceof «type.containerWildcardName») {
 					return append«type.containerShortName»((«type.containerGenericName») iterable);
 				} else if (iterable instanceof Sized && ((Sized) iterable).hasKnownFixedSize()) {
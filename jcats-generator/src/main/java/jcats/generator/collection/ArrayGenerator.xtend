@@ -25,6 +25,24 @@ final class ArrayGenerator implements ClassGenerator {
 	def arrayBuilderName() { type.genericName("ArrayBuilder") }
 	def arrayBuilderDiamondName() { type.diamondName("ArrayBuilder") }
 
+	// BooleanArray is packed into 64-bit words, so its elements are read through bit()
+	def length() { if (type == Type.BOOLEAN) "this.size" else "this.array.length" }
+	def elem(String index) { if (type == Type.BOOLEAN) '''bit(this.words, «index»)''' else '''«type.genericCast»this.array[«index»]''' }
+	def sharedArray() { if (type == Type.BOOLEAN) "toPrimitiveArray()" else "this.array" }
+
+	def loop(CharSequence body) '''
+		«IF type == Type.BOOLEAN»
+			for (int i = 0; i < this.size; i++) {
+				final boolean value = bit(this.words, i);
+				«body»
+			}
+		«ELSE»
+			for (final «type.javaName» value : this.array) {
+				«body»
+			}
+		«ENDIF»
+	'''
+
 	override sourceCode() { '''
 		package «Constants.COLLECTION»;
 
@@ -51,6 +69,7 @@ final class ArrayGenerator implements ClassGenerator {
 		import «Constants.FUNCTION».*;
 
 		import static java.util.Collections.emptyIterator;
+		import static java.util.Collections.singletonList;
 		import static java.util.Objects.requireNonNull;
 		import static «Constants.ARRAY».emptyArray;
 		«FOR toType : Type.primitives.filter[it != type]»
@@ -74,21 +93,44 @@ final class ArrayGenerator implements ClassGenerator {
 		import static «Constants.JCATS».IntOption.*;
 
 
+		«IF type == Type.BOOLEAN»
+			/**
+			 * Array of booleans packed into 64-bit words, one bit per element.
+			 * Counting and sorting work on whole words.
+			 */
+		«ENDIF»
 		public final class «type.covariantName("Array")» implements «type.indexedContainerGenericName», Serializable {
-			static final «wildcardName» EMPTY = new «diamondName»(«type.emptyArrayName»);
+			«IF type == Type.BOOLEAN»
+				static final BooleanArray EMPTY = new BooleanArray(EMPTY_LONG_ARRAY, 0);
 
-			final «type.javaName»[] array;
+				// Bits after size are always zero
+				final long[] words;
+				final int size;
 
-			«shortName»(final «type.javaName»[] array) {
-				this.array = array;
-			}
+				BooleanArray(final long[] words, final int size) {
+					this.words = words;
+					this.size = size;
+				}
+
+				BooleanArray(final boolean[] array) {
+					this(pack(array), array.length);
+				}
+			«ELSE»
+				static final «wildcardName» EMPTY = new «diamondName»(«type.emptyArrayName»);
+
+				final «type.javaName»[] array;
+
+				«shortName»(final «type.javaName»[] array) {
+					this.array = array;
+				}
+			«ENDIF»
 
 			/**
 			 * O(1)
 			 */
 			@Override
 			public int size() {
-				return this.array.length;
+				return «length»;
 			}
 
 			/**
@@ -96,79 +138,152 @@ final class ArrayGenerator implements ClassGenerator {
 			 */
 			@Override
 			public «type.genericName» get(final int index) throws IndexOutOfBoundsException {
-				try {
-					return «type.genericCast»this.array[index];
-				} catch (final ArrayIndexOutOfBoundsException __) {
-					«indexOutOfBounds»
-				}
-			}
-
-			/**
-			 * O(size)
-			 */
-			public «genericName» set(final int index, final «type.genericName» value) throws IndexOutOfBoundsException {
-				«IF type == Type.OBJECT»
-					return update(index, always(value));
+				«IF type == Type.BOOLEAN»
+					if (index < 0 || index >= this.size) {
+						«indexOutOfBounds»
+					} else {
+						return bit(this.words, index);
+					}
 				«ELSE»
-					return update(index, «type.typeName.firstToLowerCase»«type.typeName»Always(value));
+					try {
+						return «type.genericCast»this.array[index];
+					} catch (final ArrayIndexOutOfBoundsException __) {
+						«indexOutOfBounds»
+					}
 				«ENDIF»
 			}
 
-			/**
-			 * O(size)
-			 */
-			public «genericName» update(final int index, final «type.endoGenericName» f) throws IndexOutOfBoundsException {
-				return new «diamondName»(updateArray(this.array, index, f));
-			}
+			«IF type == Type.BOOLEAN»
+				/**
+				 * O(size / 64)
+				 */
+				public BooleanArray set(final int index, final boolean value) throws IndexOutOfBoundsException {
+					if (index < 0 || index >= this.size) {
+						«indexOutOfBounds»
+					} else if (bit(this.words, index) == value) {
+						return this;
+					} else {
+						final long[] result = this.words.clone();
+						result[index >>> 6] ^= (1L << index);
+						return new BooleanArray(result, this.size);
+					}
+				}
 
-			/**
-			 * O(size)
-			 */
-			public «genericName» prepend(final «type.genericName» value) {
-				«IF type == Type.OBJECT»
-					requireNonNull(value);
-				«ENDIF»
-				final «type.javaName»[] result = new «type.javaName»[this.array.length + 1];
-				System.arraycopy(this.array, 0, result, 1, this.array.length);
-				result[0] = value;
-				return new «diamondName»(result);
-			}
+				/**
+				 * O(size / 64)
+				 */
+				public BooleanArray update(final int index, final BooleanBooleanF f) throws IndexOutOfBoundsException {
+					return set(index, f.apply(get(index)));
+				}
 
-			/**
-			 * O(size)
-			 */
-			public «genericName» append(final «type.genericName» value) {
-				«IF type == Type.OBJECT»
-					requireNonNull(value);
-				«ENDIF»
-				final «type.javaName»[] result = new «type.javaName»[this.array.length + 1];
-				System.arraycopy(this.array, 0, result, 0, this.array.length);
-				result[this.array.length] = value;
-				return new «diamondName»(result);
-			}
+				/**
+				 * O(size / 64)
+				 */
+				public BooleanArray prepend(final boolean value) {
+					final int size = newSize(this.size, 1);
+					final long[] result = allocateWords(size);
+					copyBits(this.words, 0, result, 1, this.size);
+					if (value) {
+						result[0] |= 1L;
+					}
+					return new BooleanArray(result, size);
+				}
 
-			public «genericName» init() throws NoSuchElementException {
-				if (this.array.length == 0) {
-					throw new NoSuchElementException();
-				} else {
-					final «type.javaName»[] result = new «type.javaName»[this.array.length - 1];
-					System.arraycopy(this.array, 0, result, 0, result.length);
+				/**
+				 * O(size / 64)
+				 */
+				public BooleanArray append(final boolean value) {
+					final int size = newSize(this.size, 1);
+					final long[] result = Arrays.copyOf(this.words, wordCount(size));
+					if (value) {
+						result[this.size >>> 6] |= (1L << this.size);
+					}
+					return new BooleanArray(result, size);
+				}
+
+				public BooleanArray init() throws NoSuchElementException {
+					if (this.size == 0) {
+						throw new NoSuchElementException();
+					} else {
+						return limit(this.size - 1);
+					}
+				}
+
+				public BooleanArray tail() throws NoSuchElementException {
+					if (this.size == 0) {
+						throw new NoSuchElementException();
+					} else {
+						return skip(1);
+					}
+				}
+			«ELSE»
+				/**
+				 * O(size)
+				 */
+				public «genericName» set(final int index, final «type.genericName» value) throws IndexOutOfBoundsException {
+					«IF type == Type.OBJECT»
+						return update(index, always(value));
+					«ELSE»
+						return update(index, «type.typeName.firstToLowerCase»«type.typeName»Always(value));
+					«ENDIF»
+				}
+
+				/**
+				 * O(size)
+				 */
+				public «genericName» update(final int index, final «type.endoGenericName» f) throws IndexOutOfBoundsException {
+					return new «diamondName»(updateArray(this.array, index, f));
+				}
+
+				/**
+				 * O(size)
+				 */
+				public «genericName» prepend(final «type.genericName» value) {
+					«IF type == Type.OBJECT»
+						requireNonNull(value);
+					«ENDIF»
+					final «type.javaName»[] result = new «type.javaName»[this.array.length + 1];
+					System.arraycopy(this.array, 0, result, 1, this.array.length);
+					result[0] = value;
 					return new «diamondName»(result);
 				}
-			}
 
-			public «genericName» tail() throws NoSuchElementException {
-				if (this.array.length == 0) {
-					throw new NoSuchElementException();
-				} else {
-					final «type.javaName»[] result = new «type.javaName»[this.array.length - 1];
-					System.arraycopy(this.array, 1, result, 0, result.length);
+				/**
+				 * O(size)
+				 */
+				public «genericName» append(final «type.genericName» value) {
+					«IF type == Type.OBJECT»
+						requireNonNull(value);
+					«ENDIF»
+					final «type.javaName»[] result = new «type.javaName»[this.array.length + 1];
+					System.arraycopy(this.array, 0, result, 0, this.array.length);
+					result[this.array.length] = value;
 					return new «diamondName»(result);
 				}
-			}
+
+				public «genericName» init() throws NoSuchElementException {
+					if (this.array.length == 0) {
+						throw new NoSuchElementException();
+					} else {
+						final «type.javaName»[] result = new «type.javaName»[this.array.length - 1];
+						System.arraycopy(this.array, 0, result, 0, result.length);
+						return new «diamondName»(result);
+					}
+				}
+
+				public «genericName» tail() throws NoSuchElementException {
+					if (this.array.length == 0) {
+						throw new NoSuchElementException();
+					} else {
+						final «type.javaName»[] result = new «type.javaName»[this.array.length - 1];
+						System.arraycopy(this.array, 1, result, 0, result.length);
+						return new «diamondName»(result);
+					}
+				}
+			«ENDIF»
 
 			public «genericName» removeAt(final int index) throws IndexOutOfBoundsException {
-				if (index < 0 || index >= this.array.length) {
+				if (index < 0 || index >= «length») {
 					«indexOutOfBounds»
 				} else {
 					return remove(index);
@@ -210,18 +325,25 @@ final class ArrayGenerator implements ClassGenerator {
 			}
 
 			private «genericName» remove(final int index) {
-				if (this.array.length == 1) {
+				if («length» == 1) {
 					return empty«shortName»();
 				} else {
-					final «type.javaName»[] result = new «type.javaName»[this.array.length - 1];
-					System.arraycopy(this.array, 0, result, 0, index);
-					System.arraycopy(this.array, index + 1, result, index, this.array.length - index - 1);
-					return new «diamondName»(result);
+					«IF type == Type.BOOLEAN»
+						final long[] result = allocateWords(this.size - 1);
+						copyBits(this.words, 0, result, 0, index);
+						copyBits(this.words, index + 1, result, index, this.size - index - 1);
+						return new BooleanArray(result, this.size - 1);
+					«ELSE»
+						final «type.javaName»[] result = new «type.javaName»[this.array.length - 1];
+						System.arraycopy(this.array, 0, result, 0, index);
+						System.arraycopy(this.array, index + 1, result, index, this.array.length - index - 1);
+						return new «diamondName»(result);
+					«ENDIF»
 				}
 			}
 
 			/**
-			 * O(prefix.size + suffix.size)
+			 * «IF type == Type.BOOLEAN»O((prefix.size + suffix.size) / 64)«ELSE»O(prefix.size + suffix.size)«ENDIF»
 			 */
 			private «genericName» concat(final «genericName» suffix) {
 				requireNonNull(suffix);
@@ -230,7 +352,14 @@ final class ArrayGenerator implements ClassGenerator {
 				} else if (suffix.isEmpty()) {
 					return this;
 				} else {
-					return new «diamondName»(concatArrays(this.array, suffix.array));
+					«IF type == Type.BOOLEAN»
+						final int size = newSize(this.size, suffix.size);
+						final long[] result = Arrays.copyOf(this.words, wordCount(size));
+						copyBits(suffix.words, 0, result, this.size, suffix.size);
+						return new BooleanArray(result, size);
+					«ELSE»
+						return new «diamondName»(concatArrays(this.array, suffix.array));
+					«ENDIF»
 				}
 			}
 
@@ -252,154 +381,219 @@ final class ArrayGenerator implements ClassGenerator {
 				«ENDIF»
 			}
 
-			private «genericName» appendSized(final Iterable<«type.genericBoxedName»> suffix, final int suffixSize) {
-				if (suffixSize == 0) {
-					return this;
-				} else {
-					final int length = this.array.length + suffixSize;
-					if (length >= 0) {
-						final «type.javaName»[] result = new «type.javaName»[length];
-						System.arraycopy(this.array, 0, result, 0, this.array.length);
-						«IF type == Type.OBJECT»
-							fillArray(result, this.array.length, suffix);
-						«ELSE»
-							if (suffix instanceof Container<?>) {
-								((Container<«type.boxedName»>) suffix).foreachWithIndex((final int index, final «type.boxedName» value) ->
-										result[this.array.length + index] = value);
-							} else {
-								fillArray(result, this.array.length, suffix);
-							}
-						«ENDIF»
-						return new «diamondName»(result);
+			«IF type == Type.BOOLEAN»
+				/**
+				 * O(this.size + suffix.size)
+				 */
+				public BooleanArray appendAll(final Iterable<Boolean> suffix) throws SizeOverflowException {
+					if (this.size == 0) {
+						return ofAll(suffix);
+					} else if (suffix instanceof BooleanArray) {
+						return concat((BooleanArray) suffix);
 					} else {
-						throw new SizeOverflowException();
+						return concat(ofAll(suffix));
 					}
 				}
-			}
 
-			private «genericName» prependSized(final Iterable<«type.genericBoxedName»> prefix, final int prefixSize) {
-				if (prefixSize == 0) {
-					return this;
-				} else {
-					final int length = prefixSize + this.array.length;
-					if (length >= 0) {
-						final «type.javaName»[] result = new «type.javaName»[length];
-						«IF type == Type.OBJECT»
-							fillArray(result, 0, prefix);
-						«ELSE»
-							if (prefix instanceof Container<?>) {
-								((Container<«type.boxedName»>) prefix).foreachWithIndex((final int index, final «type.boxedName» value) ->
-										result[index] = value);
-							} else {
-								fillArray(result, 0, prefix);
-							}
-						«ENDIF»
-						System.arraycopy(this.array, 0, result, prefixSize, this.array.length);
-						return new «diamondName»(result);
+				/**
+				 * O(prefix.size + this.size)
+				 */
+				public BooleanArray prependAll(final Iterable<Boolean> prefix) throws SizeOverflowException {
+					if (this.size == 0) {
+						return ofAll(prefix);
 					} else {
-						throw new SizeOverflowException();
+						return ofAll(prefix).concat(this);
 					}
 				}
-			}
-
-			/**
-			 * O(this.size + suffix.size)
-			 */
-			public «genericName» appendAll(final Iterable<«type.genericBoxedName»> suffix) throws SizeOverflowException {
-				if (this.array.length == 0) {
-					return ofAll(suffix);
-				} else if (suffix instanceof «wildcardName») {
-					return concat((«genericName») suffix);
-				} else if (suffix instanceof Sized && ((Sized) suffix).hasKnownFixedSize()) {
-					return appendSized(suffix, ((Sized) suffix).size());
-				} else {
-					final «arrayBuilderName» builder;
-					if (suffix instanceof Collection<?> && suffix instanceof RandomAccess) {
-						final Collection<?> col = (Collection<?>) suffix;
-						if (col.isEmpty()) {
-							return this;
+			«ELSE»
+				private «genericName» appendSized(final Iterable<«type.genericBoxedName»> suffix, final int suffixSize) {
+					if (suffixSize == 0) {
+						return this;
+					} else {
+						final int length = this.array.length + suffixSize;
+						if (length >= 0) {
+							final «type.javaName»[] result = new «type.javaName»[length];
+							System.arraycopy(this.array, 0, result, 0, this.array.length);
+							«IF type == Type.OBJECT»
+								fillArray(result, this.array.length, suffix);
+							«ELSE»
+								if (suffix instanceof Container<?>) {
+									((Container<«type.boxedName»>) suffix).foreachWithIndex((final int index, final «type.boxedName» value) ->
+											result[this.array.length + index] = value);
+								} else {
+									fillArray(result, this.array.length, suffix);
+								}
+							«ENDIF»
+							return new «diamondName»(result);
 						} else {
-							final int suffixSize = col.size();
-							final int size = this.array.length + suffixSize;
-							if (size < 0) {
-								throw new SizeOverflowException();
-							} else {
-								builder = builderWithCapacity(size);
-								builder.appendArray(this.array);
-							}
+							throw new SizeOverflowException();
 						}
-					} else {
-						builder = new «arrayBuilderDiamondName»(this.array, this.array.length);
 					}
-					if (suffix instanceof «type.containerWildcardName») {
-						((«type.containerGenericName») suffix).foreach(builder::append);
+				}
+
+				private «genericName» prependSized(final Iterable<«type.genericBoxedName»> prefix, final int prefixSize) {
+					if (prefixSize == 0) {
+						return this;
 					} else {
-						suffix.forEach(builder::append);
+						final int length = prefixSize + this.array.length;
+						if (length >= 0) {
+							final «type.javaName»[] result = new «type.javaName»[length];
+							«IF type == Type.OBJECT»
+								fillArray(result, 0, prefix);
+							«ELSE»
+								if (prefix instanceof Container<?>) {
+									((Container<«type.boxedName»>) prefix).foreachWithIndex((final int index, final «type.boxedName» value) ->
+											result[index] = value);
+								} else {
+									fillArray(result, 0, prefix);
+								}
+							«ENDIF»
+							System.arraycopy(this.array, 0, result, prefixSize, this.array.length);
+							return new «diamondName»(result);
+						} else {
+							throw new SizeOverflowException();
+						}
 					}
-					return builder.build();
 				}
-			}
 
-			/**
-			 * O(prefix.size + this.size)
-			 */
-			public «genericName» prependAll(final Iterable<«type.genericBoxedName»> prefix) throws SizeOverflowException {
-				if (this.array.length == 0) {
-					return ofAll(prefix);
-				} else if (prefix instanceof «wildcardName») {
-					return ((«genericName») prefix).concat(this);
-				} else if (prefix instanceof Sized && ((Sized) prefix).hasKnownFixedSize()) {
-					return prependSized(prefix, ((Sized) prefix).size());
-				} else {
-					final «arrayBuilderName» builder;
-					if (prefix instanceof Collection<?> && prefix instanceof RandomAccess) {
-						final Collection<?> col = (Collection<?>) prefix;
-						if (col.isEmpty()) {
-							return this;
-						} else {
-							final int prefixSize = col.size();
-							final int size = prefixSize + this.array.length;
-							if (size < 0) {
-								throw new SizeOverflowException();
+				/**
+				 * O(this.size + suffix.size)
+				 */
+				public «genericName» appendAll(final Iterable<«type.genericBoxedName»> suffix) throws SizeOverflowException {
+					if (this.array.length == 0) {
+						return ofAll(suffix);
+					} else if (suffix instanceof «wildcardName») {
+						return concat((«genericName») suffix);
+					} else if (suffix instanceof Sized && ((Sized) suffix).hasKnownFixedSize()) {
+						return appendSized(suffix, ((Sized) suffix).size());
+					} else {
+						final «arrayBuilderName» builder;
+						if (suffix instanceof Collection<?> && suffix instanceof RandomAccess) {
+							final Collection<?> col = (Collection<?>) suffix;
+							if (col.isEmpty()) {
+								return this;
 							} else {
-								builder = builderWithCapacity(size);
+								final int suffixSize = col.size();
+								final int size = this.array.length + suffixSize;
+								if (size < 0) {
+									throw new SizeOverflowException();
+								} else {
+									builder = builderWithCapacity(size);
+									builder.appendArray(this.array);
+								}
 							}
+						} else {
+							builder = new «arrayBuilderDiamondName»(this.array, this.array.length);
 						}
-					} else {
-						builder = builder();
+						if (suffix instanceof «type.containerWildcardName») {
+							((«type.containerGenericName») suffix).foreach(builder::append);
+						} else {
+							suffix.forEach(builder::append);
+						}
+						return builder.build();
 					}
-					if (prefix instanceof «type.containerWildcardName») {
-						((«type.containerGenericName») prefix).foreach(builder::append);
+				}
+
+				/**
+				 * O(prefix.size + this.size)
+				 */
+				public «genericName» prependAll(final Iterable<«type.genericBoxedName»> prefix) throws SizeOverflowException {
+					if (this.array.length == 0) {
+						return ofAll(prefix);
+					} else if (prefix instanceof «wildcardName») {
+						return ((«genericName») prefix).concat(this);
+					} else if (prefix instanceof Sized && ((Sized) prefix).hasKnownFixedSize()) {
+						return prependSized(prefix, ((Sized) prefix).size());
 					} else {
-						prefix.forEach(builder::append);
+						final «arrayBuilderName» builder;
+						if (prefix instanceof Collection<?> && prefix instanceof RandomAccess) {
+							final Collection<?> col = (Collection<?>) prefix;
+							if (col.isEmpty()) {
+								return this;
+							} else {
+								final int prefixSize = col.size();
+								final int size = prefixSize + this.array.length;
+								if (size < 0) {
+									throw new SizeOverflowException();
+								} else {
+									builder = builderWithCapacity(size);
+								}
+							}
+						} else {
+							builder = builder();
+						}
+						if (prefix instanceof «type.containerWildcardName») {
+							((«type.containerGenericName») prefix).foreach(builder::append);
+						} else {
+							prefix.forEach(builder::append);
+						}
+						builder.appendArray(this.array);
+						return builder.build();
 					}
-					builder.appendArray(this.array);
-					return builder.build();
 				}
-			}
+			«ENDIF»
 
+			/**
+			 * O(size). Use {@link #sliceView} to get a slice without copying.
+			 */
 			public final «genericName» slice(final int fromIndexInclusive, final int toIndexExclusive) {
-				sliceRangeCheck(fromIndexInclusive, toIndexExclusive, this.array.length);
-				if (fromIndexInclusive == 0 && toIndexExclusive == this.array.length) {
+				sliceRangeCheck(fromIndexInclusive, toIndexExclusive, «length»);
+				if (fromIndexInclusive == 0 && toIndexExclusive == «length») {
 					return this;
 				} else if (fromIndexInclusive == toIndexExclusive) {
 					return empty«shortName»();
 				} else {
-					final «type.javaName»[] result = new «type.javaName»[toIndexExclusive - fromIndexInclusive];
-					System.arraycopy(this.array, fromIndexInclusive, result, 0, toIndexExclusive - fromIndexInclusive);
-					return new «diamondName»(result);
+					«IF type == Type.BOOLEAN»
+						final int size = toIndexExclusive - fromIndexInclusive;
+						final long[] result = allocateWords(size);
+						copyBits(this.words, fromIndexInclusive, result, 0, size);
+						return new BooleanArray(result, size);
+					«ELSE»
+						final «type.javaName»[] result = new «type.javaName»[toIndexExclusive - fromIndexInclusive];
+						System.arraycopy(this.array, fromIndexInclusive, result, 0, toIndexExclusive - fromIndexInclusive);
+						return new «diamondName»(result);
+					«ENDIF»
 				}
 			}
 
+			/**
+			 * Returns a view of the elements from fromIndexInclusive to toIndexExclusive
+			 * that shares the underlying array with this array.
+			 * O(1)
+			 */
+			public final «type.genericName("ArraySlice")» sliceView(final int fromIndexInclusive, final int toIndexExclusive) {
+				sliceRangeCheck(fromIndexInclusive, toIndexExclusive, «length»);
+				return new «type.diamondName("ArraySlice")»(«IF type == Type.BOOLEAN»this«ELSE»this.array«ENDIF», fromIndexInclusive, toIndexExclusive - fromIndexInclusive);
+			}
+
 			public «genericName» reverse() {
-				if (this.array.length == 0 || this.array.length == 1) {
+				if («length» == 0 || «length» == 1) {
 					return this;
 				} else {
-					final «type.javaName»[] result = new «type.javaName»[this.array.length];
-					for (int i = 0; i < this.array.length; i++) {
-						result[this.array.length - i - 1] = this.array[i];
-					}
-					return new «diamondName»(result);
+					«IF type == Type.BOOLEAN»
+						// Reversing the words moves the first element to the bit (-size & 63) of the last word,
+						// so the reversed words are shifted right by that amount
+						final int shift = -this.size & 63;
+						final long[] result = new long[this.words.length];
+						for (int i = 0; i < result.length; i++) {
+							final long word = Long.reverse(this.words[result.length - i - 1]);
+							if (shift == 0) {
+								result[i] = word;
+							} else {
+								result[i] = word >>> shift;
+								if (i > 0) {
+									result[i - 1] |= word << (64 - shift);
+								}
+							}
+						}
+						return new BooleanArray(result, this.size);
+					«ELSE»
+						final «type.javaName»[] result = new «type.javaName»[this.array.length];
+						for (int i = 0; i < this.array.length; i++) {
+							result[this.array.length - i - 1] = this.array[i];
+						}
+						return new «diamondName»(result);
+					«ENDIF»
 				}
 			}
 
@@ -416,9 +610,9 @@ final class ArrayGenerator implements ClassGenerator {
 						return (Array<B>) this;
 				«ENDIF»
 				} else {
-					final Object[] result = new Object[this.array.length];
-					for (int i = 0; i < this.array.length; i++) {
-						result[i] = requireNonNull(f.apply(«type.genericCast»this.array[i]));
+					final Object[] result = new Object[«length»];
+					for (int i = 0; i < «length»; i++) {
+						result[i] = requireNonNull(f.apply(«elem("i")»));
 					}
 					return new Array<>(result);
 				}
@@ -434,9 +628,9 @@ final class ArrayGenerator implements ClassGenerator {
 						return this;
 					«ENDIF»
 					} else {
-						final «toType.javaName»[] result = new «toType.javaName»[this.array.length];
-						for (int i = 0; i < this.array.length; i++) {
-							result[i] = f.apply(«type.genericCast»this.array[i]);
+						final «toType.javaName»[] result = new «toType.javaName»[«length»];
+						for (int i = 0; i < «length»; i++) {
+							result[i] = f.apply(«elem("i")»);
 						}
 						return new «toType.typeName»Array(result);
 					}
@@ -451,9 +645,9 @@ final class ArrayGenerator implements ClassGenerator {
 				if (isEmpty()) {
 					return emptyArray();
 				} else {
-					final Object[] result = new Object[this.array.length];
-					for (int i = 0; i < this.array.length; i++) {
-						result[i] = requireNonNull(f.apply(i, «IF type == Type.OBJECT»(A) «ENDIF»this.array[i]));
+					final Object[] result = new Object[«length»];
+					for (int i = 0; i < «length»; i++) {
+						result[i] = requireNonNull(f.apply(i, «elem("i")»));
 					}
 					return new Array<>(result);
 				}
@@ -473,9 +667,7 @@ final class ArrayGenerator implements ClassGenerator {
 					«ELSE»
 						final ArrayBuilder<A> builder = Array.builder();
 					«ENDIF»
-					for (final «type.javaName» value : this.array) {
-						builder.appendAll(f.apply(«type.genericCast»value));
-					}
+					«loop('''builder.appendAll(f.apply(«type.genericCast»value));''')»
 					return builder.build();
 				}
 			}
@@ -491,9 +683,7 @@ final class ArrayGenerator implements ClassGenerator {
 						return empty«toType.arrayShortName»();
 					} else {
 						final «toType.arrayBuilderGenericName» builder = «toType.arrayShortName».builder();
-						for (final «type.javaName» value : this.array) {
-							builder.appendAll(f.apply(«type.genericCast»value));
-						}
+						«loop('''builder.appendAll(f.apply(«type.genericCast»value));''')»
 						return builder.build();
 					}
 				}
@@ -505,12 +695,12 @@ final class ArrayGenerator implements ClassGenerator {
 					return empty«shortName»();
 				} else {
 					final «arrayBuilderName» builder = builder();
-					for (final «type.javaName» value : this.array) {
+					«loop('''
 						if (predicate.apply(«type.genericCast»value)) {
 							builder.append(«type.genericCast»value);
 						}
-					}
-					if (builder.size() == this.array.length) {
+					''')»
+					if (builder.size() == «length») {
 						return this;
 					} else {
 						return builder.build();
@@ -530,67 +720,78 @@ final class ArrayGenerator implements ClassGenerator {
 					throw new IllegalArgumentException(Integer.toString(n));
 				} else if (n == 0) {
 					return empty«shortName»();
-				} else if (n >= this.array.length) {
+				} else if (n >= «length») {
 					return this;
 				} else {
-					final «type.javaName»[] result = new «type.javaName»[n];
-					System.arraycopy(this.array, 0, result, 0, n);
-					return new «diamondName»(result);
+					«IF type == Type.BOOLEAN»
+						final long[] result = Arrays.copyOf(this.words, wordCount(n));
+						if ((n & 63) != 0) {
+							result[result.length - 1] &= (1L << n) - 1;
+						}
+						return new BooleanArray(result, n);
+					«ELSE»
+						final «type.javaName»[] result = new «type.javaName»[n];
+						System.arraycopy(this.array, 0, result, 0, n);
+						return new «diamondName»(result);
+					«ENDIF»
 				}
 			}
 
 			public «genericName» skip(final int n) {
 				if (n < 0) {
 					throw new IllegalArgumentException(Integer.toString(n));
-				} else if (n >= this.array.length) {
+				} else if (n >= «length») {
 					return empty«shortName»();
 				} else if (n == 0) {
 					return this;
 				} else {
-					final «type.javaName»[] result = new «type.javaName»[this.array.length - n];
-					System.arraycopy(this.array, n, result, 0, result.length);
-					return new «diamondName»(result);
+					«IF type == Type.BOOLEAN»
+						final int size = this.size - n;
+						final long[] result = allocateWords(size);
+						copyBits(this.words, n, result, 0, size);
+						return new BooleanArray(result, size);
+					«ELSE»
+						final «type.javaName»[] result = new «type.javaName»[this.array.length - n];
+						System.arraycopy(this.array, n, result, 0, result.length);
+						return new «diamondName»(result);
+					«ENDIF»
 				}
 			}
 
 			public «genericName» takeWhile(final «type.boolFName» predicate) {
 				int n = 0;
-				for (final «type.javaName» value : this.array) {
+				«loop('''
 					if (predicate.apply(«type.genericCast»value)) {
 						n++;
 					} else {
 						break;
 					}
-				}
+				''')»
 				return limit(n);
 			}
 
 			public «genericName» dropWhile(final «type.boolFName» predicate) {
 				int n = 0;
-				for (final «type.javaName» value : this.array) {
+				«loop('''
 					if (predicate.apply(«type.genericCast»value)) {
 						n++;
 					} else {
 						break;
 					}
-				}
+				''')»
 				return skip(n);
 			}
 
 			@Override
 			public void forEach(final Consumer<? super «type.genericBoxedName»> action) {
 				requireNonNull(action);
-				for (final «type.javaName» value : this.array) {
-					action.accept(«type.genericCast»value);
-				}
+				«loop('''action.accept(«type.genericCast»value);''')»
 			}
 
 			@Override
 			public void foreach(final «type.effGenericName» eff) {
 				requireNonNull(eff);
-				for (final «type.javaName» value : this.array) {
-					eff.apply(«type.genericCast»value);
-				}
+				«loop('''eff.apply(«type.genericCast»value);''')»
 			}
 
 			@Override
@@ -600,22 +801,88 @@ final class ArrayGenerator implements ClassGenerator {
 				public void foreachWithIndex(final Int«type.typeName»Eff2 eff) {
 			«ENDIF»
 				requireNonNull(eff);
-				for (int i = 0; i < this.array.length; i++) {
-					eff.apply(i, «type.genericCast»this.array[i]);
+				for (int i = 0; i < «length»; i++) {
+					eff.apply(i, «elem("i")»);
 				}
 			}
 
 			@Override
 			public boolean foreachUntil(final «type.boolFName» eff) {
 				requireNonNull(eff);
-				for (final «type.javaName» value : this.array) {
+				«loop('''
 					if (!eff.apply(«type.genericCast»value)) {
 						return false;
 					}
-				}
+				''')»
 				return true;
 			}
 
+			«IF type.javaUnboxedType»
+				/**
+				 * Applies eff to the whole underlying array
+				 */
+				public void foreachChunk(final «type.typeName»ChunkEff eff) {
+					requireNonNull(eff);
+					if (this.array.length != 0) {
+						eff.apply(this.array, 0, this.array.length);
+					}
+				}
+
+				/**
+				 * Returns an iterator over a single chunk holding a copy of the underlying array.
+				 * Use {@link #foreachChunk} to read the underlying array without copying it.
+				 * O(size)
+				 */
+				public Iterator<«type.javaName»[]> chunkIterator() {
+					if (this.array.length == 0) {
+						return emptyIterator();
+					} else {
+						return singletonList(this.array.clone()).iterator();
+					}
+				}
+
+				«ContainerGenerator.loopAggregates(type, [body | '''
+					for (final «type.javaName» a : this.array) {
+						«body»
+					}
+				'''], false)»
+			«ELSEIF type == Type.BOOLEAN»
+				/**
+				 * O(size / 64)
+				 */
+				public int countTrue() {
+					int count = 0;
+					for (final long word : this.words) {
+						count += Long.bitCount(word);
+					}
+					return count;
+				}
+
+				/**
+				 * O(size / 64)
+				 */
+				public int countFalse() {
+					return this.size - countTrue();
+				}
+
+				/**
+				 * O(size / 64)
+				 */
+				@Override
+				public boolean contains(final boolean value) {
+					if (value) {
+						for (final long word : this.words) {
+							if (word != 0) {
+								return true;
+							}
+						}
+						return false;
+					} else {
+						return (countTrue() < this.size);
+					}
+				}
+
+			«ENDIF»
 			@Override
 			@Deprecated
 			public «type.arrayGenericName» to«type.arrayShortName»() {
@@ -634,23 +901,39 @@ final class ArrayGenerator implements ClassGenerator {
 			«ELSE»
 				@Override
 				public «type.typeName»Seq to«type.typeName»Seq() {
-					if (this.array.length == 0) {
+					if («length» == 0) {
 						return «type.typeName»Seq.empty«type.typeName»Seq();
 					} else {
-						return «type.typeName»Seq.seqFromSharedArray(this.array);
+						«IF type == Type.BOOLEAN»
+							return new BooleanPackedSeq(LongSeq.seqFromSharedArray(this.words), 0, this.size);
+						«ELSE»
+							return «type.typeName»Seq.seqFromSharedArray(this.array);
+						«ENDIF»
 					}
 				}
 			«ENDIF»
 
 			@Override
 			public «type.javaName»[] «type.toArrayName»() {
-				if (this.array.length == 0) {
-					return this.array;
-				} else {
-					final «type.javaName»[] result = new «type.javaName»[this.array.length];
-					System.arraycopy(this.array, 0, result, 0, this.array.length);
-					return result;
-				}
+				«IF type == Type.BOOLEAN»
+					if (this.size == 0) {
+						return EMPTY_BOOLEAN_ARRAY;
+					} else {
+						final boolean[] result = new boolean[this.size];
+						for (int i = 0; i < this.size; i++) {
+							result[i] = bit(this.words, i);
+						}
+						return result;
+					}
+				«ELSE»
+					if (this.array.length == 0) {
+						return this.array;
+					} else {
+						final «type.javaName»[] result = new «type.javaName»[this.array.length];
+						System.arraycopy(this.array, 0, result, 0, this.array.length);
+						return result;
+					}
+				«ENDIF»
 			}
 			«IF type == Type.OBJECT»
 
@@ -663,69 +946,98 @@ final class ArrayGenerator implements ClassGenerator {
 			«ENDIF»
 
 			«IF type == Type.OBJECT»
+				/**
+				 * Stable sort
+				 */
 				public Array<A> sort(final Ord<A> ord) {
+					return sort(ord, false);
+				}
+
+				/**
+				 * Stable sort that uses {@link Arrays#parallelSort} for large arrays
+				 */
+				public Array<A> parallelSort(final Ord<A> ord) {
+					return sort(ord, true);
+				}
+
+				private Array<A> sort(final Ord<A> ord, final boolean parallel) {
 					requireNonNull(ord);
 					if (this.array.length <= 1) {
 						return this;
 					} else {
 						final Object[] sorted = new Object[this.array.length];
 						System.arraycopy(this.array, 0, sorted, 0, this.array.length);
-						Arrays.sort(sorted, (Ord<Object>) ord);
+						if (parallel) {
+							Arrays.parallelSort(sorted, (Ord<Object>) ord);
+						} else {
+							Arrays.sort(sorted, (Ord<Object>) ord);
+						}
 						return new Array<>(sorted);
 					}
 				}
 			«ELSEIF type == Type.BOOLEAN»
-				public «genericName» sortAsc() {
-					if (this.array.length <= 1) {
+				/**
+				 * O(size / 64)
+				 */
+				public BooleanArray sortAsc() {
+					if (this.size <= 1) {
 						return this;
 					} else {
-						int countTrue = 0;
-						for (final boolean value : this.array) {
-							if (value) {
-								countTrue++;
-							}
-						}
-						final boolean[] sorted = new boolean[this.array.length];
-						Arrays.fill(sorted, this.array.length - countTrue, this.array.length, true);
-						return new BooleanArray(sorted);
+						final long[] sorted = allocateWords(this.size);
+						setBits(sorted, this.size - countTrue(), this.size);
+						return new BooleanArray(sorted, this.size);
 					}
 				}
 
-				public «genericName» sortDesc() {
-					if (this.array.length <= 1) {
+				/**
+				 * O(size / 64)
+				 */
+				public BooleanArray sortDesc() {
+					if (this.size <= 1) {
 						return this;
 					} else {
-						int countTrue = 0;
-						for (final boolean value : this.array) {
-							if (value) {
-								countTrue++;
-							}
-						}
-						final boolean[] sorted = new boolean[this.array.length];
-						Arrays.fill(sorted, 0, countTrue, true);
-						return new BooleanArray(sorted);
+						final long[] sorted = allocateWords(this.size);
+						setBits(sorted, 0, countTrue());
+						return new BooleanArray(sorted, this.size);
 					}
 				}
 			«ELSE»
 				public «genericName» sortAsc() {
-					if (this.array.length <= 1) {
-						return this;
-					} else {
-						final «type.javaName»[] sorted = new «type.javaName»[this.array.length];
-						System.arraycopy(this.array, 0, sorted, 0, this.array.length);
-						Arrays.sort(sorted);
-						return new «diamondName»(sorted);
-					}
+					return sort(false, false);
 				}
 
 				public «genericName» sortDesc() {
+					return sort(true, false);
+				}
+
+				/**
+				 * Uses {@link Arrays#parallelSort} for large arrays
+				 */
+				public «genericName» parallelSortAsc() {
+					return sort(false, true);
+				}
+
+				/**
+				 * Uses {@link Arrays#parallelSort} for large arrays
+				 */
+				public «genericName» parallelSortDesc() {
+					return sort(true, true);
+				}
+
+				private «genericName» sort(final boolean desc, final boolean parallel) {
 					if (this.array.length <= 1) {
 						return this;
 					} else {
 						final «type.javaName»[] sorted = new «type.javaName»[this.array.length];
 						System.arraycopy(this.array, 0, sorted, 0, this.array.length);
-						Arrays.sort(sorted);
-						Common.reverse«shortName»(sorted);
+						if (parallel) {
+							Arrays.parallelSort(sorted);
+						} else {
+							Arrays.sort(sorted);
+						}
+						if (desc) {
+							Common.reverse«shortName»(sorted);
+						}
 						return new «diamondName»(sorted);
 					}
 				}
@@ -736,7 +1048,7 @@ final class ArrayGenerator implements ClassGenerator {
 				«IF type.javaUnboxedType»
 					return isEmpty() ? «type.noneName»().iterator() : new «shortName»Iterator(this.array);
 				«ELSE»
-					return isEmpty() ? emptyIterator() : new «shortName»Iterator«IF type == Type.OBJECT»<>«ENDIF»(this.array);
+					return isEmpty() ? emptyIterator() : new «IF type == Type.BOOLEAN»BooleanWordsIterator(this.words, this.size)«ELSE»«shortName»Iterator«IF type == Type.OBJECT»<>«ENDIF»(this.array)«ENDIF»;
 				«ENDIF»
 			}
 
@@ -745,7 +1057,7 @@ final class ArrayGenerator implements ClassGenerator {
 				«IF type.javaUnboxedType»
 					return isEmpty() ? «type.noneName»().iterator() : new «shortName»ReverseIterator(this.array);
 				«ELSE»
-					return isEmpty() ? emptyIterator() : new «shortName»ReverseIterator«IF type == Type.OBJECT»<>«ENDIF»(this.array);
+					return isEmpty() ? emptyIterator() : new «IF type == Type.BOOLEAN»BooleanWordsReverseIterator(this.words, this.size)«ELSE»«shortName»ReverseIterator«IF type == Type.OBJECT»<>«ENDIF»(this.array)«ENDIF»;
 				«ENDIF»
 			}
 
@@ -757,12 +1069,24 @@ final class ArrayGenerator implements ClassGenerator {
 			«ELSE»
 				public Spliterator.Of«type.typeName» spliterator() {
 			«ENDIF»
-				return Spliterators.spliterator(«IF type == Type.BOOLEAN»new BooleanArrayIterator(this.array), size()«ELSE»this.array«ENDIF», Spliterator.NONNULL | Spliterator.ORDERED | Spliterator.IMMUTABLE);
+				«IF type == Type.BOOLEAN»
+					return Spliterators.spliterator(new BooleanWordsIterator(this.words, this.size), this.size, Spliterator.NONNULL | Spliterator.ORDERED | Spliterator.IMMUTABLE);
+				«ELSE»
+					return Spliterators.spliterator(this.array, Spliterator.NONNULL | Spliterator.ORDERED | Spliterator.IMMUTABLE);
+				«ENDIF»
 			}
 
 			@Override
 			public int hashCode() {
-				return Arrays.hashCode(this.array);
+				«IF type == Type.BOOLEAN»
+					int hashCode = 1;
+					for (int i = 0; i < this.size; i++) {
+						hashCode = 31 * hashCode + Boolean.hashCode(bit(this.words, i));
+					}
+					return hashCode;
+				«ELSE»
+					return Arrays.hashCode(this.array);
+				«ENDIF»
 			}
 
 			«indexedEquals(type)»
@@ -771,16 +1095,87 @@ final class ArrayGenerator implements ClassGenerator {
 				if (other == this) {
 					return true;
 				} else {
-					return Arrays.equals(this.array, other.array);
+					«IF type == Type.BOOLEAN»
+						return (this.size == other.size) && Arrays.equals(this.words, other.words);
+					«ELSE»
+						return Arrays.equals(this.array, other.array);
+					«ENDIF»
 				}
 			}
 
 			@Override
 			public String toString() {
-				return Arrays.toString(this.array);
+				return Arrays.toString(«sharedArray»);
 			}
 
 			«transform(genericName)»
+			«IF type == Type.BOOLEAN»
+
+				private static boolean bit(final long[] words, final int index) {
+					return (words[index >>> 6] & (1L << index)) != 0;
+				}
+
+				private static int wordCount(final int size) {
+					return (size + 63) >>> 6;
+				}
+
+				private static long[] allocateWords(final int size) {
+					return (size == 0) ? EMPTY_LONG_ARRAY : new long[wordCount(size)];
+				}
+
+				private static int newSize(final int size, final int added) throws SizeOverflowException {
+					final int newSize = size + added;
+					if (newSize < 0) {
+						throw new SizeOverflowException();
+					} else {
+						return newSize;
+					}
+				}
+
+				private static long[] pack(final boolean[] array) {
+					final long[] words = allocateWords(array.length);
+					for (int i = 0; i < array.length; i++) {
+						if (array[i]) {
+							words[i >>> 6] |= (1L << i);
+						}
+					}
+					return words;
+				}
+
+				// Assume that the bits [from, to) of words are zero
+				private static void setBits(final long[] words, final int from, final int to) {
+					for (int i = from; i < to; ) {
+						final int n = Math.min(64 - (i & 63), to - i);
+						words[i >>> 6] |= lowBits(n) << i;
+						i += n;
+					}
+				}
+
+				// Assume that the bits [dstPos, dstPos + length) of dst are zero
+				private static void copyBits(final long[] src, final int srcPos, final long[] dst, final int dstPos, final int length) {
+					for (int i = 0; i < length; ) {
+						final int to = dstPos + i;
+						final int n = Math.min(64 - (to & 63), length - i);
+						dst[to >>> 6] |= readBits(src, srcPos + i, n) << to;
+						i += n;
+					}
+				}
+
+				// Returns n (1 <= n <= 64) bits of words starting at pos
+				private static long readBits(final long[] words, final int pos, final int n) {
+					final int index = pos >>> 6;
+					final int offset = pos & 63;
+					long bits = words[index] >>> offset;
+					if (offset != 0 && offset + n > 64) {
+						bits |= words[index + 1] << (64 - offset);
+					}
+					return bits & lowBits(n);
+				}
+
+				private static long lowBits(final int n) {
+					return (n == 64) ? -1L : (1L << n) - 1;
+				}
+			«ENDIF»
 
 			public static «paramGenericName» empty«shortName»() {
 				«IF type == Type.OBJECT»
@@ -794,7 +1189,11 @@ final class ArrayGenerator implements ClassGenerator {
 				«IF type == Type.OBJECT»
 					requireNonNull(value);
 				«ENDIF»
-				return new «diamondName»(new «type.javaName»[] { value });
+				«IF type == Type.BOOLEAN»
+					return new BooleanArray(new long[] { value ? 1L : 0L }, 1);
+				«ELSE»
+					return new «diamondName»(new «type.javaName»[] { value });
+				«ENDIF»
 			}
 
 			static «paramGenericName» create(final «type.javaName»[] array) {
@@ -809,18 +1208,23 @@ final class ArrayGenerator implements ClassGenerator {
 				@SafeVarargs
 			«ENDIF»
 			public static «paramGenericName» «shortName.firstToLowerCase»(final «type.genericName»... values) {
-				if (values.length == 0) {
-					return empty«shortName»();
-				} else {
-					«IF type == Type.OBJECT»
-						for (final Object a : values) {
-							requireNonNull(a);
-						}
-					«ENDIF»
-					final «type.javaName»[] array = new «type.javaName»[values.length];
-					System.arraycopy(values, 0, array, 0, values.length);
-					return new «diamondName»(array);
-				}
+				«IF type == Type.BOOLEAN»
+					// Packing copies the values
+					return create(values);
+				«ELSE»
+					if (values.length == 0) {
+						return empty«shortName»();
+					} else {
+						«IF type == Type.OBJECT»
+							for (final Object a : values) {
+								requireNonNull(a);
+							}
+						«ENDIF»
+						final «type.javaName»[] array = new «type.javaName»[values.length];
+						System.arraycopy(values, 0, array, 0, values.length);
+						return new «diamondName»(array);
+					}
+				«ENDIF»
 			}
 
 			«javadocSynonym(shortName.firstToLowerCase)»
@@ -840,6 +1244,14 @@ final class ArrayGenerator implements ClassGenerator {
 					return array.sort(desc());
 				}
 
+				public static <A extends Comparable<A>> Array<A> parallelSortAsc(final Array<A> array) {
+					return array.parallelSort(asc());
+				}
+
+				public static <A extends Comparable<A>> Array<A> parallelSortDesc(final Array<A> array) {
+					return array.parallelSort(desc());
+				}
+
 			«ENDIF»
 			public static «paramGenericName» repeat(final int size, final «type.genericName» value) {
 				«IF type == Type.OBJECT»
@@ -850,9 +1262,17 @@ final class ArrayGenerator implements ClassGenerator {
 				} else if (size == 0) {
 					return empty«shortName»();
 				} else {
-					final «type.javaName»[] array = new «type.javaName»[size];
-					Arrays.fill(array, value);
-					return new «diamondName»(array);
+					«IF type == Type.BOOLEAN»
+						final long[] words = allocateWords(size);
+						if (value) {
+							setBits(words, 0, size);
+						}
+						return new BooleanArray(words, size);
+					«ELSE»
+						final «type.javaName»[] array = new «type.javaName»[size];
+						Arrays.fill(array, value);
+						return new «diamondName»(array);
+					«ENDIF»
 				}
 			}
 
@@ -867,15 +1287,25 @@ final class ArrayGenerator implements ClassGenerator {
 				} else if (size == 0) {
 					return empty«shortName»();
 				} else {
-					final «type.javaName»[] array = new «type.javaName»[size];
-					for (int i = 0; i < size; i++) {
-						«IF type == Type.OBJECT»
-							array[i] = requireNonNull(f.apply(i));
-						«ELSE»
-							array[i] = f.apply(i);
-						«ENDIF»
-					}
-					return new «diamondName»(array);
+					«IF type == Type.BOOLEAN»
+						final long[] words = allocateWords(size);
+						for (int i = 0; i < size; i++) {
+							if (f.apply(i)) {
+								words[i >>> 6] |= (1L << i);
+							}
+						}
+						return new BooleanArray(words, size);
+					«ELSE»
+						final «type.javaName»[] array = new «type.javaName»[size];
+						for (int i = 0; i < size; i++) {
+							«IF type == Type.OBJECT»
+								array[i] = requireNonNull(f.apply(i));
+							«ELSE»
+								array[i] = f.apply(i);
+							«ENDIF»
+						}
+						return new «diamondName»(array);
+					«ENDIF»
 				}
 			}
 
@@ -985,7 +1415,7 @@ final class ArrayGenerator implements ClassGenerator {
 				} else {
 					int size = 0;
 					for (final «genericName» array : arrays) {
-						size += array.array.length;
+						size += array.«IF type == Type.BOOLEAN»size«ELSE»array.length«ENDIF»;
 						if (size < 0) {
 							throw new SizeOverflowException();
 						}
@@ -993,13 +1423,23 @@ final class ArrayGenerator implements ClassGenerator {
 					if (size == 0) {
 						return empty«shortName»();
 					} else {
-						final «type.javaName»[] result = new «type.javaName»[size];
-						int pos = 0;
-						for (final «genericName» array : arrays) {
-							System.arraycopy(array.array, 0, result, pos, array.array.length);
-							pos += array.array.length;
-						}
-						return new «diamondName»(result);
+						«IF type == Type.BOOLEAN»
+							final long[] result = allocateWords(size);
+							int pos = 0;
+							for (final BooleanArray array : arrays) {
+								copyBits(array.words, 0, result, pos, array.size);
+								pos += array.size;
+							}
+							return new BooleanArray(result, size);
+						«ELSE»
+							final «type.javaName»[] result = new «type.javaName»[size];
+							int pos = 0;
+							for (final «genericName» array : arrays) {
+								System.arraycopy(array.array, 0, result, pos, array.array.length);
+								pos += array.array.length;
+							}
+							return new «diamondName»(result);
+						«ENDIF»
 					}
 				}
 			}
@@ -1029,5 +1469,58 @@ final class ArrayGenerator implements ClassGenerator {
 				«cast(#["A"], #[], #["A"])»
 			«ENDIF»
 		}
+		«IF type == Type.BOOLEAN»
+
+			final class BooleanWordsIterator implements Iterator<Boolean> {
+				private final long[] words;
+				private final int size;
+				private int i;
+
+				BooleanWordsIterator(final long[] words, final int size) {
+					this.words = words;
+					this.size = size;
+				}
+
+				@Override
+				public boolean hasNext() {
+					return (this.i < this.size);
+				}
+
+				@Override
+				public Boolean next() {
+					if (this.i < this.size) {
+						final int index = this.i++;
+						return (this.words[index >>> 6] & (1L << index)) != 0;
+					} else {
+						throw new NoSuchElementException();
+					}
+				}
+			}
+
+			final class BooleanWordsReverseIterator implements Iterator<Boolean> {
+				private final long[] words;
+				private int i;
+
+				BooleanWordsReverseIterator(final long[] words, final int size) {
+					this.words = words;
+					this.i = size - 1;
+				}
+
+				@Override
+				public boolean hasNext() {
+					return (this.i >= 0);
+				}
+
+				@Override
+				public Boolean next() {
+					if (this.i >= 0) {
+						final int index = this.i--;
+						return (this.words[index >>> 6] & (1L << index)) != 0;
+					} else {
+						throw new NoSuchElementException();
+					}
+				}
+			}
+		«ENDIF»
 	''' }
 }
@@ -0,0 +1,312 @@
+package jcats.generator.collection
+
+import java.util.List
+import jcats.generator.ClassGenerator
+import jcats.generator.Constants
+import jcats.generator.Generator
+import jcats.generator.Type
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+
+@FinalFieldsConstructor
+final class ArraySliceGenerator implements ClassGenerator {
+	val Type type
+
+	def static List<Generator> generators() {
+		Type.values.toList.map[new ArraySliceGenerator(it) as Generator]
+	}
+
+	override className() { Constants.COLLECTION + "." + shortName }
+	def shortName() { type.shortName("ArraySlice") }
+	def genericName() { type.genericName("ArraySlice") }
+	def diamondName() { type.diamondName("ArraySlice") }
+	def iteratorShortName() { type.shortName("ArraySliceIterator") }
+	def reverseIteratorShortName() { type.shortName("ArraySliceReverseIterator") }
+
+	// BooleanArray is packed, so its slices read through BooleanArray.get
+	def arrayType() { if (type == Type.BOOLEAN) "BooleanArray" else type.javaName + "[]" }
+	def elem(String index) { if (type == Type.BOOLEAN) '''this.array.get(«index»)''' else '''«type.genericCast»this.array[«index»]''' }
+
+	override sourceCode() '''
+		package «Constants.COLLECTION»;
+
+		import java.io.Serializable;
+		«IF type != Type.BOOLEAN»
+			import java.util.Arrays;
+		«ENDIF»
+		import java.util.NoSuchElementException;
+		«IF type.javaUnboxedType»
+			import java.util.PrimitiveIterator;
+			import java.util.function.«type.typeName»Consumer;
+		«ELSE»
+			import java.util.Iterator;
+			import java.util.function.Consumer;
+		«ENDIF»
+		import java.util.Spliterator;
+		import java.util.Spliterators;
+
+		import «Constants.JCATS».*;
+		import «Constants.FUNCTION».*;
+
+		import static java.util.Objects.requireNonNull;
+		import static «Constants.COMMON».*;
+
+		/**
+		 * Read-only view of the elements of {@link «type.arrayShortName»} from {@code from} (inclusive)
+		 * to {@code from + size} (exclusive). The underlying array is shared, so creating a slice
+		 * and slicing it further is O(1).
+		 *
+		 * <p>A slice keeps the whole underlying array reachable. Use {@link #compact()}
+		 * to copy the elements of a small slice of a large array into an array of their own.
+		 */
+		public final class «type.covariantName("ArraySlice")» implements «type.indexedContainerViewGenericName», Serializable {
+			private final «arrayType» array;
+			private final int from;
+			private final int size;
+
+			«shortName»(final «arrayType» array, final int from, final int size) {
+				this.array = array;
+				this.from = from;
+				this.size = size;
+			}
+
+			/**
+			 * O(1)
+			 */
+			@Override
+			public int size() {
+				return this.size;
+			}
+
+			@Override
+			public boolean hasKnownFixedSize() {
+				return true;
+			}
+
+			/**
+			 * O(1)
+			 */
+			@Override
+			public «type.genericName» get(final int index) throws IndexOutOfBoundsException {
+				if (index >= 0 && index < this.size) {
+					return «elem("this.from + index")»;
+				} else {
+					«indexOutOfBounds»
+				}
+			}
+
+			@Override
+			public void foreach(final «type.effGenericName» eff) {
+				requireNonNull(eff);
+				final int to = this.from + this.size;
+				for (int i = this.from; i < to; i++) {
+					eff.apply(«elem("i")»);
+				}
+			}
+
+			@Override
+			public void foreachWithIndex(final «type.intEff2GenericName» eff) {
+				requireNonNull(eff);
+				for (int i = 0; i < this.size; i++) {
+					eff.apply(i, «elem("this.from + i")»);
+				}
+			}
+
+			@Override
+			public boolean foreachUntil(final «type.boolFName» eff) {
+				requireNonNull(eff);
+				final int to = this.from + this.size;
+				for (int i = this.from; i < to; i++) {
+					if (!eff.apply(«elem("i")»)) {
+						return false;
+					}
+				}
+				return true;
+			}
+
+			@Override
+			public «type.iteratorGenericName» iterator() {
+				return new «type.diamondName("ArraySliceIterator")»(this.array, this.from, this.from + this.size);
+			}
+
+			@Override
+			public «type.iteratorGenericName» reverseIterator() {
+				return new «type.diamondName("ArraySliceReverseIterator")»(this.array, this.from, this.from + this.size);
+			}
+
+			@Override
+			public «type.spliteratorGenericName» spliterator() {
+				«IF type == Type.BOOLEAN»
+					return Spliterators.spliterator(iterator(), this.size, Spliterator.NONNULL | Spliterator.ORDERED | Spliterator.IMMUTABLE);
+				«ELSE»
+					return Spliterators.spliterator(this.array, this.from, this.from + this.size, Spliterator.NONNULL | Spliterator.ORDERED | Spliterator.IMMUTABLE);
+				«ENDIF»
+			}
+
+			/**
+			 * O(1)
+			 */
+			@Override
+			public «genericName» slice(final int fromIndexInclusive, final int toIndexExclusive) throws IndexOutOfBoundsException {
+				sliceRangeCheck(fromIndexInclusive, toIndexExclusive, this.size);
+				if (fromIndexInclusive == 0 && toIndexExclusive == this.size) {
+					return this;
+				} else {
+					return new «diamondName»(this.array, this.from + fromIndexInclusive, toIndexExclusive - fromIndexInclusive);
+				}
+			}
+
+			/**
+			 * O(1)
+			 */
+			@Override
+			public «genericName» limit(final int n) {
+				if (n < 0) {
+					throw new IllegalArgumentException(Integer.toString(n));
+				} else if (n >= this.size) {
+					return this;
+				} else {
+					return new «diamondName»(this.array, this.from, n);
+				}
+			}
+
+			/**
+			 * O(1)
+			 */
+			@Override
+			public «genericName» skip(final int n) {
+				if (n < 0) {
+					throw new IllegalArgumentException(Integer.toString(n));
+				} else if (n == 0) {
+					return this;
+				} else if (n >= this.size) {
+					return new «diamondName»(this.array, this.from + this.size, 0);
+				} else {
+					return new «diamondName»(this.array, this.from + n, this.size - n);
+				}
+			}
+
+			/**
+			 * Copies the elements of this slice into a new {@link «type.arrayShortName»}
+			 * that does not reference the underlying array.
+			 * O(size)
+			 */
+			public «type.arrayGenericName» compact() {
+				«IF type == Type.BOOLEAN»
+					return this.array.slice(this.from, this.from + this.size);
+				«ELSE»
+					if (this.size == 0) {
+						return «type.arrayShortName».empty«type.arrayShortName»();
+					} else if (this.size == this.array.length) {
+						return new «type.arrayDiamondName»(this.array);
+					} else {
+						return new «type.arrayDiamondName»(Arrays.copyOfRange(this.array, this.from, this.from + this.size));
+					}
+				«ENDIF»
+			}
+
+			/**
+			 * O(size)
+			 */
+			@Override
+			public «type.arrayGenericName» to«type.arrayShortName»() {
+				return compact();
+			}
+
+			/**
+			 * A slice is serialized as a compacted {@link «type.arrayShortName»}, so the rest of the underlying array is not written
+			 */
+			private Object writeReplace() {
+				return compact();
+			}
+			«IF type != Type.BOOLEAN»
+
+				@Override
+				public «type.javaName»[] «type.toArrayName»() {
+					return Arrays.copyOfRange(this.array, this.from, this.from + this.size);
+				}
+			«ENDIF»
+
+			«orderedHashCode(type)»
+
+			«indexedEquals(type)»
+
+			«toStr(type)»
+		}
+
+		final class «iteratorShortName»«IF type == Type.OBJECT»<A>«ENDIF» implements «type.iteratorGenericName» {
+			private final «arrayType» array;
+			private int i;
+			private final int to;
+
+			«iteratorShortName»(final «arrayType» array, final int from, final int to) {
+				this.array = array;
+				this.i = from;
+				this.to = to;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return (this.i < this.to);
+			}
+
+			@Override
+			public «type.genericJavaUnboxedName» «type.iteratorNext»() {
+				if (this.i < this.to) {
+					return «elem("this.i++")»;
+				} else {
+					throw new NoSuchElementException();
+				}
+			}
+
+			@Override
+			«IF type.javaUnboxedType»
+				public void forEachRemaining(final «type.typeName»Consumer action) {
+			«ELSE»
+				public void forEachRemaining(final Consumer<? super «type.genericBoxedName»> action) {
+			«ENDIF»
+				requireNonNull(action);
+				while (this.i < this.to) {
+					action.accept(«elem("this.i++")»);
+				}
+			}
+		}
+
+		final class «reverseIteratorShortName»«IF type == Type.OBJECT»<A>«ENDIF» implements «type.iteratorGenericName» {
+			private final «arrayType» array;
+			private final int from;
+			private int i;
+
+			«reverseIteratorShortName»(final «arrayType» array, final int from, final int to) {
+				this.array = array;
+				this.from = from;
+				this.i = to - 1;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return (this.i >= this.from);
+			}
+
+			@Override
+			public «type.genericJavaUnboxedName» «type.iteratorNext»() {
+				if (this.i >= this.from) {
+					return «elem("this.i--")»;
+				} else {
+					throw new NoSuchElementException();
+				}
+			}
+
+			@Override
+			«IF type.javaUnboxedType»
+				public void forEachRemaining(final «type.typeName»Consumer action) {
+			«ELSE»
+				public void forEachRemaining(final Consumer<? super «type.genericBoxedName»> action) {
+			«ENDIF»
+				requireNonNull(action);
+				while (this.i >= this.from) {
+					action.accept(«elem("this.i--")»);
+				}
+			}
+		}
+	'''
+}
@@ -0,0 +1,491 @@
+package jcats.generator.collection
+
+import jcats.generator.ClassGenerator
+import jcats.generator.Constants
+
+final class BooleanPackedSeqGenerator implements ClassGenerator {
+
+	override className() { Constants.COLLECTION + ".BooleanPackedSeq" }
+
+	override sourceCode() { '''
+		package «Constants.COLLECTION»;
+
+		import java.util.Iterator;
+		import java.util.NoSuchElementException;
+		import java.util.PrimitiveIterator;
+
+		import «Constants.JCATS».*;
+		import «Constants.FUNCTION».*;
+
+		import static «Constants.COMMON».*;
+
+		/**
+		 * {@link BooleanSeq} packed into a {@link LongSeq} of 64-bit words, one bit per element,
+		 * so a leaf of the words holds 2048 elements. Elements start at the bit {@code offset}
+		 * of the first word, which lets prepend and skip keep the words without shifting them.
+		 */
+		final class BooleanPackedSeq extends BooleanSeq {
+			static final BooleanPackedSeq EMPTY = new BooleanPackedSeq(LongSeq.emptyLongSeq(), 0, 0);
+
+			// Bits outside of [offset, offset + size) are always zero
+			final LongSeq words;
+			// 0 <= offset < 64
+			final int offset;
+			final int size;
+
+			BooleanPackedSeq(final LongSeq words, final int offset, final int size) {
+				this.words = words;
+				this.offset = offset;
+				this.size = size;
+			}
+
+			/**
+			 * O(1)
+			 */
+			@Override
+			public int size() {
+				return this.size;
+			}
+
+			/**
+			 * O(1), or O(log(size)) if the words were built by concatenation
+			 */
+			@Override
+			public BooleanSeq init() throws NoSuchElementException {
+				if (this.size == 0) {
+					throw new NoSuchElementException();
+				} else if (this.size == 1) {
+					return EMPTY;
+				} else {
+					final int last = this.offset + this.size - 1;
+					if ((last & 63) == 0) {
+						// The last element is alone in the last word
+						return new BooleanPackedSeq(this.words.init(), this.offset, this.size - 1);
+					} else {
+						final long mask = ~(1L << last);
+						return new BooleanPackedSeq(this.words.update(this.words.size() - 1, (final long word) -> word & mask), this.offset, this.size - 1);
+					}
+				}
+			}
+
+			/**
+			 * O(1), or O(log(size)) if the words were built by concatenation
+			 */
+			@Override
+			public BooleanSeq tail() throws NoSuchElementException {
+				if (this.size == 0) {
+					throw new NoSuchElementException();
+				} else if (this.size == 1) {
+					return EMPTY;
+				} else if (this.offset == 63) {
+					// The first element is alone in the first word
+					return new BooleanPackedSeq(this.words.tail(), 0, this.size - 1);
+				} else {
+					final long mask = ~(1L << this.offset);
+					return new BooleanPackedSeq(this.words.update(0, (final long word) -> word & mask), this.offset + 1, this.size - 1);
+				}
+			}
+
+			@Override
+			public boolean get(final int index) throws IndexOutOfBoundsException {
+				if (index < 0 || index >= this.size) {
+					«indexOutOfBounds»
+				} else {
+					final int bit = this.offset + index;
+					return (this.words.get(bit >>> 6) & (1L << bit)) != 0;
+				}
+			}
+
+			@Override
+			public BooleanSeq update(final int index, final BooleanBooleanF f) throws IndexOutOfBoundsException {
+				final boolean value = get(index);
+				if (f.apply(value) == value) {
+					return this;
+				} else {
+					final int bit = this.offset + index;
+					final long mask = 1L << bit;
+					return new BooleanPackedSeq(this.words.update(bit >>> 6, (final long word) -> word ^ mask), this.offset, this.size);
+				}
+			}
+
+			@Override
+			public BooleanSeq limit(final int n) {
+				if (n < 0) {
+					throw new IllegalArgumentException(Integer.toString(n));
+				} else if (n == 0) {
+					return EMPTY;
+				} else if (n >= this.size) {
+					return this;
+				} else {
+					final int end = this.offset + n;
+					final LongSeq words = this.words.limit(wordCount(end));
+					if ((end & 63) == 0) {
+						return new BooleanPackedSeq(words, this.offset, n);
+					} else {
+						final long mask = (1L << end) - 1;
+						return new BooleanPackedSeq(words.update(words.size() - 1, (final long word) -> word & mask), this.offset, n);
+					}
+				}
+			}
+
+			@Override
+			public BooleanSeq skip(final int n) {
+				if (n < 0) {
+					throw new IllegalArgumentException(Integer.toString(n));
+				} else if (n >= this.size) {
+					return EMPTY;
+				} else if (n == 0) {
+					return this;
+				} else {
+					final int start = this.offset + n;
+					final int offset = start & 63;
+					final LongSeq words = this.words.skip(start >>> 6);
+					if (offset == 0) {
+						return new BooleanPackedSeq(words, 0, this.size - n);
+					} else {
+						final long mask = -1L << offset;
+						return new BooleanPackedSeq(words.update(0, (final long word) -> word & mask), offset, this.size - n);
+					}
+				}
+			}
+
+			@Override
+			public BooleanSeq prepend(final boolean value) throws SizeOverflowException {
+				if (this.size == Integer.MAX_VALUE) {
+					throw new SizeOverflowException();
+				} else if (this.offset == 0) {
+					return new BooleanPackedSeq(this.words.prepend(value ? Long.MIN_VALUE : 0L), 63, this.size + 1);
+				} else {
+					final int offset = this.offset - 1;
+					if (value) {
+						final long mask = 1L << offset;
+						return new BooleanPackedSeq(this.words.update(0, (final long word) -> word | mask), offset, this.size + 1);
+					} else {
+						return new BooleanPackedSeq(this.words, offset, this.size + 1);
+					}
+				}
+			}
+
+			@Override
+			public BooleanSeq append(final boolean value) throws SizeOverflowException {
+				if (this.size == Integer.MAX_VALUE) {
+					throw new SizeOverflowException();
+				}
+				final int end = this.offset + this.size;
+				if ((end & 63) == 0) {
+					return new BooleanPackedSeq(this.words.append(value ? 1L : 0L), this.offset, this.size + 1);
+				} else if (value) {
+					final long mask = 1L << end;
+					return new BooleanPackedSeq(this.words.update(this.words.size() - 1, (final long word) -> word | mask), this.offset, this.size + 1);
+				} else {
+					return new BooleanPackedSeq(this.words, this.offset, this.size + 1);
+				}
+			}
+
+			@Override
+			BooleanSeq appendSized(final Iterator<Boolean> suffix, final int suffixSize) {
+				return join(this, pack(suffix, suffixSize));
+			}
+
+			@Override
+			BooleanSeq prependSized(final Iterator<Boolean> prefix, final int prefixSize) {
+				return join(pack(prefix, prefixSize), this);
+			}
+
+			/**
+			 * O(size / 64)
+			 */
+			@Override
+			public int countTrue() {
+				int count = 0;
+				final PrimitiveIterator.OfLong iterator = this.words.iterator();
+				while (iterator.hasNext()) {
+					count += Long.bitCount(iterator.nextLong());
+				}
+				return count;
+			}
+
+			/**
+			 * O(size / 64)
+			 */
+			@Override
+			public boolean contains(final boolean value) {
+				if (value) {
+					final PrimitiveIterator.OfLong iterator = this.words.iterator();
+					while (iterator.hasNext()) {
+						if (iterator.nextLong() != 0) {
+							return true;
+						}
+					}
+					return false;
+				} else {
+					return (countTrue() < this.size);
+				}
+			}
+
+			/**
+			 * O(size / 64)
+			 */
+			@Override
+			public BooleanSeq reverse() {
+				if (this.size <= 1) {
+					return this;
+				} else {
+					// The bit i of the word j moves to the bit (63 - i) of the word (words.size - 1 - j)
+					final LongSeq words = LongSeq.sizedToSeq(new MappedLongLongIterator(this.words.reverseIterator(), Long::reverse), this.words.size());
+					return new BooleanPackedSeq(words, -(this.offset + this.size) & 63, this.size);
+				}
+			}
+
+			/**
+			 * O(size / 64)
+			 */
+			@Override
+			public BooleanArray toBooleanArray() {
+				if (this.size == 0) {
+					return BooleanArray.emptyBooleanArray();
+				} else {
+					return new BooleanArray(realign(0).words.toPrimitiveArray(), this.size);
+				}
+			}
+
+			@Override
+			public boolean[] toPrimitiveArray() {
+				final boolean[] array = new boolean[this.size];
+				final Iterator<Boolean> iterator = iterator();
+				for (int i = 0; i < array.length; i++) {
+					array[i] = iterator.next();
+				}
+				return array;
+			}
+
+			@Override
+			public Iterator<Boolean> iterator() {
+				return new BooleanPackedSeqIterator(this.words.iterator(), this.offset, this.size);
+			}
+
+			@Override
+			public Iterator<Boolean> reverseIterator() {
+				return new BooleanPackedSeqReverseIterator(this.words.reverseIterator(), this.offset + this.size, this.size);
+			}
+
+			/**
+			 * Returns the same elements starting at the bit newOffset of the first word.
+			 * O(size / 64)
+			 */
+			BooleanPackedSeq realign(final int newOffset) {
+				if (newOffset == this.offset || this.size == 0) {
+					return this;
+				} else {
+					final PrimitiveIterator.OfLong iterator = new BooleanShiftedWordsIterator(this.words.iterator(), (newOffset - this.offset) & 63);
+					if (newOffset < this.offset) {
+						// Shifting to the left by (64 - n) bits and dropping the first word shifts to the right by n bits
+						iterator.nextLong();
+					}
+					return new BooleanPackedSeq(LongSeq.sizedToSeq(iterator, wordCount(newOffset + this.size)), newOffset, this.size);
+				}
+			}
+
+			/**
+			 * O(log(prefix.size + suffix.size)) if the end of prefix and the start of suffix are at the same bit of a word,
+			 * O(log(prefix.size + suffix.size) + min(prefix.size, suffix.size) / 64) otherwise
+			 */
+			// Assume both seqs are non-empty and (prefix.size + suffix.size) does not overflow
+			static BooleanSeq join(final BooleanSeq prefixSeq, final BooleanSeq suffixSeq) {
+				final BooleanPackedSeq prefix = (BooleanPackedSeq) prefixSeq;
+				final BooleanPackedSeq suffix = (BooleanPackedSeq) suffixSeq;
+				final int end = (prefix.offset + prefix.size) & 63;
+				final int size = prefix.size + suffix.size;
+				if (end == 0 && suffix.offset == 0) {
+					return new BooleanPackedSeq(prefix.words.concat(suffix.words), prefix.offset, size);
+				} else if (end == suffix.offset) {
+					// The last word of prefix and the first word of suffix are merged into one word
+					final long first = suffix.words.get(0);
+					final LongSeq words = prefix.words.update(prefix.words.size() - 1, (final long word) -> word | first);
+					final LongSeq suffixWords = suffix.words.tail();
+					return new BooleanPackedSeq(suffixWords.isEmpty() ? words : words.concat(suffixWords), prefix.offset, size);
+				} else if (prefix.size <= suffix.size) {
+					return join(prefix.realign((suffix.offset - prefix.size) & 63), suffix);
+				} else {
+					return join(prefix, suffix.realign(end));
+				}
+			}
+
+			// Assume both seqs have the same size
+			static boolean wordsEqual(final BooleanSeq seq1, final BooleanSeq seq2) {
+				final BooleanPackedSeq packed1 = (BooleanPackedSeq) seq1;
+				final BooleanPackedSeq packed2 = ((BooleanPackedSeq) seq2).realign(packed1.offset);
+				return packed1.words.isStrictlyEqualTo(packed2.words);
+			}
+
+			static BooleanPackedSeq pack(final Iterator<Boolean> iterator, final int size) {
+				if (size == 0) {
+					return EMPTY;
+				} else {
+					return new BooleanPackedSeq(LongSeq.sizedToSeq(new BooleanPackingIterator(iterator, size), wordCount(size)), 0, size);
+				}
+			}
+
+			static BooleanPackedSeq filled(final int size, final boolean value) {
+				if (size == 0) {
+					return EMPTY;
+				} else if (!value) {
+					return new BooleanPackedSeq(LongSeq.repeat(wordCount(size), 0L), 0, size);
+				} else {
+					final LongSeq words = LongSeq.repeat(wordCount(size), -1L);
+					if ((size & 63) == 0) {
+						return new BooleanPackedSeq(words, 0, size);
+					} else {
+						final long last = (1L << size) - 1;
+						return new BooleanPackedSeq(words.set(words.size() - 1, last), 0, size);
+					}
+				}
+			}
+
+			// The result is correct when end overflows int, because 0 <= offset < 64
+			static int wordCount(final int end) {
+				return (end + 63) >>> 6;
+			}
+		}
+
+		final class BooleanPackedSeqIterator implements Iterator<Boolean> {
+			private final PrimitiveIterator.OfLong words;
+			private long word;
+			private int bitsLeft;
+			private int remaining;
+
+			BooleanPackedSeqIterator(final PrimitiveIterator.OfLong words, final int offset, final int size) {
+				this.words = words;
+				this.remaining = size;
+				if (size > 0) {
+					this.word = words.nextLong() >>> offset;
+					this.bitsLeft = 64 - offset;
+				}
+			}
+
+			@Override
+			public boolean hasNext() {
+				return (this.remaining > 0);
+			}
+
+			@Override
+			public Boolean next() {
+				if (this.remaining == 0) {
+					throw new NoSuchElementException();
+				}
+				if (this.bitsLeft == 0) {
+					this.word = this.words.nextLong();
+					this.bitsLeft = 64;
+				}
+				final boolean value = (this.word & 1L) != 0;
+				this.word >>>= 1;
+				this.bitsLeft--;
+				this.remaining--;
+				return value;
+			}
+		}
+
+		final class BooleanPackedSeqReverseIterator implements Iterator<Boolean> {
+			private final PrimitiveIterator.OfLong words;
+			private long word;
+			private int bitsLeft;
+			private int remaining;
+
+			BooleanPackedSeqReverseIterator(final PrimitiveIterator.OfLong words, final int end, final int size) {
+				this.words = words;
+				this.remaining = size;
+				if (size > 0) {
+					// Move the last element to the sign bit
+					final int bits = ((end - 1) & 63) + 1;
+					this.word = words.nextLong() << (64 - bits);
+					this.bitsLeft = bits;
+				}
+			}
+
+			@Override
+			public boolean hasNext() {
+				return (this.remaining > 0);
+			}
+
+			@Override
+			public Boolean next() {
+				if (this.remaining == 0) {
+					throw new NoSuchElementException();
+				}
+				if (this.bitsLeft == 0) {
+					this.word = this.words.nextLong();
+					this.bitsLeft = 64;
+				}
+				final boolean value = (this.word < 0);
+				this.word <<= 1;
+				this.bitsLeft--;
+				this.remaining--;
+				return value;
+			}
+		}
+
+		// Packs the next size booleans into words, 64 per word starting from the lowest bit
+		final class BooleanPackingIterator implements PrimitiveIterator.OfLong {
+			private final Iterator<Boolean> iterator;
+			private int remaining;
+
+			BooleanPackingIterator(final Iterator<Boolean> iterator, final int size) {
+				this.iterator = iterator;
+				this.remaining = size;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return (this.remaining > 0);
+			}
+
+			@Override
+			public long nextLong() {
+				if (this.remaining == 0) {
+					throw new NoSuchElementException();
+				}
+				final int n = Math.min(this.remaining, 64);
+				long word = 0;
+				for (int i = 0; i < n; i++) {
+					if (this.iterator.next()) {
+						word |= (1L << i);
+					}
+				}
+				this.remaining -= n;
+				return word;
+			}
+		}
+
+		// Words shifted to the left by shift bits (0 < shift < 64).
+		// The bits shifted out of the last word are returned as one more word, followed by zero words.
+		final class BooleanShiftedWordsIterator implements PrimitiveIterator.OfLong {
+			private final PrimitiveIterator.OfLong words;
+			private final int shift;
+			private long carry;
+
+			BooleanShiftedWordsIterator(final PrimitiveIterator.OfLong words, final int shift) {
+				this.words = words;
+				this.shift = shift;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return true;
+			}
+
+			@Override
+			public long nextLong() {
+				if (this.words.hasNext()) {
+					final long word = this.words.nextLong();
+					final long result = (word << this.shift) | this.carry;
+					this.carry = word >>> (64 - this.shift);
+					return result;
+				} else {
+					final long result = this.carry;
+					this.carry = 0;
+					return result;
+				}
+			}
+		}
+	''' }
+}
@@ -20,6 +20,81 @@ final class ContainerGenerator implements InterfaceGenerator {
 	def shortName() { if (type == Type.OBJECT) "Container" else type.typeName + "Container" }
 	def genericName() { if (type == Type.OBJECT) shortName + "<A>" else shortName }
 
+	// Overrides of the primitive aggregates as plain loops. loop wraps its argument into a loop over values named "a".
+	def static loopAggregates(Type type, (CharSequence) => CharSequence loop, boolean isFinal) { '''
+		@Override
+		public «IF isFinal»final «ENDIF»boolean contains(final «type.javaName» value) {
+			«loop.apply('''
+				if (a == value) {
+					return true;
+				}
+			''')»
+			return false;
+		}
+
+		@Override
+		public «IF isFinal»final «ENDIF»IntOption indexOf(final «type.javaName» value) {
+			int index = 0;
+			«loop.apply('''
+				if (a == value) {
+					return intSome(index);
+				}
+				index++;
+			''')»
+			return intNone();
+		}
+
+		@Override
+		public «IF isFinal»final «ENDIF»«type.javaName» sum() {
+			«IF type.floatingPoint»
+				// Kahan summation
+				«type.javaName» sum = 0;
+				«type.javaName» compensation = 0;
+				«type.javaName» simpleSum = 0;
+				«loop.apply('''
+					final «type.javaName» y = a - compensation;
+					final «type.javaName» t = sum + y;
+					compensation = (t - sum) - y;
+					sum = t;
+					simpleSum += a;
+				''')»
+				final «type.javaName» result = sum + compensation;
+				if («type.boxedName».isNaN(result) && «type.boxedName».isInfinite(simpleSum)) {
+					return simpleSum;
+				} else {
+					return result;
+				}
+			«ELSE»
+				«type.javaName» sum = 0;
+				«loop.apply('''
+					sum += a;
+				''')»
+				return sum;
+			«ENDIF»
+		}
+
+		«FOR max : #[true, false]»
+			@Override
+			public «IF isFinal»final «ENDIF»«type.optionGenericName» «IF max»max«ELSE»min«ENDIF»() {
+				if (isEmpty()) {
+					return «type.noneName»();
+				}
+				«type.javaName» result = first();
+				«loop.apply('''
+					«IF type.floatingPoint»
+						if («type.boxedName».compare(a, result) «IF max»>«ELSE»<«ENDIF» 0) {
+					«ELSE»
+						if (a «IF max»>«ELSE»<«ENDIF» result) {
+					«ENDIF»
+						result = a;
+					}
+				''')»
+				return «type.someName»(result);
+			}
+
+		«ENDFOR»
+	''' }
+
 	def maxOrMinBy(boolean max) {
 		val what = if (max) "max" else "min"
 		'''
@@ -1983,7 +1983,7 @@ final class ContainerViewGenerator implements InterfaceGenerator {
 				}
 			«ELSE»
 				public «type.javaName»[] toPrimitiveArray() {
-					return new Array<>(this.collection.toArray()).mapTo«type.typeName»(i -> («type.javaName») i).array;
+					return new Array<>(this.collection.toArray()).mapTo«type.typeName»(i -> («type.javaName») i).«IF type == Type.BOOLEAN»toPrimitiveArray()«ELSE»array«ENDIF»;
 				}
 			«ENDIF»
 
@@ -2008,4 +2008,4 @@ final class ContainerViewGenerator implements InterfaceGenerator {
 			}
 		}
 	'''
-}
\ No newline at end of file
+}
\ No newline at end of file
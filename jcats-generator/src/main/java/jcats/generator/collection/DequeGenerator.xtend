@@ -0,0 +1,666 @@
+package jcats.generator.collection
+
+import java.util.List
+import jcats.generator.ClassGenerator
+import jcats.generator.Constants
+import jcats.generator.Generator
+import jcats.generator.Type
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+
+@FinalFieldsConstructor
+final class DequeGenerator implements ClassGenerator {
+	val Type type
+
+	def static List<Generator> generators() {
+		Type.values.toList.map[new DequeGenerator(it) as Generator]
+	}
+
+	override className() { Constants.COLLECTION + "." + shortName }
+
+	def shortName() { type.shortName("Deque") }
+	def genericName() { type.genericName("Deque") }
+	def diamondName() { type.diamondName("Deque") }
+	def wildcardName() { type.wildcardName("Deque") }
+	def paramGenericName() { type.paramGenericName("Deque") }
+	def dequeStreamShortName() { type.shortName("DequeStream") }
+	def dequeStreamName() { type.genericName("DequeStream") }
+	def dequeStreamDiamondName() { type.diamondName("DequeStream") }
+	def cellShortName() { type.shortName("DequeCell") }
+	def cellName() { type.genericName("DequeCell") }
+	def cellDiamondName() { type.diamondName("DequeCell") }
+	def iteratorName() { type.iteratorGenericName("Deque") }
+	def proxyShortName() { type.shortName("DequeSerializationProxy") }
+	def proxyName() { type.genericName("DequeSerializationProxy") }
+	def emptyStream() { '''«dequeStreamShortName».emptyStream()''' }
+
+	override sourceCode() { '''
+		package «Constants.COLLECTION»;
+
+		import java.io.IOException;
+		import java.io.InvalidObjectException;
+		import java.io.ObjectInputStream;
+		import java.io.ObjectOutputStream;
+		import java.io.Serializable;
+		import java.util.Iterator;
+		import java.util.NoSuchElementException;
+		«IF type.javaUnboxedType»
+			import java.util.PrimitiveIterator;
+		«ENDIF»
+		import java.util.stream.«type.streamName»;
+
+		import «Constants.JCATS».*;
+		import «Constants.FUNCTION».*;
+
+		import static java.util.Objects.requireNonNull;
+		import static «Constants.JCATS».«type.optionShortName».*;
+		import static «Constants.COMMON».*;
+
+		/**
+		 * Persistent double-ended queue (banker's deque).
+		 *
+		 * <p>Elements are kept in two lazy streams: the front part in order and the back part in reverse order.
+		 * When one part gets more than 3 times as many elements as the other one plus one, the parts are rebalanced.
+		 * The rebalancing is suspended and its steps are evaluated when they are reached, at most once for all versions
+		 * of the deque that share them, so {@link #prepend}, {@link #append}, {@link #tail} and {@link #init}
+		 * are O(1) amortized even if an old version of the deque is used again.
+		 */
+		public final class «type.covariantName("Deque")» implements «type.orderedContainerGenericName», Equatable<«genericName»>, Serializable {
+			private static final «wildcardName» EMPTY = new «diamondName»(«emptyStream», 0, «emptyStream», 0);
+
+			// If size > 1, both front and back are not empty
+			private final «dequeStreamName» front;
+			private final int frontSize;
+			// Last element first
+			private final «dequeStreamName» back;
+			private final int backSize;
+
+			«shortName»(final «dequeStreamName» front, final int frontSize, final «dequeStreamName» back, final int backSize) {
+				this.front = front;
+				this.frontSize = frontSize;
+				this.back = back;
+				this.backSize = backSize;
+			}
+
+			/**
+			 * O(1)
+			 */
+			@Override
+			public int size() {
+				return this.frontSize + this.backSize;
+			}
+
+			/**
+			 * O(1)
+			 */
+			@Override
+			public boolean isEmpty() {
+				return (this.frontSize == 0 && this.backSize == 0);
+			}
+
+			/**
+			 * O(1)
+			 */
+			@Override
+			public boolean isNotEmpty() {
+				return (this.frontSize != 0 || this.backSize != 0);
+			}
+
+			@Override
+			public boolean hasKnownFixedSize() {
+				return true;
+			}
+
+			/**
+			 * O(1) amortized
+			 */
+			@Override
+			public «type.genericName» first() throws NoSuchElementException {
+				if (isEmpty()) {
+					throw new NoSuchElementException();
+				} else {
+					return (this.frontSize == 0) ? this.back.cell().head : this.front.cell().head;
+				}
+			}
+
+			/**
+			 * O(1) amortized
+			 */
+			@Override
+			public «type.optionGenericName» findFirst() {
+				return isEmpty() ? «type.noneName»() : «type.someName»(first());
+			}
+
+			/**
+			 * O(1) amortized
+			 */
+			@Override
+			public «type.genericName» last() throws NoSuchElementException {
+				if (isEmpty()) {
+					throw new NoSuchElementException();
+				} else {
+					return (this.backSize == 0) ? this.front.cell().head : this.back.cell().head;
+				}
+			}
+
+			/**
+			 * O(1) amortized
+			 */
+			@Override
+			public «type.optionGenericName» findLast() {
+				return isEmpty() ? «type.noneName»() : «type.someName»(last());
+			}
+
+			/**
+			 * O(1) amortized
+			 */
+			public «genericName» prepend(final «type.genericName» value) {
+				«IF type == Type.OBJECT»
+					requireNonNull(value);
+				«ENDIF»
+				if (size() == Integer.MAX_VALUE) {
+					throw new SizeOverflowException();
+				}
+				return create(this.front.prepend(value), this.frontSize + 1, this.back, this.backSize);
+			}
+
+			/**
+			 * O(1) amortized
+			 */
+			public «genericName» append(final «type.genericName» value) {
+				«IF type == Type.OBJECT»
+					requireNonNull(value);
+				«ENDIF»
+				if (size() == Integer.MAX_VALUE) {
+					throw new SizeOverflowException();
+				}
+				return create(this.front, this.frontSize, this.back.prepend(value), this.backSize + 1);
+			}
+
+			/**
+			 * O(1) amortized
+			 */
+			public «genericName» tail() throws NoSuchElementException {
+				if (isEmpty()) {
+					throw new NoSuchElementException();
+				} else if (this.frontSize == 0) {
+					return empty«shortName»();
+				} else {
+					return create(this.front.cell().tail, this.frontSize - 1, this.back, this.backSize);
+				}
+			}
+
+			/**
+			 * O(1) amortized
+			 */
+			public «genericName» init() throws NoSuchElementException {
+				if (isEmpty()) {
+					throw new NoSuchElementException();
+				} else if (this.backSize == 0) {
+					return empty«shortName»();
+				} else {
+					return create(this.front, this.frontSize, this.back.cell().tail, this.backSize - 1);
+				}
+			}
+
+			/**
+			 * O(1)
+			 */
+			public «genericName» reverse() {
+				return new «diamondName»(this.back, this.backSize, this.front, this.frontSize);
+			}
+
+			/**
+			 * O(min(this.size, suffix.size)) amortized
+			 */
+			public «genericName» concat(final «genericName» suffix) {
+				requireNonNull(suffix);
+				if (suffix.isEmpty()) {
+					return this;
+				} else if (isEmpty()) {
+					return suffix;
+				} else if (suffix.size() <= size()) {
+					return appendAll(suffix);
+				} else {
+					return suffix.prependAll(this);
+				}
+			}
+
+			/**
+			 * O(suffix.size) amortized
+			 */
+			public «genericName» appendAll(final Iterable<«type.genericBoxedName»> suffix) {
+				«genericName» result = this;
+				final «type.iteratorGenericName» iterator = «type.getIterator("suffix.iterator()")»;
+				while (iterator.hasNext()) {
+					result = result.append(iterator.«type.iteratorNext»());
+				}
+				return result;
+			}
+
+			/**
+			 * O(prefix.size) amortized
+			 */
+			public «genericName» prependAll(final Iterable<«type.genericBoxedName»> prefix) {
+				«genericName» result = this;
+				final «type.iteratorGenericName» iterator = ofAll(prefix).reverseIterator();
+				while (iterator.hasNext()) {
+					result = result.prepend(iterator.«type.iteratorNext»());
+				}
+				return result;
+			}
+
+			/**
+			 * O(size)
+			 */
+			«IF type == Type.OBJECT»
+				public <B> Deque<B> map(final F<A, B> f) {
+			«ELSE»
+				public <A> Deque<A> map(final «type.typeName»ObjectF<A> f) {
+			«ENDIF»
+				requireNonNull(f);
+				final «type.javaName»[] values = «type.toArrayName»();
+				final Object[] array = new Object[values.length];
+				for (int i = 0; i < values.length; i++) {
+					array[i] = requireNonNull(f.apply(«type.genericCast»values[i]));
+				}
+				return Deque.fromArray(array, array.length);
+			}
+
+			«FOR toType : Type.primitives»
+				/**
+				 * O(size)
+				 */
+				public «toType.genericName("Deque")» mapTo«toType.typeName»(final «IF type != Type.OBJECT»«type.typeName»«ENDIF»«toType.typeName»F«IF type == Type.OBJECT»<A>«ENDIF» f) {
+					requireNonNull(f);
+					final «type.javaName»[] values = «type.toArrayName»();
+					final «toType.javaName»[] array = new «toType.javaName»[values.length];
+					for (int i = 0; i < values.length; i++) {
+						array[i] = f.apply(«type.genericCast»values[i]);
+					}
+					return «toType.shortName("Deque")».fromArray(array, array.length);
+				}
+
+			«ENDFOR»
+			/**
+			 * O(size)
+			 */
+			public «genericName» filter(final «type.boolFName» predicate) {
+				requireNonNull(predicate);
+				final «type.javaName»[] values = «type.toArrayName»();
+				int size = 0;
+				for (final «type.javaName» value : values) {
+					if (predicate.apply(«type.genericCast»value)) {
+						values[size++] = value;
+					}
+				}
+				return (size == values.length) ? this : fromArray(values, size);
+			}
+
+			@Override
+			public void foreach(final «type.effGenericName» eff) {
+				requireNonNull(eff);
+				for («cellName» cell = this.front.cell(); cell.isNotEmpty(); cell = cell.tail.cell()) {
+					eff.apply(cell.head);
+				}
+				if (this.backSize != 0) {
+					final «type.javaName»[] back = this.back.toArray(this.backSize);
+					for (int i = back.length - 1; i >= 0; i--) {
+						eff.apply(«type.genericCast»back[i]);
+					}
+				}
+			}
+
+			@Override
+			public boolean foreachUntil(final «type.boolFName» eff) {
+				requireNonNull(eff);
+				for («cellName» cell = this.front.cell(); cell.isNotEmpty(); cell = cell.tail.cell()) {
+					if (!eff.apply(cell.head)) {
+						return false;
+					}
+				}
+				if (this.backSize != 0) {
+					final «type.javaName»[] back = this.back.toArray(this.backSize);
+					for (int i = back.length - 1; i >= 0; i--) {
+						if (!eff.apply(«type.genericCast»back[i])) {
+							return false;
+						}
+					}
+				}
+				return true;
+			}
+
+			@Override
+			public «type.iteratorGenericName» iterator() {
+				return new «type.iteratorDiamondName("Deque")»(this.front, this.back, this.backSize);
+			}
+
+			@Override
+			public «type.iteratorGenericName» reverseIterator() {
+				return new «type.iteratorDiamondName("Deque")»(this.back, this.front, this.frontSize);
+			}
+
+			«orderedHashCode(type)»
+
+			@Override
+			public boolean equals(final Object obj) {
+				if (obj == this) {
+					return true;
+				} else if (obj instanceof «wildcardName») {
+					final «wildcardName» other = («wildcardName») obj;
+					if (size() != other.size()) {
+						return false;
+					}
+					final «type.iteratorWildcardName» iterator1 = iterator();
+					final «type.iteratorWildcardName» iterator2 = other.iterator();
+					while (iterator1.hasNext()) {
+						«IF type == Type.OBJECT»
+							if (!iterator1.next().equals(iterator2.next())) {
+						«ELSE»
+							if (iterator1.«type.iteratorNext»() != iterator2.«type.iteratorNext»()) {
+						«ENDIF»
+							return false;
+						}
+					}
+					return true;
+				} else {
+					return false;
+				}
+			}
+
+			«toStr(type)»
+
+			«transform(genericName)»
+
+			/**
+			 * The streams of a deque hold suspended computations, so a deque is serialized as its elements
+			 * and rebuilt when it is deserialized (see {@link «proxyShortName»})
+			 */
+			private Object writeReplace() {
+				return new «type.diamondName("DequeSerializationProxy")»(this);
+			}
+
+			private void readObject(final ObjectInputStream in) throws InvalidObjectException {
+				throw new InvalidObjectException("«proxyShortName» required");
+			}
+
+			// Rebalances the parts if one of them has more than 3 times as many elements as the other one plus one:
+			// the larger part keeps its first half, and the rest of it is reversed and appended to the smaller part
+			private static «IF type == Type.OBJECT»<A> «ENDIF»«genericName» create(final «dequeStreamName» front, final int frontSize, final «dequeStreamName» back, final int backSize) {
+				if (frontSize > 3L * backSize + 1) {
+					final int size = frontSize + backSize;
+					final int n = size - size / 2;
+					return new «diamondName»(front.take(n), n, back.concat(front.dropAndReverse(n)), size - n);
+				} else if (backSize > 3L * frontSize + 1) {
+					final int size = frontSize + backSize;
+					final int n = size - size / 2;
+					return new «diamondName»(front.concat(back.dropAndReverse(n)), size - n, back.take(n), n);
+				} else if (frontSize == 0 && backSize == 0) {
+					return empty«shortName»();
+				} else {
+					return new «diamondName»(front, frontSize, back, backSize);
+				}
+			}
+
+			// Builds a deque of array[0 .. length) with the first half in the front part
+			static «paramGenericName» fromArray(final «type.javaName»[] array, final int length) {
+				if (length == 0) {
+					return empty«shortName»();
+				} else {
+					final int frontSize = length - length / 2;
+					«dequeStreamName» front = «emptyStream»;
+					for (int i = frontSize - 1; i >= 0; i--) {
+						front = front.prepend(«type.genericCast»array[i]);
+					}
+					«dequeStreamName» back = «emptyStream»;
+					for (int i = frontSize; i < length; i++) {
+						back = back.prepend(«type.genericCast»array[i]);
+					}
+					return new «diamondName»(front, frontSize, back, length - frontSize);
+				}
+			}
+
+			public static «paramGenericName» empty«shortName»() {
+				return «IF type == Type.OBJECT»(Deque<A>) «ENDIF»EMPTY;
+			}
+
+			public static «paramGenericName» single«shortName»(final «type.genericName» value) {
+				final «dequeStreamName» empty = «emptyStream»;
+				return new «diamondName»(empty.prepend(«type.requireNonNull("value")»), 1, empty, 0);
+			}
+
+			«IF type == Type.OBJECT»
+				@SafeVarargs
+			«ENDIF»
+			public static «paramGenericName» «shortName.firstToLowerCase»(final «type.genericName»... values) {
+				«IF type == Type.OBJECT»
+					for (final A value : values) {
+						requireNonNull(value);
+					}
+				«ENDIF»
+				return fromArray(values, values.length);
+			}
+
+			«javadocSynonym(shortName.firstToLowerCase)»
+			«IF type == Type.OBJECT»
+				@SafeVarargs
+			«ENDIF»
+			public static «paramGenericName» of(final «type.genericName»... values) {
+				return «shortName.firstToLowerCase»(values);
+			}
+
+			public static «paramGenericName» ofAll(final Iterable<«type.genericBoxedName»> iterable) {
+				if (iterable instanceof «wildcardName») {
+					return («genericName») iterable;
+				} else {
+					final «type.javaName»[] array = «type.arrayShortName».ofAll(iterable).«type.toArrayName»();
+					return fromArray(array, array.length);
+				}
+			}
+
+			public static «paramGenericName» fromIterator(final Iterator<«type.genericBoxedName»> iterator) {
+				final «type.javaName»[] array = «type.arrayShortName».fromIterator(iterator).«type.toArrayName»();
+				return fromArray(array, array.length);
+			}
+
+			public static «paramGenericName» from«type.streamName»(final «type.streamGenericName» stream) {
+				final «type.javaName»[] array = «type.arrayShortName».from«type.streamName»(stream).«type.toArrayName»();
+				return fromArray(array, array.length);
+			}
+			«IF type == Type.OBJECT»
+
+				«cast(#["A"], #[], #["A"])»
+			«ENDIF»
+		}
+
+		/**
+		 * Lazy stream of the elements of a {@link «shortName»}.
+		 * A suspended stream is evaluated at most once, and the result is shared by all deques that refer to it.
+		 */
+		final class «dequeStreamName» {
+			private static final «IF type == Type.OBJECT»«type.wildcardName("DequeStream")»«ELSE»«dequeStreamShortName»«ENDIF» EMPTY = new «dequeStreamDiamondName»(«cellShortName».EMPTY);
+
+			// Evaluated first cell, or the suspended computation of it that is dropped after the evaluation.
+			// Concurrent evaluations compute equal cells, and cells have only final fields, so the race is benign.
+			private volatile Object state;
+
+			«dequeStreamShortName»(final «cellName» cell) {
+				this.state = cell;
+			}
+
+			«dequeStreamShortName»(final F0<«cellName»> suspension) {
+				this.state = suspension;
+			}
+
+			«IF type == Type.OBJECT»
+				static <A> DequeStream<A> emptyStream() {
+					return (DequeStream<A>) EMPTY;
+				}
+			«ELSE»
+				static «dequeStreamShortName» emptyStream() {
+					return EMPTY;
+				}
+			«ENDIF»
+
+			«cellName» cell() {
+				final Object state = this.state;
+				if (state instanceof «cellShortName») {
+					return («cellName») state;
+				} else {
+					final «cellName» cell = ((F0<«cellName»>) state).apply();
+					this.state = cell;
+					return cell;
+				}
+			}
+
+			«dequeStreamName» prepend(final «type.genericName» value) {
+				return new «dequeStreamDiamondName»(new «cellDiamondName»(value, this));
+			}
+
+			// Incremental: every cell of the result evaluates one cell of this stream
+			// Assume n <= size of this stream
+			«dequeStreamName» take(final int n) {
+				if (n == 0) {
+					return emptyStream();
+				} else {
+					return new «dequeStreamDiamondName»(() -> {
+						final «cellName» cell = cell();
+						return new «cellDiamondName»(cell.head, cell.tail.take(n - 1));
+					});
+				}
+			}
+
+			// Incremental: every cell of the result evaluates one cell of this stream or the first cell of suffix
+			«dequeStreamName» concat(final «dequeStreamName» suffix) {
+				return new «dequeStreamDiamondName»(() -> {
+					final «cellName» cell = cell();
+					if (cell.isEmpty()) {
+						return suffix.cell();
+					} else {
+						return new «cellDiamondName»(cell.head, cell.tail.concat(suffix));
+					}
+				});
+			}
+
+			// Monolithic: the first access evaluates the whole result
+			// Assume n <= size of this stream
+			«dequeStreamName» dropAndReverse(final int n) {
+				return new «dequeStreamDiamondName»(() -> {
+					«cellName» cell = cell();
+					for (int i = 0; i < n; i++) {
+						cell = cell.tail.cell();
+					}
+					«dequeStreamName» reversed = emptyStream();
+					for (; cell.isNotEmpty(); cell = cell.tail.cell()) {
+						reversed = reversed.prepend(cell.head);
+					}
+					return reversed.cell();
+				});
+			}
+
+			// Assume size == size of this stream
+			«type.javaName»[] toArray(final int size) {
+				final «type.javaName»[] array = new «type.javaName»[size];
+				«cellName» cell = cell();
+				for (int i = 0; i < size; i++) {
+					array[i] = cell.head;
+					cell = cell.tail.cell();
+				}
+				return array;
+			}
+		}
+
+		final class «cellName» {
+			static final «IF type == Type.OBJECT»«type.wildcardName("DequeCell")»«ELSE»«cellShortName»«ENDIF» EMPTY = new «cellDiamondName»(«type.defaultValue», null);
+
+			final «type.genericName» head;
+			// null only in EMPTY
+			final «dequeStreamName» tail;
+
+			«cellShortName»(final «type.genericName» head, final «dequeStreamName» tail) {
+				this.head = head;
+				this.tail = tail;
+			}
+
+			boolean isEmpty() {
+				return (this.tail == null);
+			}
+
+			boolean isNotEmpty() {
+				return (this.tail != null);
+			}
+		}
+
+		// Iterates the first stream in order and then the second stream in reverse order
+		final class «iteratorName» implements «type.iteratorGenericName» {
+			private «cellName» cell;
+			private final «dequeStreamName» second;
+			private final int secondSize;
+			// Elements of the second stream, evaluated when the first stream is exhausted
+			private «type.javaName»[] array;
+			private int index;
+
+			«type.iteratorShortName("Deque")»(final «dequeStreamName» first, final «dequeStreamName» second, final int secondSize) {
+				this.cell = first.cell();
+				this.second = second;
+				this.secondSize = secondSize;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return this.cell.isNotEmpty() || ((this.array == null) ? this.secondSize != 0 : this.index != 0);
+			}
+
+			@Override
+			public «type.iteratorReturnType» «type.iteratorNext»() {
+				if (this.cell.isNotEmpty()) {
+					final «type.genericName» value = this.cell.head;
+					this.cell = this.cell.tail.cell();
+					return value;
+				} else {
+					if (this.array == null) {
+						this.array = this.second.toArray(this.secondSize);
+						this.index = this.secondSize;
+					}
+					if (this.index == 0) {
+						throw new NoSuchElementException();
+					}
+					return «type.genericCast»this.array[--this.index];
+				}
+			}
+		}
+
+		final class «proxyName» implements Serializable {
+			private transient «genericName» deque;
+
+			«proxyShortName»(final «genericName» deque) {
+				this.deque = deque;
+			}
+
+			private void writeObject(final ObjectOutputStream out) throws IOException {
+				out.defaultWriteObject();
+				out.writeInt(this.deque.size());
+				final «type.iteratorGenericName» iterator = this.deque.iterator();
+				while (iterator.hasNext()) {
+					out.write«type.typeName»(iterator.«type.iteratorNext»());
+				}
+			}
+
+			private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+				in.defaultReadObject();
+				final int size = in.readInt();
+				if (size < 0) {
+					throw new InvalidObjectException("Negative size: " + size);
+				}
+				final «type.javaName»[] array = new «type.javaName»[size];
+				for (int i = 0; i < size; i++) {
+					array[i] = in.read«type.typeName»();
+				}
+				this.deque = «shortName».fromArray(array, size);
+			}
+
+			private Object readResolve() {
+				return this.deque;
+			}
+		}
+	''' }
+}
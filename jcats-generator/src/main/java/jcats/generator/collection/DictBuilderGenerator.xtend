@@ -24,6 +24,8 @@ final class DictBuilderGenerator implements ClassGenerator {
 		public final class DictBuilder<K, A> implements Sized {
 
 			private Dict<K, A> dict;
+			// Nodes tagged with this token were created by this builder and are updated in place
+			private final Object owner = new Object();
 
 			DictBuilder() {
 				this.dict = emptyDict();
@@ -34,17 +36,17 @@ final class DictBuilderGenerator implements ClassGenerator {
 			}
 
 			public DictBuilder<K, A> put(final K key, final A value) {
-				this.dict = this.dict.put(key, value);
+				this.dict = this.dict.put(key, value, this.owner);
 				return this;
 			}
 
 			DictBuilder<K, A> updateValueOrPut(final K key, final A defaultValue, final F<A, A> f) {
-				this.dict = this.dict.updateValueOrPut(key, defaultValue, f);
+				this.dict = this.dict.updateValueOrPut(key, defaultValue, f, this.owner);
 				return this;
 			}
 
 			public DictBuilder<K, A> putEntry(final P<K, A> entry) {
-				this.dict = this.dict.putEntry(entry);
+				this.dict = this.dict.putEntry(entry, this.owner);
 				return this;
 			}
 
@@ -91,6 +93,8 @@ final class DictBuilderGenerator implements ClassGenerator {
 			}
 
 			public Dict<K, A> build() {
+				// Subsequent puts copy the frozen nodes, so the built instance does not change
+				this.dict = this.dict.freeze(this.owner);
 				return this.dict;
 			}
 
@@ -13,35 +13,37 @@ class DictGenerator implements ClassGenerator {
 	def genericName() { "Dict<K, A>" }
 	def diamondName() { "Dict<>" }
 	def wildcardName() { "Dict<?, ?>" }
+	def hash(String expr) { "scramble(" + expr + ".hashCode())" }
 
-	def update(String entryFunc, String defaultEntryFunc, String createNewValue, String getValue, String recursiveCall, String updateCollision) '''
+	def update(String createNewValue, String newValue, String defaultValue, String recursiveCall, String updateCollision) '''
 		final int branch = branch(keyHash, shift);
 
 		switch (slotType(branch, this.treeMap, this.leafMap)) {
 			case VOID:
-				return remap(this.treeMap, this.leafMap | branch, this.size + 1).setEntry(branch, «defaultEntryFunc»);
+				return remap(this.treeMap, this.leafMap | branch, this.size + 1, owner).setLeaf(branch, key, «defaultValue»).setHash(branch, keyHash);
 
 			case LEAF:
-				final P<K, A> leaf = getEntry(branch);
-				final K leafKey = leaf.get1();
-				final int leafKeyHash = leafKey.hashCode();
+				final int index = pairIndex(branch, this.treeMap, this.leafMap);
+				final K leafKey = keyAt(index);
+				final A leafValue = valueAt(index);
+				final int leafKeyHash = slotHash(branch, leafKey);
 				if (keyHash == leafKeyHash) {
 					if (key.equals(leafKey)) {
 						«IF !createNewValue.empty»
 							«createNewValue»
 						«ENDIF»
-						if («getValue» == leaf.get2()) {
+						if («newValue» == leafValue) {
 							return this;
 						} else {
-							return remap(this.treeMap, this.leafMap, this.size).setEntry(branch, «entryFunc»);
+							return remap(this.treeMap, this.leafMap, this.size, owner).setValueAt(index, «newValue»);
 						}
 					} else {
-						final P[] collision = { «defaultEntryFunc», leaf };
-						return remap(this.treeMap | branch, this.leafMap, this.size + 1).setCollision(branch, collision);
+						final Object[] collision = { key, «defaultValue», leafKey, leafValue };
+						return remap(this.treeMap | branch, this.leafMap, this.size + 1, owner).setCollision(branch, collision);
 					}
 				} else {
-					final «genericName» tree = merge(leaf, leafKeyHash, «defaultEntryFunc», keyHash, shift + 5);
-					return remap(this.treeMap | branch, this.leafMap ^ branch, this.size + 1).setTree(branch, tree);
+					final «genericName» tree = merge(leafKey, leafValue, leafKeyHash, key, «defaultValue», keyHash, shift + 5, owner);
+					return remap(this.treeMap | branch, this.leafMap ^ branch, this.size + 1, owner).setTree(branch, tree);
 				}
 
 			case TREE:
@@ -50,18 +52,25 @@ class DictGenerator implements ClassGenerator {
 				if (newTree == oldTree) {
 					return this;
 				} else {
-					return remap(this.treeMap, this.leafMap, this.size + newTree.size - oldTree.size).setTree(branch, newTree);
+					return remap(this.treeMap, this.leafMap, this.size + newTree.size - oldTree.size, owner).setTree(branch, newTree);
 				}
 
 			case COLLISION:
-				final P[] oldCollision = getCollision(branch);
-				final P[] newCollision = «updateCollision»;
+				final Object[] oldCollision = getCollision(branch);
+				final int collisionHash = slotHash(branch, oldCollision[0]);
+				if (keyHash != collisionHash) {
+					// The collision holds equal hashes only, so a different hash moves it one level down
+					final «genericName» collisionNode = fromCollision(oldCollision, collisionHash, shift + 5);
+					final «genericName» tree = collisionNode.«recursiveCall»;
+					return remap(this.treeMap, this.leafMap ^ branch, this.size + 1, owner).setTree(branch, tree);
+				}
+				final Object[] newCollision = «updateCollision»;
 				if (newCollision == oldCollision) {
 					return this;
 				} else if (newCollision.length > oldCollision.length) {
-					return remap(this.treeMap, this.leafMap, this.size + 1).setCollision(branch, newCollision);
+					return remap(this.treeMap, this.leafMap, this.size + 1, owner).setCollision(branch, newCollision);
 				} else {
-					return remap(this.treeMap, this.leafMap, this.size).setCollision(branch, newCollision);
+					return remap(this.treeMap, this.leafMap, this.size, owner).setCollision(branch, newCollision);
 				}
 
 			default:
@@ -69,40 +78,39 @@ class DictGenerator implements ClassGenerator {
 		}
 	'''
 
-	def updateCollision(String entryFunc, String createNewValue, String getValue) '''
-		for (int i = 0; i < collision.length; i++) {
-			if (collision[i].get1().equals(key)) {
+	def updateCollision(String createNewValue, String newValue) '''
+		for (int i = 0; i < collision.length; i += 2) {
+			if (collision[i].equals(key)) {
 				«IF !createNewValue.empty»
 					«createNewValue»
 				«ENDIF»
-				if (collision[i].get2() == «getValue») {
+				if (collision[i + 1] == «newValue») {
 					return collision;
 				} else {
-					final P[] newCollision = new P[collision.length];
-					System.arraycopy(collision, 0, newCollision, 0, collision.length);
-					newCollision[i] = «entryFunc»;
+					final Object[] newCollision = collision.clone();
+					newCollision[i + 1] = «newValue»;
 					return newCollision;
 				}
 			}
 		}
 	'''
 
-	def prependToCollision(String defaultEntryFunc) '''
-		final P[] newCollision = new P[collision.length + 1];
-		System.arraycopy(collision, 0, newCollision, 1, collision.length);
-		newCollision[0] = «defaultEntryFunc»;
-		return newCollision;
-	'''
-
 	override sourceCode() { '''
 		package «Constants.COLLECTION»;
 
+		import java.io.IOException;
+		import java.io.InvalidObjectException;
+		import java.io.ObjectInputStream;
+		import java.io.ObjectOutputStream;
 		import java.io.Serializable;
+		import java.util.Arrays;
 		import java.util.Collections;
 		import java.util.Iterator;
 		import java.util.Map;
 		import java.util.NoSuchElementException;
+		import java.util.Spliterator;
 		import java.util.function.Consumer;
+		import java.util.stream.IntStream;
 		import java.util.stream.Stream;
 
 		import «Constants.JCATS».*;
@@ -115,18 +123,30 @@ class DictGenerator implements ClassGenerator {
 		import static «Constants.COLLECTION».HashTableCommon.*;
 
 		public final class «shortName»<K, @Covariant A> implements KeyValue<K, A>, Serializable {
-			static final «wildcardName» EMPTY = new «shortName»(0, 0, Common.«Type.OBJECT.emptyArrayName», 0);
+			static final «wildcardName» EMPTY = new «shortName»(0, 0, Common.«Type.OBJECT.emptyArrayName», 0, EMPTY_HASHES, null);
 
+			// Slots start with the leaves stored as adjacent key/value pairs, followed by
+			// subtrees and collisions (flat key/value arrays), each in the order of their branches.
 			private final int treeMap;
 			private final int leafMap;
 			private final Object[] slots;
 			private final int size;
+			// Hashes of the leaves and collisions in the order of their branches (see CACHE_HASHES), null if not cached
+			private final transient int[] hashes;
+			// Token of the builder or bulk operation that created the node (see isOwnedBy())
+			private final transient Object owner;
 
 			private «shortName»(final int treeMap, final int leafMap, final Object[] slots, final int size) {
+				this(treeMap, leafMap, slots, size, null, null);
+			}
+
+			private «shortName»(final int treeMap, final int leafMap, final Object[] slots, final int size, final int[] hashes, final Object owner) {
 				this.treeMap = treeMap;
 				this.leafMap = leafMap;
 				this.slots = slots;
 				this.size = size;
+				this.hashes = hashes;
+				this.owner = owner;
 			}
 
 			@Override
@@ -136,34 +156,50 @@ class DictGenerator implements ClassGenerator {
 
 			@Override
 			public A getOrNull(final K key) {
-				return get(key, key.hashCode(), 0);
+				return get(key, «hash("key")», 0);
 			}
 
 			public «genericName» put(final K key, final A value) {
 				requireNonNull(value);
-				return put(key, key.hashCode(), value, 0);
+				return put(key, «hash("key")», value, 0, null);
+			}
+
+			«genericName» put(final K key, final A value, final Object owner) {
+				requireNonNull(value);
+				return put(key, «hash("key")», value, 0, owner);
 			}
 
 			public «genericName» putEntry(final P<K, A> entry) {
 				requireNonNull(entry);
-				return putEntry(entry.get1(), entry.get1().hashCode(), entry, 0);
+				return put(entry.get1(), «hash("entry.get1()")», entry.get2(), 0, null);
+			}
+
+			«genericName» putEntry(final P<K, A> entry, final Object owner) {
+				requireNonNull(entry);
+				return put(entry.get1(), «hash("entry.get1()")», entry.get2(), 0, owner);
 			}
 
 			public «genericName» updateValue(final K key, final F<A, A> f) {
 				requireNonNull(f);
-				final int keyHash = key.hashCode();
+				final int keyHash = «hash("key")»;
 				return updateValue(key, keyHash, f, 0);
 			}
 
 			public «genericName» updateValueOrPut(final K key, final A defaultValue, final F<A, A> f) {
 				requireNonNull(defaultValue);
 				requireNonNull(f);
-				final int keyHash = key.hashCode();
-				return updateValueOrPut(key, keyHash, defaultValue, f, 0);
+				final int keyHash = «hash("key")»;
+				return updateValueOrPut(key, keyHash, defaultValue, f, 0, null);
+			}
+
+			«genericName» updateValueOrPut(final K key, final A defaultValue, final F<A, A> f, final Object owner) {
+				requireNonNull(defaultValue);
+				requireNonNull(f);
+				return updateValueOrPut(key, «hash("key")», defaultValue, f, 0, owner);
 			}
 
 			public «genericName» remove(final K key) {
-				return remove(key, key.hashCode(), 0);
+				return remove(key, «hash("key")», 0);
 			}
 
 			private A get(final K key, final int keyHash, final int shift) {
@@ -173,9 +209,9 @@ class DictGenerator implements ClassGenerator {
 					case VOID: return null;
 
 					case LEAF:
-						final P<K, A> entry = getEntry(branch);
-						if (entry.get1().equals(key)) {
-							return entry.get2();
+						final int index = pairIndex(branch, this.treeMap, this.leafMap);
+						if (keyAt(index).equals(key)) {
+							return valueAt(index);
 						} else {
 							return null;
 						}
@@ -205,19 +241,39 @@ class DictGenerator implements ClassGenerator {
 			}
 
 			private static <K, A> P<K, A> getFirst(Dict<K, A> dict) {
-				«HashTableCommonGenerator.getFirst("dict", "P<K, A>", false)»
+				while (true) {
+					if (dict.pairsLength() != 0) {
+						return p(dict.keyAt(0), dict.valueAt(0));
+					} else if ((dict.leafMap & Integer.lowestOneBit(dict.treeMap)) == 0) {
+						dict = dict.treeAt(0);
+					} else {
+						final Object[] collision = dict.collisionAt(0);
+						return p((K) collision[0], (A) collision[1]);
+					}
+				}
+			}
+
+			private int pairsLength() {
+				return 2 * Integer.bitCount(this.leafMap & ~this.treeMap);
 			}
 
-			private P<K, A> entryAt(final int index) {
-				return (P<K, A>) this.slots[index];
+			private K keyAt(final int index) {
+				return (K) this.slots[index];
 			}
 
-			private P<K, A> getEntry(final int branch) {
-				return entryAt(arrayIndex(branch, this.treeMap, this.leafMap));
+			private A valueAt(final int index) {
+				return (A) this.slots[index + 1];
 			}
 
-			private «genericName» setEntry(final int branch, final P<K, A> entry) {
-				this.slots[arrayIndex(branch, this.treeMap, this.leafMap)] = entry;
+			private «genericName» setLeaf(final int branch, final K key, final A value) {
+				final int index = pairIndex(branch, this.treeMap, this.leafMap);
+				this.slots[index] = key;
+				this.slots[index + 1] = value;
+				return this;
+			}
+
+			private «genericName» setValueAt(final int index, final A value) {
+				this.slots[index + 1] = value;
 				return this;
 			}
 
@@ -226,24 +282,24 @@ class DictGenerator implements ClassGenerator {
 			}
 
 			private «genericName» getTree(final int branch) {
-				return treeAt(arrayIndex(branch, this.treeMap, this.leafMap));
+				return treeAt(nodeIndex(branch, this.treeMap, this.leafMap));
 			}
 
 			private «genericName» setTree(final int branch, final «genericName» tree) {
-				this.slots[arrayIndex(branch, this.treeMap, this.leafMap)] = tree;
+				this.slots[nodeIndex(branch, this.treeMap, this.leafMap)] = tree;
 				return this;
 			}
 
-			private P[] collisionAt(final int index) {
-				return (P[]) this.slots[index];
+			private Object[] collisionAt(final int index) {
+				return (Object[]) this.slots[index];
 			}
 
-			private P[] getCollision(final int branch) {
-				return collisionAt(arrayIndex(branch, this.treeMap, this.leafMap));
+			private Object[] getCollision(final int branch) {
+				return collisionAt(nodeIndex(branch, this.treeMap, this.leafMap));
 			}
 
-			private «genericName» setCollision(final int branch, final P[] collision) {
-				this.slots[arrayIndex(branch, this.treeMap, this.leafMap)] = collision;
+			private «genericName» setCollision(final int branch, final Object[] collision) {
+				this.slots[nodeIndex(branch, this.treeMap, this.leafMap)] = collision;
 				return this;
 			}
 
@@ -251,21 +307,66 @@ class DictGenerator implements ClassGenerator {
 				return this.treeMap == 0 && Integer.bitCount(this.leafMap) == 1;
 			}
 
-			private P<K, A> singleEntry() {
-				return (P<K, A>) this.slots[0];
+			private «genericName» remap(final int treeMap, final int leafMap, final int size) {
+				return remap(treeMap, leafMap, size, null);
 			}
 
-			«HashTableCommonGenerator.remap(shortName, genericName, diamondName)»
+			private «genericName» remap(final int treeMap, final int leafMap, final int size, final Object owner) {
+				if (this.leafMap == leafMap && this.treeMap == treeMap) {
+					// An owned node is replaced by the result, so they can share the slots
+					final Object[] slots = isOwnedBy(owner) ? this.slots : this.slots.clone();
+					return new «genericName»(treeMap, leafMap, slots, size, this.hashes, owner);
+				} else if (size == 0) {
+					return empty«shortName»();
+				} else {
+					int oldPairMap = this.leafMap & ~this.treeMap;
+					int newPairMap = leafMap & ~treeMap;
+					int oldNodeMap = this.treeMap;
+					int newNodeMap = treeMap;
+					int i = 0;
+					int j = 0;
+					int k = 2 * Integer.bitCount(oldPairMap);
+					int l = 2 * Integer.bitCount(newPairMap);
+					final Object[] slots = new Object[l + Integer.bitCount(newNodeMap)];
+					while ((newPairMap | newNodeMap) != 0) {
+						if ((oldPairMap & newPairMap & 1) == 1) {
+							slots[j] = this.slots[i];
+							slots[j + 1] = this.slots[i + 1];
+						} else if ((oldNodeMap & newNodeMap & 1) == 1) {
+							slots[l] = this.slots[k];
+						}
+						if ((oldPairMap & 1) == 1) {
+							i += 2;
+						}
+						if ((newPairMap & 1) == 1) {
+							j += 2;
+						}
+						if ((oldNodeMap & 1) == 1) {
+							k++;
+						}
+						if ((newNodeMap & 1) == 1) {
+							l++;
+						}
 
-			private «genericName» put(final K key, final int keyHash, final A value, final int shift) {
-				«update("p(key, value)", "p(key, value)", "", "value", "put(key, keyHash, value, shift + 5)", "putToCollision(oldCollision, key, value)")»
+						oldPairMap >>>= 1;
+						newPairMap >>>= 1;
+						oldNodeMap >>>= 1;
+						newNodeMap >>>= 1;
+					}
+					final int[] hashes = remapHashes(this.hashes, this.leafMap, leafMap);
+					return new «genericName»(treeMap, leafMap, slots, size, hashes, owner);
+				}
 			}
 
-			private «genericName» putEntry(final K key, final int keyHash, final P<K, A> entry, final int shift) {
-				«update("entry", "entry", "", "entry.get2()", "putEntry(key, keyHash, entry, shift + 5)", "putEntryToCollision(oldCollision, key, entry)")»
+			«HashTableCommonGenerator.owner(genericName, '''new «genericName»(this.treeMap, this.leafMap, this.slots, this.size, this.hashes, null)''')»
+
+			«HashTableCommonGenerator.cachedHashes(genericName)»
+
+			private «genericName» put(final K key, final int keyHash, final A value, final int shift, final Object owner) {
+				«update("", "value", "value", "put(key, keyHash, value, shift + 5, owner)", "putToCollision(oldCollision, key, value)")»
 			}
 
-			private Dict<K, A> updateValue(final K key, final int keyHash, final F<A, A> f, final int shift) {
+			private «genericName» updateValue(final K key, final int keyHash, final F<A, A> f, final int shift) {
 				final int branch = branch(keyHash, shift);
 
 				switch (slotType(branch, this.treeMap, this.leafMap)) {
@@ -273,34 +374,35 @@ class DictGenerator implements ClassGenerator {
 						return this;
 
 					case LEAF:
-						final P<K, A> leaf = getEntry(branch);
-						if (key.equals(leaf.get1())) {
-							final A newValue = requireNonNull(f.apply(leaf.get2()));
-							if (newValue == leaf.get2()) {
+						final int index = pairIndex(branch, this.treeMap, this.leafMap);
+						if (key.equals(keyAt(index))) {
+							final A oldValue = valueAt(index);
+							final A newValue = requireNonNull(f.apply(oldValue));
+							if (newValue == oldValue) {
 								return this;
 							} else {
-								return new Dict<K, A>(this.treeMap, this.leafMap, this.slots.clone(), this.size).setEntry(branch, p(key, newValue));
+								return new «genericName»(this.treeMap, this.leafMap, this.slots.clone(), this.size, this.hashes, null).setValueAt(index, newValue);
 							}
 						} else {
 							return this;
 						}
 
 					case TREE:
-						final Dict<K, A> oldTree = getTree(branch);
-						final Dict<K, A> newTree = oldTree.updateValue(key, keyHash, f, shift + 5);
+						final «genericName» oldTree = getTree(branch);
+						final «genericName» newTree = oldTree.updateValue(key, keyHash, f, shift + 5);
 						if (newTree == oldTree) {
 							return this;
 						} else {
-							return new Dict<K, A>(this.treeMap, this.leafMap, this.slots.clone(), this.size).setTree(branch, newTree);
+							return new «genericName»(this.treeMap, this.leafMap, this.slots.clone(), this.size, this.hashes, null).setTree(branch, newTree);
 						}
 
 					case COLLISION:
-						final P[] oldCollision = getCollision(branch);
-						final P[] newCollision = updateValueOrPutToCollision(oldCollision, key, null, f);
+						final Object[] oldCollision = getCollision(branch);
+						final Object[] newCollision = updateValueOrPutToCollision(oldCollision, key, null, f);
 						if (newCollision == oldCollision) {
 							return this;
 						} else {
-							return new Dict<K, A>(this.treeMap, this.leafMap, this.slots.clone(), this.size).setCollision(branch, newCollision);
+							return new «genericName»(this.treeMap, this.leafMap, this.slots.clone(), this.size, this.hashes, null).setCollision(branch, newCollision);
 						}
 
 					default:
@@ -308,59 +410,435 @@ class DictGenerator implements ClassGenerator {
 				}
 			}
 
-			private «genericName» updateValueOrPut(final K key, final int keyHash, final A defaultValue, final F<A, A> f, final int shift) {
-				«update("p(key, newValue)", "p(key, defaultValue)", "final A newValue = requireNonNull(f.apply(leaf.get2()));",
-					"newValue", "updateValueOrPut(key, keyHash, defaultValue, f, shift + 5)", "updateValueOrPutToCollision(oldCollision, key, defaultValue, f)")»
+			private «genericName» updateValueOrPut(final K key, final int keyHash, final A defaultValue, final F<A, A> f, final int shift, final Object owner) {
+				«update("final A newValue = requireNonNull(f.apply(leafValue));", "newValue", "defaultValue",
+					"updateValueOrPut(key, keyHash, defaultValue, f, shift + 5, owner)", "updateValueOrPutToCollision(oldCollision, key, defaultValue, f)")»
 			}
 
-			«HashTableCommonGenerator.remove(genericName, "K", "key", "P<K, A>", "entry.get1().equals(key)", "P", false)»
+			private «genericName» remove(final K key, final int keyHash, final int shift) {
+				final int branch = branch(keyHash, shift);
 
-			«HashTableCommonGenerator.merge(Type.OBJECT, paramGenericName, "P<K, A>", diamondName)»
+				switch (slotType(branch, this.treeMap, this.leafMap)) {
+					case VOID:
+						return this;
 
-			private A getFromCollision(final P[] collision, final K key) {
-				for (final P<K, A> entry : collision) {
-					if (entry.get1().equals(key)) {
-						return entry.get2();
-					}
+					case LEAF:
+						if (keyAt(pairIndex(branch, this.treeMap, this.leafMap)).equals(key)) {
+							return remap(this.treeMap, this.leafMap ^ branch, this.size - 1);
+						} else {
+							return this;
+						}
+
+					case TREE:
+						final «genericName» oldTree = getTree(branch);
+						final «genericName» newTree = oldTree.remove(key, keyHash, shift + 5);
+						if (oldTree == newTree) {
+							return this;
+						} else if (newTree.isEmpty()) {
+							return remap(this.treeMap ^ branch, this.leafMap, this.size - 1);
+						} else if (newTree.isSingle()) {
+							final K singleKey = newTree.keyAt(0);
+							return remap(this.treeMap ^ branch, this.leafMap | branch, this.size + 1 - oldTree.size).setLeaf(branch, singleKey, newTree.valueAt(0))
+									.setHash(branch, newTree.slotHash(newTree.leafMap, singleKey));
+						} else {
+							return remap(this.treeMap, this.leafMap, this.size + newTree.size - oldTree.size).setTree(branch, newTree);
+						}
+
+					case COLLISION:
+						final Object[] oldCollision = getCollision(branch);
+						final Object[] newCollision = removeFromCollision(oldCollision, key);
+						if (newCollision == oldCollision) {
+							return this;
+						} else if (newCollision.length == 2) {
+							return remap(this.treeMap ^ branch, this.leafMap, this.size - 1).setLeaf(branch, (K) newCollision[0], (A) newCollision[1]);
+						} else {
+							return remap(this.treeMap, this.leafMap, this.size - 1).setCollision(branch, newCollision);
+						}
+
+					default:
+						throw new AssertionError();
 				}
-				return null;
 			}
 
-			private P[] putToCollision(final P[] collision, final K key, final A value) {
-				«updateCollision("p(key, value)", "", "value")»
+			«HashTableCommonGenerator.fromCollision(paramGenericName, genericName, "Object", false, "collision.length / 2", true)»
+
+			private static «paramGenericName» merge(final K key0, final A value0, final int hash0, final K key1, final A value1, final int hash1,
+					final int shift, final Object owner) {
+				// assume(hash0 != hash1)
+				final int branch0 = branch(hash0, shift);
+				final int branch1 = branch(hash1, shift);
+				final int slotMap = branch0 | branch1;
+				if (branch0 == branch1) {
+					final Object[] slots = { merge(key0, value0, hash0, key1, value1, hash1, shift + 5, owner) };
+					return new «genericName»(slotMap, 0, slots, 2, EMPTY_HASHES, owner);
+				} else if (((branch0 - 1) & branch1) == 0) {
+					final Object[] slots = { key0, value0, key1, value1 };
+					return new «genericName»(0, slotMap, slots, 2, CACHE_HASHES ? new int[] { hash0, hash1 } : null, owner);
+				} else {
+					final Object[] slots = { key1, value1, key0, value0 };
+					return new «genericName»(0, slotMap, slots, 2, CACHE_HASHES ? new int[] { hash1, hash0 } : null, owner);
+				}
+			}
 
-				«prependToCollision("p(key, value)")»
+			private A getFromCollision(final Object[] collision, final K key) {
+				for (int i = 0; i < collision.length; i += 2) {
+					if (collision[i].equals(key)) {
+						return (A) collision[i + 1];
+					}
+				}
+				return null;
 			}
 
-			private P[] putEntryToCollision(final P[] collision, final K key, final P<K, A> entry) {
-				«updateCollision("entry", "", "entry.get2()")»
+			private Object[] putToCollision(final Object[] collision, final K key, final A value) {
+				«updateCollision("", "value")»
 
-				«prependToCollision("entry")»
+				return prependToCollision(collision, key, value);
 			}
 
-			private P[] updateValueOrPutToCollision(final P[] collision, final K key, final A defaultValue, final F<A, A> f) {
-				«updateCollision("p(key, newValue)", "final A newValue = requireNonNull(f.apply((A) collision[i].get2()));", "newValue")»
+			private Object[] updateValueOrPutToCollision(final Object[] collision, final K key, final A defaultValue, final F<A, A> f) {
+				«updateCollision("final A newValue = requireNonNull(f.apply((A) collision[i + 1]));", "newValue")»
 
 				if (defaultValue == null) {
 					return collision;
 				} else {
-					«prependToCollision("p(key, defaultValue)")»
+					return prependToCollision(collision, key, defaultValue);
 				}
 			}
 
-			private P[] removeFromCollision(final P[] collision, final K key) {
-				for (int i = 0; i < collision.length; i++) {
-					final P<K, A> entry = collision[i];
-					if (entry.get1().equals(key)) {
-						final P[] newCollision = new P[collision.length - 1];
+			private static Object[] prependToCollision(final Object[] collision, final Object key, final Object value) {
+				final Object[] newCollision = new Object[collision.length + 2];
+				System.arraycopy(collision, 0, newCollision, 2, collision.length);
+				newCollision[0] = key;
+				newCollision[1] = value;
+				return newCollision;
+			}
+
+			private Object[] removeFromCollision(final Object[] collision, final K key) {
+				for (int i = 0; i < collision.length; i += 2) {
+					if (collision[i].equals(key)) {
+						final Object[] newCollision = new Object[collision.length - 2];
 						System.arraycopy(collision, 0, newCollision, 0, i);
-						System.arraycopy(collision, i + 1, newCollision, i, newCollision.length - i);
+						System.arraycopy(collision, i + 2, newCollision, i, newCollision.length - i);
 						return newCollision;
 					}
 				}
 				return collision;
 			}
 
+			/**
+			 * Returns the entries whose keys are contained in this or the other dictionary,
+			 * taking the value from this dictionary for keys contained in both.
+			 * The tries are combined node by node, so branches present in only one of the dictionaries
+			 * and identical subtrees are reused without being traversed.
+			 */
+			public «genericName» union(final «genericName» other) {
+				requireNonNull(other);
+				return combine(this, other, 0, UNION);
+			}
+
+			/**
+			 * Returns the entries of this dictionary whose keys are contained in the other dictionary.
+			 * Branches present in only one of the dictionaries are skipped without being traversed.
+			 */
+			public «genericName» intersect(final «genericName» other) {
+				requireNonNull(other);
+				return combine(this, other, 0, INTERSECTION);
+			}
+
+			/**
+			 * Returns the entries of this dictionary whose keys are not contained in the other dictionary.
+			 */
+			public «genericName» difference(final «genericName» other) {
+				requireNonNull(other);
+				return combine(this, other, 0, DIFFERENCE);
+			}
+
+			/**
+			 * Returns the entries whose keys are contained in exactly one of this and the other dictionary.
+			 */
+			public «genericName» symmetricDifference(final «genericName» other) {
+				requireNonNull(other);
+				return combine(this, other, 0, SYMMETRIC_DIFFERENCE);
+			}
+
+			/**
+			 * Returns {@code true} if every key of this dictionary is contained in the other dictionary
+			 */
+			public boolean isSubsetOf(final «wildcardName» other) {
+				requireNonNull(other);
+				return isSubsetOf(this, (Dict<Object, ?>) other, 0);
+			}
+
+			/**
+			 * Returns {@code true} if this and the other dictionary have no keys in common
+			 */
+			public boolean isDisjointWith(final «wildcardName» other) {
+				requireNonNull(other);
+				return isDisjointWith(this, (Dict<Object, ?>) other, 0);
+			}
+
+			private static «paramGenericName» combine(final «genericName» a, final «genericName» b, final int shift, final int operation) {
+				if (a == b) {
+					return (operation == UNION || operation == INTERSECTION) ? a : empty«shortName»();
+				} else if (a.isEmpty()) {
+					return (operation == UNION || operation == SYMMETRIC_DIFFERENCE) ? b : a;
+				} else if (b.isEmpty()) {
+					return (operation == INTERSECTION) ? b : a;
+				}
+
+				int slotMap = combineSlotMaps(a.treeMap | a.leafMap, b.treeMap | b.leafMap, operation);
+				final Object[] pairs = new Object[2 * Integer.bitCount(slotMap)];
+				final Object[] nodes = new Object[Integer.bitCount(slotMap)];
+				int pairsLength = 0;
+				int nodesLength = 0;
+				int treeMap = 0;
+				int leafMap = 0;
+				int size = 0;
+				boolean sameAsA = true;
+				boolean sameAsB = true;
+				while (slotMap != 0) {
+					final int branch = Integer.lowestOneBit(slotMap);
+					slotMap ^= branch;
+					final int aType = slotType(branch, a.treeMap, a.leafMap);
+					final int bType = slotType(branch, b.treeMap, b.leafMap);
+					final «genericName» node;
+					if (bType == VOID || aType == VOID) {
+						node = (bType == VOID) ? a : b;
+						final int type = (bType == VOID) ? aType : bType;
+						if (type == LEAF) {
+							final int index = pairIndex(branch, node.treeMap, node.leafMap);
+							pairs[pairsLength++] = node.slots[index];
+							pairs[pairsLength++] = node.slots[index + 1];
+							leafMap |= branch;
+							size++;
+						} else {
+							nodes[nodesLength++] = node.slots[nodeIndex(branch, node.treeMap, node.leafMap)];
+							treeMap |= branch;
+							if (type == COLLISION) {
+								leafMap |= branch;
+								size += node.getCollision(branch).length / 2;
+							} else {
+								size += node.getTree(branch).size;
+							}
+						}
+						sameAsA &= (node == a);
+						sameAsB &= (node == b);
+					} else {
+						node = combineSlots(a, aType, b, bType, branch, shift, operation);
+						if (node.isEmpty()) {
+							sameAsA = false;
+							sameAsB = false;
+						} else if (node.isSingle()) {
+							pairs[pairsLength++] = node.slots[0];
+							pairs[pairsLength++] = node.slots[1];
+							leafMap |= branch;
+							sameAsA &= (aType == LEAF) && a.sameLeaf(branch, node.slots[0], node.slots[1]);
+							sameAsB &= (bType == LEAF) && b.sameLeaf(branch, node.slots[0], node.slots[1]);
+						} else {
+							final boolean collision = (node.treeMap == node.leafMap && Integer.bitCount(node.treeMap) == 1);
+							final Object slot = collision ? node.slots[0] : node;
+							nodes[nodesLength++] = slot;
+							treeMap |= branch;
+							if (collision) {
+								leafMap |= branch;
+							}
+							sameAsA &= (aType == (collision ? COLLISION : TREE)) && a.slots[nodeIndex(branch, a.treeMap, a.leafMap)] == slot;
+							sameAsB &= (bType == (collision ? COLLISION : TREE)) && b.slots[nodeIndex(branch, b.treeMap, b.leafMap)] == slot;
+						}
+						size += node.size;
+					}
+				}
+
+				if (sameAsA && treeMap == a.treeMap && leafMap == a.leafMap) {
+					return a;
+				} else if (sameAsB && treeMap == b.treeMap && leafMap == b.leafMap) {
+					return b;
+				} else if (size == 0) {
+					return empty«shortName»();
+				} else {
+					final Object[] slots = new Object[pairsLength + nodesLength];
+					System.arraycopy(pairs, 0, slots, 0, pairsLength);
+					System.arraycopy(nodes, 0, slots, pairsLength, nodesLength);
+					return new «diamondName»(treeMap, leafMap, slots, size);
+				}
+			}
+
+			private static «paramGenericName» combineSlots(final «genericName» a, final int aType, final «genericName» b, final int bType,
+					final int branch, final int shift, final int operation) {
+				if (aType == TREE && bType == TREE) {
+					return combine(a.getTree(branch), b.getTree(branch), shift + 5, operation);
+				} else if (bType != TREE) {
+					«genericName» result = (aType == TREE) ? a.getTree(branch) : a.slotAsNode(aType, branch, shift + 5);
+					«genericName» intersection = empty«shortName»();
+					final Object[] entries = b.slotEntries(bType, branch);
+					final int keyHash = b.slotHash(branch, entries[0]);
+					for (int k = 0; k < entries.length; k += 2) {
+						final K key = (K) entries[k];
+						final A value = result.get(key, keyHash, shift + 5);
+						if (operation == UNION) {
+							if (value == null) {
+								result = result.put(key, keyHash, (A) entries[k + 1], shift + 5, null);
+							}
+						} else if (operation == INTERSECTION) {
+							if (value != null) {
+								intersection = intersection.put(key, keyHash, value, shift + 5, null);
+							}
+						} else if (operation == DIFFERENCE || value != null) {
+							result = result.remove(key, keyHash, shift + 5);
+						} else {
+							result = result.put(key, keyHash, (A) entries[k + 1], shift + 5, null);
+						}
+					}
+					return (operation == INTERSECTION) ? intersection : result;
+				} else {
+					«genericName» result = b.getTree(branch);
+					«genericName» filtered = empty«shortName»();
+					final Object[] entries = a.slotEntries(aType, branch);
+					final int keyHash = a.slotHash(branch, entries[0]);
+					for (int k = 0; k < entries.length; k += 2) {
+						final K key = (K) entries[k];
+						final A value = (A) entries[k + 1];
+						if (operation == UNION) {
+							result = result.put(key, keyHash, value, shift + 5, null);
+						} else if (operation == SYMMETRIC_DIFFERENCE) {
+							if (result.get(key, keyHash, shift + 5) == null) {
+								result = result.put(key, keyHash, value, shift + 5, null);
+							} else {
+								result = result.remove(key, keyHash, shift + 5);
+							}
+						} else if ((result.get(key, keyHash, shift + 5) != null) == (operation == INTERSECTION)) {
+							filtered = filtered.put(key, keyHash, value, shift + 5, null);
+						}
+					}
+					return (operation == INTERSECTION || operation == DIFFERENCE) ? filtered : result;
+				}
+			}
+
+			private static boolean isSubsetOf(final «wildcardName» a, final Dict<Object, ?> b, final int shift) {
+				if (a == b || a.isEmpty()) {
+					return true;
+				} else if (a.size > b.size || ((a.treeMap | a.leafMap) & ~(b.treeMap | b.leafMap)) != 0) {
+					return false;
+				}
+
+				int slotMap = a.treeMap | a.leafMap;
+				while (slotMap != 0) {
+					final int branch = Integer.lowestOneBit(slotMap);
+					slotMap ^= branch;
+					final int aType = slotType(branch, a.treeMap, a.leafMap);
+					final int bType = slotType(branch, b.treeMap, b.leafMap);
+					if (aType == TREE && bType == TREE) {
+						if (!isSubsetOf(a.getTree(branch), b.getTree(branch), shift + 5)) {
+							return false;
+						}
+					} else if (aType == TREE) {
+						// The subtree is a subset of the leaf or collision if it contains as many of its keys as it has
+						final «wildcardName» tree = a.getTree(branch);
+						final Object[] entries = b.slotEntries(bType, branch);
+						final int hash = b.slotHash(branch, entries[0]);
+						int contained = 0;
+						for (int k = 0; k < entries.length; k += 2) {
+							if (((Dict<Object, ?>) tree).get(entries[k], hash, shift + 5) != null) {
+								contained++;
+							}
+						}
+						if (contained != tree.size) {
+							return false;
+						}
+					} else {
+						final Object[] entries = a.slotEntries(aType, branch);
+						final int hash = a.slotHash(branch, entries[0]);
+						for (int k = 0; k < entries.length; k += 2) {
+							if (!b.slotContainsKey(bType, branch, entries[k], hash, shift)) {
+								return false;
+							}
+						}
+					}
+				}
+				return true;
+			}
+
+			private static boolean isDisjointWith(final «wildcardName» a, final Dict<Object, ?> b, final int shift) {
+				if (a == b) {
+					return a.isEmpty();
+				}
+
+				int slotMap = (a.treeMap | a.leafMap) & (b.treeMap | b.leafMap);
+				while (slotMap != 0) {
+					final int branch = Integer.lowestOneBit(slotMap);
+					slotMap ^= branch;
+					final int aType = slotType(branch, a.treeMap, a.leafMap);
+					final int bType = slotType(branch, b.treeMap, b.leafMap);
+					if (aType == TREE && bType == TREE) {
+						if (!isDisjointWith(a.getTree(branch), b.getTree(branch), shift + 5)) {
+							return false;
+						}
+					} else {
+						final boolean aIsSmall = (aType != TREE);
+						final Object[] entries = aIsSmall ? a.slotEntries(aType, branch) : b.slotEntries(bType, branch);
+						final Dict<Object, ?> other = aIsSmall ? b : (Dict<Object, ?>) a;
+						final int hash = aIsSmall ? a.slotHash(branch, entries[0]) : b.slotHash(branch, entries[0]);
+						for (int k = 0; k < entries.length; k += 2) {
+							if (other.slotContainsKey(aIsSmall ? bType : aType, branch, entries[k], hash, shift)) {
+								return false;
+							}
+						}
+					}
+				}
+				return true;
+			}
+
+			/**
+			 * Returns the key/value pairs of a leaf or a collision as a flat array
+			 */
+			private Object[] slotEntries(final int type, final int branch) {
+				if (type == LEAF) {
+					final int index = pairIndex(branch, this.treeMap, this.leafMap);
+					return new Object[] { this.slots[index], this.slots[index + 1] };
+				} else {
+					return getCollision(branch);
+				}
+			}
+
+			int branchSize(final int branch) {
+				switch (slotType(branch, this.treeMap, this.leafMap)) {
+					case LEAF: return 1;
+					case TREE: return getTree(branch).size;
+					case COLLISION: return getCollision(branch).length / 2;
+					default: return 0;
+				}
+			}
+
+			«HashTableCommonGenerator.spliteratorSupport(genericName, "Spliterator<P<K, A>>", "DictSpliterator<>")»
+
+			private boolean slotContainsKey(final int type, final int branch, final K key, final int keyHash, final int shift) {
+				switch (type) {
+					case LEAF: return keyAt(pairIndex(branch, this.treeMap, this.leafMap)).equals(key);
+					case TREE: return getTree(branch).get(key, keyHash, shift + 5) != null;
+					case COLLISION: return getFromCollision(getCollision(branch), key) != null;
+					default: return false;
+				}
+			}
+
+			private boolean sameLeaf(final int branch, final Object key, final Object value) {
+				final int index = pairIndex(branch, this.treeMap, this.leafMap);
+				return this.slots[index] == key && this.slots[index + 1] == value;
+			}
+
+			/**
+			 * Returns a leaf or a collision as a node of the next level, so that it can be combined with a subtree
+			 */
+			private «genericName» slotAsNode(final int type, final int branch, final int shift) {
+				if (type == LEAF) {
+					final int index = pairIndex(branch, this.treeMap, this.leafMap);
+					final Object[] slots = { this.slots[index], this.slots[index + 1] };
+					return new «diamondName»(0, branch(slotHash(branch, slots[0]), shift), slots, 1);
+				} else {
+					final Object[] collision = getCollision(branch);
+					return fromCollision(collision, slotHash(branch, collision[0]), shift);
+				}
+			}
+
 			private «genericName» merge(final «genericName» other, final F3<K, A, A, A> mergeFunction) {
 				requireNonNull(other);
 				if (isEmpty()) {
@@ -369,20 +847,22 @@ class DictGenerator implements ClassGenerator {
 					return this;
 				} else if (size() >= other.size()) {
 					«genericName» result = this;
+					final Object owner = new Object();
 					for (final P<K, A> p : other) {
 						final K key = p.get1();
 						final A value2 = p.get2();
-						result = result.updateValueOrPut(key, value2, value1 -> mergeFunction.apply(key, value1, value2));
+						result = result.updateValueOrPut(key, value2, value1 -> mergeFunction.apply(key, value1, value2), owner);
 					}
-					return result;
+					return result.freeze(owner);
 				} else {
 					«genericName» result = other;
+					final Object owner = new Object();
 					for (final P<K, A> p : this) {
 						final K key = p.get1();
 						final A value1 = p.get2();
-						result = result.updateValueOrPut(key, value1, value2 -> mergeFunction.apply(key, value1, value2));
+						result = result.updateValueOrPut(key, value1, value2 -> mergeFunction.apply(key, value1, value2), owner);
 					}
-					return result;
+					return result.freeze(owner);
 				}
 			}
 
@@ -394,7 +874,7 @@ class DictGenerator implements ClassGenerator {
 
 			@Override
 			public Iterator<P<K, A>> iterator() {
-				return isEmpty() ? Collections.emptyIterator() : new HashTableIterator<>(this.leafMap, this.treeMap, this.slots);
+				return isEmpty() ? Collections.emptyIterator() : new DictIterator<>(this.slots, pairsLength(), this.treeMap, this.leafMap);
 			}
 
 			/**
@@ -408,10 +888,138 @@ class DictGenerator implements ClassGenerator {
 
 			@Override
 			public void forEach(final Consumer<? super P<K, A>> action) {
-				«HashTableCommonGenerator.forEach("forEach", "action", "accept", "Object", "P<K, A>", false)»
+				requireNonNull(action);
+				foreach((final K key, final A value) -> action.accept(p(key, value)));
 			}
 
-			«keyValueEquals»
+			@Override
+			public void foreach(final Eff2<K, A> eff) {
+				requireNonNull(eff);
+				final int pairsLength = pairsLength();
+				for (int i = 0; i < pairsLength; i += 2) {
+					eff.apply(keyAt(i), valueAt(i));
+				}
+				int treeMap = this.treeMap;
+				for (int i = pairsLength; i < this.slots.length; i++) {
+					final int branch = Integer.lowestOneBit(treeMap);
+					treeMap ^= branch;
+					if ((this.leafMap & branch) == 0) {
+						treeAt(i).foreach(eff);
+					} else {
+						final Object[] collision = collisionAt(i);
+						for (int j = 0; j < collision.length; j += 2) {
+							eff.apply((K) collision[j], (A) collision[j + 1]);
+						}
+					}
+				}
+			}
+
+			«HashTableCommonGenerator.statistics('''
+				statistics.addNode(depth);
+				int treeMap = this.treeMap;
+				for (int i = pairsLength(); i < this.slots.length; i++) {
+					final int branch = Integer.lowestOneBit(treeMap);
+					treeMap ^= branch;
+					if ((this.leafMap & branch) == 0) {
+						treeAt(i).collectStatistics(statistics, depth + 1);
+					} else {
+						statistics.addCollision(collisionAt(i).length / 2);
+					}
+				}
+			''')»
+
+			/**
+			 * «equalsDeprecatedJavaDoc»
+			 */
+			@Override
+			@Deprecated
+			public boolean equals(final Object obj) {
+				if (obj == this) {
+					return true;
+				} else if (obj instanceof «wildcardName») {
+					// Hash tables are compared branch by branch, so keys of aligned leaves are not hashed
+					return entriesEqual(this, (Dict<Object, ?>) obj, 0);
+				} else if (obj instanceof KeyValue<?, ?>) {
+					return keyValuesEqual((KeyValue<Object, ?>) this, (KeyValue<Object, ?>) obj);
+				} else {
+					return false;
+				}
+			}
+
+			private static boolean entriesEqual(final «wildcardName» a, final Dict<Object, ?> b, final int shift) {
+				if (a == b) {
+					return true;
+				} else if (a.size != b.size) {
+					return false;
+				} else if (a.treeMap != b.treeMap || a.leafMap != b.leafMap) {
+					// Equal dictionaries may be shaped differently if one of them was built by a set operation
+					return containsEntries(b, a, shift);
+				}
+
+				final int pairsLength = a.pairsLength();
+				for (int i = 0; i < pairsLength; i += 2) {
+					if (!a.slots[i].equals(b.slots[i]) || !a.slots[i + 1].equals(b.slots[i + 1])) {
+						return false;
+					}
+				}
+				int treeMap = a.treeMap;
+				for (int i = pairsLength; i < a.slots.length; i++) {
+					final int branch = Integer.lowestOneBit(treeMap);
+					treeMap ^= branch;
+					if ((a.leafMap & branch) == 0) {
+						if (!entriesEqual(a.treeAt(i), b.treeAt(i), shift + 5)) {
+							return false;
+						}
+					} else {
+						final Object[] collision = a.collisionAt(i);
+						final Object[] otherCollision = b.collisionAt(i);
+						if (collision.length != otherCollision.length) {
+							return false;
+						}
+						for (int k = 0; k < collision.length; k += 2) {
+							if (!collision[k + 1].equals(b.getFromCollision(otherCollision, collision[k]))) {
+								return false;
+							}
+						}
+					}
+				}
+				return true;
+			}
+
+			/**
+			 * Returns {@code true} if the dictionary contains every entry of the node, which lies at the same level or below
+			 */
+			private static boolean containsEntries(final Dict<Object, ?> dict, final «wildcardName» node, final int shift) {
+				final int pairsLength = node.pairsLength();
+				int pairMap = node.leafMap & ~node.treeMap;
+				for (int i = 0; i < pairsLength; i += 2) {
+					final int branch = Integer.lowestOneBit(pairMap);
+					pairMap ^= branch;
+					final Object key = node.slots[i];
+					if (!node.slots[i + 1].equals(dict.get(key, node.slotHash(branch, key), shift))) {
+						return false;
+					}
+				}
+				int treeMap = node.treeMap;
+				for (int i = pairsLength; i < node.slots.length; i++) {
+					final int branch = Integer.lowestOneBit(treeMap);
+					treeMap ^= branch;
+					if ((node.leafMap & branch) == 0) {
+						if (!containsEntries(dict, node.treeAt(i), shift)) {
+							return false;
+						}
+					} else {
+						final Object[] collision = node.collisionAt(i);
+						final int hash = node.slotHash(branch, collision[0]);
+						for (int k = 0; k < collision.length; k += 2) {
+							if (!collision[k + 1].equals(dict.get(collision[k], hash, shift))) {
+								return false;
+							}
+						}
+					}
+				}
+				return true;
+			}
 
 			«keyValueHashCode»
 
@@ -470,10 +1078,99 @@ class DictGenerator implements ClassGenerator {
 				return builder.build();
 			}
 
+			/**
+			 * Parallel streams are collected to an array and loaded with {@link #fromArrayParallel}
+			 */
 			public static «paramGenericName» fromStream(final Stream<P<K, A>> entries) {
-				final DictBuilder<K, A> builder = builder();
-				builder.putStream(entries);
-				return builder.build();
+				if (entries.isParallel()) {
+					return fromEntriesParallel(entries.toArray());
+				} else {
+					final DictBuilder<K, A> builder = builder();
+					builder.putStream(entries);
+					return builder.build();
+				}
+			}
+
+			/**
+			 * Builds a Dict from a large array of entries on the common fork/join pool.
+			 * Entries are partitioned by the branch their keys take at the root of the trie,
+			 * and each of the 32 root subtrees is built by a separate task.
+			 * Of several entries with equal keys the last one is kept, as with {@link #ofEntries}.
+			 */
+			public static «paramGenericName» fromArrayParallel(final P<K, A>[] entries) {
+				requireNonNull(entries);
+				return fromEntriesParallel(entries);
+			}
+
+			/**
+			 * Parallel version of {@link #ofAll} for large containers, see {@link #fromArrayParallel}
+			 */
+			public static «paramGenericName» ofAllParallel(final Container<P<K, A>> entries) {
+				return fromEntriesParallel(entries.toObjectArray());
+			}
+
+			private static «paramGenericName» fromEntriesParallel(final Object[] entries) {
+				if (entries.length < PARALLEL_THRESHOLD) {
+					«genericName» dict = empty«shortName»();
+					final Object owner = new Object();
+					for (final Object entry : entries) {
+						dict = dict.put(((P<K, A>) entry).get1(), ((P<K, A>) entry).get2(), owner);
+					}
+					return dict.freeze(owner);
+				}
+				final int[] hashes = new int[entries.length];
+				Arrays.parallelSetAll(hashes, (final int i) -> «hash("((P<K, A>) entries[i]).get1()")»);
+				final int[] offsets = new int[33];
+				final int[] indexes = sortByRootBranch(hashes, offsets);
+				final Object[] trees = new Object[32];
+				IntStream.range(0, 32).parallel().forEach((final int branchIndex) -> {
+					final Object owner = new Object();
+					«genericName» tree = empty«shortName»();
+					for (int i = offsets[branchIndex]; i < offsets[branchIndex + 1]; i++) {
+						final int index = indexes[i];
+						final P<K, A> entry = (P<K, A>) entries[index];
+						tree = tree.put(entry.get1(), hashes[index], entry.get2(), 5, owner);
+					}
+					trees[branchIndex] = tree.freeze(owner);
+				});
+				return fromRootSubtrees(trees);
+			}
+
+			private static «paramGenericName» fromRootSubtrees(final Object[] trees) {
+				final Object[] pairs = new Object[64];
+				final Object[] nodes = new Object[32];
+				int pairsLength = 0;
+				int nodesLength = 0;
+				int treeMap = 0;
+				int leafMap = 0;
+				int size = 0;
+				for (int branchIndex = 0; branchIndex < 32; branchIndex++) {
+					final «genericName» tree = («genericName») trees[branchIndex];
+					final int branch = 1 << branchIndex;
+					if (tree.isEmpty()) {
+						continue;
+					} else if (tree.isSingle()) {
+						pairs[pairsLength++] = tree.slots[0];
+						pairs[pairsLength++] = tree.slots[1];
+						leafMap |= branch;
+					} else if (tree.treeMap == tree.leafMap && Integer.bitCount(tree.treeMap) == 1) {
+						nodes[nodesLength++] = tree.slots[0];
+						treeMap |= branch;
+						leafMap |= branch;
+					} else {
+						nodes[nodesLength++] = tree;
+						treeMap |= branch;
+					}
+					size += tree.size;
+				}
+				if (size == 0) {
+					return empty«shortName»();
+				} else {
+					final Object[] slots = new Object[pairsLength + nodesLength];
+					System.arraycopy(pairs, 0, slots, 0, pairsLength);
+					System.arraycopy(nodes, 0, slots, pairsLength, nodesLength);
+					return new «diamondName»(treeMap, leafMap, slots, size);
+				}
 			}
 
 			public static «paramGenericName» fromMap(final Map<K, A> map) {
@@ -508,11 +1205,69 @@ class DictGenerator implements ClassGenerator {
 
 			«transform(genericName)»
 
+			«HashTableCommonGenerator.writeReplace("DictSerializationProxy<>", "DictSerializationProxy")»
+
 			public static <K, A> DictBuilder<K, A> builder() {
 				return new DictBuilder<>();
 			}
 
 			«cast(#["K", "A"], #[], #["A"])»
 		}
+
+		«HashTableCommonGenerator.serializationProxy("DictSerializationProxy", "DictSerializationProxy<K, A>",
+			"Dict<K, A>", "DictBuilder<K, A>", "Dict.builder()", '''
+				for (final P<K, A> entry : this.table) {
+					out.writeObject(entry.get1());
+					out.writeObject(entry.get2());
+				}
+			''', "builder.put((K) in.readObject(), (A) in.readObject());")»
+
+		final class DictIterator<K, A> implements Iterator<P<K, A>> {
+			private final Object[] slots;
+			private final int pairsLength;
+			private int treeMap;
+			private final int leafMap;
+			private int i;
+			private Iterator<P<K, A>> childIterator;
+
+			DictIterator(final Object[] slots, final int pairsLength, final int treeMap, final int leafMap) {
+				this.slots = slots;
+				this.pairsLength = pairsLength;
+				this.treeMap = treeMap;
+				this.leafMap = leafMap;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return (this.i < this.slots.length) || (this.childIterator != null && this.childIterator.hasNext());
+			}
+
+			@Override
+			public P<K, A> next() {
+				if (this.i < this.pairsLength) {
+					final P<K, A> next = p((K) this.slots[this.i], (A) this.slots[this.i + 1]);
+					this.i += 2;
+					return next;
+				} else if (this.childIterator != null && this.childIterator.hasNext()) {
+					return this.childIterator.next();
+				} else if (this.i < this.slots.length) {
+					final int branch = Integer.lowestOneBit(this.treeMap);
+					this.treeMap ^= branch;
+					final Object node = this.slots[this.i++];
+					if ((this.leafMap & branch) == 0) {
+						this.childIterator = ((Dict<K, A>) node).iterator();
+					} else {
+						final Object[] collision = (Object[]) node;
+						this.childIterator = new DictIterator<>(collision, collision.length, 0, 0);
+					}
+					return this.childIterator.next();
+				} else {
+					throw new NoSuchElementException();
+				}
+			}
+		}
+
+		«HashTableCommonGenerator.spliterator("DictSpliterator", "DictSpliterator<K, A>", "DictSpliterator<>", genericName,
+			"Spliterator<P<K, A>>", "Consumer<? super P<K, A>>", "Iterator<P<K, A>>", "next", "forEach(action)")»
 	''' }
 }
\ No newline at end of file
@@ -6,11 +6,15 @@ import jcats.generator.Type
 
 final class HashTableCommonGenerator implements ClassGenerator {
 
+	public static val SCRAMBLE_HASHES_PROPERTY = "jcats.collection.scrambleHashes"
+	public static val CACHE_HASHES_PROPERTY = "jcats.collection.cacheHashes"
+
 	override className() { "jcats.collection.HashTableCommon" }
 
 	override sourceCode() { '''
 		package «Constants.COLLECTION»;
 
+		import java.util.Arrays;
 		import java.util.Iterator;
 		import java.util.NoSuchElementException;
 
@@ -21,9 +25,56 @@ final class HashTableCommonGenerator implements ClassGenerator {
 			static final int TREE = 0b10;
 			static final int COLLISION = 0b11;
 
+			static final int UNION = 0;
+			static final int INTERSECTION = 1;
+			static final int DIFFERENCE = 2;
+			static final int SYMMETRIC_DIFFERENCE = 3;
+
+			/**
+			 * Hash codes are scrambled unless the {@code «SCRAMBLE_HASHES_PROPERTY»} system property is {@code false}.
+			 * The setting is read once, since collections built with different settings cannot be combined.
+			 */
+			static final boolean SCRAMBLE_HASHES = !"false".equals(System.getProperty("«SCRAMBLE_HASHES_PROPERTY»"));
+
+			/**
+			 * {@link Unique} and {@link Dict} keep the hashes of their leaves and collisions next to the keys
+			 * if the {@code «CACHE_HASHES_PROPERTY»} system property is {@code true}, so that keys already
+			 * in the hash table are not hashed again when they are moved down by an insertion or compared
+			 * with the keys of another hash table. This pays off for keys with expensive {@code hashCode()}.
+			 */
+			static final boolean CACHE_HASHES = Boolean.getBoolean("«CACHE_HASHES_PROPERTY»");
+
+			/**
+			 * Cached hashes of an empty node, or null if hashes are not cached
+			 */
+			static final int[] EMPTY_HASHES = CACHE_HASHES ? new int[0] : null;
+
+			/**
+			 * Arrays shorter than this are loaded sequentially by the parallel factory methods
+			 */
+			static final int PARALLEL_THRESHOLD = 1 << 13;
+
 			private HashTableCommon() {
 			}
 
+			/**
+			 * Spreads the entropy of a hash code over all of its bits, so that keys differing only in
+			 * high bits (e.g. multiples of 32 or doubles with clustered exponents) do not end up in one branch.
+			 * The mixing is a bijection, so scrambled hashes are equal only if the hash codes are equal.
+			 */
+			static int scramble(final int hashCode) {
+				if (SCRAMBLE_HASHES) {
+					int hash = hashCode;
+					hash ^= hash >>> 16;
+					hash *= 0x85EBCA6B;
+					hash ^= hash >>> 13;
+					hash *= 0xC2B2AE35;
+					return hash ^ (hash >>> 16);
+				} else {
+					return hashCode;
+				}
+			}
+
 			static int branch(final int hash, final int shift) {
 				return 1 << ((hash >>> shift) & 0b11111);
 			}
@@ -32,6 +83,107 @@ final class HashTableCommonGenerator implements ClassGenerator {
 				return Integer.bitCount(((treeMap | leafMap) & (branch - 1)));
 			}
 
+			/**
+			 * Index of the key of a leaf stored as a key/value pair in front of the subtrees
+			 */
+			static int pairIndex(final int branch, final int treeMap, final int leafMap) {
+				return 2 * Integer.bitCount(leafMap & ~treeMap & (branch - 1));
+			}
+
+			/**
+			 * Index of a subtree or collision stored after all key/value pairs
+			 */
+			static int nodeIndex(final int branch, final int treeMap, final int leafMap) {
+				return 2 * Integer.bitCount(leafMap & ~treeMap) + Integer.bitCount(treeMap & (branch - 1));
+			}
+
+			/**
+			 * Index of a leaf whose key is stored in a separate array, in front of the subtrees in the slots
+			 */
+			static int leafIndex(final int branch, final int treeMap, final int leafMap) {
+				return Integer.bitCount(leafMap & ~treeMap & (branch - 1));
+			}
+
+			/**
+			 * Index of a subtree or collision stored after all leaf values
+			 */
+			static int nodeIndexAfterLeaves(final int branch, final int treeMap, final int leafMap) {
+				return Integer.bitCount(leafMap & ~treeMap) + Integer.bitCount(treeMap & (branch - 1));
+			}
+
+			/**
+			 * Index of the cached hash of a leaf or collision
+			 */
+			static int hashIndex(final int branch, final int leafMap) {
+				return Integer.bitCount(leafMap & (branch - 1));
+			}
+
+			/**
+			 * Returns the cached hashes of a node whose leaf map changes, copying the hashes of the remaining
+			 * leaves and collisions. Hashes of the added branches must be set by the caller.
+			 * Hash arrays are shared between nodes, so they are never modified after that.
+			 */
+			static int[] remapHashes(final int[] hashes, final int oldLeafMap, final int newLeafMap) {
+				if (hashes == null || oldLeafMap == newLeafMap) {
+					return hashes;
+				}
+
+				int oldMap = oldLeafMap;
+				int newMap = newLeafMap;
+				int i = 0;
+				int j = 0;
+				final int[] newHashes = new int[Integer.bitCount(newLeafMap)];
+				while (newMap != 0) {
+					if ((oldMap & newMap & 1) == 1) {
+						newHashes[j] = hashes[i];
+					}
+					if ((oldMap & 1) == 1) {
+						i++;
+					}
+					if ((newMap & 1) == 1) {
+						j++;
+					}
+
+					oldMap >>>= 1;
+					newMap >>>= 1;
+				}
+				return newHashes;
+			}
+
+			/**
+			 * Stable counting sort of element indexes by the branch their hashes take at the root.
+			 * The indexes of the elements of the i-th branch are placed from {@code offsets[i]}
+			 * to {@code offsets[i + 1]}, so that each root subtree can be built independently.
+			 */
+			static int[] sortByRootBranch(final int[] hashes, final int[] offsets) {
+				// assume(offsets.length == 33)
+				for (final int hash : hashes) {
+					offsets[(hash & 0b11111) + 1]++;
+				}
+				for (int i = 1; i < offsets.length; i++) {
+					offsets[i] += offsets[i - 1];
+				}
+				final int[] positions = Arrays.copyOf(offsets, 32);
+				final int[] indexes = new int[hashes.length];
+				for (int i = 0; i < hashes.length; i++) {
+					indexes[positions[hashes[i] & 0b11111]++] = i;
+				}
+				return indexes;
+			}
+
+			/**
+			 * Branches that may be present in the result of a set operation on two nodes
+			 */
+			static int combineSlotMaps(final int slotMap1, final int slotMap2, final int operation) {
+				switch (operation) {
+					case UNION: return slotMap1 | slotMap2;
+					case INTERSECTION: return slotMap1 & slotMap2;
+					case DIFFERENCE: return slotMap1;
+					case SYMMETRIC_DIFFERENCE: return slotMap1 | slotMap2;
+					default: throw new AssertionError();
+				}
+			}
+
 			static int slotType(final int branch, final int treeMap, final int leafMap) {
 				return (((leafMap & branch) != 0) ? 1 : 0) | (((treeMap & branch) != 0) ? 2 : 0);
 			}
@@ -40,10 +192,16 @@ final class HashTableCommonGenerator implements ClassGenerator {
 		«iterator(Type.OBJECT)»
 	''' }
 
-	def static remap(String shortName, String genericName, String diamondName) { '''
+	def static remap(String shortName, String genericName, boolean cacheHashes) { '''
 		private «genericName» remap(final int treeMap, final int leafMap, final int size) {
+			return remap(treeMap, leafMap, size, null);
+		}
+
+		private «genericName» remap(final int treeMap, final int leafMap, final int size, final Object owner) {
 			if (this.leafMap == leafMap && this.treeMap == treeMap) {
-				return new «diamondName»(treeMap, leafMap, this.slots.clone(), size);
+				// An owned node is replaced by the result, so they can share the slots
+				final Object[] slots = isOwnedBy(owner) ? this.slots : this.slots.clone();
+				return new «genericName»(treeMap, leafMap, slots, size«IF cacheHashes», this.hashes«ENDIF», owner);
 			} else if (size == 0) {
 				return empty«shortName»();
 			} else  {
@@ -66,12 +224,276 @@ final class HashTableCommonGenerator implements ClassGenerator {
 					oldSlotMap >>>= 1;
 					newSlotMap >>>= 1;
 				}
-				return new «diamondName»(treeMap, leafMap, slots, size);
+				«IF cacheHashes»
+					final int[] hashes = remapHashes(this.hashes, this.leafMap, leafMap);
+				«ENDIF»
+				return new «genericName»(treeMap, leafMap, slots, size«IF cacheHashes», hashes«ENDIF», owner);
+			}
+		}
+	''' }
+
+	def static cachedHashes(String genericName) { '''
+		private «genericName» setHash(final int branch, final int hash) {
+			if (this.hashes != null) {
+				this.hashes[hashIndex(branch, this.leafMap)] = hash;
+			}
+			return this;
+		}
+
+		/**
+		 * Returns the hash of the leaf or collision of the given branch, which contains the given key
+		 */
+		private int slotHash(final int branch, final Object key) {
+			return (this.hashes == null) ? scramble(key.hashCode()) : this.hashes[hashIndex(branch, this.leafMap)];
+		}
+	''' }
+
+	def static fromCollision(String paramGenericName, String genericName, String collisionName, boolean primitive, String collisionSize, boolean cacheHashes) { '''
+		/**
+		 * Returns a node of the given level that contains only the given collision
+		 */
+		private static «paramGenericName» fromCollision(final «collisionName»[] collision, final int collisionHash, final int shift) {
+			final int branch = branch(collisionHash, shift);
+			return new «genericName»(branch, branch, new Object[] { collision }, «IF primitive»null, «ENDIF»«collisionSize»«IF cacheHashes», CACHE_HASHES ? new int[] { collisionHash } : null, null«ENDIF»);
+		}
+	''' }
+
+	def static spliteratorSupport(String genericName, String spliteratorGenericName, String spliteratorDiamondName) { '''
+		@Override
+		public «spliteratorGenericName» spliterator() {
+			return new «spliteratorDiamondName»(this, this.treeMap | this.leafMap, this.size);
+		}
+
+		int slotMap() {
+			return this.treeMap | this.leafMap;
+		}
+
+		/**
+		 * Returns the subtree in the given branch or null if the branch holds a leaf or a collision
+		 */
+		«genericName» subtree(final int branch) {
+			return (slotType(branch, this.treeMap, this.leafMap) == TREE) ? getTree(branch) : null;
+		}
+
+		/**
+		 * Returns a node that contains only the given branches of this node
+		 */
+		«genericName» slice(final int slotMap, final int size) {
+			if (slotMap == (this.treeMap | this.leafMap)) {
+				return this;
+			} else {
+				return remap(this.treeMap & slotMap, this.leafMap & slotMap, size);
+			}
+		}
+	''' }
+
+	def static spliterator(String shortName, String genericName, String diamondName, String nodeName, String spliteratorName,
+			String consumerName, String iteratorName, String iteratorNext, String forEach) { '''
+		/**
+		 * Spliterator of a hash table that splits the branches of a node into two ranges of about the same size,
+		 * descending into the subtree if only one branch remains. The sizes of the ranges are exact.
+		 */
+		final class «genericName» implements «spliteratorName» {
+			private «nodeName» node;
+			// Branches of node that belong to this spliterator
+			private int slotMap;
+			private int size;
+			private «iteratorName» iterator;
+
+			«shortName»(final «nodeName» node, final int slotMap, final int size) {
+				this.node = node;
+				this.slotMap = slotMap;
+				this.size = size;
+			}
+
+			@Override
+			public boolean tryAdvance(final «consumerName» action) {
+				requireNonNull(action);
+				if (this.size == 0) {
+					return false;
+				} else {
+					if (this.iterator == null) {
+						this.iterator = this.node.slice(this.slotMap, this.size).iterator();
+					}
+					this.size--;
+					action.accept(this.iterator.«iteratorNext»());
+					return true;
+				}
+			}
+
+			@Override
+			public void forEachRemaining(final «consumerName» action) {
+				requireNonNull(action);
+				if (this.size != 0) {
+					if (this.iterator == null) {
+						this.node.slice(this.slotMap, this.size).«forEach»;
+					} else {
+						this.iterator.forEachRemaining(action);
+					}
+					this.size = 0;
+				}
+			}
+
+			@Override
+			public «spliteratorName» trySplit() {
+				if (this.iterator != null || this.size < 2) {
+					return null;
+				}
+				while (Integer.bitCount(this.slotMap) == 1) {
+					final «nodeName» subtree = this.node.subtree(this.slotMap);
+					if (subtree == null) {
+						return null;
+					}
+					this.node = subtree;
+					this.slotMap = subtree.slotMap();
+				}
+
+				// Take the lowest branches while they hold at most half of the elements, but at least one branch
+				final int half = this.size / 2;
+				int prefixMap = 0;
+				int prefixSize = 0;
+				int rest = this.slotMap;
+				while (prefixSize < half) {
+					final int branch = Integer.lowestOneBit(rest);
+					final int branchSize = this.node.branchSize(branch);
+					if (prefixMap != 0 && prefixSize + branchSize > half) {
+						break;
+					}
+					prefixMap |= branch;
+					prefixSize += branchSize;
+					rest ^= branch;
+				}
+
+				final «genericName» prefix = new «diamondName»(this.node, prefixMap, prefixSize);
+				this.slotMap = rest;
+				this.size -= prefixSize;
+				return prefix;
+			}
+
+			@Override
+			public long estimateSize() {
+				return this.size;
+			}
+
+			@Override
+			public int characteristics() {
+				return Spliterator.NONNULL | Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.SIZED | Spliterator.SUBSIZED;
 			}
 		}
 	''' }
 
-	def static remove(String genericName, String keyType, String key, String entryType, String keyTest, String rawType, boolean primitive) { '''
+	def static owner(String genericName, String unownedCopy) { '''
+		/**
+		 * Nodes created by a builder are tagged with the builder's owner token, and their slots may be
+		 * updated in place while the builder keeps that token. A null owner never matches.
+		 */
+		private boolean isOwnedBy(final Object owner) {
+			return owner != null && this.owner == owner;
+		}
+
+		/**
+		 * Replaces the nodes tagged with the given owner token by untagged copies that share their slots.
+		 * Must be called before the result of a builder or of a bulk operation is returned: the slots
+		 * are not updated after that, so the final fields of the copies publish them safely.
+		 */
+		«genericName» freeze(final Object owner) {
+			if (isOwnedBy(owner)) {
+				int treeMap = this.treeMap & ~this.leafMap;
+				while (treeMap != 0) {
+					final int branch = Integer.lowestOneBit(treeMap);
+					setTree(branch, getTree(branch).freeze(owner));
+					treeMap ^= branch;
+				}
+				return «unownedCopy»;
+			} else {
+				return this;
+			}
+		}
+	''' }
+
+	def static writeReplace(String proxyDiamondName, String proxyShortName) { '''
+		/**
+		 * The layout of the nodes depends on the hash codes of the keys and on the settings of {@link HashTableCommon},
+		 * so a hash table is serialized as its entries and rebuilt when it is deserialized (see {@link «proxyShortName»})
+		 */
+		private Object writeReplace() {
+			return new «proxyDiamondName»(this);
+		}
+
+		private void readObject(final ObjectInputStream in) throws InvalidObjectException {
+			throw new InvalidObjectException("«proxyShortName» required");
+		}
+	''' }
+
+	def static serializationProxy(String shortName, String genericName, String tableGenericName, String builderGenericName, String builder, String writeEntries, String readEntry) { '''
+		final class «genericName» implements Serializable {
+			private transient «tableGenericName» table;
+
+			«shortName»(final «tableGenericName» table) {
+				this.table = table;
+			}
+
+			private void writeObject(final ObjectOutputStream out) throws IOException {
+				out.defaultWriteObject();
+				out.writeInt(this.table.size());
+				«writeEntries»
+			}
+
+			private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+				in.defaultReadObject();
+				final int size = in.readInt();
+				if (size < 0) {
+					throw new InvalidObjectException("Negative size: " + size);
+				}
+				final «builderGenericName» builder = «builder»;
+				for (int i = 0; i < size; i++) {
+					«readEntry»
+				}
+				this.table = builder.build();
+			}
+
+			private Object readResolve() {
+				return this.table;
+			}
+		}
+	''' }
+
+	def static statistics(String collectStatistics) { '''
+		/**
+		 * Returns statistics about the shape of this hash table, such as its depth and the lengths
+		 * of its collision arrays, to detect keys with poorly distributed hash codes
+		 */
+		public HashTableStatistics hashTableStatistics() {
+			final HashTableStatistics statistics = new HashTableStatistics(this.size);
+			if (!isEmpty()) {
+				collectStatistics(statistics, 1);
+			}
+			return statistics;
+		}
+
+		private void collectStatistics(final HashTableStatistics statistics, final int depth) {
+			«collectStatistics»
+		}
+	''' }
+
+	def static collectStatistics() '''
+		statistics.addNode(depth);
+		int i = 0;
+		int treeMap = this.treeMap;
+		int leafMap = this.leafMap;
+		while ((treeMap | leafMap) != 0) {
+			switch ((leafMap & 1 | (treeMap & 1) << 1)) {
+				case VOID: break;
+				case LEAF: i++; break;
+				case TREE: treeAt(i++).collectStatistics(statistics, depth + 1); break;
+				case COLLISION: statistics.addCollision(collisionAt(i++).length); break;
+			}
+			treeMap >>>= 1;
+			leafMap >>>= 1;
+		}
+	'''
+
+	def static remove(String genericName, String keyType, String key, String entryType, String keyTest, String rawType, boolean primitive, boolean cacheHashes) { '''
 		private «genericName» remove(final «keyType» «key», final int «key»Hash, final int shift) {
 			final int branch = branch(«key»Hash, shift);
 
@@ -95,7 +517,13 @@ final class HashTableCommonGenerator implements ClassGenerator {
 					} else if (newTree.isEmpty()) {
 						return remap(this.treeMap ^ branch, this.leafMap, this.size - 1);
 					} else if (newTree.isSingle()) {
-						return remap(this.treeMap ^ branch, this.leafMap | branch, this.size + 1 - oldTree.size).setEntry(branch, newTree.singleEntry());
+						«IF cacheHashes»
+							final «entryType» single = newTree.singleEntry();
+							return remap(this.treeMap ^ branch, this.leafMap | branch, this.size + 1 - oldTree.size).setEntry(branch, single)
+									.setHash(branch, newTree.slotHash(newTree.leafMap, single));
+						«ELSE»
+							return remap(this.treeMap ^ branch, this.leafMap | branch, this.size + 1 - oldTree.size).setEntry(branch, newTree.singleEntry());
+						«ENDIF»
 					} else {
 						return remap(this.treeMap, this.leafMap, this.size + newTree.size - oldTree.size).setTree(branch, newTree);
 					}
@@ -117,25 +545,40 @@ final class HashTableCommonGenerator implements ClassGenerator {
 		}
 	''' }
 
-	def static merge(Type type, String paramGenericName, String entryName, String diamondName) { '''
-		private static «paramGenericName» merge(final «entryName» entry0, final int hash0, final «entryName» entry1, final int hash1, final int shift) {
+	def static merge(Type type, String paramGenericName, String entryName, String genericName, boolean cacheHashes) { '''
+		private static «paramGenericName» merge(final «entryName» entry0, final int hash0, final «entryName» entry1, final int hash1, final int shift, final Object owner) {
 			// assume(hash0 != hash1)
 			final int branch0 = branch(hash0, shift);
 			final int branch1 = branch(hash1, shift);
 			final int slotMap = branch0 | branch1;
 			if (branch0 == branch1) {
-				final Object[] slots = { merge(entry0, hash0, entry1, hash1, shift + 5) };
-				return new «diamondName»(slotMap, 0, slots, «IF type.primitive»null, «ENDIF» 2);
+				final Object[] slots = { merge(entry0, hash0, entry1, hash1, shift + 5, owner) };
+				return new «genericName»(slotMap, 0, slots, «IF type.primitive»null, «ENDIF»2, «IF cacheHashes»EMPTY_HASHES, «ENDIF»owner);
 			} else {
 				final «type.javaName»[] slots = new «type.javaName»[2];
+				«IF cacheHashes»
+					final int[] hashes = CACHE_HASHES ? new int[2] : null;
+				«ENDIF»
 				if (((branch0 - 1) & branch1) == 0) {
 					slots[0] = entry0;
 					slots[1] = entry1;
+					«IF cacheHashes»
+						if (hashes != null) {
+							hashes[0] = hash0;
+							hashes[1] = hash1;
+						}
+					«ENDIF»
 				} else {
 					slots[0] = entry1;
 					slots[1] = entry0;
+					«IF cacheHashes»
+						if (hashes != null) {
+							hashes[0] = hash1;
+							hashes[1] = hash0;
+						}
+					«ENDIF»
 				}
-				return new «diamondName»(0, slotMap, «IF type.primitive»null, «ENDIF»slots, 2);
+				return new «genericName»(0, slotMap, «IF type.primitive»null, «ENDIF»slots, 2, «IF cacheHashes»hashes, «ENDIF»owner);
 			}
 		}
 	''' }
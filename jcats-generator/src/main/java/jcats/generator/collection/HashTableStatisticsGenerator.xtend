@@ -0,0 +1,91 @@
+package jcats.generator.collection
+
+import jcats.generator.ClassGenerator
+import jcats.generator.Constants
+
+final class HashTableStatisticsGenerator implements ClassGenerator {
+
+	override className() { Constants.COLLECTION + ".HashTableStatistics" }
+
+	override sourceCode() { '''
+		package «Constants.COLLECTION»;
+
+		/**
+		 * Shape of a hash trie ({@link Dict}, {@link Unique} and their primitive variants),
+		 * used to detect keys with poorly distributed hash codes.
+		 *
+		 * <p>Keys with equal hash codes are kept in collision arrays that are scanned linearly,
+		 * while hash codes that differ only in a few bits make the trie deep. Hash codes are scrambled
+		 * before use unless the {@code «HashTableCommonGenerator.SCRAMBLE_HASHES_PROPERTY»} system property is {@code false}.
+		 */
+		public final class HashTableStatistics {
+			private final int size;
+			private int nodes;
+			private int maxDepth;
+			private int collisions;
+			private int collidingEntries;
+			private int maxCollisionLength;
+
+			HashTableStatistics(final int size) {
+				this.size = size;
+			}
+
+			void addNode(final int depth) {
+				this.nodes++;
+				this.maxDepth = Math.max(this.maxDepth, depth);
+			}
+
+			void addCollision(final int length) {
+				this.collisions++;
+				this.collidingEntries += length;
+				this.maxCollisionLength = Math.max(this.maxCollisionLength, length);
+			}
+
+			public int size() {
+				return this.size;
+			}
+
+			/**
+			 * Number of trie nodes, including the root
+			 */
+			public int nodes() {
+				return this.nodes;
+			}
+
+			/**
+			 * Number of nodes on the longest path from the root, 0 for an empty hash table
+			 */
+			public int maxDepth() {
+				return this.maxDepth;
+			}
+
+			/**
+			 * Number of collision arrays
+			 */
+			public int collisions() {
+				return this.collisions;
+			}
+
+			/**
+			 * Number of entries stored in collision arrays
+			 */
+			public int collidingEntries() {
+				return this.collidingEntries;
+			}
+
+			/**
+			 * Length of the longest collision array, 0 if there are no collisions
+			 */
+			public int maxCollisionLength() {
+				return this.maxCollisionLength;
+			}
+
+			@Override
+			public String toString() {
+				return "HashTableStatistics(size = " + this.size + ", nodes = " + this.nodes + ", maxDepth = " + this.maxDepth +
+						", collisions = " + this.collisions + ", collidingEntries = " + this.collidingEntries +
+						", maxCollisionLength = " + this.maxCollisionLength + ")";
+			}
+		}
+	''' }
+}
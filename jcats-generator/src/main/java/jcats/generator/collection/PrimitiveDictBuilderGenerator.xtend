@@ -0,0 +1,96 @@
+package jcats.generator.collection
+
+import java.util.List
+import jcats.generator.ClassGenerator
+import jcats.generator.Constants
+import jcats.generator.Generator
+import jcats.generator.Type
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+
+@FinalFieldsConstructor
+final class PrimitiveDictBuilderGenerator implements ClassGenerator {
+	val Type type
+
+	def static List<Generator> generators() {
+		#[Type.INT, Type.LONG].map[new PrimitiveDictBuilderGenerator(it) as Generator].toList
+	}
+
+	override className() { Constants.COLLECTION + "." + shortName }
+
+	def dictShortName() { type.shortName("Dict") }
+	def shortName() { dictShortName + "Builder" }
+	def genericName() { shortName + "<A>" }
+	def entryName() { type.typeName + "ObjectP<A>" }
+
+	override sourceCode() { '''
+		package «Constants.COLLECTION»;
+
+		import java.util.Map;
+
+		import «Constants.JCATS».*;
+		import «Constants.FUNCTION».*;
+
+		import static «Constants.COLLECTION».«dictShortName».empty«dictShortName»;
+
+		public final class «genericName» implements Sized {
+
+			private «dictShortName»<A> dict;
+			// Nodes tagged with this token were created by this builder and are updated in place
+			private final Object owner = new Object();
+
+			«shortName»() {
+				this.dict = empty«dictShortName»();
+			}
+
+			«shortName»(final «dictShortName»<A> dict) {
+				this.dict = dict;
+			}
+
+			public «genericName» put(final «type.javaName» key, final A value) {
+				this.dict = this.dict.put(key, value, this.owner);
+				return this;
+			}
+
+			public «genericName» updateValueOrPut(final «type.javaName» key, final A defaultValue, final F<A, A> f) {
+				this.dict = this.dict.updateValueOrPut(key, defaultValue, f, this.owner);
+				return this;
+			}
+
+			public «genericName» putEntry(final «entryName» entry) {
+				this.dict = this.dict.putEntry(entry, this.owner);
+				return this;
+			}
+
+			public «genericName» putAll(final Iterable<«entryName»> entries) {
+				entries.forEach(this::putEntry);
+				return this;
+			}
+
+			public «genericName» putMap(final Map<«type.boxedName», A> map) {
+				map.forEach(this::put);
+				return this;
+			}
+
+			@Override
+			public int size() {
+				return this.dict.size();
+			}
+
+			@Override
+			public boolean hasKnownFixedSize() {
+				return false;
+			}
+
+			public «dictShortName»<A> build() {
+				// Subsequent puts copy the frozen nodes, so the built instance does not change
+				this.dict = this.dict.freeze(this.owner);
+				return this.dict;
+			}
+
+			@Override
+			public String toString() {
+				return this.dict.toString();
+			}
+		}
+	''' }
+}
@@ -0,0 +1,795 @@
+package jcats.generator.collection
+
+import java.util.List
+import jcats.generator.ClassGenerator
+import jcats.generator.Constants
+import jcats.generator.Generator
+import jcats.generator.Type
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+
+@FinalFieldsConstructor
+final class PrimitiveDictGenerator implements ClassGenerator {
+	val Type type
+
+	def static List<Generator> generators() {
+		#[Type.INT, Type.LONG].map[new PrimitiveDictGenerator(it) as Generator].toList
+	}
+
+	override className() { Constants.COLLECTION + "." + shortName }
+
+	def shortName() { type.shortName("Dict") }
+	def genericName() { shortName + "<A>" }
+	def paramGenericName() { "<A> " + genericName }
+	def diamondName() { shortName + "<>" }
+	def wildcardName() { shortName + "<?>" }
+	def builderShortName() { shortName + "Builder" }
+	def builderGenericName() { builderShortName + "<A>" }
+	def entryName() { type.entryName }
+	def entryShortName() { type.rawEntryName }
+	def entryFactory() { type.javaName + "ObjectP" }
+	def hashCode(String expr) { type.keyHashCode(expr) }
+
+	def static entryName(Type keyType) { keyType.typeName + "ObjectP<A>" }
+	def static rawEntryName(Type keyType) { keyType.typeName + "ObjectP" }
+	def static keyHashCode(Type keyType, String expr) { "scramble(" + keyType.boxedName + ".hashCode(" + expr + "))" }
+
+	def update(String createNewValue, String newValue, String defaultValue, String recursiveCall, String updateCollision) '''
+		final int branch = branch(keyHash, shift);
+
+		switch (slotType(branch, this.treeMap, this.leafMap)) {
+			case VOID:
+				return remap(this.treeMap, this.leafMap | branch, this.size + 1, owner).setLeaf(branch, key, «defaultValue»);
+
+			case LEAF:
+				final int index = leafIndex(branch, this.treeMap, this.leafMap);
+				final «type.javaName» leafKey = this.keys[index];
+				final A leafValue = valueAt(index);
+				final int leafKeyHash = «hashCode("leafKey")»;
+				if (keyHash == leafKeyHash) {
+					if (key == leafKey) {
+						«IF !createNewValue.empty»
+							«createNewValue»
+						«ENDIF»
+						if («newValue» == leafValue) {
+							return this;
+						} else {
+							return remap(this.treeMap, this.leafMap, this.size, owner).setValueAt(index, «newValue»);
+						}
+					} else {
+						final «entryShortName»[] collision = { «entryFactory»(key, «defaultValue»), «entryFactory»(leafKey, leafValue) };
+						return remap(this.treeMap | branch, this.leafMap, this.size + 1, owner).setCollision(branch, collision);
+					}
+				} else {
+					final «genericName» tree = merge(leafKey, leafValue, leafKeyHash, key, «defaultValue», keyHash, shift + 5, owner);
+					return remap(this.treeMap | branch, this.leafMap ^ branch, this.size + 1, owner).setTree(branch, tree);
+				}
+
+			case TREE:
+				final «genericName» oldTree = getTree(branch);
+				final «genericName» newTree = oldTree.«recursiveCall»;
+				if (newTree == oldTree) {
+					return this;
+				} else {
+					return remap(this.treeMap, this.leafMap, this.size + newTree.size - oldTree.size, owner).setTree(branch, newTree);
+				}
+
+			case COLLISION:
+				final «entryShortName»[] oldCollision = getCollision(branch);
+				final int collisionHash = «hashCode("oldCollision[0].get1()")»;
+				if (keyHash != collisionHash) {
+					// The collision holds equal hashes only, so a different hash moves it one level down
+					final «genericName» collisionNode = fromCollision(oldCollision, collisionHash, shift + 5);
+					final «genericName» tree = collisionNode.«recursiveCall»;
+					return remap(this.treeMap, this.leafMap ^ branch, this.size + 1, owner).setTree(branch, tree);
+				}
+				final «entryShortName»[] newCollision = «updateCollision»;
+				if (newCollision == oldCollision) {
+					return this;
+				} else if (newCollision.length > oldCollision.length) {
+					return remap(this.treeMap, this.leafMap, this.size + 1, owner).setCollision(branch, newCollision);
+				} else {
+					return remap(this.treeMap, this.leafMap, this.size, owner).setCollision(branch, newCollision);
+				}
+
+			default:
+				throw new AssertionError();
+		}
+	'''
+
+	def updateCollision(String createNewValue, String newValue) '''
+		for (int i = 0; i < collision.length; i++) {
+			if (collision[i].get1() == key) {
+				«IF !createNewValue.empty»
+					«createNewValue»
+				«ENDIF»
+				if (collision[i].get2() == «newValue») {
+					return collision;
+				} else {
+					final «entryShortName»[] newCollision = collision.clone();
+					newCollision[i] = «entryFactory»(key, «newValue»);
+					return newCollision;
+				}
+			}
+		}
+	'''
+	override sourceCode() { '''
+		package «Constants.COLLECTION»;
+
+		import java.io.IOException;
+		import java.io.InvalidObjectException;
+		import java.io.ObjectInputStream;
+		import java.io.ObjectOutputStream;
+		import java.io.Serializable;
+		import java.util.Collections;
+		import java.util.Iterator;
+		import java.util.Map;
+		import java.util.NoSuchElementException;
+		import java.util.function.Consumer;
+
+		import «Constants.JCATS».*;
+		import «Constants.FUNCTION».*;
+
+		import static java.util.Objects.requireNonNull;
+		import static «Constants.OPTION».*;
+		import static «Constants.JCATS».«entryShortName».«entryFactory»;
+		import static «Constants.COMMON».*;
+		import static «Constants.COLLECTION».HashTableCommon.*;
+
+		/**
+		 * Persistent hash dictionary with {@code «type.javaName»} keys.
+		 *
+		 * <p>Keys are stored unboxed in a {@code «type.javaName»[]} array next to the values, so lookups and updates
+		 * never box the key and no entry is allocated per mapping. Use {@link #asKeyValue()} to pass this dictionary where a {@link KeyValue} is expected.
+		 */
+		public final class «shortName»<@Covariant A> implements Iterable<«entryName»>, Equatable<«genericName»>, Sized, Serializable {
+			static final «wildcardName» EMPTY = new «diamondName»(0, 0, Common.«type.emptyArrayName», Common.«Type.OBJECT.emptyArrayName», 0);
+
+			// Keys and values of the leaves are stored in parallel arrays in the order of their branches.
+			// Slots start with the values of the leaves, followed by subtrees and collisions (arrays of entries),
+			// each in the order of their branches. Keys are never written once the node is filled, so they may be shared.
+			private final int treeMap;
+			private final int leafMap;
+			private final «type.javaName»[] keys;
+			private final Object[] slots;
+			private final int size;
+			// Token of the builder or bulk operation that created the node (see isOwnedBy())
+			private final transient Object owner;
+
+			private «shortName»(final int treeMap, final int leafMap, final «type.javaName»[] keys, final Object[] slots, final int size) {
+				this(treeMap, leafMap, keys, slots, size, null);
+			}
+
+			private «shortName»(final int treeMap, final int leafMap, final «type.javaName»[] keys, final Object[] slots, final int size, final Object owner) {
+				this.treeMap = treeMap;
+				this.leafMap = leafMap;
+				this.keys = keys;
+				this.slots = slots;
+				this.size = size;
+				this.owner = owner;
+			}
+
+			@Override
+			public int size() {
+				return this.size;
+			}
+
+			public A getOrNull(final «type.javaName» key) {
+				return get(key, «hashCode("key")», 0);
+			}
+
+			public Option<A> get(final «type.javaName» key) {
+				return Option.fromNullable(getOrNull(key));
+			}
+
+			public A getOr(final «type.javaName» key, final A other) {
+				requireNonNull(other);
+				final A value = getOrNull(key);
+				return (value == null) ? other : value;
+			}
+
+			public boolean containsKey(final «type.javaName» key) {
+				return (getOrNull(key) != null);
+			}
+
+			public «genericName» put(final «type.javaName» key, final A value) {
+				requireNonNull(value);
+				return put(key, «hashCode("key")», value, 0, null);
+			}
+
+			«genericName» put(final «type.javaName» key, final A value, final Object owner) {
+				requireNonNull(value);
+				return put(key, «hashCode("key")», value, 0, owner);
+			}
+
+			public «genericName» putEntry(final «entryName» entry) {
+				requireNonNull(entry);
+				return put(entry.get1(), entry.get2());
+			}
+
+			«genericName» putEntry(final «entryName» entry, final Object owner) {
+				requireNonNull(entry);
+				return put(entry.get1(), entry.get2(), owner);
+			}
+
+			public «genericName» updateValue(final «type.javaName» key, final F<A, A> f) {
+				requireNonNull(f);
+				return updateValue(key, «hashCode("key")», f, 0);
+			}
+
+			public «genericName» updateValueOrPut(final «type.javaName» key, final A defaultValue, final F<A, A> f) {
+				requireNonNull(defaultValue);
+				requireNonNull(f);
+				return updateValueOrPut(key, «hashCode("key")», defaultValue, f, 0, null);
+			}
+
+			«genericName» updateValueOrPut(final «type.javaName» key, final A defaultValue, final F<A, A> f, final Object owner) {
+				requireNonNull(defaultValue);
+				requireNonNull(f);
+				return updateValueOrPut(key, «hashCode("key")», defaultValue, f, 0, owner);
+			}
+
+			public «genericName» remove(final «type.javaName» key) {
+				return remove(key, «hashCode("key")», 0);
+			}
+
+			private A get(final «type.javaName» key, final int keyHash, final int shift) {
+				final int branch = branch(keyHash, shift);
+
+				switch (slotType(branch, this.treeMap, this.leafMap)) {
+					case VOID: return null;
+
+					case LEAF:
+						final int index = leafIndex(branch, this.treeMap, this.leafMap);
+						if (this.keys[index] == key) {
+							return valueAt(index);
+						} else {
+							return null;
+						}
+
+					case TREE: return getTree(branch).get(key, keyHash, shift + 5);
+					case COLLISION: return getFromCollision(getCollision(branch), key);
+					default: throw new AssertionError();
+				}
+			}
+
+			public «entryName» first() throws NoSuchElementException {
+				if (isEmpty()) {
+					throw new NoSuchElementException();
+				} else {
+					return getFirst(this);
+				}
+			}
+
+			public Option<«entryName»> findFirst() {
+				if (isEmpty()) {
+					return none();
+				} else {
+					return some(getFirst(this));
+				}
+			}
+
+			private static <A> «entryName» getFirst(«genericName» dict) {
+				while (true) {
+					if (dict.keys.length != 0) {
+						return «entryFactory»(dict.keys[0], dict.valueAt(0));
+					} else if ((dict.leafMap & Integer.lowestOneBit(dict.treeMap)) == 0) {
+						dict = dict.treeAt(0);
+					} else {
+						return («entryName») dict.collisionAt(0)[0];
+					}
+				}
+			}
+
+			private A valueAt(final int index) {
+				return (A) this.slots[index];
+			}
+
+			private «genericName» setLeaf(final int branch, final «type.javaName» key, final A value) {
+				final int index = leafIndex(branch, this.treeMap, this.leafMap);
+				this.keys[index] = key;
+				this.slots[index] = value;
+				return this;
+			}
+
+			private «genericName» setValueAt(final int index, final A value) {
+				this.slots[index] = value;
+				return this;
+			}
+
+			private «genericName» treeAt(final int index) {
+				return («genericName») this.slots[index];
+			}
+
+			private «genericName» getTree(final int branch) {
+				return treeAt(nodeIndexAfterLeaves(branch, this.treeMap, this.leafMap));
+			}
+
+			private «genericName» setTree(final int branch, final «genericName» tree) {
+				this.slots[nodeIndexAfterLeaves(branch, this.treeMap, this.leafMap)] = tree;
+				return this;
+			}
+
+			private «entryShortName»[] collisionAt(final int index) {
+				return («entryShortName»[]) this.slots[index];
+			}
+
+			private «entryShortName»[] getCollision(final int branch) {
+				return collisionAt(nodeIndexAfterLeaves(branch, this.treeMap, this.leafMap));
+			}
+
+			private «genericName» setCollision(final int branch, final «entryShortName»[] collision) {
+				this.slots[nodeIndexAfterLeaves(branch, this.treeMap, this.leafMap)] = collision;
+				return this;
+			}
+
+			private boolean isSingle() {
+				return this.treeMap == 0 && Integer.bitCount(this.leafMap) == 1;
+			}
+
+			private «genericName» remap(final int treeMap, final int leafMap, final int size) {
+				return remap(treeMap, leafMap, size, null);
+			}
+
+			private «genericName» remap(final int treeMap, final int leafMap, final int size, final Object owner) {
+				if (this.leafMap == leafMap && this.treeMap == treeMap) {
+					// An owned node is replaced by the result, so they can share the slots
+					final Object[] slots = isOwnedBy(owner) ? this.slots : this.slots.clone();
+					return new «genericName»(treeMap, leafMap, this.keys, slots, size, owner);
+				} else if (size == 0) {
+					return empty«shortName»();
+				} else {
+					int oldKeyMap = this.leafMap & ~this.treeMap;
+					int newKeyMap = leafMap & ~treeMap;
+					int oldNodeMap = this.treeMap;
+					int newNodeMap = treeMap;
+					int i = 0;
+					int j = 0;
+					int k = this.keys.length;
+					int l = Integer.bitCount(newKeyMap);
+					final «type.javaName»[] keys = new «type.javaName»[l];
+					final Object[] slots = new Object[l + Integer.bitCount(newNodeMap)];
+					while ((newKeyMap | newNodeMap) != 0) {
+						if ((oldKeyMap & newKeyMap & 1) == 1) {
+							keys[j] = this.keys[i];
+							slots[j] = this.slots[i];
+						} else if ((oldNodeMap & newNodeMap & 1) == 1) {
+							slots[l] = this.slots[k];
+						}
+						if ((oldKeyMap & 1) == 1) {
+							i++;
+						}
+						if ((newKeyMap & 1) == 1) {
+							j++;
+						}
+						if ((oldNodeMap & 1) == 1) {
+							k++;
+						}
+						if ((newNodeMap & 1) == 1) {
+							l++;
+						}
+
+						oldKeyMap >>>= 1;
+						newKeyMap >>>= 1;
+						oldNodeMap >>>= 1;
+						newNodeMap >>>= 1;
+					}
+					return new «genericName»(treeMap, leafMap, keys, slots, size, owner);
+				}
+			}
+
+			«HashTableCommonGenerator.owner(genericName, '''new «genericName»(this.treeMap, this.leafMap, this.keys, this.slots, this.size, null)''')»
+
+			private «genericName» put(final «type.javaName» key, final int keyHash, final A value, final int shift, final Object owner) {
+				«update("", "value", "value", "put(key, keyHash, value, shift + 5, owner)", "putToCollision(oldCollision, key, value)")»
+			}
+
+			private «genericName» updateValue(final «type.javaName» key, final int keyHash, final F<A, A> f, final int shift) {
+				final int branch = branch(keyHash, shift);
+
+				switch (slotType(branch, this.treeMap, this.leafMap)) {
+					case VOID:
+						return this;
+
+					case LEAF:
+						final int index = leafIndex(branch, this.treeMap, this.leafMap);
+						if (this.keys[index] == key) {
+							final A oldValue = valueAt(index);
+							final A newValue = requireNonNull(f.apply(oldValue));
+							if (newValue == oldValue) {
+								return this;
+							} else {
+								return new «genericName»(this.treeMap, this.leafMap, this.keys, this.slots.clone(), this.size).setValueAt(index, newValue);
+							}
+						} else {
+							return this;
+						}
+
+					case TREE:
+						final «genericName» oldTree = getTree(branch);
+						final «genericName» newTree = oldTree.updateValue(key, keyHash, f, shift + 5);
+						if (newTree == oldTree) {
+							return this;
+						} else {
+							return new «genericName»(this.treeMap, this.leafMap, this.keys, this.slots.clone(), this.size).setTree(branch, newTree);
+						}
+
+					case COLLISION:
+						final «entryShortName»[] oldCollision = getCollision(branch);
+						final «entryShortName»[] newCollision = updateValueOrPutToCollision(oldCollision, key, null, f);
+						if (newCollision == oldCollision) {
+							return this;
+						} else {
+							return new «genericName»(this.treeMap, this.leafMap, this.keys, this.slots.clone(), this.size).setCollision(branch, newCollision);
+						}
+
+					default:
+						throw new AssertionError();
+				}
+			}
+
+			private «genericName» updateValueOrPut(final «type.javaName» key, final int keyHash, final A defaultValue, final F<A, A> f, final int shift, final Object owner) {
+				«update("final A newValue = requireNonNull(f.apply(leafValue));", "newValue", "defaultValue",
+					"updateValueOrPut(key, keyHash, defaultValue, f, shift + 5, owner)", "updateValueOrPutToCollision(oldCollision, key, defaultValue, f)")»
+			}
+
+			private «genericName» remove(final «type.javaName» key, final int keyHash, final int shift) {
+				final int branch = branch(keyHash, shift);
+
+				switch (slotType(branch, this.treeMap, this.leafMap)) {
+					case VOID:
+						return this;
+
+					case LEAF:
+						if (this.keys[leafIndex(branch, this.treeMap, this.leafMap)] == key) {
+							return remap(this.treeMap, this.leafMap ^ branch, this.size - 1);
+						} else {
+							return this;
+						}
+
+					case TREE:
+						final «genericName» oldTree = getTree(branch);
+						final «genericName» newTree = oldTree.remove(key, keyHash, shift + 5);
+						if (oldTree == newTree) {
+							return this;
+						} else if (newTree.isEmpty()) {
+							return remap(this.treeMap ^ branch, this.leafMap, this.size - 1);
+						} else if (newTree.isSingle()) {
+							return remap(this.treeMap ^ branch, this.leafMap | branch, this.size + 1 - oldTree.size).setLeaf(branch, newTree.keys[0], newTree.valueAt(0));
+						} else {
+							return remap(this.treeMap, this.leafMap, this.size + newTree.size - oldTree.size).setTree(branch, newTree);
+						}
+
+					case COLLISION:
+						final «entryShortName»[] oldCollision = getCollision(branch);
+						final «entryShortName»[] newCollision = removeFromCollision(oldCollision, key);
+						if (newCollision == oldCollision) {
+							return this;
+						} else if (newCollision.length == 1) {
+							final «entryName» single = newCollision[0];
+							return remap(this.treeMap ^ branch, this.leafMap | branch, this.size - 1).setLeaf(branch, single.get1(), single.get2());
+						} else {
+							return remap(this.treeMap, this.leafMap, this.size - 1).setCollision(branch, newCollision);
+						}
+
+					default:
+						throw new AssertionError();
+				}
+			}
+
+			private static «paramGenericName» merge(final «type.javaName» key0, final A value0, final int hash0, final «type.javaName» key1, final A value1, final int hash1,
+					final int shift, final Object owner) {
+				// assume(hash0 != hash1)
+				final int branch0 = branch(hash0, shift);
+				final int branch1 = branch(hash1, shift);
+				final int slotMap = branch0 | branch1;
+				if (branch0 == branch1) {
+					final Object[] slots = { merge(key0, value0, hash0, key1, value1, hash1, shift + 5, owner) };
+					return new «genericName»(slotMap, 0, Common.«type.emptyArrayName», slots, 2, owner);
+				} else if (((branch0 - 1) & branch1) == 0) {
+					return new «genericName»(0, slotMap, new «type.javaName»[] { key0, key1 }, new Object[] { value0, value1 }, 2, owner);
+				} else {
+					return new «genericName»(0, slotMap, new «type.javaName»[] { key1, key0 }, new Object[] { value1, value0 }, 2, owner);
+				}
+			}
+
+			/**
+			 * Returns a node of the given level that contains only the given collision
+			 */
+			private static «paramGenericName» fromCollision(final «entryShortName»[] collision, final int collisionHash, final int shift) {
+				final int branch = branch(collisionHash, shift);
+				return new «genericName»(branch, branch, Common.«type.emptyArrayName», new Object[] { collision }, collision.length);
+			}
+
+			private A getFromCollision(final «entryShortName»[] collision, final «type.javaName» key) {
+				for (final «entryName» entry : collision) {
+					if (entry.get1() == key) {
+						return entry.get2();
+					}
+				}
+				return null;
+			}
+
+			private «entryShortName»[] putToCollision(final «entryShortName»[] collision, final «type.javaName» key, final A value) {
+				«updateCollision("", "value")»
+
+				return prependToCollision(collision, «entryFactory»(key, value));
+			}
+
+			private «entryShortName»[] updateValueOrPutToCollision(final «entryShortName»[] collision, final «type.javaName» key, final A defaultValue, final F<A, A> f) {
+				«updateCollision("final A newValue = requireNonNull(f.apply((A) collision[i].get2()));", "newValue")»
+
+				if (defaultValue == null) {
+					return collision;
+				} else {
+					return prependToCollision(collision, «entryFactory»(key, defaultValue));
+				}
+			}
+
+			private static «entryShortName»[] prependToCollision(final «entryShortName»[] collision, final «entryShortName» entry) {
+				final «entryShortName»[] newCollision = new «entryShortName»[collision.length + 1];
+				System.arraycopy(collision, 0, newCollision, 1, collision.length);
+				newCollision[0] = entry;
+				return newCollision;
+			}
+
+			private «entryShortName»[] removeFromCollision(final «entryShortName»[] collision, final «type.javaName» key) {
+				for (int i = 0; i < collision.length; i++) {
+					if (collision[i].get1() == key) {
+						final «entryShortName»[] newCollision = new «entryShortName»[collision.length - 1];
+						System.arraycopy(collision, 0, newCollision, 0, i);
+						System.arraycopy(collision, i + 1, newCollision, i, newCollision.length - i);
+						return newCollision;
+					}
+				}
+				return collision;
+			}
+
+			@Override
+			public Iterator<«entryName»> iterator() {
+				return isEmpty() ? Collections.emptyIterator() : new «shortName»Iterator<>(this.keys, this.slots, this.treeMap, this.leafMap);
+			}
+
+			@Override
+			public void forEach(final Consumer<? super «entryName»> action) {
+				requireNonNull(action);
+				foreach((final «type.javaName» key, final A value) -> action.accept(«entryFactory»(key, value)));
+			}
+
+			public void foreach(final «type.typeName»ObjectEff2<A> eff) {
+				requireNonNull(eff);
+				for (int i = 0; i < this.keys.length; i++) {
+					eff.apply(this.keys[i], valueAt(i));
+				}
+				int treeMap = this.treeMap;
+				for (int i = this.keys.length; i < this.slots.length; i++) {
+					final int branch = Integer.lowestOneBit(treeMap);
+					treeMap ^= branch;
+					if ((this.leafMap & branch) == 0) {
+						treeAt(i).foreach(eff);
+					} else {
+						for (final «entryName» entry : collisionAt(i)) {
+							eff.apply(entry.get1(), entry.get2());
+						}
+					}
+				}
+			}
+
+			«HashTableCommonGenerator.statistics('''
+				statistics.addNode(depth);
+				int treeMap = this.treeMap;
+				for (int i = this.keys.length; i < this.slots.length; i++) {
+					final int branch = Integer.lowestOneBit(treeMap);
+					treeMap ^= branch;
+					if ((this.leafMap & branch) == 0) {
+						treeAt(i).collectStatistics(statistics, depth + 1);
+					} else {
+						statistics.addCollision(collisionAt(i).length);
+					}
+				}
+			''')»
+
+			/**
+			 * Returns a {@link KeyValueView} of this dictionary with boxed keys.
+			 */
+			public KeyValueView<«type.boxedName», A> asKeyValue() {
+				return new «shortName»AsKeyValue<>(this);
+			}
+
+			public Dict<«type.boxedName», A> toDict() {
+				final DictBuilder<«type.boxedName», A> builder = Dict.builder();
+				foreach(builder::put);
+				return builder.build();
+			}
+
+			«primitiveKeyValueEquals(type, shortName, wildcardName)»
+
+			«primitiveKeyValueHashCode(entryName)»
+
+			@Override
+			public String toString() {
+				return keyValueToString(asKeyValue());
+			}
+
+			«transform(genericName)»
+
+			public static «paramGenericName» empty«shortName»() {
+				return («genericName») EMPTY;
+			}
+
+			public static «paramGenericName» «shortName.firstToLowerCase»(final «type.javaName» key, final A value) {
+				return «shortName».<A> empty«shortName»().put(key, value);
+			}
+
+			@SafeVarargs
+			public static «paramGenericName» ofEntries(final «entryName»... entries) {
+				final «builderGenericName» builder = builder();
+				for (final «entryName» entry : entries) {
+					builder.putEntry(entry);
+				}
+				return builder.build();
+			}
+
+			public static «paramGenericName» ofAll(final Iterable<«entryName»> entries) {
+				final «builderGenericName» builder = builder();
+				builder.putAll(entries);
+				return builder.build();
+			}
+
+			public static «paramGenericName» fromMap(final Map<«type.boxedName», A> map) {
+				final «builderGenericName» builder = builder();
+				builder.putMap(map);
+				return builder.build();
+			}
+
+			«HashTableCommonGenerator.writeReplace(shortName + "SerializationProxy<>", shortName + "SerializationProxy")»
+
+			public static <A> «builderGenericName» builder() {
+				return new «builderShortName»<>();
+			}
+
+			«cast(#["A"], #[], #["A"])»
+		}
+
+		final class «shortName»Iterator<A> implements Iterator<«entryName»> {
+			private final «type.javaName»[] keys;
+			private final Object[] slots;
+			private int treeMap;
+			private final int leafMap;
+			private int i;
+			private Iterator<«entryName»> childIterator;
+
+			«shortName»Iterator(final «type.javaName»[] keys, final Object[] slots, final int treeMap, final int leafMap) {
+				this.keys = keys;
+				this.slots = slots;
+				this.treeMap = treeMap;
+				this.leafMap = leafMap;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return (this.i < this.slots.length) || (this.childIterator != null && this.childIterator.hasNext());
+			}
+
+			@Override
+			public «entryName» next() {
+				if (this.i < this.keys.length) {
+					final «entryName» next = «entryFactory»(this.keys[this.i], (A) this.slots[this.i]);
+					this.i++;
+					return next;
+				} else if (this.childIterator != null && this.childIterator.hasNext()) {
+					return this.childIterator.next();
+				} else if (this.i < this.slots.length) {
+					final int branch = Integer.lowestOneBit(this.treeMap);
+					this.treeMap ^= branch;
+					final Object node = this.slots[this.i++];
+					if ((this.leafMap & branch) == 0) {
+						this.childIterator = ((«genericName») node).iterator();
+					} else {
+						this.childIterator = new ArrayIterator<>((Object[]) node);
+					}
+					return this.childIterator.next();
+				} else {
+					throw new NoSuchElementException();
+				}
+			}
+		}
+
+		«HashTableCommonGenerator.serializationProxy(shortName + "SerializationProxy", shortName + "SerializationProxy<A>",
+			genericName, builderGenericName, shortName + ".builder()", '''
+				for (final «entryName» entry : this.table) {
+					out.write«type.typeName»(entry.get1());
+					out.writeObject(entry.get2());
+				}
+			''', '''builder.put(in.read«type.typeName»(), (A) in.readObject());''')»
+
+		«asKeyValueView(type, shortName, entryName)»
+	''' }
+
+	def static primitiveKeyValueEquals(Type type, String shortName, String wildcardName) { '''
+		/**
+		 * «equalsDeprecatedJavaDoc»
+		 */
+		@Override
+		@Deprecated
+		public boolean equals(final Object obj) {
+			if (obj == this) {
+				return true;
+			} else if (obj instanceof «wildcardName») {
+				final «wildcardName» other = («wildcardName») obj;
+				if (size() != other.size()) {
+					return false;
+				}
+				for (final «type.typeName»ObjectP<?> entry : this) {
+					final Object value = other.getOrNull(entry.get1());
+					if (value == null || !value.equals(entry.get2())) {
+						return false;
+					}
+				}
+				return true;
+			} else {
+				return false;
+			}
+		}
+	''' }
+
+	def static primitiveKeyValueHashCode(String entryName) { '''
+		@Override
+		public int hashCode() {
+			int hashCode = 0;
+			for (final «entryName» entry : this) {
+				hashCode += entry.hashCode();
+			}
+			return hashCode;
+		}
+	''' }
+
+	def static asKeyValueView(Type type, String shortName, String entryName) { '''
+		final class «shortName»AsKeyValue<A> implements KeyValueView<«type.boxedName», A> {
+			private final «shortName»<A> dict;
+
+			«shortName»AsKeyValue(final «shortName»<A> dict) {
+				this.dict = dict;
+			}
+
+			@Override
+			public A getOrNull(final «type.boxedName» key) {
+				return this.dict.getOrNull(key);
+			}
+
+			@Override
+			public int size() {
+				return this.dict.size();
+			}
+
+			@Override
+			public Iterator<P<«type.boxedName», A>> iterator() {
+				return new MappedIterator<>(this.dict.iterator(), (final «entryName» entry) -> P.p(entry.get1(), entry.get2()));
+			}
+
+			@Override
+			public void foreach(final Eff2<«type.boxedName», A> eff) {
+				requireNonNull(eff);
+				this.dict.foreach(eff::apply);
+			}
+
+			/**
+			 * «equalsDeprecatedJavaDoc»
+			 */
+			@Override
+			@Deprecated
+			public boolean equals(final Object obj) {
+				if (obj == this) {
+					return true;
+				} else if (obj instanceof KeyValue<?, ?>) {
+					return keyValuesEqual((KeyValue<Object, ?>) (KeyValue<?, ?>) this, (KeyValue<Object, ?>) obj);
+				} else {
+					return false;
+				}
+			}
+
+			«keyValueHashCode»
+
+			«keyValueToString»
+		}
+	''' }
+}
@@ -0,0 +1,92 @@
+package jcats.generator.collection
+
+import java.util.List
+import jcats.generator.ClassGenerator
+import jcats.generator.Constants
+import jcats.generator.Generator
+import jcats.generator.Type
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+
+@FinalFieldsConstructor
+final class PrimitiveSortedDictBuilderGenerator implements ClassGenerator {
+	val Type type
+
+	def static List<Generator> generators() {
+		#[Type.INT, Type.LONG].map[new PrimitiveSortedDictBuilderGenerator(it) as Generator].toList
+	}
+
+	override className() { Constants.COLLECTION + "." + shortName }
+
+	def dictShortName() { type.shortName("SortedDict") }
+	def shortName() { dictShortName + "Builder" }
+	def genericName() { shortName + "<A>" }
+	def entryName() { type.typeName + "ObjectP<A>" }
+
+	override sourceCode() { '''
+		package «Constants.COLLECTION»;
+
+		import java.util.Map;
+
+		import «Constants.JCATS».*;
+		import «Constants.FUNCTION».*;
+
+		import static «Constants.COLLECTION».«dictShortName».empty«dictShortName»;
+
+		public final class «genericName» implements Sized {
+
+			private «dictShortName»<A> dict;
+
+			«shortName»() {
+				this.dict = empty«dictShortName»();
+			}
+
+			«shortName»(final «dictShortName»<A> dict) {
+				this.dict = dict;
+			}
+
+			public «genericName» put(final «type.javaName» key, final A value) {
+				this.dict = this.dict.put(key, value);
+				return this;
+			}
+
+			public «genericName» updateValueOrPut(final «type.javaName» key, final A defaultValue, final F<A, A> f) {
+				this.dict = this.dict.updateValueOrPut(key, defaultValue, f);
+				return this;
+			}
+
+			public «genericName» putEntry(final «entryName» entry) {
+				this.dict = this.dict.putEntry(entry);
+				return this;
+			}
+
+			public «genericName» putAll(final Iterable<«entryName»> entries) {
+				entries.forEach(this::putEntry);
+				return this;
+			}
+
+			public «genericName» putMap(final Map<«type.boxedName», A> map) {
+				map.forEach(this::put);
+				return this;
+			}
+
+			@Override
+			public int size() {
+				return this.dict.size();
+			}
+
+			@Override
+			public boolean hasKnownFixedSize() {
+				return false;
+			}
+
+			public «dictShortName»<A> build() {
+				return this.dict;
+			}
+
+			@Override
+			public String toString() {
+				return this.dict.toString();
+			}
+		}
+	''' }
+}
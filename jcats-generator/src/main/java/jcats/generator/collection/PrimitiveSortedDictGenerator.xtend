@@ -0,0 +1,434 @@
+package jcats.generator.collection
+
+import java.util.List
+import jcats.generator.ClassGenerator
+import jcats.generator.Constants
+import jcats.generator.Generator
+import jcats.generator.Type
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+
+import static extension jcats.generator.collection.PrimitiveDictGenerator.*
+
+@FinalFieldsConstructor
+final class PrimitiveSortedDictGenerator implements ClassGenerator {
+	val Type type
+
+	def static List<Generator> generators() {
+		#[Type.INT, Type.LONG].map[new PrimitiveSortedDictGenerator(it) as Generator].toList
+	}
+
+	override className() { Constants.COLLECTION + "." + shortName }
+
+	def shortName() { type.shortName("SortedDict") }
+	def genericName() { shortName + "<A>" }
+	def paramGenericName() { "<A> " + genericName }
+	def diamondName() { shortName + "<>" }
+	def builderShortName() { shortName + "Builder" }
+	def builderGenericName() { builderShortName + "<A>" }
+	def entryName() { type.entryName }
+	def entryShortName() { type.rawEntryName }
+	def entryFactory() { type.javaName + "ObjectP" }
+
+	override sourceCode() { '''
+		package «Constants.COLLECTION»;
+
+		import java.io.Serializable;
+		import java.util.Collections;
+		import java.util.Iterator;
+		import java.util.Map;
+		import java.util.NoSuchElementException;
+		import java.util.function.Consumer;
+
+		import «Constants.JCATS».*;
+		import «Constants.FUNCTION».*;
+
+		import static java.util.Objects.requireNonNull;
+		import static «Constants.JCATS».Order.*;
+		import static «Constants.JCATS».«type.ordShortName».*;
+		import static «Constants.OPTION».*;
+		import static «Constants.JCATS».«entryShortName».«entryFactory»;
+		import static «Constants.COMMON».*;
+		import static «Constants.STACK».*;
+		import static «Constants.COLLECTION».AVLCommon.*;
+
+		/**
+		 * Persistent sorted dictionary with {@code «type.javaName»} keys.
+		 *
+		 * <p>Keys are kept unboxed inside {@link «entryShortName»} entries and compared with {@link «type.ordShortName»},
+		 * so lookups and updates never box the key. Use {@link #asKeyValue()} to pass this dictionary
+		 * where a {@link KeyValue} is expected.
+		 */
+		public final class «shortName»<@Covariant A> implements Iterable<«entryName»>, Equatable<«genericName»>, Sized, Serializable {
+			static final «shortName»<?> EMPTY = new «diamondName»(null, null, null, «type.asc»(), 0);
+			static final «shortName»<?> EMPTY_REVERSED = new «diamondName»(null, null, null, «type.desc»(), 0);
+
+			final «entryName» entry;
+			final «genericName» left;
+			final «genericName» right;
+			private final int size;
+			final «type.ordGenericName» ord;
+			private final int balance;
+
+			private «shortName»(final «entryName» entry, final «genericName» left, final «genericName» right, final «type.ordGenericName» ord, final int balance) {
+				this.entry = entry;
+				this.left = left;
+				this.right = right;
+				if (entry == null) {
+					this.size = 0;
+				} else {
+					this.size = ((left == null) ? 0 : left.size) + ((right == null) ? 0 : right.size) + 1;
+				}
+				this.ord = ord;
+				this.balance = balance;
+			}
+
+			public «type.ordGenericName» ord() {
+				return this.ord;
+			}
+
+			@Override
+			public int size() {
+				return this.size;
+			}
+
+			public A getOrNull(final «type.javaName» key) {
+				if (this.entry == null) {
+					return null;
+				} else {
+					return search(this, key);
+				}
+			}
+
+			private static <A> A search(«genericName» dict, final «type.javaName» key) {
+				final «type.ordGenericName» ord = dict.ord;
+				while (true) {
+					final Order order = ord.order(key, dict.entry.get1());
+					if (order == EQ) {
+						return dict.entry.get2();
+					} else if (order == LT) {
+						if (dict.left == null) {
+							return null;
+						} else {
+							dict = dict.left;
+						}
+					} else if (order == GT) {
+						if (dict.right == null) {
+							return null;
+						} else {
+							dict = dict.right;
+						}
+					} else {
+						throw nullOrder(order);
+					}
+				}
+			}
+
+			public Option<A> get(final «type.javaName» key) {
+				return Option.fromNullable(getOrNull(key));
+			}
+
+			public A getOr(final «type.javaName» key, final A other) {
+				requireNonNull(other);
+				final A value = getOrNull(key);
+				return (value == null) ? other : value;
+			}
+
+			public boolean containsKey(final «type.javaName» key) {
+				return (getOrNull(key) != null);
+			}
+
+			public «genericName» put(final «type.javaName» key, final A value) {
+				requireNonNull(value);
+				if (this.entry == null) {
+					return new «diamondName»(«entryFactory»(key, value), null, null, this.ord, 0);
+				} else {
+					return update(key, value, null, new InsertResult());
+				}
+			}
+
+			public «genericName» putEntry(final «entryName» entry) {
+				requireNonNull(entry);
+				if (this.entry == null) {
+					return new «diamondName»(entry, null, null, this.ord, 0);
+				} else {
+					return update(entry.get1(), entry.get2(), entry, new InsertResult());
+				}
+			}
+
+			public «genericName» updateValue(final «type.javaName» key, final F<A, A> f) {
+				requireNonNull(f);
+				if (this.entry == null) {
+					return this;
+				} else {
+					return replaceValue(key, f);
+				}
+			}
+
+			public «genericName» updateValueOrPut(final «type.javaName» key, final A defaultValue, final F<A, A> f) {
+				requireNonNull(defaultValue);
+				requireNonNull(f);
+				if (this.entry == null) {
+					return new «diamondName»(«entryFactory»(key, defaultValue), null, null, this.ord, 0);
+				} else if (containsKey(key)) {
+					return replaceValue(key, f);
+				} else {
+					return update(key, defaultValue, null, new InsertResult());
+				}
+			}
+
+			private «genericName» update(final «type.javaName» key, final A value, final «entryName» entry, final InsertResult result) {
+				«AVLCommonGenerator.update(genericName, diamondName, "key", "entry.get1()", '''(entry == null) ? «entryFactory»(key, value) : entry''',
+					"key == this.entry.get1() && value == this.entry.get2()", "key, value, entry")»
+			}
+
+			«AVLCommonGenerator.insertAndRotateRight(genericName, diamondName)»
+
+			«AVLCommonGenerator.insertAndRotateLeft(genericName, diamondName)»
+
+			private «genericName» replaceValue(final «type.javaName» key, final F<A, A> f) {
+				final Order order = this.ord.order(key, this.entry.get1());
+				if (order == EQ) {
+					final A newValue = requireNonNull(f.apply(this.entry.get2()));
+					if (newValue == this.entry.get2()) {
+						return this;
+					} else {
+						return new «diamondName»(«entryFactory»(key, newValue), this.left, this.right, this.ord, this.balance);
+					}
+				} else if (order == LT) {
+					if (this.left == null) {
+						return this;
+					} else {
+						final «genericName» newLeft = this.left.replaceValue(key, f);
+						if (newLeft == this.left) {
+							return this;
+						} else {
+							return new «diamondName»(this.entry, newLeft, this.right, this.ord, this.balance);
+						}
+					}
+				} else if (order == GT) {
+					if (this.right == null) {
+						return this;
+					} else {
+						final «genericName» newRight = this.right.replaceValue(key, f);
+						if (newRight == this.right) {
+							return this;
+						} else {
+							return new «diamondName»(this.entry, this.left, newRight, this.ord, this.balance);
+						}
+					}
+				} else {
+					throw nullOrder(order);
+				}
+			}
+
+			public «genericName» remove(final «type.javaName» key) {
+				if (this.entry == null) {
+					return this;
+				} else {
+					final «genericName» newDict = delete(key, new DeleteResult<>());
+					if (newDict == null) {
+						return empty«shortName»By(this.ord);
+					} else {
+						return newDict;
+					}
+				}
+			}
+
+			private «genericName» delete(final «type.javaName» key, final DeleteResult<A> result) {
+				«AVLCommonGenerator.delete(genericName, diamondName, "key", "entry.get1()")»
+			}
+
+			«AVLCommonGenerator.deleteMinimum(genericName, diamondName, "DeleteResult<A>")»
+
+			«AVLCommonGenerator.deleteMaximum(genericName, diamondName, "DeleteResult<A>")»
+
+			«AVLCommonGenerator.deleteAndRotateLeft(genericName, diamondName, entryName, "DeleteResult<A>")»
+
+			«AVLCommonGenerator.deleteAndRotateRight(genericName, diamondName, "DeleteResult<A>")»
+
+			public «entryName» first() throws NoSuchElementException {
+				if (isEmpty()) {
+					throw new NoSuchElementException();
+				} else {
+					return getFirst(this);
+				}
+			}
+
+			public Option<«entryName»> findFirst() {
+				if (isEmpty()) {
+					return none();
+				} else {
+					return some(getFirst(this));
+				}
+			}
+
+			public «entryName» last() throws NoSuchElementException {
+				if (isEmpty()) {
+					throw new NoSuchElementException();
+				} else {
+					return getLast(this);
+				}
+			}
+
+			public Option<«entryName»> findLast() {
+				if (isEmpty()) {
+					return none();
+				} else {
+					return some(getLast(this));
+				}
+			}
+
+			private static <A> «entryName» getFirst(«genericName» dict) {
+				«AVLCommonGenerator.getFirstOrLast("dict", "left")»
+			}
+
+			private static <A> «entryName» getLast(«genericName» dict) {
+				«AVLCommonGenerator.getFirstOrLast("dict", "right")»
+			}
+
+			public «genericName» init() throws NoSuchElementException {
+				«AVLCommonGenerator.initOrTail(genericName, shortName, "DeleteResult<>", "deleteMaximum")»
+			}
+
+			public «genericName» tail() throws NoSuchElementException {
+				«AVLCommonGenerator.initOrTail(genericName, shortName, "DeleteResult<>", "deleteMinimum")»
+			}
+
+			@Override
+			public Iterator<«entryName»> iterator() {
+				return (this.entry == null) ? Collections.emptyIterator() : new «shortName»Iterator<>(this);
+			}
+
+			public Iterator<«entryName»> reverseIterator() {
+				return (this.entry == null) ? Collections.emptyIterator() : new «shortName»ReverseIterator<>(this);
+			}
+
+			@Override
+			public void forEach(final Consumer<? super «entryName»> action) {
+				requireNonNull(action);
+				if (this.entry != null) {
+					traverse(action);
+				}
+			}
+
+			private void traverse(final Consumer<? super «entryName»> action) {
+				if (this.left != null) {
+					this.left.traverse(action);
+				}
+				action.accept(this.entry);
+				if (this.right != null) {
+					this.right.traverse(action);
+				}
+			}
+
+			public void foreach(final «type.typeName»ObjectEff2<A> eff) {
+				requireNonNull(eff);
+				forEach((final «entryName» entry) -> eff.apply(entry.get1(), entry.get2()));
+			}
+
+			/**
+			 * Returns a {@link KeyValueView} of this dictionary with boxed keys.
+			 */
+			public KeyValueView<«type.boxedName», A> asKeyValue() {
+				return new «shortName»AsKeyValue<>(this);
+			}
+
+			public «type.typeName»Dict<A> to«type.typeName»Dict() {
+				final «type.typeName»DictBuilder<A> builder = «type.typeName»Dict.builder();
+				forEach(builder::putEntry);
+				return builder.build();
+			}
+
+			int checkHeight() {
+				final int leftHeight = (this.left == null) ? 0 : this.left.checkHeight();
+				final int rightHeight = (this.right == null) ? 0 : this.right.checkHeight();
+				if (Math.abs(rightHeight - leftHeight) <= 1) {
+					return 1 + Math.max(leftHeight, rightHeight);
+				} else {
+					throw new AssertionError(String.format("Wrong balance for node %s: left height = %d, right height = %d",
+							this.entry, leftHeight, rightHeight));
+				}
+			}
+
+			«PrimitiveDictGenerator.primitiveKeyValueEquals(type, shortName, shortName + "<?>")»
+
+			«PrimitiveDictGenerator.primitiveKeyValueHashCode(entryName)»
+
+			@Override
+			public String toString() {
+				return keyValueToString(asKeyValue());
+			}
+
+			«transform(genericName)»
+
+			public static «paramGenericName» empty«shortName»() {
+				return («genericName») EMPTY;
+			}
+
+			public static «paramGenericName» empty«shortName»By(final «type.ordGenericName» ord) {
+				requireNonNull(ord);
+				if (ord == «type.asc»()) {
+					return («genericName») EMPTY;
+				} else if (ord == «type.desc»()) {
+					return («genericName») EMPTY_REVERSED;
+				} else {
+					return new «diamondName»(null, null, null, ord, 0);
+				}
+			}
+
+			public static «paramGenericName» «shortName.firstToLowerCase»(final «type.javaName» key, final A value) {
+				return «shortName».<A> empty«shortName»().put(key, value);
+			}
+
+			@SafeVarargs
+			public static «paramGenericName» ofEntries(final «entryName»... entries) {
+				final «builderGenericName» builder = builder();
+				for (final «entryName» entry : entries) {
+					builder.putEntry(entry);
+				}
+				return builder.build();
+			}
+
+			public static «paramGenericName» ofAll(final Iterable<«entryName»> entries) {
+				final «builderGenericName» builder = builder();
+				builder.putAll(entries);
+				return builder.build();
+			}
+
+			public static «paramGenericName» fromMap(final Map<«type.boxedName», A> map) {
+				final «builderGenericName» builder = builder();
+				builder.putMap(map);
+				return builder.build();
+			}
+
+			public static <A> «builderGenericName» builder() {
+				return new «builderShortName»<>(empty«shortName»());
+			}
+
+			public static <A> «builderGenericName» builderBy(final «type.ordGenericName» ord) {
+				return new «builderShortName»<>(empty«shortName»By(ord));
+			}
+
+			«cast(#["A"], #[], #["A"])»
+
+			static final class InsertResult {
+				boolean heightIncreased;
+			}
+
+			static final class DeleteResult<A> {
+				«entryName» entry;
+				boolean heightDecreased;
+			}
+		}
+
+		final class «shortName»Iterator<A> implements Iterator<«entryName»> {
+			«AVLCommonGenerator.iterator(genericName, "dict", shortName + "Iterator", entryName, "next", false)»
+		}
+
+		final class «shortName»ReverseIterator<A> implements Iterator<«entryName»> {
+			«AVLCommonGenerator.iterator(genericName, "dict", shortName + "ReverseIterator", entryName, "next", true)»
+		}
+
+		«PrimitiveDictGenerator.asKeyValueView(type, shortName, entryName)»
+	''' }
+}
@@ -337,6 +337,10 @@ final class PrimitiveStream2Generator implements ClassGenerator {
 				return this.stream.collect(«type.arrayShortName»::builder, «type.arrayShortName»Builder::append, «type.arrayShortName»Builder::appendArrayBuilder).build();
 			}
 
+			public «type.uniqueShortName» to«type.uniqueShortName»() {
+				return «type.uniqueShortName».from«type.streamName»(this.stream);
+			}
+
 			«transform(shortName)»
 
 			public static «shortName» from(final «type.streamName» stream) {
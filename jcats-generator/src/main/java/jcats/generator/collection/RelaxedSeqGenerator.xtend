@@ -0,0 +1,508 @@
+package jcats.generator.collection
+
+import java.util.List
+import jcats.generator.Constants
+import jcats.generator.Generator
+import jcats.generator.Type
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+
+@FinalFieldsConstructor
+final class RelaxedSeqGenerator extends SeqGenerator {
+
+	def static List<Generator> generators() {
+		Type.values.filter[it != Type.BOOLEAN].map[new RelaxedSeqGenerator(it) as Generator].toList
+	}
+
+	override className() { Constants.COLLECTION + "." + relaxedShortName }
+
+	def relaxedIteratorName() { type.genericName("RelaxedSeqIterator") }
+	def relaxedIteratorDiamondName() { type.diamondName("RelaxedSeqIterator") }
+	def relaxedReverseIteratorName() { type.genericName("RelaxedSeqReverseIterator") }
+	def relaxedReverseIteratorDiamondName() { type.diamondName("RelaxedSeqReverseIterator") }
+
+	override sourceCode() { '''
+		package «Constants.COLLECTION»;
+
+		import java.util.Arrays;
+		«IF type.javaUnboxedType»
+			import java.util.PrimitiveIterator;
+		«ELSE»
+			import java.util.Iterator;
+		«ENDIF»
+		import java.util.NoSuchElementException;
+
+		import «Constants.JCATS».*;
+		import «Constants.FUNCTION».*;
+
+		import static java.util.Objects.requireNonNull;
+		«IF type != Type.OBJECT»
+			import static jcats.collection.Seq.*;
+		«ENDIF»
+		import static «Constants.COMMON».*;
+
+		/**
+		 * Relaxed node of a concatenated {@link «shortName»}.
+		 * Children of a node with depth 1 are regular (balanced) seqs, children of a node with depth N > 1
+		 * are relaxed nodes with depth N - 1. Every node has from 2 to 32 children, and sizes[i] holds
+		 * the total size of children[0] .. children[i].
+		 */
+		final class «relaxedName» extends «genericName» {
+			// Concatenations where one of the seqs is not larger than this are performed by copying
+			static final int CONCAT_COPY_THRESHOLD = (1 << 10);
+
+			final «genericName»[] children;
+			final int[] sizes;
+			final int depth;
+
+			«relaxedShortName»(final «genericName»[] children, final int[] sizes, final int depth) {
+				this.children = children;
+				this.sizes = sizes;
+				this.depth = depth;
+				«IF ea»
+
+					boolean ea = false;
+					assert ea = true;
+					if (ea) {
+						assert children.length >= 2 && children.length <= 32 : "children.length = " + children.length;
+						assert sizes.length == children.length;
+						int size = 0;
+						for (int i = 0; i < children.length; i++) {
+							assert depth(children[i]) == depth - 1 : "depth = " + depth(children[i]);
+							assert children[i].isNotEmpty();
+							size += children[i].size();
+							assert sizes[i] == size : "sizes[" + i + "] = " + sizes[i];
+						}
+					}
+				«ENDIF»
+			}
+
+			@Override
+			public int size() {
+				return sizes[sizes.length - 1];
+			}
+
+			/**
+			 * O(depth)
+			 */
+			@Override
+			public «genericName» init() {
+				final int last = children.length - 1;
+				if (children[last].size() == 1) {
+					return childrenRange(0, last);
+				} else {
+					final «genericName»[] newChildren = children.clone();
+					newChildren[last] = children[last].init();
+					final int[] newSizes = sizes.clone();
+					newSizes[last]--;
+					return new «relaxedDiamondName»(newChildren, newSizes, depth);
+				}
+			}
+
+			/**
+			 * O(depth)
+			 */
+			@Override
+			public «genericName» tail() {
+				if (children[0].size() == 1) {
+					return childrenRange(1, children.length);
+				} else {
+					final «genericName»[] newChildren = children.clone();
+					newChildren[0] = children[0].tail();
+					final int[] newSizes = new int[sizes.length];
+					for (int i = 0; i < sizes.length; i++) {
+						newSizes[i] = sizes[i] - 1;
+					}
+					return new «relaxedDiamondName»(newChildren, newSizes, depth);
+				}
+			}
+
+			int childIndex(final int index) {
+				int low = 0;
+				int high = sizes.length - 1;
+				while (low < high) {
+					final int mid = (low + high) >>> 1;
+					if (index < sizes[mid]) {
+						high = mid;
+					} else {
+						low = mid + 1;
+					}
+				}
+				return low;
+			}
+
+			int offset(final int childIndex) {
+				return (childIndex == 0) ? 0 : sizes[childIndex - 1];
+			}
+
+			@Override
+			public «type.genericName» get(final int index) {
+				if (index < 0 || index >= size()) {
+					«indexOutOfBounds»
+				} else {
+					final int i = childIndex(index);
+					return children[i].get(index - offset(i));
+				}
+			}
+
+			@Override
+			public «genericName» update(final int index, final «type.endoGenericName» f) {
+				if (index < 0 || index >= size()) {
+					«indexOutOfBounds»
+				} else {
+					final int i = childIndex(index);
+					final «genericName»[] newChildren = children.clone();
+					newChildren[i] = children[i].update(index - offset(i), f);
+					return new «relaxedDiamondName»(newChildren, sizes, depth);
+				}
+			}
+
+			@Override
+			public «genericName» limit(final int n) {
+				if (n < 0) {
+					throw new IllegalArgumentException(Integer.toString(n));
+				} else if (n == 0) {
+					return empty«shortName»();
+				} else if (n >= size()) {
+					return this;
+				} else {
+					final int i = childIndex(n - 1);
+					final «genericName» limited = children[i].limit(n - offset(i));
+					if (i == 0) {
+						return limited;
+					} else {
+						return join(childrenRange(0, i), limited);
+					}
+				}
+			}
+
+			@Override
+			public «genericName» skip(final int n) {
+				if (n < 0) {
+					throw new IllegalArgumentException(Integer.toString(n));
+				} else if (n == 0) {
+					return this;
+				} else if (n >= size()) {
+					return empty«shortName»();
+				} else {
+					final int i = childIndex(n);
+					final «genericName» skipped = children[i].skip(n - offset(i));
+					if (i == children.length - 1) {
+						return skipped;
+					} else {
+						return join(skipped, childrenRange(i + 1, children.length));
+					}
+				}
+			}
+
+			private «genericName» childrenRange(final int fromIndex, final int toIndex) {
+				if (toIndex - fromIndex == 1) {
+					return children[fromIndex];
+				} else {
+					return node(Arrays.copyOfRange(children, fromIndex, toIndex), depth);
+				}
+			}
+
+			@Override
+			public «genericName» prepend(final «type.genericName» value) {
+				«IF type == Type.OBJECT»
+					requireNonNull(value);
+				«ENDIF»
+				if (size() == Integer.MAX_VALUE) {
+					throw new SizeOverflowException();
+				}
+				final «genericName»[] newChildren = children.clone();
+				newChildren[0] = children[0].prepend(value);
+				final int[] newSizes = new int[sizes.length];
+				for (int i = 0; i < sizes.length; i++) {
+					newSizes[i] = sizes[i] + 1;
+				}
+				return new «relaxedDiamondName»(newChildren, newSizes, depth);
+			}
+
+			@Override
+			public «genericName» append(final «type.genericName» value) {
+				«IF type == Type.OBJECT»
+					requireNonNull(value);
+				«ENDIF»
+				if (size() == Integer.MAX_VALUE) {
+					throw new SizeOverflowException();
+				}
+				final int last = children.length - 1;
+				final «genericName»[] newChildren = children.clone();
+				newChildren[last] = children[last].append(value);
+				final int[] newSizes = sizes.clone();
+				newSizes[last]++;
+				return new «relaxedDiamondName»(newChildren, newSizes, depth);
+			}
+
+			@Override
+			«genericName» appendSized(final «type.iteratorGenericName» suffix, final int suffixSize) {
+				return join(this, sizedToSeq(suffix, suffixSize));
+			}
+
+			@Override
+			«genericName» prependSized(final «type.iteratorGenericName» prefix, final int prefixSize) {
+				return join(sizedToSeq(prefix, prefixSize), this);
+			}
+
+			@Override
+			void initSeqBuilder(final «seqBuilderName» builder) {
+				builder.prefix = this;
+			}
+
+			«IF type == Type.OBJECT»
+				@Override
+				void copyToArray(final Object[] array) {
+					foreachWithIndex((final int index, final A value) -> array[index] = value);
+				}
+			«ELSE»
+				@Override
+				public «type.javaName»[] «type.toArrayName»() {
+					final «type.javaName»[] array = new «type.javaName»[size()];
+					foreachWithIndex((final int index, final «type.javaName» value) -> array[index] = value);
+					return array;
+				}
+			«ENDIF»
+
+			@Override
+			public «type.iteratorGenericName» iterator() {
+				return new «relaxedIteratorDiamondName»(this);
+			}
+
+			@Override
+			public «type.iteratorGenericName» reverseIterator() {
+				return new «relaxedReverseIteratorDiamondName»(this);
+			}
+
+			// hashCode = 31^size + sum(31^(size - i - 1) * hash(element i)), so the cached hash codes of the children can be reused
+			@Override
+			int computeHashCode() {
+				int sum = 0;
+				for (final «genericName» child : children) {
+					final int power = pow31(child.size());
+					sum = sum * power + (child.hashCode() - power);
+				}
+				return pow31(size()) + sum;
+			}
+
+			private static int pow31(final int n) {
+				int result = 1;
+				int base = 31;
+				for (int i = n; i != 0; i >>>= 1) {
+					if ((i & 1) != 0) {
+						result *= base;
+					}
+					base *= base;
+				}
+				return result;
+			}
+
+			@Override
+			public «spliteratorName» spliterator() {
+				final int[] childSizes = new int[children.length];
+				childSizes[0] = sizes[0];
+				for (int i = 1; i < children.length; i++) {
+					childSizes[i] = sizes[i] - sizes[i - 1];
+				}
+				return new «spliteratorDiamondName»(children, new int[children.length], childSizes, 0, children.length, 0, size());
+			}
+
+			@Override
+			public void foreach(final «type.effGenericName» eff) {
+				for (final «genericName» child : children) {
+					child.foreach(eff);
+				}
+			}
+
+			@Override
+			«IF type == Type.OBJECT»
+				public void foreachWithIndex(final IntObjectEff2<A> eff) {
+			«ELSE»
+				public void foreachWithIndex(final Int«type.typeName»Eff2 eff) {
+			«ENDIF»
+				requireNonNull(eff);
+				for (int i = 0; i < children.length; i++) {
+					final int offset = offset(i);
+					children[i].foreachWithIndex((final int index, final «type.genericName» value) -> eff.apply(offset + index, value));
+				}
+			}
+
+			@Override
+			public boolean foreachUntil(final «type.boolFName» eff) {
+				for (final «genericName» child : children) {
+					if (!child.foreachUntil(eff)) {
+						return false;
+					}
+				}
+				return true;
+			}
+
+			static int depth(final «type.seqWildcardName» seq) {
+				return (seq instanceof «type.wildcardName("RelaxedSeq")») ? ((«type.wildcardName("RelaxedSeq")») seq).depth : 0;
+			}
+
+			// Assume left and right are not empty and (left.size + right.size) does not overflow
+			static «IF type == Type.OBJECT»<A> «ENDIF»«genericName» join(final «genericName» left, final «genericName» right) {
+				final int leftDepth = depth(left);
+				final int rightDepth = depth(right);
+				if (leftDepth == 0 && rightDepth == 0) {
+					return joinLeaves(left, right);
+				} else if (leftDepth == rightDepth) {
+					final «relaxedName» leftNode = («relaxedName») left;
+					final «relaxedName» rightNode = («relaxedName») right;
+					final «genericName» middle = join(leftNode.children[leftNode.children.length - 1], rightNode.children[0]);
+					return combine(leftNode.children, leftNode.children.length - 1, middle, rightNode.children, 1, leftDepth);
+				} else if (leftDepth > rightDepth) {
+					final «relaxedName» leftNode = («relaxedName») left;
+					final «genericName»[] children = leftNode.children;
+					final «genericName» middle = join(children[children.length - 1], right);
+					return combine(children, children.length - 1, middle, children, children.length, leftDepth);
+				} else {
+					final «relaxedName» rightNode = («relaxedName») right;
+					final «genericName»[] children = rightNode.children;
+					final «genericName» middle = join(left, children[0]);
+					return combine(children, 0, middle, children, 1, rightDepth);
+				}
+			}
+
+			private static «IF type == Type.OBJECT»<A> «ENDIF»«genericName» joinLeaves(final «genericName» left, final «genericName» right) {
+				final int leftSize = left.size();
+				final int rightSize = right.size();
+				if ((leftSize <= CONCAT_COPY_THRESHOLD || rightSize <= CONCAT_COPY_THRESHOLD) && leftSize + rightSize <= (1 << 30) - 32) {
+					return left.concatByCopying(right);
+				} else {
+					final «genericName»[] children = new «shortName»[] { left, right };
+					return node(children, 1);
+				}
+			}
+
+			// Assume middle.depth is (depth - 1) or depth
+			private static «IF type == Type.OBJECT»<A> «ENDIF»«genericName» combine(final «genericName»[] prefix, final int prefixLength, final «genericName» middle,
+					final «genericName»[] suffix, final int suffixFrom, final int depth) {
+				final «genericName»[] middleChildren;
+				if (depth(middle) == depth) {
+					middleChildren = ((«relaxedName») middle).children;
+				} else {
+					middleChildren = new «shortName»[] { middle };
+				}
+				final «genericName»[] children = new «shortName»[prefixLength + middleChildren.length + suffix.length - suffixFrom];
+				System.arraycopy(prefix, 0, children, 0, prefixLength);
+				System.arraycopy(middleChildren, 0, children, prefixLength, middleChildren.length);
+				System.arraycopy(suffix, suffixFrom, children, prefixLength + middleChildren.length, suffix.length - suffixFrom);
+
+				if (children.length <= 32) {
+					return node(children, depth);
+				} else {
+					final int count = (children.length + 31) / 32;
+					final «genericName»[] parentChildren = new «shortName»[count];
+					for (int i = 0; i < count; i++) {
+						final int fromIndex = children.length * i / count;
+						final int toIndex = children.length * (i + 1) / count;
+						parentChildren[i] = node(Arrays.copyOfRange(children, fromIndex, toIndex), depth);
+					}
+					return node(parentChildren, depth + 1);
+				}
+			}
+
+			private static «IF type == Type.OBJECT»<A> «ENDIF»«relaxedName» node(final «genericName»[] children, final int depth) {
+				final int[] sizes = new int[children.length];
+				int size = 0;
+				for (int i = 0; i < children.length; i++) {
+					size += children[i].size();
+					sizes[i] = size;
+				}
+				return new «relaxedDiamondName»(children, sizes, depth);
+			}
+		}
+
+		final class «relaxedIteratorName» implements «type.iteratorGenericName» {
+			private final «relaxedName»[] nodes;
+			private final int[] indices;
+			private «type.iteratorGenericName» iterator;
+			private int remaining;
+
+			«relaxedShortName»Iterator(final «relaxedName» seq) {
+				nodes = new «relaxedShortName»[seq.depth];
+				indices = new int[seq.depth];
+				remaining = seq.size();
+				descend(seq);
+			}
+
+			private void descend(final «genericName» seq) {
+				«genericName» child = seq;
+				while (child instanceof «type.wildcardName("RelaxedSeq")») {
+					final «relaxedName» node = («relaxedName») child;
+					nodes[node.depth - 1] = node;
+					indices[node.depth - 1] = 0;
+					child = node.children[0];
+				}
+				iterator = child.iterator();
+			}
+
+			@Override
+			public boolean hasNext() {
+				return (remaining > 0);
+			}
+
+			@Override
+			public «type.iteratorReturnType» «type.iteratorNext»() {
+				if (remaining == 0) {
+					throw new NoSuchElementException();
+				} else if (!iterator.hasNext()) {
+					int level = 0;
+					while (indices[level] == nodes[level].children.length - 1) {
+						level++;
+					}
+					descend(nodes[level].children[++indices[level]]);
+				}
+				remaining--;
+				return iterator.«type.iteratorNext»();
+			}
+		}
+
+		final class «relaxedReverseIteratorName» implements «type.iteratorGenericName» {
+			private final «relaxedName»[] nodes;
+			private final int[] indices;
+			private «type.iteratorGenericName» iterator;
+			private int remaining;
+
+			«relaxedShortName»ReverseIterator(final «relaxedName» seq) {
+				nodes = new «relaxedShortName»[seq.depth];
+				indices = new int[seq.depth];
+				remaining = seq.size();
+				descend(seq);
+			}
+
+			private void descend(final «genericName» seq) {
+				«genericName» child = seq;
+				while (child instanceof «type.wildcardName("RelaxedSeq")») {
+					final «relaxedName» node = («relaxedName») child;
+					nodes[node.depth - 1] = node;
+					indices[node.depth - 1] = node.children.length - 1;
+					child = node.children[node.children.length - 1];
+				}
+				iterator = child.reverseIterator();
+			}
+
+			@Override
+			public boolean hasNext() {
+				return (remaining > 0);
+			}
+
+			@Override
+			public «type.iteratorReturnType» «type.iteratorNext»() {
+				if (remaining == 0) {
+					throw new NoSuchElementException();
+				} else if (!iterator.hasNext()) {
+					int level = 0;
+					while (indices[level] == 0) {
+						level++;
+					}
+					descend(nodes[level].children[--indices[level]]);
+				}
+				remaining--;
+				return iterator.«type.iteratorNext»();
+			}
+		}
+	''' }
+}
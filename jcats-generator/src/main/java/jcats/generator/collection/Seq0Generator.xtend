@@ -10,7 +10,7 @@ import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 class Seq0Generator extends SeqGenerator {
 
 	def static List<Generator> generators() {
-		Type.values.toList.map[new Seq0Generator(it) as Generator]
+		Type.values.filter[it != Type.BOOLEAN].map[new Seq0Generator(it) as Generator].toList
 	}
 
 	override className() { Constants.COLLECTION + "." + shortName + "0" }
@@ -10,7 +10,7 @@ import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 final class Seq1Generator extends SeqGenerator {
 
 	def static List<Generator> generators() {
-		Type.values.toList.map[new Seq1Generator(it) as Generator]
+		Type.values.filter[it != Type.BOOLEAN].map[new Seq1Generator(it) as Generator].toList
 	}
 
 	override className() { Constants.COLLECTION + "." + shortName + "1" }
@@ -339,6 +339,11 @@ final class Seq1Generator extends SeqGenerator {
 				«ENDIF»
 			}
 
+			@Override
+			public «spliteratorName» spliterator() {
+				return new «spliteratorDiamondName»(new Object[] { node1 }, new int[] { 1 }, new int[] { node1.length }, 0, 1, 0, node1.length);
+			}
+
 			@Override
 			public «type.iteratorGenericName» reverseIterator() {
 				«IF type == Type.OBJECT»
@@ -10,7 +10,7 @@ import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 class Seq2Generator extends SeqGenerator {
 
 	def static List<Generator> generators() {
-		Type.values.toList.map[new Seq2Generator(it) as Generator]
+		Type.values.filter[it != Type.BOOLEAN].map[new Seq2Generator(it) as Generator].toList
 	}
 
 	override className() { Constants.COLLECTION + "." + shortName + "2" }
@@ -732,6 +732,11 @@ class Seq2Generator extends SeqGenerator {
 				return new «reverseIteratorDiamondName(2)»(node2, init, tail);
 			}
 
+			@Override
+			public «spliteratorName» spliterator() {
+				return «spliteratorShortName».create(init, node2, 2, tail, size);
+			}
+
 			@Override
 			public void foreach(final «type.effGenericName» eff) {
 				for (final «type.javaName» value : init) {
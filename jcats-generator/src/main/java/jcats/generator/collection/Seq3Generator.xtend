@@ -10,7 +10,7 @@ import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 final class Seq3Generator extends SeqGenerator {
 
 	def static List<Generator> generators() {
-		Type.values.toList.map[new Seq3Generator(it) as Generator]
+		Type.values.filter[it != Type.BOOLEAN].map[new Seq3Generator(it) as Generator].toList
 	}
 
 	override className() { Constants.COLLECTION + "." + shortName + "3" }
@@ -890,6 +890,11 @@ final class Seq3Generator extends SeqGenerator {
 				return new «reverseIteratorDiamondName(3)»(node3, init, tail);
 			}
 
+			@Override
+			public «spliteratorName» spliterator() {
+				return «spliteratorShortName».create(init, node3, 3, tail, size);
+			}
+
 			@Override
 			public void foreach(final «type.effGenericName» eff) {
 				for (final «type.javaName» value : init) {
@@ -10,7 +10,7 @@ import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 final class Seq4Generator extends SeqGenerator {
 
 	def static List<Generator> generators() {
-		Type.values.toList.map[new Seq4Generator(it) as Generator]
+		Type.values.filter[it != Type.BOOLEAN].map[new Seq4Generator(it) as Generator].toList
 	}
 
 	override className() { Constants.COLLECTION + "." + shortName + "4" }
@@ -1035,6 +1035,11 @@ final class Seq4Generator extends SeqGenerator {
 				return new «reverseIteratorDiamondName(4)»(node4, init, tail);
 			}
 
+			@Override
+			public «spliteratorName» spliterator() {
+				return «spliteratorShortName».create(init, node4, 4, tail, size);
+			}
+
 			@Override
 			public void foreach(final «type.effGenericName» eff) {
 				for (final «type.javaName» value : init) {
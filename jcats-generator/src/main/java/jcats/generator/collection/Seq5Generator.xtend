@@ -10,7 +10,7 @@ import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 final class Seq5Generator extends SeqGenerator {
 
 	def static List<Generator> generators() {
-		Type.values.toList.map[new Seq5Generator(it) as Generator]
+		Type.values.filter[it != Type.BOOLEAN].map[new Seq5Generator(it) as Generator].toList
 	}
 
 	override className() { Constants.COLLECTION + "." + shortName + "5" }
@@ -1195,6 +1195,11 @@ final class Seq5Generator extends SeqGenerator {
 				return new «reverseIteratorDiamondName(5)»(node5, init, tail);
 			}
 
+			@Override
+			public «spliteratorName» spliterator() {
+				return «spliteratorShortName».create(init, node5, 5, tail, size);
+			}
+
 			@Override
 			public void foreach(final «type.effGenericName» eff) {
 				for (final «type.javaName» value : init) {
@@ -10,7 +10,7 @@ import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 final class Seq6Generator extends SeqGenerator {
 
 	def static List<Generator> generators() {
-		Type.values.toList.map[new Seq6Generator(it) as Generator]
+		Type.values.filter[it != Type.BOOLEAN].map[new Seq6Generator(it) as Generator].toList
 	}
 
 	override className() { Constants.COLLECTION + "." + shortName + "6" }
@@ -1331,6 +1331,11 @@ final class Seq6Generator extends SeqGenerator {
 				return new «reverseIteratorDiamondName(6)»(node6, init, tail);
 			}
 
+			@Override
+			public «spliteratorName» spliterator() {
+				return «spliteratorShortName».create(init, node6, 6, tail, size);
+			}
+
 			@Override
 			public void foreach(final «type.effGenericName» eff) {
 				for (final «type.javaName» value : init) {
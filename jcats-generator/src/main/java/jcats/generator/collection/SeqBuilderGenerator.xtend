@@ -24,7 +24,9 @@ final class SeqBuilderGenerator implements ClassGenerator {
 	override sourceCode() { '''
 		package «Constants.COLLECTION»;
 
-		import java.util.Arrays;
+		«IF type != Type.BOOLEAN»
+			import java.util.Arrays;
+		«ENDIF»
 		import java.util.Collection;
 		import java.util.Iterator;
 		«IF type.javaUnboxedType»
@@ -41,124 +43,152 @@ final class SeqBuilderGenerator implements ClassGenerator {
 		import static «Constants.COMMON».*;
 
 		public final class «genericName» implements Sized {
-			«type.javaName»[][][][][][] node6;
-			«type.javaName»[][][][][] node5;
-			«type.javaName»[][][][] node4;
-			«type.javaName»[][][] node3;
-			«type.javaName»[][] node2;
-			«type.javaName»[] node1;
-			«type.javaName»[] init;
-			int index6;
-			int index5;
-			int index4;
-			int index3;
-			int index2;
-			int index1;
-			int size;
-			int startIndex;
+			«IF type == Type.BOOLEAN»
+				// Complete words of the elements appended after prefix
+				LongSeqBuilder words = new LongSeqBuilder();
+				// Elements appended after the last complete word, first element in the lowest bit
+				long word;
+				int size;
+			«ELSE»
+				«type.javaName»[][][][][][] node6;
+				«type.javaName»[][][][][] node5;
+				«type.javaName»[][][][] node4;
+				«type.javaName»[][][] node3;
+				«type.javaName»[][] node2;
+				«type.javaName»[] node1;
+				«type.javaName»[] init;
+				int index6;
+				int index5;
+				int index4;
+				int index3;
+				int index2;
+				int index1;
+				int size;
+				int startIndex;
+			«ENDIF»
+			// Already built part of the sequence that precedes the elements stored in the nodes
+			«type.seqGenericName» prefix;
 
 			«shortName»() {}
 
 			«shortName»(final «type.seqGenericName» seq) {
-				seq.initSeqBuilder(this);
+				«IF type == Type.BOOLEAN»
+					this.prefix = seq.isEmpty() ? null : seq;
+				«ELSE»
+					seq.initSeqBuilder(this);
+				«ENDIF»
 			}
 
 			/**
 			 * O(1)
 			 */
 			public «genericName» append(final «type.genericName» value) {
-				«IF (type == Type.OBJECT)»
-					requireNonNull(value);
-				«ENDIF»
-				if (this.index1 < 32) {
-					if (this.node1 == null) {
-						this.node1 = new «type.javaName»[32];
+				«IF type == Type.BOOLEAN»
+					if (this.size == Integer.MAX_VALUE) {
+						throw new SizeOverflowException();
+					}
+					if (value) {
+						this.word |= 1L << this.size;
 					}
-					this.node1[this.index1++] = value;
-				} else if (this.index2 < (this.index3 == 0 ? 31 : 32)) {
-					if (this.node2 == null) {
-						this.node2 = new «type.javaName»[31][];
-						this.init = this.node1;
+					if ((++this.size & 63) == 0) {
+						this.words.append(this.word);
+						this.word = 0L;
 					}
-					this.node1 = new «type.javaName»[32];
-					this.node2[this.index2++] = this.node1;
-					this.node1[0] = value;
-					this.index1 = 1;
-				} else if (this.index3 < 32) {
-					if (this.node3 == null) {
+					return this;
+				«ELSE»
+					«IF (type == Type.OBJECT)»
+						requireNonNull(value);
+					«ENDIF»
+					if (this.index1 < 32) {
+						if (this.node1 == null) {
+							this.node1 = new «type.javaName»[32];
+						}
+						this.node1[this.index1++] = value;
+					} else if (this.index2 < (this.index3 == 0 ? 31 : 32)) {
+						if (this.node2 == null) {
+							this.node2 = new «type.javaName»[31][];
+							this.init = this.node1;
+						}
+						this.node1 = new «type.javaName»[32];
+						this.node2[this.index2++] = this.node1;
+						this.node1[0] = value;
+						this.index1 = 1;
+					} else if (this.index3 < 32) {
+						if (this.node3 == null) {
+							this.node3 = new «type.javaName»[32][][];
+							this.node3[0] = this.node2;
+							this.index3 = 1;
+						}
+						this.node2 = new «type.javaName»[32][];
+						this.node1 = new «type.javaName»[32];
+						this.node3[this.index3++] = this.node2;
+						this.node2[0] = this.node1;
+						this.node1[0] = value;
+						this.index2 = 1;
+						this.index1 = 1;
+					} else if (this.index4 < 32) {
+						if (this.node4 == null) {
+							this.node4 = new «type.javaName»[32][][][];
+							this.node4[0] = this.node3;
+							this.index4 = 1;
+						}
 						this.node3 = new «type.javaName»[32][][];
+						this.node2 = new «type.javaName»[32][];
+						this.node1 = new «type.javaName»[32];
+						this.node4[this.index4++] = this.node3;
 						this.node3[0] = this.node2;
+						this.node2[0] = this.node1;
+						this.node1[0] = value;
 						this.index3 = 1;
-					}
-					this.node2 = new «type.javaName»[32][];
-					this.node1 = new «type.javaName»[32];
-					this.node3[this.index3++] = this.node2;
-					this.node2[0] = this.node1;
-					this.node1[0] = value;
-					this.index2 = 1;
-					this.index1 = 1;
-				} else if (this.index4 < 32) {
-					if (this.node4 == null) {
+						this.index2 = 1;
+						this.index1 = 1;
+					} else if (this.index5 < 32) {
+						if (this.node5 == null) {
+							this.node5 = new «type.javaName»[32][][][][];
+							this.node5[0] = this.node4;
+							this.index5 = 1;
+						}
 						this.node4 = new «type.javaName»[32][][][];
+						this.node3 = new «type.javaName»[32][][];
+						this.node2 = new «type.javaName»[32][];
+						this.node1 = new «type.javaName»[32];
+						this.node5[this.index5++] = this.node4;
 						this.node4[0] = this.node3;
+						this.node3[0] = this.node2;
+						this.node2[0] = this.node1;
+						this.node1[0] = value;
 						this.index4 = 1;
-					}
-					this.node3 = new «type.javaName»[32][][];
-					this.node2 = new «type.javaName»[32][];
-					this.node1 = new «type.javaName»[32];
-					this.node4[this.index4++] = this.node3;
-					this.node3[0] = this.node2;
-					this.node2[0] = this.node1;
-					this.node1[0] = value;
-					this.index3 = 1;
-					this.index2 = 1;
-					this.index1 = 1;
-				} else if (this.index5 < 32) {
-					if (this.node5 == null) {
+						this.index3 = 1;
+						this.index2 = 1;
+						this.index1 = 1;
+					} else if (this.index6 < 32) {
+						if (this.node6 == null) {
+							this.node6 = new «type.javaName»[32][][][][][];
+							this.node6[0] = this.node5;
+							this.index6 = 1;
+						}
 						this.node5 = new «type.javaName»[32][][][][];
+						this.node4 = new «type.javaName»[32][][][];
+						this.node3 = new «type.javaName»[32][][];
+						this.node2 = new «type.javaName»[32][];
+						this.node1 = new «type.javaName»[32];
+						this.node6[this.index6++] = this.node5;
 						this.node5[0] = this.node4;
+						this.node4[0] = this.node3;
+						this.node3[0] = this.node2;
+						this.node2[0] = this.node1;
+						this.node1[0] = value;
 						this.index5 = 1;
+						this.index4 = 1;
+						this.index3 = 1;
+						this.index2 = 1;
+						this.index1 = 1;
+					} else {
+						throw new SizeOverflowException();
 					}
-					this.node4 = new «type.javaName»[32][][][];
-					this.node3 = new «type.javaName»[32][][];
-					this.node2 = new «type.javaName»[32][];
-					this.node1 = new «type.javaName»[32];
-					this.node5[this.index5++] = this.node4;
-					this.node4[0] = this.node3;
-					this.node3[0] = this.node2;
-					this.node2[0] = this.node1;
-					this.node1[0] = value;
-					this.index4 = 1;
-					this.index3 = 1;
-					this.index2 = 1;
-					this.index1 = 1;
-				} else if (this.index6 < 32) {
-					if (this.node6 == null) {
-						this.node6 = new «type.javaName»[32][][][][][];
-						this.node6[0] = this.node5;
-						this.index6 = 1;
-					}
-					this.node5 = new «type.javaName»[32][][][][];
-					this.node4 = new «type.javaName»[32][][][];
-					this.node3 = new «type.javaName»[32][][];
-					this.node2 = new «type.javaName»[32][];
-					this.node1 = new «type.javaName»[32];
-					this.node6[this.index6++] = this.node5;
-					this.node5[0] = this.node4;
-					this.node4[0] = this.node3;
-					this.node3[0] = this.node2;
-					this.node2[0] = this.node1;
-					this.node1[0] = value;
-					this.index5 = 1;
-					this.index4 = 1;
-					this.index3 = 1;
-					this.index2 = 1;
-					this.index1 = 1;
-				} else {
-					throw new SizeOverflowException();
-				}
-				this.size++;
-				return this;
+					this.size++;
+					return this;
+				«ENDIF»
 			}
 
 			«IF type == Type.OBJECT»
@@ -209,172 +239,120 @@ final class SeqBuilderGenerator implements ClassGenerator {
 
 			@Override
 			public int size() {
-				return this.size;
-			}
-
-			public «type.seqGenericName» build() {
-				if (this.node1 == null) {
-					return empty«shortSeqName»();
-				} else if (this.node2 == null) {
-					return new «shortSeqName»1«IF type == Type.OBJECT»<>«ENDIF»(trimmedNode1());
-				} else if (this.node3 == null) {
-					return new «shortSeqName»2«IF type == Type.OBJECT»<>«ENDIF»(trimmedNode2(), this.init, trimmedNode1(), this.size);
-				} else if (this.node4 == null) {
-					return new «shortSeqName»3«IF type == Type.OBJECT»<>«ENDIF»(trimmedNode3(), this.init, trimmedNode1(), this.startIndex, this.size);
-				} else if (this.node5 == null) {
-					return new «shortSeqName»4«IF type == Type.OBJECT»<>«ENDIF»(trimmedNode4(), this.init, trimmedNode1(), this.startIndex, this.size);
-				} else if (this.node6 == null) {
-					return new «shortSeqName»5«IF type == Type.OBJECT»<>«ENDIF»(trimmedNode5(), this.init, trimmedNode1(), this.startIndex, this.size);
-				} else {
-					return new «shortSeqName»6«IF type == Type.OBJECT»<>«ENDIF»(trimmedNode6(), this.init, trimmedNode1(), this.startIndex, this.size);
-				}
-			}
-
-			private «type.javaName»[] trimmedNode1() {
-				if (this.index1 < 32) {
-					return Arrays.copyOf(this.node1, this.index1);
+				if (this.prefix == null) {
+					return this.size;
 				} else {
-					return this.node1;
+					return this.prefix.size() + this.size;
 				}
 			}
 
-			private «type.javaName»[][] trimmedNode2() {
-				if (this.index2 == 1) {
-					return «shortSeqName».EMPTY_NODE2;
+			public «type.seqGenericName» build() {
+				if (this.prefix == null) {
+					return buildNodes();
 				} else {
-					return Arrays.copyOf(this.node2, this.index2 - 1);
+					return this.prefix.concat(buildNodes());
 				}
 			}
 
-			private «type.javaName»[][][] trimmedNode3() {
-				final «type.javaName»[][][] trimmedNode3 = Arrays.copyOf(this.node3, this.index3);
-				trimmedNode3[this.index3 - 1] = trimmedNode2();
-				return trimmedNode3;
-			}
-
-			private «type.javaName»[][][][] trimmedNode4() {
-				final «type.javaName»[][][][] trimmedNode4 = Arrays.copyOf(this.node4, this.index4);
-				trimmedNode4[this.index4 - 1] = trimmedNode3();
-				return trimmedNode4;
-			}
-
-			private «type.javaName»[][][][][] trimmedNode5() {
-				final «type.javaName»[][][][][] trimmedNode5 = Arrays.copyOf(this.node5, this.index5);
-				trimmedNode5[this.index5 - 1] = trimmedNode4();
-				return trimmedNode5;
-			}
-
-			private «type.javaName»[][][][][][] trimmedNode6() {
-				final «type.javaName»[][][][][][] trimmedNode6 = Arrays.copyOf(this.node6, this.index6);
-				trimmedNode6[this.index6 - 1] = trimmedNode5();
-				return trimmedNode6;
-			}
-
-			«genericName» appendSeqBuilder(final «genericName» builder) {
-				builder.appendTo(this);
-				return this;
-			}
-
-			private void appendTo(final «genericName» builder) {
-				if (this.node1 != null) {
-					if (this.node2 != null) {
-						appendInitTo(builder);
-						if (this.node3 == null) {
-							appendNode2To(builder);
-						} else if (this.node4 == null) {
-							appendNode3To(builder);
-							appendNode2To(builder);
-						} else if (this.node5 == null) {
-							appendNode4To(builder);
-							appendNode3To(builder);
-							appendNode2To(builder);
-						} else if (this.node6 == null) {
-							appendNode5To(builder);
-							appendNode4To(builder);
-							appendNode3To(builder);
-							appendNode2To(builder);
-						} else {
-							appendNode6To(builder);
-							appendNode5To(builder);
-							appendNode4To(builder);
-							appendNode3To(builder);
-							appendNode2To(builder);
-						}
+			«IF type == Type.BOOLEAN»
+				private BooleanSeq buildNodes() {
+					if (this.size == 0) {
+						return emptyBooleanSeq();
+					} else if ((this.size & 63) == 0) {
+						return new BooleanPackedSeq(this.words.build(), 0, this.size);
+					} else {
+						return new BooleanPackedSeq(this.words.build().append(this.word), 0, this.size);
 					}
-					appendNode1To(builder);
 				}
-			}
 
-			private void appendInitTo(final «genericName» builder) {
-				for (final «type.javaName» value : this.init) {
-					builder.append(«type.genericCast»value);
+			«ELSE»
+				private «type.seqGenericName» buildNodes() {
+					if (this.node1 == null) {
+						return empty«shortSeqName»();
+					} else if (this.node2 == null) {
+						return new «shortSeqName»1«IF type == Type.OBJECT»<>«ENDIF»(trimmedNode1());
+					} else if (this.node3 == null) {
+						return new «shortSeqName»2«IF type == Type.OBJECT»<>«ENDIF»(trimmedNode2(), this.init, trimmedNode1(), this.size);
+					} else if (this.node4 == null) {
+						return new «shortSeqName»3«IF type == Type.OBJECT»<>«ENDIF»(trimmedNode3(), this.init, trimmedNode1(), this.startIndex, this.size);
+					} else if (this.node5 == null) {
+						return new «shortSeqName»4«IF type == Type.OBJECT»<>«ENDIF»(trimmedNode4(), this.init, trimmedNode1(), this.startIndex, this.size);
+					} else if (this.node6 == null) {
+						return new «shortSeqName»5«IF type == Type.OBJECT»<>«ENDIF»(trimmedNode5(), this.init, trimmedNode1(), this.startIndex, this.size);
+					} else {
+						return new «shortSeqName»6«IF type == Type.OBJECT»<>«ENDIF»(trimmedNode6(), this.init, trimmedNode1(), this.startIndex, this.size);
+					}
 				}
-			}
 
-			private void appendNode1To(final «genericName» builder) {
-				for (int i = 0; i < this.index1; i++) {
-					builder.append(«type.genericCast»this.node1[i]);
+				private «type.javaName»[] trimmedNode1() {
+					if (this.index1 < 32) {
+						return Arrays.copyOf(this.node1, this.index1);
+					} else {
+						return this.node1;
+					}
 				}
-			}
 
-			private void appendNode2To(final «genericName» builder) {
-				for (int i = 0; i < this.index2 - 1; i++) {
-					for (final «type.javaName» value : this.node2[i]) {
-						builder.append(«type.genericCast»value);
+				private «type.javaName»[][] trimmedNode2() {
+					if (this.index2 == 1) {
+						return «shortSeqName».EMPTY_NODE2;
+					} else {
+						return Arrays.copyOf(this.node2, this.index2 - 1);
 					}
 				}
-			}
 
-			private void appendNode3To(final «genericName» builder) {
-				for (int i = 0; i < this.index3 - 1; i++) {
-					for (final «type.javaName»[] n1 : this.node3[i]) {
-						for (final «type.javaName» value : n1) {
-							builder.append(«type.genericCast»value);
-						}
-					}
+				private «type.javaName»[][][] trimmedNode3() {
+					final «type.javaName»[][][] trimmedNode3 = Arrays.copyOf(this.node3, this.index3);
+					trimmedNode3[this.index3 - 1] = trimmedNode2();
+					return trimmedNode3;
 				}
-			}
 
-			private void appendNode4To(final «genericName» builder) {
-				for (int i = 0; i < this.index4 - 1; i++) {
-					for (final «type.javaName»[][] n2 : this.node4[i]) {
-						for (final «type.javaName»[] n1 : n2) {
-							for (final «type.javaName» value : n1) {
-								builder.append(«type.genericCast»value);
-							}
-						}
-					}
+				private «type.javaName»[][][][] trimmedNode4() {
+					final «type.javaName»[][][][] trimmedNode4 = Arrays.copyOf(this.node4, this.index4);
+					trimmedNode4[this.index4 - 1] = trimmedNode3();
+					return trimmedNode4;
 				}
-			}
 
-			private void appendNode5To(final «genericName» builder) {
-				for (int i = 0; i < this.index5 - 1; i++) {
-					for (final «type.javaName»[][][] n3 : this.node5[i]) {
-						for (final «type.javaName»[][] n2 : n3) {
-							for (final «type.javaName»[] n1 : n2) {
-								for (final «type.javaName» value : n1) {
-									builder.append(«type.genericCast»value);
-								}
-							}
-						}
-					}
+				private «type.javaName»[][][][][] trimmedNode5() {
+					final «type.javaName»[][][][][] trimmedNode5 = Arrays.copyOf(this.node5, this.index5);
+					trimmedNode5[this.index5 - 1] = trimmedNode4();
+					return trimmedNode5;
 				}
-			}
 
-			private void appendNode6To(final «genericName» builder) {
-				for (int i = 0; i < this.index6 - 1; i++) {
-					for (final «type.javaName»[][][][] n4 : this.node6[i]) {
-						for (final «type.javaName»[][][] n3 : n4) {
-							for (final «type.javaName»[][] n2 : n3) {
-								for (final «type.javaName»[] n1 : n2) {
-									for (final «type.javaName» value : n1) {
-										builder.append(«type.genericCast»value);
-									}
-								}
-							}
-						}
-					}
+				private «type.javaName»[][][][][][] trimmedNode6() {
+					final «type.javaName»[][][][][][] trimmedNode6 = Arrays.copyOf(this.node6, this.index6);
+					trimmedNode6[this.index6 - 1] = trimmedNode5();
+					return trimmedNode6;
 				}
+
+			«ENDIF»
+			/**
+			 * O(log(size + builder.size))
+			 */
+			«genericName» appendSeqBuilder(final «genericName» builder) {
+				final «type.seqGenericName» seq = build().concat(builder.build());
+				«IF type == Type.BOOLEAN»
+					this.words = new LongSeqBuilder();
+					this.word = 0L;
+					this.size = 0;
+				«ELSE»
+					this.node6 = null;
+					this.node5 = null;
+					this.node4 = null;
+					this.node3 = null;
+					this.node2 = null;
+					this.node1 = null;
+					this.init = null;
+					this.index6 = 0;
+					this.index5 = 0;
+					this.index4 = 0;
+					this.index3 = 0;
+					this.index2 = 0;
+					this.index1 = 0;
+					this.size = 0;
+					this.startIndex = 0;
+				«ENDIF»
+				this.prefix = seq.isEmpty() ? null : seq;
+				return this;
 			}
 
 			«toStr(type, "build()")»
@@ -0,0 +1,240 @@
+package jcats.generator.collection
+
+import java.util.List
+import jcats.generator.Constants
+import jcats.generator.Generator
+import jcats.generator.Type
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+
+@FinalFieldsConstructor
+final class SeqCursorGenerator extends SeqGenerator {
+
+	def static List<Generator> generators() {
+		Type.values.toList.map[new SeqCursorGenerator(it) as Generator]
+	}
+
+	override className() { Constants.COLLECTION + "." + cursorShortName }
+
+	override sourceCode() { '''
+		package «Constants.COLLECTION»;
+
+		import «Constants.JCATS».*;
+		import «Constants.FUNCTION».*;
+
+		«IF type == Type.OBJECT»
+			import static java.util.Objects.requireNonNull;
+		«ENDIF»
+		import static «Constants.COMMON».*;
+
+		/**
+		 * Random access cursor over a {@link «shortName»} that remembers the last visited leaf.
+		 * Access to an index in the same leaf («IF type == Type.BOOLEAN»32 words, 2048 elements«ELSE»32 elements«ENDIF») as the previous access is O(1),
+		 * access to any other index is O(log(size)).
+		 *
+		 * <p>Changes made by the cursor copy every node of the path at most once, so neighbouring
+		 * calls of {@link #set} and {@link #update} are O(1) amortized as well.
+		 * The resulting seq is returned by {@link #toSeq()}.
+		 *
+		 * <p>The cursor is not thread-safe.
+		 */
+		public final class «cursorName» implements Sized {
+			«IF type == Type.BOOLEAN»
+				private BooleanPackedSeq seq;
+				// Cursor over the words of seq, remembers the last visited leaf of words
+				private LongSeqCursor words;
+
+				«cursorShortName»(final «genericName» seq) {
+					this.seq = (BooleanPackedSeq) seq;
+					this.words = this.seq.words.cursor();
+				}
+
+				@Override
+				public int size() {
+					return this.seq.size;
+				}
+
+				/**
+				 * O(1) if index is in the same leaf as the previously accessed index, O(log(size)) otherwise
+				 */
+				public boolean get(final int index) throws IndexOutOfBoundsException {
+					if (index < 0 || index >= this.seq.size) {
+						«indexOutOfBounds»
+					}
+					final int bit = this.seq.offset + index;
+					return (this.words.get(bit >>> 6) & (1L << bit)) != 0;
+				}
+
+				/**
+				 * O(1) amortized if index is in the same leaf as the previously accessed index, O(log(size)) otherwise
+				 */
+				public «cursorName» set(final int index, final boolean value) throws IndexOutOfBoundsException {
+					if (index < 0 || index >= this.seq.size) {
+						«indexOutOfBounds»
+					}
+					final int bit = this.seq.offset + index;
+					final long word = this.words.get(bit >>> 6);
+					final long mask = 1L << bit;
+					if (((word & mask) != 0) != value) {
+						this.words.set(bit >>> 6, word ^ mask);
+					}
+					return this;
+				}
+
+				/**
+				 * O(1) amortized if index is in the same leaf as the previously accessed index, O(log(size)) otherwise
+				 */
+				public «cursorName» update(final int index, final BooleanBooleanF f) throws IndexOutOfBoundsException {
+					final boolean value = get(index);
+					return set(index, f.apply(value));
+				}
+
+				/**
+				 * Returns a persistent seq with the current elements.
+				 * The cursor can be used after this call, but the nodes shared with the returned seq will be copied again.
+				 * O(1)
+				 */
+				public «genericName» toSeq() {
+					final LongSeq words = this.words.toSeq();
+					if (words != this.seq.words) {
+						this.seq = new BooleanPackedSeq(words, this.seq.offset, this.seq.size);
+					}
+					return this.seq;
+				}
+			«ELSE»
+				private «genericName» seq;
+				// Created by the first change
+				private «transientName» transientSeq;
+				private «type.javaName»[] leaf;
+				private int leafStart;
+				// True if leaf is owned by transientSeq and can be changed in place
+				private boolean leafOwned;
+
+				«cursorShortName»(final «genericName» seq) {
+					this.seq = seq;
+					this.leaf = «type.emptyArrayName»;
+				}
+
+				@Override
+				public int size() {
+					return this.seq.size();
+				}
+
+				/**
+				 * O(1) if index is in the same leaf as the previously accessed index, O(log(size)) otherwise
+				 */
+				public «type.genericName» get(final int index) throws IndexOutOfBoundsException {
+					final int leafIndex = index - this.leafStart;
+					if (leafIndex >= 0 && leafIndex < this.leaf.length) {
+						return «type.genericCast»this.leaf[leafIndex];
+					} else {
+						focus(index);
+						return «type.genericCast»this.leaf[index - this.leafStart];
+					}
+				}
+
+				/**
+				 * O(1) amortized if index is in the same leaf as the previously accessed index, O(log(size)) otherwise
+				 */
+				public «cursorName» set(final int index, final «type.genericName» value) throws IndexOutOfBoundsException {
+					«IF type == Type.OBJECT»
+						requireNonNull(value);
+					«ENDIF»
+					final int leafIndex = index - this.leafStart;
+					if (this.leafOwned && leafIndex >= 0 && leafIndex < this.leaf.length) {
+						this.leaf[leafIndex] = value;
+					} else {
+						if (index < 0 || index >= this.seq.size()) {
+							«indexOutOfBounds»
+						}
+						if (this.transientSeq == null) {
+							this.transientSeq = this.seq.toTransient();
+						}
+						this.transientSeq.set(index, value);
+						// The transient has copied the path to index, so the leaf can be changed in place from now on
+						this.seq = this.transientSeq.seq;
+						focus(index);
+						this.leafOwned = true;
+					}
+					return this;
+				}
+
+				/**
+				 * O(1) amortized if index is in the same leaf as the previously accessed index, O(log(size)) otherwise
+				 */
+				public «cursorName» update(final int index, final «type.endoGenericName» f) throws IndexOutOfBoundsException {
+					final «type.genericName» value = get(index);
+					return set(index, f.apply(value));
+				}
+
+				/**
+				 * Returns a persistent seq with the current elements.
+				 * The cursor can be used after this call, but the nodes shared with the returned seq will be copied again.
+				 * O(1)
+				 */
+				public «genericName» toSeq() {
+					if (this.transientSeq != null) {
+						this.seq = this.transientSeq.persistent();
+						this.transientSeq = null;
+						this.leafOwned = false;
+					}
+					return this.seq;
+				}
+
+				private void focus(final int index) {
+					if (index < 0 || index >= this.seq.size()) {
+						«indexOutOfBounds»
+					}
+					«genericName» seq = this.seq;
+					int start = 0;
+					while (seq instanceof «relaxedShortName») {
+						final «relaxedName» relaxed = («relaxedName») seq;
+						final int i = relaxed.childIndex(index - start);
+						start += relaxed.offset(i);
+						seq = relaxed.children[i];
+					}
+					final int seqIndex = index - start;
+					if (seq instanceof «type.shortName("Seq")»1) {
+						focusLeaf(((«genericName(1)») seq).node1, start);
+					«FOR i : 2 .. 6»
+						} else if (seq instanceof «type.shortName("Seq")»«i») {
+							final «genericName(i)» seq«i» = («genericName(i)») seq;
+							if (seqIndex < seq«i».init.length) {
+								focusLeaf(seq«i».init, start);
+							} else if (seqIndex >= seq«i».size - seq«i».tail.length) {
+								focusLeaf(seq«i».tail, start + seq«i».size - seq«i».tail.length);
+							} else {
+								focusNode(seq«i».node«i», «i», seqIndex - seq«i».init.length, start + seq«i».init.length);
+							}
+					«ENDFOR»
+					} else {
+						throw new AssertionError();
+					}
+					this.leafOwned = false;
+				}
+
+				private void focusNode(final Object node, final int depth, final int index, final int start) {
+					if (depth == 1) {
+						focusLeaf((«type.javaName»[]) node, start);
+					} else {
+						// Only the first child of a node can be incomplete at the start
+						final Object[] children = (Object[]) node;
+						final int firstSize = «spliteratorShortName».nodeSize(children[0], depth - 1);
+						if (index < firstSize) {
+							focusNode(children[0], depth - 1, index, start);
+						} else {
+							final int shift = 5 * (depth - 1);
+							final int i = 1 + ((index - firstSize) >>> shift);
+							final int childIndex = (index - firstSize) & ((1 << shift) - 1);
+							focusNode(children[i], depth - 1, childIndex, start + index - childIndex);
+						}
+					}
+				}
+
+				private void focusLeaf(final «type.javaName»[] leaf, final int start) {
+					this.leaf = leaf;
+					this.leafStart = start;
+				}
+			«ENDIF»
+		}
+	''' }
+}
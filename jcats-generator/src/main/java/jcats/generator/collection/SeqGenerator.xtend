@@ -30,6 +30,18 @@ class SeqGenerator implements ClassGenerator {
 	def iteratorDiamondName(int index) { type.diamondName("Seq" + index + "Iterator") }
 	def reverseIteratorName(int index) { type.genericName("Seq" + index + "ReverseIterator") }
 	def reverseIteratorDiamondName(int index) { type.diamondName("Seq" + index + "ReverseIterator") }
+	def relaxedShortName() { type.shortName("RelaxedSeq") }
+	def relaxedName() { type.genericName("RelaxedSeq") }
+	def relaxedDiamondName() { type.diamondName("RelaxedSeq") }
+	def spliteratorShortName() { type.shortName("SeqSpliterator") }
+	def spliteratorName() { type.genericName("SeqSpliterator") }
+	def spliteratorDiamondName() { type.diamondName("SeqSpliterator") }
+	def transientShortName() { type.shortName("TransientSeq") }
+	def transientName() { type.genericName("TransientSeq") }
+	def transientDiamondName() { type.diamondName("TransientSeq") }
+	def cursorShortName() { type.shortName("SeqCursor") }
+	def cursorName() { type.genericName("SeqCursor") }
+	def cursorDiamondName() { type.diamondName("SeqCursor") }
 	def index() { if (type == Type.OBJECT) "index" else "Seq.index" }
 
 	override sourceCode() { '''
@@ -39,6 +51,9 @@ class SeqGenerator implements ClassGenerator {
 		«IF type == Type.OBJECT || type.javaUnboxedType»
 			import java.util.Arrays;
 		«ENDIF»
+		«IF type.javaUnboxedType»
+			import java.util.Collections;
+		«ENDIF»
 		import java.util.Iterator;
 		import java.util.NoSuchElementException;
 		«IF type.javaUnboxedType»
@@ -67,12 +82,26 @@ class SeqGenerator implements ClassGenerator {
 			import static «Constants.FUNCTION».«type.typeName»«type.typeName»F.*;
 		«ENDIF»
 		import static «Constants.JCATS».IntOption.*;
+		«IF type.javaUnboxedType && type != Type.INT»
+			import static «Constants.JCATS».«type.optionShortName».*;
+		«ENDIF»
 		import static «Constants.COMMON».*;
 
 
+		«IF type == Type.BOOLEAN»
+			/**
+			 * Persistent sequence of booleans packed into 64-bit words, one bit per element.
+			 * Counting and sorting work on whole words.
+			 */
+		«ENDIF»
 		public abstract class «type.covariantName("Seq")» implements «type.indexedContainerGenericName», Serializable {
+			«IF type != Type.BOOLEAN»
 
-			static final «type.javaName»[][] EMPTY_NODE2 = new «type.javaName»[0][];
+				static final «type.javaName»[][] EMPTY_NODE2 = new «type.javaName»[0][];
+			«ENDIF»
+
+			// Cached hash code, 0 if not computed yet
+			private transient int hash;
 
 			«shortName»() {
 			}
@@ -84,12 +113,12 @@ class SeqGenerator implements ClassGenerator {
 			public abstract int size();
 
 			/**
-			 * O(1)
+			 * O(1), or O(log(size)) if the seq was built by concatenation
 			 */
 			public abstract «genericName» init() throws NoSuchElementException;
 
 			/**
-			 * O(1)
+			 * O(1), or O(log(size)) if the seq was built by concatenation
 			 */
 			public abstract «genericName» tail() throws NoSuchElementException;
 
@@ -188,6 +217,59 @@ class SeqGenerator implements ClassGenerator {
 			 */
 			public abstract «genericName» append(«type.genericName» value);
 
+			/**
+			 * O(log(size))
+			 */
+			public final «genericName» insertAt(final int index, final «type.genericName» value) throws IndexOutOfBoundsException, SizeOverflowException {
+				final int size = size();
+				if (index < 0 || index > size) {
+					«indexOutOfBounds»
+				} else if (index == 0) {
+					return prepend(value);
+				} else if (index == size) {
+					return append(value);
+				} else {
+					return limit(index).append(value).concat(skip(index));
+				}
+			}
+
+			/**
+			 * O(log(size) + values.size)
+			 */
+			public final «genericName» insertAllAt(final int index, final Iterable<«type.genericBoxedName»> values) throws IndexOutOfBoundsException, SizeOverflowException {
+				final int size = size();
+				if (index < 0 || index > size) {
+					«indexOutOfBounds»
+				} else if (index == 0) {
+					return prependAll(values);
+				} else if (index == size) {
+					return appendAll(values);
+				} else {
+					final «genericName» inserted = ofAll(values);
+					if (inserted.isEmpty()) {
+						return this;
+					} else {
+						return limit(index).concat(inserted).concat(skip(index));
+					}
+				}
+			}
+
+			/**
+			 * Returns (limit(index), skip(index)).
+			 * O(log(size))
+			 */
+			public final P<«genericName», «genericName»> splitAt(final int index) throws IndexOutOfBoundsException {
+				final int size = size();
+				if (index < 0 || index > size) {
+					«indexOutOfBounds»
+				} else {
+					return P.p(limit(index), skip(index));
+				}
+			}
+
+			/**
+			 * O(log(size))
+			 */
 			public final «genericName» removeAt(final int index) throws IndexOutOfBoundsException {
 				final int size = size();
 				if (index < 0 || index >= size) {
@@ -234,25 +316,34 @@ class SeqGenerator implements ClassGenerator {
 			private «genericName» remove(final int index) {
 				final «genericName» prefix = limit(index);
 				final «genericName» suffix = skip(index + 1);
-				return concat(prefix, suffix);
+				return prefix.concat(suffix);
 			}
 
 			/**
-			 * O(min(prefix.size, suffix.size))
+			 * O(log(size + suffix.size)«IF type == Type.BOOLEAN» + min(size, suffix.size) / 64«ENDIF»)
 			 */
-			private «genericName» concat(final «genericName» suffix) {
+			final «genericName» concat(final «genericName» suffix) {
 				requireNonNull(suffix);
 				if (isEmpty()) {
 					return suffix;
 				} else if (suffix.isEmpty()) {
 					return this;
+				} else if (size() + suffix.size() < 0) {
+					throw new SizeOverflowException();
 				} else {
+					return «IF type == Type.BOOLEAN»BooleanPackedSeq«ELSE»«relaxedShortName»«ENDIF».join(this, suffix);
+				}
+			}
+
+			«IF type != Type.BOOLEAN»
+				/**
+				 * O(min(prefix.size, suffix.size))
+				 */
+				// Assume both seqs are non-empty and not relaxed, and (size + suffix.size) fits into a regular seq
+				final «genericName» concatByCopying(final «genericName» suffix) {
 					final int prefixSize = size();
 					final int suffixSize = suffix.size();
-					final int size = prefixSize + suffixSize;
-					if (size < 0) {
-						throw new SizeOverflowException();
-					} else if (size <= 32) {
+					if (prefixSize + suffixSize <= 32) {
 						final «type.javaName»[] prefixArray = ((«genericName(1)») this).node1;
 						final «type.javaName»[] suffixArray = ((«genericName(1)») suffix).node1;
 						return new «diamondName(1)»(concatArrays(prefixArray, suffixArray));
@@ -262,8 +353,8 @@ class SeqGenerator implements ClassGenerator {
 						return suffix.prependSized(iterator(), prefixSize);
 					}
 				}
-			}
 
+			«ENDIF»
 			// Assume suffixSize > 0
 			abstract «genericName» appendSized(«type.iteratorGenericName» suffix, int suffixSize);
 
@@ -312,14 +403,47 @@ class SeqGenerator implements ClassGenerator {
 				}
 			}
 
+			/**
+			 * Returns a mutable editing session that starts with the elements of this seq.
+			 * This seq is never changed by the transient.
+			 */
+			public final «transientName» toTransient() {
+				return new «transientDiamondName»(this);
+			}
+
+			/**
+			 * Applies a batch of changes to a transient copy of this seq and returns the result.
+			 */
+			public final «genericName» edit(final Eff<«transientName»> eff) {
+				requireNonNull(eff);
+				final «transientName» transientSeq = toTransient();
+				eff.apply(transientSeq);
+				return transientSeq.persistent();
+			}
+
+			/**
+			 * Returns a cursor for the sequential random access to the elements of this seq.
+			 * This seq is never changed by the cursor.
+			 */
+			public final «cursorName» cursor() {
+				return new «cursorDiamondName»(this);
+			}
+
 			public final «genericName» slice(final int fromIndexInclusive, final int toIndexExclusive) {
 				sliceRangeCheck(fromIndexInclusive, toIndexExclusive, size());
 				return skip(fromIndexInclusive).limit(toIndexExclusive - fromIndexInclusive);
 			}
 
-			public final «genericName» reverse() {
-				return sizedToSeq(reverseIterator(), size());
-			}
+			«IF type == Type.BOOLEAN»
+				/**
+				 * O(size / 64)
+				 */
+				public abstract «genericName» reverse();
+			«ELSE»
+				public final «genericName» reverse() {
+					return sizedToSeq(reverseIterator(), size());
+				}
+			«ENDIF»
 
 			«IF type == Type.OBJECT»
 				public final <B> Seq<B> map(final F<A, B> f) {
@@ -458,6 +582,21 @@ class SeqGenerator implements ClassGenerator {
 				Object[] toSharedObjectArray() {
 					return toObjectArray();
 				}
+			«ELSEIF type == Type.BOOLEAN»
+				@Override
+				public abstract BooleanArray toBooleanArray();
+
+				/**
+				 * O(size / 64)
+				 */
+				public abstract int countTrue();
+
+				/**
+				 * O(size / 64)
+				 */
+				public final int countFalse() {
+					return size() - countTrue();
+				}
 			«ELSE»
 				@Override
 				public final «type.arrayGenericName» to«type.arrayShortName»() {
@@ -476,55 +615,97 @@ class SeqGenerator implements ClassGenerator {
 			}
 
 			«IF type == Type.OBJECT»
+				/**
+				 * Stable sort
+				 */
 				public Seq<A> sort(final Ord<A> ord) {
+					return sort(ord, false);
+				}
+
+				/**
+				 * Stable sort that uses {@link Arrays#parallelSort} for large seqs
+				 */
+				public Seq<A> parallelSort(final Ord<A> ord) {
+					return sort(ord, true);
+				}
+
+				private Seq<A> sort(final Ord<A> ord, final boolean parallel) {
 					requireNonNull(ord);
 					if (size() <= 1) {
 						return this;
 					} else {
 						final Object[] sorted = toObjectArray();
-						Arrays.sort(sorted, (Ord<Object>) ord);
+						if (parallel) {
+							Arrays.parallelSort(sorted, (Ord<Object>) ord);
+						} else {
+							Arrays.sort(sorted, (Ord<Object>) ord);
+						}
 						return seqFromSharedArray(sorted);
 					}
 				}
 			«ELSEIF type == Type.BOOLEAN»
+				/**
+				 * O(size / 64)
+				 */
 				public «genericName» sortAsc() {
-					final int size = size();
-					if (size <= 1) {
+					if (size() <= 1) {
 						return this;
 					} else {
-						final int countFalse = foldToInt(0, (int i, boolean value) -> value ? i : i + 1);
-						return tabulate(size, i -> i >= countFalse);
+						final int countTrue = countTrue();
+						return repeat(size() - countTrue, false).concat(repeat(countTrue, true));
 					}
 				}
 
+				/**
+				 * O(size / 64)
+				 */
 				public «genericName» sortDesc() {
-					final int size = size();
-					if (size <= 1) {
+					if (size() <= 1) {
 						return this;
 					} else {
-						final int countTrue = foldToInt(0, (int i, boolean value) -> value ? i + 1 : i);
-						return tabulate(size, i -> i < countTrue);
+						final int countTrue = countTrue();
+						return repeat(countTrue, true).concat(repeat(size() - countTrue, false));
 					}
 				}
 			«ELSE»
 				public «genericName» sortAsc() {
-					if (size() <= 1) {
-						return this;
-					} else {
-						final «type.javaName»[] sorted = toPrimitiveArray();
-						Arrays.sort(sorted);
-						return seqFromSharedArray(sorted);
-					}
+					return sort(false, false);
 				}
 
 				public «genericName» sortDesc() {
+					return sort(true, false);
+				}
+
+				/**
+				 * Uses {@link Arrays#parallelSort} for large seqs
+				 */
+				public «genericName» parallelSortAsc() {
+					return sort(false, true);
+				}
+
+				/**
+				 * Uses {@link Arrays#parallelSort} for large seqs
+				 */
+				public «genericName» parallelSortDesc() {
+					return sort(true, true);
+				}
+
+				private «genericName» sort(final boolean desc, final boolean parallel) {
 					if (size() <= 1) {
 						return this;
 					} else {
 						final «type.javaName»[] sorted = toPrimitiveArray();
-						Arrays.sort(sorted);
-						Common.reverse«type.arrayShortName»(sorted);
-						return seqFromSharedArray(sorted);
+						if (parallel) {
+							Arrays.parallelSort(sorted);
+						} else {
+							Arrays.sort(sorted);
+						}
+						if (desc) {
+							// Fill the leaves from the end instead of reversing the array
+							return sizedToSeq(new «type.typeName»ArrayReverseIterator(sorted), sorted.length);
+						} else {
+							return seqFromSharedArray(sorted);
+						}
 					}
 				}
 			«ENDIF»
@@ -532,14 +713,20 @@ class SeqGenerator implements ClassGenerator {
 			public static «paramGenericName» empty«shortName»() {
 				«IF type == Type.OBJECT»
 					return («genericName») «shortName»0.EMPTY;
+				«ELSEIF type == Type.BOOLEAN»
+					return BooleanPackedSeq.EMPTY;
 				«ELSE»
 					return «shortName»0.EMPTY;
 				«ENDIF»
 			}
 
 			public static «paramGenericName» single«shortName»(final «type.genericName» value) {
-				final «type.javaName»[] node1 = { «IF type == Type.OBJECT»requireNonNull(value)«ELSE»value«ENDIF» };
-				return new «diamondName(1)»(node1);
+				«IF type == Type.BOOLEAN»
+					return new BooleanPackedSeq(LongSeq.singleLongSeq(value ? 1L : 0L), 0, 1);
+				«ELSE»
+					final «type.javaName»[] node1 = { «IF type == Type.OBJECT»requireNonNull(value)«ELSE»value«ENDIF» };
+					return new «diamondName(1)»(node1);
+				«ENDIF»
 			}
 
 			«IF type == Type.OBJECT»
@@ -575,8 +762,29 @@ class SeqGenerator implements ClassGenerator {
 					return seq.sort(desc());
 				}
 
+				public static <A extends Comparable<A>> Seq<A> parallelSortAsc(final Seq<A> seq) {
+					return seq.parallelSort(asc());
+				}
+
+				public static <A extends Comparable<A>> Seq<A> parallelSortDesc(final Seq<A> seq) {
+					return seq.parallelSort(desc());
+				}
+
+			«ENDIF»
+			«IF type == Type.BOOLEAN»
+				/**
+				 * O(size / 64)
+				 */
+				public static BooleanSeq repeat(final int size, final boolean value) {
+					if (size < 0) {
+						throw new IllegalArgumentException(Integer.toString(size));
+					} else {
+						return BooleanPackedSeq.filled(size, value);
+					}
+				}
+			«ELSE»
+				«repeat(type, paramGenericName)»
 			«ENDIF»
-			«repeat(type, paramGenericName)»
 
 			«fill(type, paramGenericName)»
 
@@ -601,268 +809,260 @@ class SeqGenerator implements ClassGenerator {
 
 			«iterateUntil(type, paramGenericName, seqBuilderName)»
 
-			static «IF type == Type.OBJECT»<A> «ENDIF»void fillArray(final «type.javaName»[] array, final int startIndex, final «type.iteratorGenericName» iterator) {
-				for (int i = startIndex; i < array.length; i++) {
-					«IF type == Type.OBJECT»
-						array[i] = requireNonNull(iterator.next());
-					«ELSE»
-						array[i] = iterator.«type.iteratorNext»();
-					«ENDIF»
+			«IF type == Type.BOOLEAN»
+				static BooleanSeq seqFromSharedArray(final boolean[] values) {
+					return seqFromArray(values);
 				}
-			}
 
-			private static «IF type == Type.OBJECT»<A> «ENDIF»void fillNode2(final «type.javaName»[][] node2, final int startIndex2, final int endIndex2, final «type.iteratorGenericName» iterator) {
-				for (int i = startIndex2; i < endIndex2; i++) {
-					fillArray(node2[i], 0, iterator);
+				static BooleanSeq seqFromArray(final boolean[] values) {
+					return BooleanPackedSeq.pack(new BooleanArrayIterator(values), values.length);
 				}
-			}
 
-			private static «IF type == Type.OBJECT»<A> «ENDIF»void fillNode3(final «type.javaName»[][][] node3, final int startIndex3, final int endIndex3, final «type.iteratorGenericName» iterator) {
-				for (int i = startIndex3; i < endIndex3; i++) {
-					fillNode2(node3[i], 0, node3[i].length, iterator);
+			«ELSE»
+				static «IF type == Type.OBJECT»<A> «ENDIF»void fillArray(final «type.javaName»[] array, final int startIndex, final «type.iteratorGenericName» iterator) {
+					for (int i = startIndex; i < array.length; i++) {
+						«IF type == Type.OBJECT»
+							array[i] = requireNonNull(iterator.next());
+						«ELSE»
+							array[i] = iterator.«type.iteratorNext»();
+						«ENDIF»
+					}
 				}
-			}
 
-			private static «IF type == Type.OBJECT»<A> «ENDIF»void fillNode4(final «type.javaName»[][][][] node4, final int startIndex4, final int endIndex4, final «type.iteratorGenericName» iterator) {
-				for (int i = startIndex4; i < endIndex4; i++) {
-					fillNode3(node4[i], 0, node4[i].length, iterator);
+				private static «IF type == Type.OBJECT»<A> «ENDIF»void fillNode2(final «type.javaName»[][] node2, final int startIndex2, final int endIndex2, final «type.iteratorGenericName» iterator) {
+					for (int i = startIndex2; i < endIndex2; i++) {
+						fillArray(node2[i], 0, iterator);
+					}
 				}
-			}
 
-			private static «IF type == Type.OBJECT»<A> «ENDIF»void fillNode5(final «type.javaName»[][][][][] node5, final int startIndex5, final int endIndex5, final «type.iteratorGenericName» iterator) {
-				for (int i = startIndex5; i < endIndex5; i++) {
-					fillNode4(node5[i], 0, node5[i].length, iterator);
+				private static «IF type == Type.OBJECT»<A> «ENDIF»void fillNode3(final «type.javaName»[][][] node3, final int startIndex3, final int endIndex3, final «type.iteratorGenericName» iterator) {
+					for (int i = startIndex3; i < endIndex3; i++) {
+						fillNode2(node3[i], 0, node3[i].length, iterator);
+					}
 				}
-			}
 
-			private static «IF type == Type.OBJECT»<A> «ENDIF»void fillNode6(final «type.javaName»[][][][][][] node6, final int startIndex6, final int endIndex6, final «type.iteratorGenericName» iterator) {
-				for (int i = startIndex6; i < endIndex6; i++) {
-					fillNode5(node6[i], 0, node6[i].length, iterator);
+				private static «IF type == Type.OBJECT»<A> «ENDIF»void fillNode4(final «type.javaName»[][][][] node4, final int startIndex4, final int endIndex4, final «type.iteratorGenericName» iterator) {
+					for (int i = startIndex4; i < endIndex4; i++) {
+						fillNode3(node4[i], 0, node4[i].length, iterator);
+					}
 				}
-			}
 
-			static «paramGenericName(1)» fillSeq1(final «type.javaName»[] node1, final int startIndex1, final «type.iteratorGenericName» iterator) {
-				fillArray(node1, startIndex1, iterator);
-				return new «diamondName(1)»(node1);
-			}
+				private static «IF type == Type.OBJECT»<A> «ENDIF»void fillNode5(final «type.javaName»[][][][][] node5, final int startIndex5, final int endIndex5, final «type.iteratorGenericName» iterator) {
+					for (int i = startIndex5; i < endIndex5; i++) {
+						fillNode4(node5[i], 0, node5[i].length, iterator);
+					}
+				}
 
-			static «paramGenericName(2)» fillSeq2(final «type.javaName»[][] node2, final int startIndex2, final «type.javaName»[] node1, final int startIndex1,
-					final «type.javaName»[] init, final «type.javaName»[] tail, final int size, final «type.iteratorGenericName» iterator) {
-				fillArray(node1, startIndex1, iterator);
-				fillNode2(node2, startIndex2, node2.length, iterator);
-				fillArray(tail, 0, iterator);
-				return new «diamondName(2)»(node2, init, tail, size);
-			}
+				private static «IF type == Type.OBJECT»<A> «ENDIF»void fillNode6(final «type.javaName»[][][][][][] node6, final int startIndex6, final int endIndex6, final «type.iteratorGenericName» iterator) {
+					for (int i = startIndex6; i < endIndex6; i++) {
+						fillNode5(node6[i], 0, node6[i].length, iterator);
+					}
+				}
 
-			static «paramGenericName(3)» fillSeq3(final «type.javaName»[][][] node3, final int startIndex3, final «type.javaName»[][] node2, final int startIndex2,
-					final «type.javaName»[] node1, final int startIndex1, final «type.javaName»[] init, final «type.javaName»[] tail, final int startIndex,
-					final int size, final «type.iteratorGenericName» iterator) {
-				fillArray(node1, startIndex1, iterator);
-				fillNode2(node2, startIndex2, node2.length, iterator);
-				fillNode3(node3, startIndex3, node3.length, iterator);
-				fillArray(tail, 0, iterator);
-				return new «diamondName(3)»(node3, init, tail, startIndex, size);
-			}
+				static «paramGenericName(1)» fillSeq1(final «type.javaName»[] node1, final int startIndex1, final «type.iteratorGenericName» iterator) {
+					fillArray(node1, startIndex1, iterator);
+					return new «diamondName(1)»(node1);
+				}
 
-			static «paramGenericName(4)» fillSeq4(final «type.javaName»[][][][] node4, final int startIndex4, final «type.javaName»[][][] node3, final int startIndex3,
-					final «type.javaName»[][] node2, final int startIndex2,  final «type.javaName»[] node1, final int startIndex1, final «type.javaName»[] init,
-					final «type.javaName»[] tail, final int startIndex,  final int size, final «type.iteratorGenericName» iterator) {
-				fillArray(node1, startIndex1, iterator);
-				fillNode2(node2, startIndex2, node2.length, iterator);
-				fillNode3(node3, startIndex3, node3.length, iterator);
-				fillNode4(node4, startIndex4, node4.length, iterator);
-				fillArray(tail, 0, iterator);
-				return new «diamondName(4)»(node4, init, tail, startIndex, size);
-			}
+				static «paramGenericName(2)» fillSeq2(final «type.javaName»[][] node2, final int startIndex2, final «type.javaName»[] node1, final int startIndex1,
+						final «type.javaName»[] init, final «type.javaName»[] tail, final int size, final «type.iteratorGenericName» iterator) {
+					fillArray(node1, startIndex1, iterator);
+					fillNode2(node2, startIndex2, node2.length, iterator);
+					fillArray(tail, 0, iterator);
+					return new «diamondName(2)»(node2, init, tail, size);
+				}
 
-			static «paramGenericName(5)» fillSeq5(final «type.javaName»[][][][][] node5, final int startIndex5, final «type.javaName»[][][][] node4, final int startIndex4,
-					final «type.javaName»[][][] node3, final int startIndex3, final «type.javaName»[][] node2, final int startIndex2,
-					final «type.javaName»[] node1, final int startIndex1, final «type.javaName»[] init, final «type.javaName»[] tail, final int startIndex,
-					final int size, final «type.iteratorGenericName» iterator) {
-				fillArray(node1, startIndex1, iterator);
-				fillNode2(node2, startIndex2, node2.length, iterator);
-				fillNode3(node3, startIndex3, node3.length, iterator);
-				fillNode4(node4, startIndex4, node4.length, iterator);
-				fillNode5(node5, startIndex5, node5.length, iterator);
-				fillArray(tail, 0, iterator);
-				return new «diamondName(5)»(node5, init, tail, startIndex, size);
-			}
+				static «paramGenericName(3)» fillSeq3(final «type.javaName»[][][] node3, final int startIndex3, final «type.javaName»[][] node2, final int startIndex2,
+						final «type.javaName»[] node1, final int startIndex1, final «type.javaName»[] init, final «type.javaName»[] tail, final int startIndex,
+						final int size, final «type.iteratorGenericName» iterator) {
+					fillArray(node1, startIndex1, iterator);
+					fillNode2(node2, startIndex2, node2.length, iterator);
+					fillNode3(node3, startIndex3, node3.length, iterator);
+					fillArray(tail, 0, iterator);
+					return new «diamondName(3)»(node3, init, tail, startIndex, size);
+				}
 
-			static «paramGenericName(6)» fillSeq6(final «type.javaName»[][][][][][] node6, final int startIndex6, final «type.javaName»[][][][][] node5, final int startIndex5,
-					final «type.javaName»[][][][] node4, final int startIndex4, final «type.javaName»[][][] node3, final int startIndex3,
-					final «type.javaName»[][] node2, final int startIndex2, final «type.javaName»[] node1, final int startIndex1,
-					final «type.javaName»[] init, final «type.javaName»[] tail, final int startIndex, final int size, final «type.iteratorGenericName» iterator) {
-				fillArray(node1, startIndex1, iterator);
-				fillNode2(node2, startIndex2, node2.length, iterator);
-				fillNode3(node3, startIndex3, node3.length, iterator);
-				fillNode4(node4, startIndex4, node4.length, iterator);
-				fillNode5(node5, startIndex5, node5.length, iterator);
-				fillNode6(node6, startIndex6, node6.length, iterator);
-				fillArray(tail, 0, iterator);
-				return new «diamondName(6)»(node6, init, tail, startIndex, size);
-			}
+				static «paramGenericName(4)» fillSeq4(final «type.javaName»[][][][] node4, final int startIndex4, final «type.javaName»[][][] node3, final int startIndex3,
+						final «type.javaName»[][] node2, final int startIndex2,  final «type.javaName»[] node1, final int startIndex1, final «type.javaName»[] init,
+						final «type.javaName»[] tail, final int startIndex,  final int size, final «type.iteratorGenericName» iterator) {
+					fillArray(node1, startIndex1, iterator);
+					fillNode2(node2, startIndex2, node2.length, iterator);
+					fillNode3(node3, startIndex3, node3.length, iterator);
+					fillNode4(node4, startIndex4, node4.length, iterator);
+					fillArray(tail, 0, iterator);
+					return new «diamondName(4)»(node4, init, tail, startIndex, size);
+				}
 
-			static <A> void fillArrayFromStart(final «type.javaName»[] array, final int endIndex, final «type.iteratorGenericName» iterator) {
-				for (int i = 0; i < endIndex; i++) {
-					«IF type == Type.OBJECT»
-						array[i] = requireNonNull(iterator.next());
-					«ELSE»
-						array[i] = iterator.«type.iteratorNext»();
-					«ENDIF»
+				static «paramGenericName(5)» fillSeq5(final «type.javaName»[][][][][] node5, final int startIndex5, final «type.javaName»[][][][] node4, final int startIndex4,
+						final «type.javaName»[][][] node3, final int startIndex3, final «type.javaName»[][] node2, final int startIndex2,
+						final «type.javaName»[] node1, final int startIndex1, final «type.javaName»[] init, final «type.javaName»[] tail, final int startIndex,
+						final int size, final «type.iteratorGenericName» iterator) {
+					fillArray(node1, startIndex1, iterator);
+					fillNode2(node2, startIndex2, node2.length, iterator);
+					fillNode3(node3, startIndex3, node3.length, iterator);
+					fillNode4(node4, startIndex4, node4.length, iterator);
+					fillNode5(node5, startIndex5, node5.length, iterator);
+					fillArray(tail, 0, iterator);
+					return new «diamondName(5)»(node5, init, tail, startIndex, size);
 				}
-			}
 
-			static «paramGenericName(1)» fillSeq1FromStart(final «type.javaName»[] node1, final int endIndex1, final «type.iteratorGenericName» iterator) {
-				fillArrayFromStart(node1, endIndex1, iterator);
-				return new «diamondName(1)»(node1);
-			}
+				static «paramGenericName(6)» fillSeq6(final «type.javaName»[][][][][][] node6, final int startIndex6, final «type.javaName»[][][][][] node5, final int startIndex5,
+						final «type.javaName»[][][][] node4, final int startIndex4, final «type.javaName»[][][] node3, final int startIndex3,
+						final «type.javaName»[][] node2, final int startIndex2, final «type.javaName»[] node1, final int startIndex1,
+						final «type.javaName»[] init, final «type.javaName»[] tail, final int startIndex, final int size, final «type.iteratorGenericName» iterator) {
+					fillArray(node1, startIndex1, iterator);
+					fillNode2(node2, startIndex2, node2.length, iterator);
+					fillNode3(node3, startIndex3, node3.length, iterator);
+					fillNode4(node4, startIndex4, node4.length, iterator);
+					fillNode5(node5, startIndex5, node5.length, iterator);
+					fillNode6(node6, startIndex6, node6.length, iterator);
+					fillArray(tail, 0, iterator);
+					return new «diamondName(6)»(node6, init, tail, startIndex, size);
+				}
 
-			static «paramGenericName(2)» fillSeq2FromStart(final «type.javaName»[][] node2, final int fromEndIndex2, final «type.javaName»[] node1,
-					final int fromEndIndex1, final «type.javaName»[] init, final «type.javaName»[] tail, final int size, final «type.iteratorGenericName» iterator) {
-				fillArray(init, 0, iterator);
-				fillNode2(node2, 0, node2.length - fromEndIndex2, iterator);
-				fillArrayFromStart(node1, node1.length - fromEndIndex1, iterator);
-				return new «diamondName(2)»(node2, init, tail, size);
-			}
+				static <A> void fillArrayFromStart(final «type.javaName»[] array, final int endIndex, final «type.iteratorGenericName» iterator) {
+					for (int i = 0; i < endIndex; i++) {
+						«IF type == Type.OBJECT»
+							array[i] = requireNonNull(iterator.next());
+						«ELSE»
+							array[i] = iterator.«type.iteratorNext»();
+						«ENDIF»
+					}
+				}
 
-			static «paramGenericName(3)» fillSeq3FromStart(final «type.javaName»[][][] node3, final int fromEndIndex3, final «type.javaName»[][] node2,
-					final int fromEndIndex2, final «type.javaName»[] node1, final int fromEndIndex1, final «type.javaName»[] init,
-					final «type.javaName»[] tail, final int startIndex, final int size, final «type.iteratorGenericName» iterator) {
-				fillArray(init, 0, iterator);
-				fillNode3(node3, 0, node3.length - fromEndIndex3, iterator);
-				fillNode2(node2, 0, node2.length - fromEndIndex2, iterator);
-				fillArrayFromStart(node1, node1.length - fromEndIndex1, iterator);
-				return new «diamondName(3)»(node3, init, tail, startIndex, size);
-			}
+				static «paramGenericName(1)» fillSeq1FromStart(final «type.javaName»[] node1, final int endIndex1, final «type.iteratorGenericName» iterator) {
+					fillArrayFromStart(node1, endIndex1, iterator);
+					return new «diamondName(1)»(node1);
+				}
 
-			static «paramGenericName(4)» fillSeq4FromStart(final «type.javaName»[][][][] node4, final int fromEndIndex4, final «type.javaName»[][][] node3,
-					final int fromEndIndex3, final «type.javaName»[][] node2, final int fromEndIndex2, final «type.javaName»[] node1,
-					final int fromEndIndex1, final «type.javaName»[] init, final «type.javaName»[] tail, final int startIndex, final int size,
-					final «type.iteratorGenericName» iterator) {
-				fillArray(init, 0, iterator);
-				fillNode4(node4, 0, node4.length - fromEndIndex4, iterator);
-				fillNode3(node3, 0, node3.length - fromEndIndex3, iterator);
-				fillNode2(node2, 0, node2.length - fromEndIndex2, iterator);
-				fillArrayFromStart(node1, node1.length - fromEndIndex1, iterator);
-				return new «diamondName(4)»(node4, init, tail, startIndex, size);
-			}
+				static «paramGenericName(2)» fillSeq2FromStart(final «type.javaName»[][] node2, final int fromEndIndex2, final «type.javaName»[] node1,
+						final int fromEndIndex1, final «type.javaName»[] init, final «type.javaName»[] tail, final int size, final «type.iteratorGenericName» iterator) {
+					fillArray(init, 0, iterator);
+					fillNode2(node2, 0, node2.length - fromEndIndex2, iterator);
+					fillArrayFromStart(node1, node1.length - fromEndIndex1, iterator);
+					return new «diamondName(2)»(node2, init, tail, size);
+				}
 
-			static «paramGenericName(5)» fillSeq5FromStart(final «type.javaName»[][][][][] node5, final int fromEndIndex5, final «type.javaName»[][][][] node4,
-					final int fromEndIndex4, final «type.javaName»[][][] node3, final int fromEndIndex3, final «type.javaName»[][] node2,
-					final int fromEndIndex2, final «type.javaName»[] node1, final int fromEndIndex1, final «type.javaName»[] init, final «type.javaName»[] tail,
-					final int startIndex, final int size, final «type.iteratorGenericName» iterator) {
-				fillArray(init, 0, iterator);
-				fillNode5(node5, 0, node5.length - fromEndIndex5, iterator);
-				fillNode4(node4, 0, node4.length - fromEndIndex4, iterator);
-				fillNode3(node3, 0, node3.length - fromEndIndex3, iterator);
-				fillNode2(node2, 0, node2.length - fromEndIndex2, iterator);
-				fillArrayFromStart(node1, node1.length - fromEndIndex1, iterator);
-				return new «diamondName(5)»(node5, init, tail, startIndex, size);
-			}
+				static «paramGenericName(3)» fillSeq3FromStart(final «type.javaName»[][][] node3, final int fromEndIndex3, final «type.javaName»[][] node2,
+						final int fromEndIndex2, final «type.javaName»[] node1, final int fromEndIndex1, final «type.javaName»[] init,
+						final «type.javaName»[] tail, final int startIndex, final int size, final «type.iteratorGenericName» iterator) {
+					fillArray(init, 0, iterator);
+					fillNode3(node3, 0, node3.length - fromEndIndex3, iterator);
+					fillNode2(node2, 0, node2.length - fromEndIndex2, iterator);
+					fillArrayFromStart(node1, node1.length - fromEndIndex1, iterator);
+					return new «diamondName(3)»(node3, init, tail, startIndex, size);
+				}
 
-			static «paramGenericName(6)» fillSeq6FromStart(final «type.javaName»[][][][][][] node6, final int fromEndIndex6, final «type.javaName»[][][][][] node5,
-					final int fromEndIndex5, final «type.javaName»[][][][] node4, final int fromEndIndex4, final «type.javaName»[][][] node3,
-					final int fromEndIndex3, final «type.javaName»[][] node2, final int fromEndIndex2, final «type.javaName»[] node1, final int fromEndIndex1,
-					final «type.javaName»[] init, final «type.javaName»[] tail, final int startIndex, final int size, final «type.iteratorGenericName» iterator) {
-				fillArray(init, 0, iterator);
-				fillNode6(node6, 0, node6.length - fromEndIndex6, iterator);
-				fillNode5(node5, 0, node5.length - fromEndIndex5, iterator);
-				fillNode4(node4, 0, node4.length - fromEndIndex4, iterator);
-				fillNode3(node3, 0, node3.length - fromEndIndex3, iterator);
-				fillNode2(node2, 0, node2.length - fromEndIndex2, iterator);
-				fillArrayFromStart(node1, node1.length - fromEndIndex1, iterator);
-				return new «diamondName(6)»(node6, init, tail, startIndex, size);
-			}
+				static «paramGenericName(4)» fillSeq4FromStart(final «type.javaName»[][][][] node4, final int fromEndIndex4, final «type.javaName»[][][] node3,
+						final int fromEndIndex3, final «type.javaName»[][] node2, final int fromEndIndex2, final «type.javaName»[] node1,
+						final int fromEndIndex1, final «type.javaName»[] init, final «type.javaName»[] tail, final int startIndex, final int size,
+						final «type.iteratorGenericName» iterator) {
+					fillArray(init, 0, iterator);
+					fillNode4(node4, 0, node4.length - fromEndIndex4, iterator);
+					fillNode3(node3, 0, node3.length - fromEndIndex3, iterator);
+					fillNode2(node2, 0, node2.length - fromEndIndex2, iterator);
+					fillArrayFromStart(node1, node1.length - fromEndIndex1, iterator);
+					return new «diamondName(4)»(node4, init, tail, startIndex, size);
+				}
 
-			static «paramGenericName» seqFromSharedArray(final «type.javaName»[] values) {
-				// Assume values.length != 0
-				if (values.length <= 32) {
-					return new «diamondName(1)»(values);
-				} else {
-					return seqFromArray(values);
+				static «paramGenericName(5)» fillSeq5FromStart(final «type.javaName»[][][][][] node5, final int fromEndIndex5, final «type.javaName»[][][][] node4,
+						final int fromEndIndex4, final «type.javaName»[][][] node3, final int fromEndIndex3, final «type.javaName»[][] node2,
+						final int fromEndIndex2, final «type.javaName»[] node1, final int fromEndIndex1, final «type.javaName»[] init, final «type.javaName»[] tail,
+						final int startIndex, final int size, final «type.iteratorGenericName» iterator) {
+					fillArray(init, 0, iterator);
+					fillNode5(node5, 0, node5.length - fromEndIndex5, iterator);
+					fillNode4(node4, 0, node4.length - fromEndIndex4, iterator);
+					fillNode3(node3, 0, node3.length - fromEndIndex3, iterator);
+					fillNode2(node2, 0, node2.length - fromEndIndex2, iterator);
+					fillArrayFromStart(node1, node1.length - fromEndIndex1, iterator);
+					return new «diamondName(5)»(node5, init, tail, startIndex, size);
 				}
-			}
 
-			static «paramGenericName» seqFromArray(final «type.javaName»[] values) {
-				// Assume values.length != 0
-				if (values.length <= 32) {
-					return seq1FromArray(values);
-				} else if (values.length <= (1 << 10)) {
-					return seq2FromArray(values);
-				} else if (values.length <= (1 << 15)) {
-					return seq3FromArray(values);
-				} else if (values.length <= (1 << 20)) {
-					return seq4FromArray(values);
-				} else if (values.length <= (1 << 25)) {
-					return seq5FromArray(values);
-				} else if (values.length <= (1 << 30)) {
-					return seq6FromArray(values);
-				} else {
-					throw new SizeOverflowException();
+				static «paramGenericName(6)» fillSeq6FromStart(final «type.javaName»[][][][][][] node6, final int fromEndIndex6, final «type.javaName»[][][][][] node5,
+						final int fromEndIndex5, final «type.javaName»[][][][] node4, final int fromEndIndex4, final «type.javaName»[][][] node3,
+						final int fromEndIndex3, final «type.javaName»[][] node2, final int fromEndIndex2, final «type.javaName»[] node1, final int fromEndIndex1,
+						final «type.javaName»[] init, final «type.javaName»[] tail, final int startIndex, final int size, final «type.iteratorGenericName» iterator) {
+					fillArray(init, 0, iterator);
+					fillNode6(node6, 0, node6.length - fromEndIndex6, iterator);
+					fillNode5(node5, 0, node5.length - fromEndIndex5, iterator);
+					fillNode4(node4, 0, node4.length - fromEndIndex4, iterator);
+					fillNode3(node3, 0, node3.length - fromEndIndex3, iterator);
+					fillNode2(node2, 0, node2.length - fromEndIndex2, iterator);
+					fillArrayFromStart(node1, node1.length - fromEndIndex1, iterator);
+					return new «diamondName(6)»(node6, init, tail, startIndex, size);
 				}
-			}
 
-			private static «paramGenericName(1)» seq1FromArray(final «type.javaName»[] values) {
-				final «type.javaName»[] node1 = new «type.javaName»[values.length];
-				System.arraycopy(values, 0, node1, 0, values.length);
-				return new «diamondName(1)»(node1);
-			}
+				static «paramGenericName» seqFromSharedArray(final «type.javaName»[] values) {
+					// Assume values.length != 0
+					if (values.length <= 32) {
+						return new «diamondName(1)»(values);
+					} else {
+						return seqFromArray(values);
+					}
+				}
 
-			private static «paramGenericName(2)» seq2FromArray(final «type.javaName»[] values) {
-				final «type.javaName»[] init = initFromArray(values);
-				if (values.length <= 64) {
-					final «type.javaName»[] tail = new «type.javaName»[values.length - 32];
-					System.arraycopy(values, 32, tail, 0, values.length - 32);
-					return new «diamondName(2)»(EMPTY_NODE2, init, tail, values.length);
-				} else {
-					final «type.javaName»[] tail = tailFromArray(values);
-					final «type.javaName»[][] node2 = new «type.javaName»[(values.length - 32 - tail.length) / 32][32];
-					int index = 32;
-					for (final «type.javaName»[] node1 : node2) {
-						System.arraycopy(values, index, node1, 0, 32);
-						index += 32;
+				static «paramGenericName» seqFromArray(final «type.javaName»[] values) {
+					// Assume values.length != 0
+					if (values.length <= 32) {
+						return seq1FromArray(values);
+					} else if (values.length <= (1 << 10)) {
+						return seq2FromArray(values);
+					} else if (values.length <= (1 << 15)) {
+						return seq3FromArray(values);
+					} else if (values.length <= (1 << 20)) {
+						return seq4FromArray(values);
+					} else if (values.length <= (1 << 25)) {
+						return seq5FromArray(values);
+					} else if (values.length <= (1 << 30)) {
+						return seq6FromArray(values);
+					} else {
+						throw new SizeOverflowException();
 					}
-					return new «diamondName(2)»(node2, init, tail, values.length);
 				}
-			}
 
-			private static «paramGenericName(3)» seq3FromArray(final «type.javaName»[] values) {
-				final «type.javaName»[] init = initFromArray(values);
-				final «type.javaName»[] tail = tailFromArray(values);
-				final «type.javaName»[][][] node3 = allocateNode3(0, values.length);
-				int index = 32;
-				for (final «type.javaName»[][] node2 : node3) {
-					for (final «type.javaName»[] node1 : node2) {
-						System.arraycopy(values, index, node1, 0, 32);
-						index += 32;
+				private static «paramGenericName(1)» seq1FromArray(final «type.javaName»[] values) {
+					final «type.javaName»[] node1 = new «type.javaName»[values.length];
+					System.arraycopy(values, 0, node1, 0, values.length);
+					return new «diamondName(1)»(node1);
+				}
+
+				private static «paramGenericName(2)» seq2FromArray(final «type.javaName»[] values) {
+					final «type.javaName»[] init = initFromArray(values);
+					if (values.length <= 64) {
+						final «type.javaName»[] tail = new «type.javaName»[values.length - 32];
+						System.arraycopy(values, 32, tail, 0, values.length - 32);
+						return new «diamondName(2)»(EMPTY_NODE2, init, tail, values.length);
+					} else {
+						final «type.javaName»[] tail = tailFromArray(values);
+						final «type.javaName»[][] node2 = new «type.javaName»[(values.length - 32 - tail.length) / 32][32];
+						int index = 32;
+						for (final «type.javaName»[] node1 : node2) {
+							System.arraycopy(values, index, node1, 0, 32);
+							index += 32;
+						}
+						return new «diamondName(2)»(node2, init, tail, values.length);
 					}
 				}
-				return new «diamondName(3)»(node3, init, tail, 0, values.length);
-			}
 
-			private static «paramGenericName(4)» seq4FromArray(final «type.javaName»[] values) {
-				final «type.javaName»[] init = initFromArray(values);
-				final «type.javaName»[] tail = tailFromArray(values);
-				final «type.javaName»[][][][] node4 = allocateNode4(0, values.length);
-				int index = 32;
-				for (final «type.javaName»[][][] node3 : node4) {
+				private static «paramGenericName(3)» seq3FromArray(final «type.javaName»[] values) {
+					final «type.javaName»[] init = initFromArray(values);
+					final «type.javaName»[] tail = tailFromArray(values);
+					final «type.javaName»[][][] node3 = allocateNode3(0, values.length);
+					int index = 32;
 					for (final «type.javaName»[][] node2 : node3) {
 						for (final «type.javaName»[] node1 : node2) {
 							System.arraycopy(values, index, node1, 0, 32);
 							index += 32;
 						}
 					}
+					return new «diamondName(3)»(node3, init, tail, 0, values.length);
 				}
-				return new «diamondName(4)»(node4, init, tail, 0, values.length);
-			}
-
-			private static «paramGenericName(5)» seq5FromArray(final «type.javaName»[] values) {
-				final «type.javaName»[] init = initFromArray(values);
-				final «type.javaName»[] tail = tailFromArray(values);
-				final «type.javaName»[][][][][] node5 = allocateNode5(0, values.length);
 
-				int index = 32;
-				for (final «type.javaName»[][][][] node4 : node5) {
+				private static «paramGenericName(4)» seq4FromArray(final «type.javaName»[] values) {
+					final «type.javaName»[] init = initFromArray(values);
+					final «type.javaName»[] tail = tailFromArray(values);
+					final «type.javaName»[][][][] node4 = allocateNode4(0, values.length);
+					int index = 32;
 					for (final «type.javaName»[][][] node3 : node4) {
 						for (final «type.javaName»[][] node2 : node3) {
 							for (final «type.javaName»[] node1 : node2) {
@@ -871,17 +1071,15 @@ class SeqGenerator implements ClassGenerator {
 							}
 						}
 					}
+					return new «diamondName(4)»(node4, init, tail, 0, values.length);
 				}
-				return new «diamondName(5)»(node5, init, tail, 0, values.length);
-			}
 
-			private static «paramGenericName(6)» seq6FromArray(final «type.javaName»[] values) {
-				final «type.javaName»[] init = initFromArray(values);
-				final «type.javaName»[] tail = tailFromArray(values);
-				final «type.javaName»[][][][][][] node6 = allocateNode6(0, values.length);
+				private static «paramGenericName(5)» seq5FromArray(final «type.javaName»[] values) {
+					final «type.javaName»[] init = initFromArray(values);
+					final «type.javaName»[] tail = tailFromArray(values);
+					final «type.javaName»[][][][][] node5 = allocateNode5(0, values.length);
 
-				int index = 32;
-				for (final «type.javaName»[][][][][] node5 : node6) {
+					int index = 32;
 					for (final «type.javaName»[][][][] node4 : node5) {
 						for (final «type.javaName»[][][] node3 : node4) {
 							for (final «type.javaName»[][] node2 : node3) {
@@ -892,26 +1090,47 @@ class SeqGenerator implements ClassGenerator {
 							}
 						}
 					}
+					return new «diamondName(5)»(node5, init, tail, 0, values.length);
 				}
-				return new «diamondName(6)»(node6, init, tail, 0, values.length);
-			}
 
-			static «type.javaName»[] allocateTail(final int size) {
-				return new «type.javaName»[((size % 32) == 0) ? 32 : size % 32];
-			}
+				private static «paramGenericName(6)» seq6FromArray(final «type.javaName»[] values) {
+					final «type.javaName»[] init = initFromArray(values);
+					final «type.javaName»[] tail = tailFromArray(values);
+					final «type.javaName»[][][][][][] node6 = allocateNode6(0, values.length);
 
-			private static «type.javaName»[] initFromArray(final «type.javaName»[] values) {
-				final «type.javaName»[] init = new «type.javaName»[32];
-				System.arraycopy(values, 0, init, 0, 32);
-				return init;
-			}
+					int index = 32;
+					for (final «type.javaName»[][][][][] node5 : node6) {
+						for (final «type.javaName»[][][][] node4 : node5) {
+							for (final «type.javaName»[][][] node3 : node4) {
+								for (final «type.javaName»[][] node2 : node3) {
+									for (final «type.javaName»[] node1 : node2) {
+										System.arraycopy(values, index, node1, 0, 32);
+										index += 32;
+									}
+								}
+							}
+						}
+					}
+					return new «diamondName(6)»(node6, init, tail, 0, values.length);
+				}
 
-			private static «type.javaName»[] tailFromArray(final «type.javaName»[] values) {
-				final «type.javaName»[] tail = allocateTail(values.length);
-				System.arraycopy(values, values.length - tail.length, tail, 0, tail.length);
-				return tail;
-			}
+				static «type.javaName»[] allocateTail(final int size) {
+					return new «type.javaName»[((size % 32) == 0) ? 32 : size % 32];
+				}
 
+				private static «type.javaName»[] initFromArray(final «type.javaName»[] values) {
+					final «type.javaName»[] init = new «type.javaName»[32];
+					System.arraycopy(values, 0, init, 0, 32);
+					return init;
+				}
+
+				private static «type.javaName»[] tailFromArray(final «type.javaName»[] values) {
+					final «type.javaName»[] tail = allocateTail(values.length);
+					System.arraycopy(values, values.length - tail.length, tail, 0, tail.length);
+					return tail;
+				}
+
+			«ENDIF»
 			public static «paramGenericName» ofAll(final Iterable<«type.genericBoxedName»> iterable) {
 				requireNonNull(iterable);
 				if (iterable instanceof «type.containerWildcardName») {
@@ -938,185 +1157,132 @@ class SeqGenerator implements ClassGenerator {
 				return builder.build();
 			}
 
-			static «paramGenericName» sizedToSeq(final «type.iteratorGenericName» iterator, final int size) {
-				if (size == 0) {
-					return empty«shortName»();
-				} else if (size <= 32) {
-					return fillSeq1(new «type.javaName»[size], 0, iterator);
-				} else if (size <= (1 << 10)) {
-					return sizedToSeq2(iterator, size);
-				} else if (size <= (1 << 15)) {
-					return sizedToSeq3(iterator, size);
-				} else if (size <= (1 << 20)) {
-					return sizedToSeq4(iterator, size);
-				} else if (size <= (1 << 25)) {
-					return sizedToSeq5(iterator, size);
-				} else if (size <= (1 << 30)) {
-					return sizedToSeq6(iterator, size);
-				} else {
-					throw new SizeOverflowException();
+			«IF type == Type.BOOLEAN»
+				static BooleanSeq sizedToSeq(final Iterator<Boolean> iterator, final int size) {
+					return BooleanPackedSeq.pack(iterator, size);
 				}
-			}
 
-			private static «paramGenericName» sizedToSeq2(final «type.iteratorGenericName» iterator, final int size) {
-				final «type.javaName»[] init = new «type.javaName»[32];
-				fillArray(init, 0, iterator);
-				final «type.javaName»[] tail = allocateTail(size);
-				final int size2 = (size - 32 - tail.length) / 32;
-				if (size2 == 0) {
-					fillArray(tail, 0, iterator);
-					return new «diamondName(2)»(EMPTY_NODE2, init, tail, size);
-				} else {
-					final «type.javaName»[][] node2 = new «type.javaName»[size2][32];
-					return fillSeq2(node2, 1, node2[0], 0, init, tail, size, iterator);
+			«ELSE»
+				static «paramGenericName» sizedToSeq(final «type.iteratorGenericName» iterator, final int size) {
+					if (size == 0) {
+						return empty«shortName»();
+					} else if (size <= 32) {
+						return fillSeq1(new «type.javaName»[size], 0, iterator);
+					} else if (size <= (1 << 10)) {
+						return sizedToSeq2(iterator, size);
+					} else if (size <= (1 << 15)) {
+						return sizedToSeq3(iterator, size);
+					} else if (size <= (1 << 20)) {
+						return sizedToSeq4(iterator, size);
+					} else if (size <= (1 << 25)) {
+						return sizedToSeq5(iterator, size);
+					} else if (size <= (1 << 30)) {
+						return sizedToSeq6(iterator, size);
+					} else {
+						throw new SizeOverflowException();
+					}
 				}
-			}
 
-			private static «paramGenericName» sizedToSeq3(final «type.iteratorGenericName» iterator, final int size) {
-				final «type.javaName»[] init = new «type.javaName»[32];
-				fillArray(init, 0, iterator);
-				final «type.javaName»[] tail = allocateTail(size);
-				final «type.javaName»[][][] node3 = allocateNode3(0, size);
-				return fillSeq3(node3, 1, node3[0], 1, node3[0][0], 0, init, tail, 0, size, iterator);
-			}
+				private static «paramGenericName» sizedToSeq2(final «type.iteratorGenericName» iterator, final int size) {
+					final «type.javaName»[] init = new «type.javaName»[32];
+					fillArray(init, 0, iterator);
+					final «type.javaName»[] tail = allocateTail(size);
+					final int size2 = (size - 32 - tail.length) / 32;
+					if (size2 == 0) {
+						fillArray(tail, 0, iterator);
+						return new «diamondName(2)»(EMPTY_NODE2, init, tail, size);
+					} else {
+						final «type.javaName»[][] node2 = new «type.javaName»[size2][32];
+						return fillSeq2(node2, 1, node2[0], 0, init, tail, size, iterator);
+					}
+				}
 
-			private static «paramGenericName» sizedToSeq4(final «type.iteratorGenericName» iterator, final int size) {
-				final «type.javaName»[] init = new «type.javaName»[32];
-				fillArray(init, 0, iterator);
-				final «type.javaName»[] tail = allocateTail(size);
-				final «type.javaName»[][][][] node4 = allocateNode4(0, size);
-				return fillSeq4(node4, 1, node4[0], 1, node4[0][0], 1, node4[0][0][0], 0, init, tail, 0, size, iterator);
-			}
+				private static «paramGenericName» sizedToSeq3(final «type.iteratorGenericName» iterator, final int size) {
+					final «type.javaName»[] init = new «type.javaName»[32];
+					fillArray(init, 0, iterator);
+					final «type.javaName»[] tail = allocateTail(size);
+					final «type.javaName»[][][] node3 = allocateNode3(0, size);
+					return fillSeq3(node3, 1, node3[0], 1, node3[0][0], 0, init, tail, 0, size, iterator);
+				}
 
-			private static «paramGenericName» sizedToSeq5(final «type.iteratorGenericName» iterator, final int size) {
-				final «type.javaName»[] init = new «type.javaName»[32];
-				fillArray(init, 0, iterator);
-				final «type.javaName»[] tail = allocateTail(size);
-				final «type.javaName»[][][][][] node5 = allocateNode5(0, size);
-				return fillSeq5(node5, 1, node5[0], 1, node5[0][0], 1, node5[0][0][0], 1, node5[0][0][0][0], 0,
-						init, tail, 0, size, iterator);
-			}
+				private static «paramGenericName» sizedToSeq4(final «type.iteratorGenericName» iterator, final int size) {
+					final «type.javaName»[] init = new «type.javaName»[32];
+					fillArray(init, 0, iterator);
+					final «type.javaName»[] tail = allocateTail(size);
+					final «type.javaName»[][][][] node4 = allocateNode4(0, size);
+					return fillSeq4(node4, 1, node4[0], 1, node4[0][0], 1, node4[0][0][0], 0, init, tail, 0, size, iterator);
+				}
 
-			private static «paramGenericName» sizedToSeq6(final «type.iteratorGenericName» iterator, final int size) {
-				final «type.javaName»[] init = new «type.javaName»[32];
-				fillArray(init, 0, iterator);
-				final «type.javaName»[] tail = allocateTail(size);
-				final «type.javaName»[][][][][][] node6 = allocateNode6(0, size);
-				return fillSeq6(node6, 1, node6[0], 1, node6[0][0], 1, node6[0][0][0], 1, node6[0][0][0][0], 1,
-						node6[0][0][0][0][0], 0, init, tail, 0, size, iterator);
-			}
+				private static «paramGenericName» sizedToSeq5(final «type.iteratorGenericName» iterator, final int size) {
+					final «type.javaName»[] init = new «type.javaName»[32];
+					fillArray(init, 0, iterator);
+					final «type.javaName»[] tail = allocateTail(size);
+					final «type.javaName»[][][][][] node5 = allocateNode5(0, size);
+					return fillSeq5(node5, 1, node5[0], 1, node5[0][0], 1, node5[0][0][0], 1, node5[0][0][0][0], 0,
+							init, tail, 0, size, iterator);
+				}
 
-			static «type.javaName»[][][] allocateNode3(final int startIndex3, final int size) {
-				final «type.javaName»[][][] node3 = new «type.javaName»[(size % (1 << 10) == 0) ? size / (1 << 10) : size / (1 << 10) + 1][][];
-				for (int index3 = startIndex3; index3 < node3.length; index3++) {
-					final int size2;
-					if (index3 == 0) {
-						size2 = 31;
-					} else if (index3 < node3.length - 1) {
-						size2 = 32;
-					} else {
-						final int totalSize2 = (size % (1 << 10) == 0) ? (1 << 10) : size % (1 << 10);
-						size2 = (totalSize2 % 32 == 0) ? totalSize2 / 32 - 1 : totalSize2 / 32;
-					}
-					node3[index3] = (size2 == 0) ? EMPTY_NODE2 : new «type.javaName»[size2][32];
+				private static «paramGenericName» sizedToSeq6(final «type.iteratorGenericName» iterator, final int size) {
+					final «type.javaName»[] init = new «type.javaName»[32];
+					fillArray(init, 0, iterator);
+					final «type.javaName»[] tail = allocateTail(size);
+					final «type.javaName»[][][][][][] node6 = allocateNode6(0, size);
+					return fillSeq6(node6, 1, node6[0], 1, node6[0][0], 1, node6[0][0][0], 1, node6[0][0][0][0], 1,
+							node6[0][0][0][0][0], 0, init, tail, 0, size, iterator);
 				}
-				return node3;
-			}
 
-			static «type.javaName»[][][][] allocateNode4(final int startIndex4, final int size) {
-				final «type.javaName»[][][][] node4 = new «type.javaName»[(size % (1 << 15) == 0) ? size / (1 << 15) : size / (1 << 15) + 1][][][];
-				for (int index4 = startIndex4; index4 < node4.length; index4++) {
-					final int size3;
-					if (index4 == node4.length - 1) {
-						final int totalSize3 = (size % (1 << 15) == 0) ? (1 << 15) : size % (1 << 15);
-						size3 = (totalSize3 % (1 << 10) == 0) ? totalSize3 / (1 << 10) : totalSize3 / (1 << 10) + 1;
-					} else {
-						size3 = 32;
-					}
-					final «type.javaName»[][][] node3 = new «type.javaName»[size3][][];
-					node4[index4] = node3;
-					for (int index3 = 0; index3 < size3; index3++) {
+				static «type.javaName»[][][] allocateNode3(final int startIndex3, final int size) {
+					final «type.javaName»[][][] node3 = new «type.javaName»[(size % (1 << 10) == 0) ? size / (1 << 10) : size / (1 << 10) + 1][][];
+					for (int index3 = startIndex3; index3 < node3.length; index3++) {
 						final int size2;
-						if (index4 == 0 && index3 == 0) {
+						if (index3 == 0) {
 							size2 = 31;
-						} else if (index4 < node4.length - 1 || index3 < size3 - 1) {
+						} else if (index3 < node3.length - 1) {
 							size2 = 32;
 						} else {
-							final int totalSize3 = (size % (1 << 15) == 0) ? (1 << 15) : size % (1 << 15);
-							final int totalSize2 = (totalSize3 % (1 << 10) == 0) ? (1 << 10) : totalSize3 % (1 << 10);
+							final int totalSize2 = (size % (1 << 10) == 0) ? (1 << 10) : size % (1 << 10);
 							size2 = (totalSize2 % 32 == 0) ? totalSize2 / 32 - 1 : totalSize2 / 32;
 						}
 						node3[index3] = (size2 == 0) ? EMPTY_NODE2 : new «type.javaName»[size2][32];
 					}
+					return node3;
 				}
-				return node4;
-			}
-
-			static «type.javaName»[][][][][] allocateNode5(final int startIndex5, final int size) {
-				final «type.javaName»[][][][][] node5 = new «type.javaName»[(size % (1 << 20) == 0) ? size / (1 << 20) : size / (1 << 20) + 1][][][][];
-				for (int index5 = startIndex5; index5 < node5.length; index5++) {
-					final int size4;
-					if (index5 == node5.length - 1) {
-						final int totalSize4 = (size % (1 << 20) == 0) ? (1 << 20) : size % (1 << 20);
-						size4 = (totalSize4 % (1 << 15) == 0) ? totalSize4 / (1 << 15) : totalSize4 / (1 << 15) + 1;
-					} else {
-						size4 = 32;
-					}
-
-					final «type.javaName»[][][][] node4 = new «type.javaName»[size4][][][];
-					node5[index5] = node4;
 
-					for (int index4 = 0; index4 < size4; index4++) {
+				static «type.javaName»[][][][] allocateNode4(final int startIndex4, final int size) {
+					final «type.javaName»[][][][] node4 = new «type.javaName»[(size % (1 << 15) == 0) ? size / (1 << 15) : size / (1 << 15) + 1][][][];
+					for (int index4 = startIndex4; index4 < node4.length; index4++) {
 						final int size3;
-						if (index5 == node5.length - 1 && index4 == size4 - 1) {
-							final int totalSize4 = (size % (1 << 20) == 0) ? (1 << 20) : size % (1 << 20);
-							final int totalSize3 = (totalSize4 % (1 << 15) == 0) ? (1 << 15) : totalSize4 % (1 << 15);
+						if (index4 == node4.length - 1) {
+							final int totalSize3 = (size % (1 << 15) == 0) ? (1 << 15) : size % (1 << 15);
 							size3 = (totalSize3 % (1 << 10) == 0) ? totalSize3 / (1 << 10) : totalSize3 / (1 << 10) + 1;
 						} else {
 							size3 = 32;
 						}
-
 						final «type.javaName»[][][] node3 = new «type.javaName»[size3][][];
 						node4[index4] = node3;
-
 						for (int index3 = 0; index3 < size3; index3++) {
 							final int size2;
-							if (index5 == 0 && index4 == 0 && index3 == 0) {
+							if (index4 == 0 && index3 == 0) {
 								size2 = 31;
-							} else if (index5 < node5.length - 1 || index4 < size4 - 1 || index3 < size3 - 1) {
+							} else if (index4 < node4.length - 1 || index3 < size3 - 1) {
 								size2 = 32;
 							} else {
-								final int totalSize4 = (size % (1 << 20) == 0) ? (1 << 20) : size % (1 << 20);
-								final int totalSize3 = (totalSize4 % (1 << 15) == 0) ? (1 << 15) : totalSize4 % (1 << 15);
+								final int totalSize3 = (size % (1 << 15) == 0) ? (1 << 15) : size % (1 << 15);
 								final int totalSize2 = (totalSize3 % (1 << 10) == 0) ? (1 << 10) : totalSize3 % (1 << 10);
 								size2 = (totalSize2 % 32 == 0) ? totalSize2 / 32 - 1 : totalSize2 / 32;
 							}
 							node3[index3] = (size2 == 0) ? EMPTY_NODE2 : new «type.javaName»[size2][32];
 						}
 					}
+					return node4;
 				}
-				return node5;
-			}
-
-			static «type.javaName»[][][][][][] allocateNode6(final int startIndex6, final int size) {
-				final «type.javaName»[][][][][][] node6 = new «type.javaName»[(size % (1 << 25) == 0) ? size / (1 << 25) : size / (1 << 25) + 1][][][][][];
-				for (int index6 = startIndex6; index6 < node6.length; index6++) {
-					final int size5;
-					if (index6 == node6.length - 1) {
-						final int totalSize5 = (size % (1 << 25) == 0) ? (1 << 25) : size % (1 << 25);
-						size5 = (totalSize5 % (1 << 20) == 0) ? totalSize5 / (1 << 20) : totalSize5 / (1 << 20) + 1;
-					} else {
-						size5 = 32;
-					}
 
-					final «type.javaName»[][][][][] node5 = new «type.javaName»[size5][][][][];
-					node6[index6] = node5;
-
-					for (int index5 = 0; index5 < node5.length; index5++) {
+				static «type.javaName»[][][][][] allocateNode5(final int startIndex5, final int size) {
+					final «type.javaName»[][][][][] node5 = new «type.javaName»[(size % (1 << 20) == 0) ? size / (1 << 20) : size / (1 << 20) + 1][][][][];
+					for (int index5 = startIndex5; index5 < node5.length; index5++) {
 						final int size4;
-						if (index6 == node6.length - 1 && index5 == node5.length - 1) {
-							final int totalSize5 = (size % (1 << 25) == 0) ? (1 << 25) : size % (1 << 25);
-							final int totalSize4 = (totalSize5 % (1 << 20) == 0) ? (1 << 20) : totalSize5 % (1 << 20);
+						if (index5 == node5.length - 1) {
+							final int totalSize4 = (size % (1 << 20) == 0) ? (1 << 20) : size % (1 << 20);
 							size4 = (totalSize4 % (1 << 15) == 0) ? totalSize4 / (1 << 15) : totalSize4 / (1 << 15) + 1;
 						} else {
 							size4 = 32;
@@ -1125,11 +1291,10 @@ class SeqGenerator implements ClassGenerator {
 						final «type.javaName»[][][][] node4 = new «type.javaName»[size4][][][];
 						node5[index5] = node4;
 
-						for (int index4 = 0; index4 < node4.length; index4++) {
+						for (int index4 = 0; index4 < size4; index4++) {
 							final int size3;
-							if (index6 == node6.length - 1 && index5 == node5.length - 1 && index4 == node4.length - 1) {
-								final int totalSize5 = (size % (1 << 25) == 0) ? (1 << 25) : size % (1 << 25);
-								final int totalSize4 = (totalSize5 % (1 << 20) == 0) ? (1 << 20) : totalSize5 % (1 << 20);
+							if (index5 == node5.length - 1 && index4 == size4 - 1) {
+								final int totalSize4 = (size % (1 << 20) == 0) ? (1 << 20) : size % (1 << 20);
 								final int totalSize3 = (totalSize4 % (1 << 15) == 0) ? (1 << 15) : totalSize4 % (1 << 15);
 								size3 = (totalSize3 % (1 << 10) == 0) ? totalSize3 / (1 << 10) : totalSize3 / (1 << 10) + 1;
 							} else {
@@ -1139,143 +1304,143 @@ class SeqGenerator implements ClassGenerator {
 							final «type.javaName»[][][] node3 = new «type.javaName»[size3][][];
 							node4[index4] = node3;
 
-							for (int index3 = 0; index3 < node3.length; index3++) {
+							for (int index3 = 0; index3 < size3; index3++) {
 								final int size2;
-								if (index6 == 0 && index5 == 0 && index4 == 0 && index3 == 0) {
+								if (index5 == 0 && index4 == 0 && index3 == 0) {
 									size2 = 31;
-								} else if (index6 < node6.length - 1 || index5 < node5.length - 1 || index4 < node4.length - 1 || index3 < node3.length - 1) {
+								} else if (index5 < node5.length - 1 || index4 < size4 - 1 || index3 < size3 - 1) {
 									size2 = 32;
 								} else {
-									final int totalSize5 = (size % (1 << 25) == 0) ? (1 << 25) : size % (1 << 25);
-									final int totalSize4 = (totalSize5 % (1 << 20) == 0) ? (1 << 20) : totalSize5 % (1 << 20);
+									final int totalSize4 = (size % (1 << 20) == 0) ? (1 << 20) : size % (1 << 20);
 									final int totalSize3 = (totalSize4 % (1 << 15) == 0) ? (1 << 15) : totalSize4 % (1 << 15);
 									final int totalSize2 = (totalSize3 % (1 << 10) == 0) ? (1 << 10) : totalSize3 % (1 << 10);
 									size2 = (totalSize2 % 32 == 0) ? totalSize2 / 32 - 1 : totalSize2 / 32;
 								}
-								final «type.javaName»[][] node2 = (size2 == 0) ? EMPTY_NODE2 : new «type.javaName»[size2][32];
-								node3[index3] = node2;
+								node3[index3] = (size2 == 0) ? EMPTY_NODE2 : new «type.javaName»[size2][32];
 							}
 						}
 					}
+					return node5;
 				}
-				return node6;
-			}
 
-			static «type.javaName»[][][] allocateNode3FromStart(final int fromEndIndex3, final int size) {
-				final int size3 = (size % (1 << 10) == 0) ? size / (1 << 10) : size / (1 << 10) + 1;
-				final «type.javaName»[][][] node3 = new «type.javaName»[size3][][];
-				for (int index3 = 0; index3 < size3 - fromEndIndex3; index3++) {
-					final int size2;
-					if (index3 == node3.length - 1) {
-						size2 = 31;
-					} else if (index3 > 0) {
-						size2 = 32;
-					} else {
-						final int totalSize2 = (size % (1 << 10) == 0) ? (1 << 10) : size % (1 << 10);
-						size2 = (totalSize2 % 32 == 0) ? totalSize2 / 32 - 1 : totalSize2 / 32;
+				static «type.javaName»[][][][][][] allocateNode6(final int startIndex6, final int size) {
+					final «type.javaName»[][][][][][] node6 = new «type.javaName»[(size % (1 << 25) == 0) ? size / (1 << 25) : size / (1 << 25) + 1][][][][][];
+					for (int index6 = startIndex6; index6 < node6.length; index6++) {
+						final int size5;
+						if (index6 == node6.length - 1) {
+							final int totalSize5 = (size % (1 << 25) == 0) ? (1 << 25) : size % (1 << 25);
+							size5 = (totalSize5 % (1 << 20) == 0) ? totalSize5 / (1 << 20) : totalSize5 / (1 << 20) + 1;
+						} else {
+							size5 = 32;
+						}
+
+						final «type.javaName»[][][][][] node5 = new «type.javaName»[size5][][][][];
+						node6[index6] = node5;
+
+						for (int index5 = 0; index5 < node5.length; index5++) {
+							final int size4;
+							if (index6 == node6.length - 1 && index5 == node5.length - 1) {
+								final int totalSize5 = (size % (1 << 25) == 0) ? (1 << 25) : size % (1 << 25);
+								final int totalSize4 = (totalSize5 % (1 << 20) == 0) ? (1 << 20) : totalSize5 % (1 << 20);
+								size4 = (totalSize4 % (1 << 15) == 0) ? totalSize4 / (1 << 15) : totalSize4 / (1 << 15) + 1;
+							} else {
+								size4 = 32;
+							}
+
+							final «type.javaName»[][][][] node4 = new «type.javaName»[size4][][][];
+							node5[index5] = node4;
+
+							for (int index4 = 0; index4 < node4.length; index4++) {
+								final int size3;
+								if (index6 == node6.length - 1 && index5 == node5.length - 1 && index4 == node4.length - 1) {
+									final int totalSize5 = (size % (1 << 25) == 0) ? (1 << 25) : size % (1 << 25);
+									final int totalSize4 = (totalSize5 % (1 << 20) == 0) ? (1 << 20) : totalSize5 % (1 << 20);
+									final int totalSize3 = (totalSize4 % (1 << 15) == 0) ? (1 << 15) : totalSize4 % (1 << 15);
+									size3 = (totalSize3 % (1 << 10) == 0) ? totalSize3 / (1 << 10) : totalSize3 / (1 << 10) + 1;
+								} else {
+									size3 = 32;
+								}
+
+								final «type.javaName»[][][] node3 = new «type.javaName»[size3][][];
+								node4[index4] = node3;
+
+								for (int index3 = 0; index3 < node3.length; index3++) {
+									final int size2;
+									if (index6 == 0 && index5 == 0 && index4 == 0 && index3 == 0) {
+										size2 = 31;
+									} else if (index6 < node6.length - 1 || index5 < node5.length - 1 || index4 < node4.length - 1 || index3 < node3.length - 1) {
+										size2 = 32;
+									} else {
+										final int totalSize5 = (size % (1 << 25) == 0) ? (1 << 25) : size % (1 << 25);
+										final int totalSize4 = (totalSize5 % (1 << 20) == 0) ? (1 << 20) : totalSize5 % (1 << 20);
+										final int totalSize3 = (totalSize4 % (1 << 15) == 0) ? (1 << 15) : totalSize4 % (1 << 15);
+										final int totalSize2 = (totalSize3 % (1 << 10) == 0) ? (1 << 10) : totalSize3 % (1 << 10);
+										size2 = (totalSize2 % 32 == 0) ? totalSize2 / 32 - 1 : totalSize2 / 32;
+									}
+									final «type.javaName»[][] node2 = (size2 == 0) ? EMPTY_NODE2 : new «type.javaName»[size2][32];
+									node3[index3] = node2;
+								}
+							}
+						}
 					}
-					node3[index3] = (size2 == 0) ? EMPTY_NODE2 : new «type.javaName»[size2][32];
+					return node6;
 				}
-				return node3;
-			}
 
-			static «type.javaName»[][][][] allocateNode4FromStart(final int fromEndIndex4, final int size) {
-				final int size4 = (size % (1 << 15) == 0) ? size / (1 << 15) : size / (1 << 15) + 1;
-				final «type.javaName»[][][][] node4 = new «type.javaName»[size4][][][];
-				for (int index4 = 0; index4 < size4 - fromEndIndex4; index4++) {
-					final int size3;
-					if (index4 == 0) {
-						final int totalSize3 = (size % (1 << 15) == 0) ? (1 << 15) : size % (1 << 15);
-						size3 = (totalSize3 % (1 << 10) == 0) ? totalSize3 / (1 << 10) : totalSize3 / (1 << 10) + 1;
-					} else {
-						size3 = 32;
-					}
+				static «type.javaName»[][][] allocateNode3FromStart(final int fromEndIndex3, final int size) {
+					final int size3 = (size % (1 << 10) == 0) ? size / (1 << 10) : size / (1 << 10) + 1;
 					final «type.javaName»[][][] node3 = new «type.javaName»[size3][][];
-					node4[index4] = node3;
-					for (int index3 = 0; index3 < size3; index3++) {
+					for (int index3 = 0; index3 < size3 - fromEndIndex3; index3++) {
 						final int size2;
-						if (index4 == node4.length - 1 && index3 == size3 - 1) {
+						if (index3 == node3.length - 1) {
 							size2 = 31;
-						} else if (index4 > 0 || index3 > 0) {
+						} else if (index3 > 0) {
 							size2 = 32;
 						} else {
-							final int totalSize3 = (size % (1 << 15) == 0) ? (1 << 15) : size % (1 << 15);
-							final int totalSize2 = (totalSize3 % (1 << 10) == 0) ? (1 << 10) : totalSize3 % (1 << 10);
+							final int totalSize2 = (size % (1 << 10) == 0) ? (1 << 10) : size % (1 << 10);
 							size2 = (totalSize2 % 32 == 0) ? totalSize2 / 32 - 1 : totalSize2 / 32;
 						}
 						node3[index3] = (size2 == 0) ? EMPTY_NODE2 : new «type.javaName»[size2][32];
 					}
+					return node3;
 				}
-				return node4;
-			}
-
-			static «type.javaName»[][][][][] allocateNode5FromStart(final int fromEndIndex5, final int size) {
-				final int size5 = (size % (1 << 20) == 0) ? size / (1 << 20) : size / (1 << 20) + 1;
-				final «type.javaName»[][][][][] node5 = new «type.javaName»[size5][][][][];
-				for (int index5 = 0; index5 < size5 - fromEndIndex5; index5++) {
-					final int size4;
-					if (index5 == 0) {
-						final int totalSize4 = (size % (1 << 20) == 0) ? (1 << 20) : size % (1 << 20);
-						size4 = (totalSize4 % (1 << 15) == 0) ? totalSize4 / (1 << 15) : totalSize4 / (1 << 15) + 1;
-					} else {
-						size4 = 32;
-					}
 
+				static «type.javaName»[][][][] allocateNode4FromStart(final int fromEndIndex4, final int size) {
+					final int size4 = (size % (1 << 15) == 0) ? size / (1 << 15) : size / (1 << 15) + 1;
 					final «type.javaName»[][][][] node4 = new «type.javaName»[size4][][][];
-					node5[index5] = node4;
-
-					for (int index4 = 0; index4 < size4; index4++) {
+					for (int index4 = 0; index4 < size4 - fromEndIndex4; index4++) {
 						final int size3;
-						if (index5 == 0 && index4 == 0) {
-							final int totalSize4 = (size % (1 << 20) == 0) ? (1 << 20) : size % (1 << 20);
-							final int totalSize3 = (totalSize4 % (1 << 15) == 0) ? (1 << 15) : totalSize4 % (1 << 15);
+						if (index4 == 0) {
+							final int totalSize3 = (size % (1 << 15) == 0) ? (1 << 15) : size % (1 << 15);
 							size3 = (totalSize3 % (1 << 10) == 0) ? totalSize3 / (1 << 10) : totalSize3 / (1 << 10) + 1;
 						} else {
 							size3 = 32;
 						}
-
 						final «type.javaName»[][][] node3 = new «type.javaName»[size3][][];
 						node4[index4] = node3;
-
 						for (int index3 = 0; index3 < size3; index3++) {
 							final int size2;
-							if (index5 == node5.length - 1 && index4 == size4 - 1 && index3 == size3 - 1) {
+							if (index4 == node4.length - 1 && index3 == size3 - 1) {
 								size2 = 31;
-							} else if (index5 > 0 || index4 > 0 || index3 > 0) {
+							} else if (index4 > 0 || index3 > 0) {
 								size2 = 32;
 							} else {
-								final int totalSize4 = (size % (1 << 20) == 0) ? (1 << 20) : size % (1 << 20);
-								final int totalSize3 = (totalSize4 % (1 << 15) == 0) ? (1 << 15) : totalSize4 % (1 << 15);
+								final int totalSize3 = (size % (1 << 15) == 0) ? (1 << 15) : size % (1 << 15);
 								final int totalSize2 = (totalSize3 % (1 << 10) == 0) ? (1 << 10) : totalSize3 % (1 << 10);
 								size2 = (totalSize2 % 32 == 0) ? totalSize2 / 32 - 1 : totalSize2 / 32;
 							}
 							node3[index3] = (size2 == 0) ? EMPTY_NODE2 : new «type.javaName»[size2][32];
 						}
 					}
+					return node4;
 				}
-				return node5;
-			}
-
-			static «type.javaName»[][][][][][] allocateNode6FromStart(final int fromEndIndex6, final int size) {
-				final int size6 = (size % (1 << 25) == 0) ? size / (1 << 25) : size / (1 << 25) + 1;
-				final «type.javaName»[][][][][][] node6 = new «type.javaName»[size6][][][][][];
-				for (int index6 = 0; index6 < size6 - fromEndIndex6; index6++) {
-					final int size5;
-					if (index6 == 0) {
-						final int totalSize5 = (size % (1 << 25) == 0) ? (1 << 25) : size % (1 << 25);
-						size5 = (totalSize5 % (1 << 20) == 0) ? totalSize5 / (1 << 20) : totalSize5 / (1 << 20) + 1;
-					} else {
-						size5 = 32;
-					}
 
+				static «type.javaName»[][][][][] allocateNode5FromStart(final int fromEndIndex5, final int size) {
+					final int size5 = (size % (1 << 20) == 0) ? size / (1 << 20) : size / (1 << 20) + 1;
 					final «type.javaName»[][][][][] node5 = new «type.javaName»[size5][][][][];
-					node6[index6] = node5;
-
-					for (int index5 = 0; index5 < node5.length; index5++) {
+					for (int index5 = 0; index5 < size5 - fromEndIndex5; index5++) {
 						final int size4;
-						if (index6 == 0 && index5 == 0) {
-							final int totalSize5 = (size % (1 << 25) == 0) ? (1 << 25) : size % (1 << 25);
-							final int totalSize4 = (totalSize5 % (1 << 20) == 0) ? (1 << 20) : totalSize5 % (1 << 20);
+						if (index5 == 0) {
+							final int totalSize4 = (size % (1 << 20) == 0) ? (1 << 20) : size % (1 << 20);
 							size4 = (totalSize4 % (1 << 15) == 0) ? totalSize4 / (1 << 15) : totalSize4 / (1 << 15) + 1;
 						} else {
 							size4 = 32;
@@ -1284,11 +1449,10 @@ class SeqGenerator implements ClassGenerator {
 						final «type.javaName»[][][][] node4 = new «type.javaName»[size4][][][];
 						node5[index5] = node4;
 
-						for (int index4 = 0; index4 < node4.length; index4++) {
+						for (int index4 = 0; index4 < size4; index4++) {
 							final int size3;
-							if (index6 == 0 && index5 == 0 && index4 == 0) {
-								final int totalSize5 = (size % (1 << 25) == 0) ? (1 << 25) : size % (1 << 25);
-								final int totalSize4 = (totalSize5 % (1 << 20) == 0) ? (1 << 20) : totalSize5 % (1 << 20);
+							if (index5 == 0 && index4 == 0) {
+								final int totalSize4 = (size % (1 << 20) == 0) ? (1 << 20) : size % (1 << 20);
 								final int totalSize3 = (totalSize4 % (1 << 15) == 0) ? (1 << 15) : totalSize4 % (1 << 15);
 								size3 = (totalSize3 % (1 << 10) == 0) ? totalSize3 / (1 << 10) : totalSize3 / (1 << 10) + 1;
 							} else {
@@ -1298,65 +1462,169 @@ class SeqGenerator implements ClassGenerator {
 							final «type.javaName»[][][] node3 = new «type.javaName»[size3][][];
 							node4[index4] = node3;
 
-							for (int index3 = 0; index3 < node3.length; index3++) {
+							for (int index3 = 0; index3 < size3; index3++) {
 								final int size2;
-								if (index6 == node6.length - 1 && index5 == size5 - 1 && index4 == size4 - 1 && index3 == size3 - 1) {
+								if (index5 == node5.length - 1 && index4 == size4 - 1 && index3 == size3 - 1) {
 									size2 = 31;
-								} else if (index6 > 0 || index5 > 0 || index4 > 0 || index3 > 0) {
+								} else if (index5 > 0 || index4 > 0 || index3 > 0) {
 									size2 = 32;
 								} else {
-									final int totalSize5 = (size % (1 << 25) == 0) ? (1 << 25) : size % (1 << 25);
-									final int totalSize4 = (totalSize5 % (1 << 20) == 0) ? (1 << 20) : totalSize5 % (1 << 20);
+									final int totalSize4 = (size % (1 << 20) == 0) ? (1 << 20) : size % (1 << 20);
 									final int totalSize3 = (totalSize4 % (1 << 15) == 0) ? (1 << 15) : totalSize4 % (1 << 15);
 									final int totalSize2 = (totalSize3 % (1 << 10) == 0) ? (1 << 10) : totalSize3 % (1 << 10);
 									size2 = (totalSize2 % 32 == 0) ? totalSize2 / 32 - 1 : totalSize2 / 32;
 								}
-								final «type.javaName»[][] node2 = (size2 == 0) ? EMPTY_NODE2 : new «type.javaName»[size2][32];
-								node3[index3] = node2;
+								node3[index3] = (size2 == 0) ? EMPTY_NODE2 : new «type.javaName»[size2][32];
 							}
 						}
 					}
+					return node5;
 				}
-				return node6;
-			}
 
-			static int calculateSeq3StartIndex(final «type.javaName»[][][] node3, final «type.javaName»[] init) {
-				return (1 << 10) - 32*node3[0].length - init.length;
-			}
+				static «type.javaName»[][][][][][] allocateNode6FromStart(final int fromEndIndex6, final int size) {
+					final int size6 = (size % (1 << 25) == 0) ? size / (1 << 25) : size / (1 << 25) + 1;
+					final «type.javaName»[][][][][][] node6 = new «type.javaName»[size6][][][][][];
+					for (int index6 = 0; index6 < size6 - fromEndIndex6; index6++) {
+						final int size5;
+						if (index6 == 0) {
+							final int totalSize5 = (size % (1 << 25) == 0) ? (1 << 25) : size % (1 << 25);
+							size5 = (totalSize5 % (1 << 20) == 0) ? totalSize5 / (1 << 20) : totalSize5 / (1 << 20) + 1;
+						} else {
+							size5 = 32;
+						}
 
-			static int calculateSeq4StartIndex(final «type.javaName»[][][][] node4, final «type.javaName»[] init) {
-				return (1 << 15) - 32*node4[0][0].length - (1 << 10)*(node4[0].length - 1) - init.length;
-			}
+						final «type.javaName»[][][][][] node5 = new «type.javaName»[size5][][][][];
+						node6[index6] = node5;
 
-			static int calculateSeq5StartIndex(final «type.javaName»[][][][][] node5, final «type.javaName»[] init) {
-				return (1 << 20) - 32*node5[0][0][0].length - (1 << 10)*(node5[0][0].length - 1) - (1 << 15)*(node5[0].length - 1)
-						- init.length;
-			}
+						for (int index5 = 0; index5 < node5.length; index5++) {
+							final int size4;
+							if (index6 == 0 && index5 == 0) {
+								final int totalSize5 = (size % (1 << 25) == 0) ? (1 << 25) : size % (1 << 25);
+								final int totalSize4 = (totalSize5 % (1 << 20) == 0) ? (1 << 20) : totalSize5 % (1 << 20);
+								size4 = (totalSize4 % (1 << 15) == 0) ? totalSize4 / (1 << 15) : totalSize4 / (1 << 15) + 1;
+							} else {
+								size4 = 32;
+							}
 
-			static int calculateSeq6StartIndex(final «type.javaName»[][][][][][] node6, final «type.javaName»[] init) {
-				return (1 << 25) - 32*node6[0][0][0][0].length - (1 << 10)*(node6[0][0][0].length - 1) -
-						(1 << 15)*(node6[0][0].length - 1) - (1 << 20)*(node6[0].length - 1) - init.length;
-			}
+							final «type.javaName»[][][][] node4 = new «type.javaName»[size4][][][];
+							node5[index5] = node4;
 
-			static int calculateSeq3EndIndex(final «type.javaName»[][][] lastNode3, final «type.javaName»[] tail) {
-				return (1 << 10) - 32*lastNode3[lastNode3.length - 1].length - tail.length;
-			}
+							for (int index4 = 0; index4 < node4.length; index4++) {
+								final int size3;
+								if (index6 == 0 && index5 == 0 && index4 == 0) {
+									final int totalSize5 = (size % (1 << 25) == 0) ? (1 << 25) : size % (1 << 25);
+									final int totalSize4 = (totalSize5 % (1 << 20) == 0) ? (1 << 20) : totalSize5 % (1 << 20);
+									final int totalSize3 = (totalSize4 % (1 << 15) == 0) ? (1 << 15) : totalSize4 % (1 << 15);
+									size3 = (totalSize3 % (1 << 10) == 0) ? totalSize3 / (1 << 10) : totalSize3 / (1 << 10) + 1;
+								} else {
+									size3 = 32;
+								}
 
-			static int calculateSeq4EndIndex(final «type.javaName»[][][] lastNode3, final «type.javaName»[] tail) {
-				return (1 << 15) - 32*lastNode3[lastNode3.length - 1].length - (1 << 10)*(lastNode3.length - 1) - tail.length;
-			}
+								final «type.javaName»[][][] node3 = new «type.javaName»[size3][][];
+								node4[index4] = node3;
+
+								for (int index3 = 0; index3 < node3.length; index3++) {
+									final int size2;
+									if (index6 == node6.length - 1 && index5 == size5 - 1 && index4 == size4 - 1 && index3 == size3 - 1) {
+										size2 = 31;
+									} else if (index6 > 0 || index5 > 0 || index4 > 0 || index3 > 0) {
+										size2 = 32;
+									} else {
+										final int totalSize5 = (size % (1 << 25) == 0) ? (1 << 25) : size % (1 << 25);
+										final int totalSize4 = (totalSize5 % (1 << 20) == 0) ? (1 << 20) : totalSize5 % (1 << 20);
+										final int totalSize3 = (totalSize4 % (1 << 15) == 0) ? (1 << 15) : totalSize4 % (1 << 15);
+										final int totalSize2 = (totalSize3 % (1 << 10) == 0) ? (1 << 10) : totalSize3 % (1 << 10);
+										size2 = (totalSize2 % 32 == 0) ? totalSize2 / 32 - 1 : totalSize2 / 32;
+									}
+									final «type.javaName»[][] node2 = (size2 == 0) ? EMPTY_NODE2 : new «type.javaName»[size2][32];
+									node3[index3] = node2;
+								}
+							}
+						}
+					}
+					return node6;
+				}
 
-			static int calculateSeq5EndIndex(final «type.javaName»[][][][] lastNode4, final «type.javaName»[][][] lastNode3, final «type.javaName»[] init) {
-				return (1 << 20) - 32*lastNode3[lastNode3.length - 1].length - (1 << 10)*(lastNode3.length - 1)
-						- (1 << 15)*(lastNode4.length - 1) - init.length;
-			}
+				static int calculateSeq3StartIndex(final «type.javaName»[][][] node3, final «type.javaName»[] init) {
+					return (1 << 10) - 32*node3[0].length - init.length;
+				}
+
+				static int calculateSeq4StartIndex(final «type.javaName»[][][][] node4, final «type.javaName»[] init) {
+					return (1 << 15) - 32*node4[0][0].length - (1 << 10)*(node4[0].length - 1) - init.length;
+				}
+
+				static int calculateSeq5StartIndex(final «type.javaName»[][][][][] node5, final «type.javaName»[] init) {
+					return (1 << 20) - 32*node5[0][0][0].length - (1 << 10)*(node5[0][0].length - 1) - (1 << 15)*(node5[0].length - 1)
+							- init.length;
+				}
+
+				static int calculateSeq6StartIndex(final «type.javaName»[][][][][][] node6, final «type.javaName»[] init) {
+					return (1 << 25) - 32*node6[0][0][0][0].length - (1 << 10)*(node6[0][0][0].length - 1) -
+							(1 << 15)*(node6[0][0].length - 1) - (1 << 20)*(node6[0].length - 1) - init.length;
+				}
+
+				static int calculateSeq3EndIndex(final «type.javaName»[][][] lastNode3, final «type.javaName»[] tail) {
+					return (1 << 10) - 32*lastNode3[lastNode3.length - 1].length - tail.length;
+				}
+
+				static int calculateSeq4EndIndex(final «type.javaName»[][][] lastNode3, final «type.javaName»[] tail) {
+					return (1 << 15) - 32*lastNode3[lastNode3.length - 1].length - (1 << 10)*(lastNode3.length - 1) - tail.length;
+				}
 
-			abstract void initSeqBuilder(«seqBuilderName» builder);
+				static int calculateSeq5EndIndex(final «type.javaName»[][][][] lastNode4, final «type.javaName»[][][] lastNode3, final «type.javaName»[] init) {
+					return (1 << 20) - 32*lastNode3[lastNode3.length - 1].length - (1 << 10)*(lastNode3.length - 1)
+							- (1 << 15)*(lastNode4.length - 1) - init.length;
+				}
 
+			«ENDIF»
+			«IF type != Type.BOOLEAN»
+				abstract void initSeqBuilder(«seqBuilderName» builder);
+
+			«ENDIF»
 			«IF type.javaUnboxedType»
 				@Override
 				public abstract «type.iteratorGenericName» iterator();
 
+				/**
+				 * Applies eff to the leaf arrays of this seq in order.
+				 * The arrays are shared with this seq and must not be modified.
+				 */
+				public final void foreachChunk(final «type.typeName»ChunkEff eff) {
+					requireNonNull(eff);
+					if (isNotEmpty()) {
+						((«spliteratorName») spliterator()).forEachRemainingChunk(eff);
+					}
+				}
+
+				/**
+				 * Returns an iterator over copies of the leaf arrays of this seq.
+				 * Use {@link #foreachChunk} to read the leaf arrays without copying them.
+				 */
+				public final Iterator<«type.javaName»[]> chunkIterator() {
+					if (isEmpty()) {
+						return Collections.emptyIterator();
+					} else {
+						return new «type.typeName»SeqChunkIterator((«spliteratorName») spliterator(), true);
+					}
+				}
+
+				// The leaf arrays are shared with this seq and are only read
+				private Iterator<«type.javaName»[]> leafIterator() {
+					if (isEmpty()) {
+						return Collections.emptyIterator();
+					} else {
+						return new «type.typeName»SeqChunkIterator((«spliteratorName») spliterator(), false);
+					}
+				}
+
+				«ContainerGenerator.loopAggregates(type, [body | '''
+					final Iterator<«type.javaName»[]> chunks = leafIterator();
+					while (chunks.hasNext()) {
+						for (final «type.javaName» a : chunks.next()) {
+							«body»
+						}
+					}
+				'''], true)»
 			«ENDIF»
 			@Override
 			public «type.indexedContainerViewGenericName» view() {
@@ -1367,15 +1635,72 @@ class SeqGenerator implements ClassGenerator {
 				}
 			}
 
-			«orderedHashCode(type, true)»
+			/**
+			 * O(size) for the first call, O(1) for the subsequent calls
+			 */
+			@Override
+			public final int hashCode() {
+				int hash = this.hash;
+				if (hash == 0) {
+					hash = computeHashCode();
+					this.hash = hash;
+				}
+				return hash;
+			}
+
+			int computeHashCode() {
+				«IF type.primitive»
+					return «type.orderedContainerShortName.firstToLowerCase»HashCode(this);
+				«ELSE»
+					return orderedContainerHashCode(this);
+				«ENDIF»
+			}
 
-			«equals(type, type.indexedContainerWildcardName, true)»
+			/**
+			 * «equalsDeprecatedJavaDoc»
+			 */
+			@Override
+			@Deprecated
+			public final boolean equals(final Object obj) {
+				if (obj == this) {
+					return true;
+				} else if (obj instanceof «wildcardName») {
+					return seqsEqual(this, («wildcardName») obj);
+				} else if (obj instanceof «type.indexedContainerWildcardName») {
+					return «type.indexedContainerShortName.firstToLowerCase»sEqual(this, («type.indexedContainerWildcardName») obj);
+				} else {
+					return false;
+				}
+			}
 
 			public final boolean isStrictlyEqualTo(final «genericName» other) {
 				if (other == this) {
 					return true;
 				} else {
-					return «type.indexedContainerShortName.firstToLowerCase»sEqual(this, other);
+					return seqsEqual(this, other);
+				}
+			}
+
+			«IF type == Type.BOOLEAN»
+				// Words shared by both seqs are skipped without comparing them
+			«ELSE»
+				// Nodes shared by both seqs are skipped without comparing their elements
+			«ENDIF»
+			private static boolean seqsEqual(final «wildcardName» seq1, final «wildcardName» seq2) {
+				final int size = seq1.size();
+				if (size != seq2.size()) {
+					return false;
+				} else if (seq1.hash != 0 && seq2.hash != 0 && seq1.hash != seq2.hash) {
+					return false;
+				} else if (size == 0) {
+					return true;
+				} else {
+					«IF type == Type.BOOLEAN»
+						return BooleanPackedSeq.wordsEqual(seq1, seq2);
+					«ELSE»
+						return «spliteratorShortName».elementsEqual((«type.wildcardName("SeqSpliterator")») seq1.spliterator(),
+								(«type.wildcardName("SeqSpliterator")») seq2.spliterator());
+					«ENDIF»
 				}
 			}
 
@@ -0,0 +1,368 @@
+package jcats.generator.collection
+
+import java.util.List
+import jcats.generator.Constants
+import jcats.generator.Generator
+import jcats.generator.Type
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+
+@FinalFieldsConstructor
+final class SeqSpliteratorGenerator extends SeqGenerator {
+
+	def static List<Generator> generators() {
+		Type.values.filter[it != Type.BOOLEAN].map[new SeqSpliteratorGenerator(it) as Generator].toList
+	}
+
+	override className() { Constants.COLLECTION + "." + spliteratorShortName }
+
+	def consumerName() {
+		switch (type) {
+			case OBJECT: "Consumer<? super A>"
+			case BOOLEAN: "Consumer<? super Boolean>"
+			default: type.typeName + "Consumer"
+		}
+	}
+
+	override sourceCode() { '''
+		package «Constants.COLLECTION»;
+
+		«IF type.javaUnboxedType»
+			import java.util.Iterator;
+			import java.util.NoSuchElementException;
+		«ENDIF»
+		import java.util.Spliterator;
+		«IF type.javaUnboxedType»
+			import java.util.function.«type.typeName»Consumer;
+		«ELSE»
+			import java.util.function.Consumer;
+		«ENDIF»
+
+		«IF type.javaUnboxedType»
+			import «Constants.FUNCTION».«type.typeName»ChunkEff;
+
+		«ENDIF»
+		import static java.util.Objects.requireNonNull;
+
+		/**
+		 * Spliterator of a {@link «shortName»} that splits along the boundaries of its nodes.
+		 * Every root is either a leaf (depth 1), a node with children of depth - 1 (depth > 1)
+		 * or a non-empty seq which is replaced by its own roots when needed (depth 0).
+		 */
+		final class «spliteratorName» implements «type.spliteratorGenericName» {
+			private Object[] nodes;
+			private int[] depths;
+			private int[] sizes;
+			private int index;
+			private int end;
+			// Index of the next element of nodes[index] if it is a partially traversed leaf
+			private int leafIndex;
+			private int size;
+
+			«spliteratorShortName»(final Object[] nodes, final int[] depths, final int[] sizes,
+					final int index, final int end, final int leafIndex, final int size) {
+				this.nodes = nodes;
+				this.depths = depths;
+				this.sizes = sizes;
+				this.index = index;
+				this.end = end;
+				this.leafIndex = leafIndex;
+				this.size = size;
+			}
+
+			static «type.paramGenericName("SeqSpliterator")» create(final «type.javaName»[] init, final Object[] node, final int depth,
+					final «type.javaName»[] tail, final int size) {
+				final int[] sizes = { init.length, size - init.length - tail.length, tail.length };
+				return new «spliteratorDiamondName»(new Object[] { init, node, tail }, new int[] { 1, depth, 1 }, sizes, 0, 3, 0, size);
+			}
+
+			@Override
+			public boolean tryAdvance(final «consumerName» action) {
+				requireNonNull(action);
+				while (this.index < this.end) {
+					if (this.depths[this.index] == 1) {
+						final «type.javaName»[] leaf = («type.javaName»[]) this.nodes[this.index];
+						if (this.leafIndex < leaf.length) {
+							this.size--;
+							action.accept(«type.genericCast»leaf[this.leafIndex++]);
+							return true;
+						} else {
+							this.index++;
+							this.leafIndex = 0;
+						}
+					} else {
+						expand(this.index);
+					}
+				}
+				return false;
+			}
+
+			@Override
+			public void forEachRemaining(final «consumerName» action) {
+				requireNonNull(action);
+				int i = this.index;
+				if (this.leafIndex > 0) {
+					final «type.javaName»[] leaf = («type.javaName»[]) this.nodes[i++];
+					for (int j = this.leafIndex; j < leaf.length; j++) {
+						action.accept(«type.genericCast»leaf[j]);
+					}
+				}
+				for (; i < this.end; i++) {
+					traverse(this.nodes[i], this.depths[i], action);
+				}
+				this.index = this.end;
+				this.leafIndex = 0;
+				this.size = 0;
+			}
+
+			private void traverse(final Object node, final int depth, final «consumerName» action) {
+				if (depth == 0) {
+					((«genericName») node).spliterator().forEachRemaining(action);
+				} else if (depth == 1) {
+					for (final «type.javaName» value : («type.javaName»[]) node) {
+						action.accept(«type.genericCast»value);
+					}
+				} else {
+					for (final Object child : (Object[]) node) {
+						traverse(child, depth - 1, action);
+					}
+				}
+			}
+
+			«IF type.javaUnboxedType»
+				// Assume leafIndex == 0
+				«type.javaName»[] nextLeaf() {
+					while (this.index < this.end) {
+						if (this.depths[this.index] == 1) {
+							final «type.javaName»[] leaf = («type.javaName»[]) this.nodes[this.index++];
+							if (leaf.length != 0) {
+								this.size -= leaf.length;
+								return leaf;
+							}
+						} else {
+							expand(this.index);
+						}
+					}
+					return null;
+				}
+
+				// Assume leafIndex == 0
+				void forEachRemainingChunk(final «type.typeName»ChunkEff eff) {
+					for (int i = this.index; i < this.end; i++) {
+						traverseChunks(this.nodes[i], this.depths[i], eff);
+					}
+					this.index = this.end;
+					this.size = 0;
+				}
+
+				private static void traverseChunks(final Object node, final int depth, final «type.typeName»ChunkEff eff) {
+					if (depth == 0) {
+						((«genericName») node).foreachChunk(eff);
+					} else if (depth == 1) {
+						final «type.javaName»[] leaf = («type.javaName»[]) node;
+						if (leaf.length != 0) {
+							eff.apply(leaf, 0, leaf.length);
+						}
+					} else {
+						for (final Object child : (Object[]) node) {
+							traverseChunks(child, depth - 1, eff);
+						}
+					}
+				}
+
+			«ENDIF»
+			@Override
+			public «type.spliteratorGenericName» trySplit() {
+				final int half = this.size / 2;
+				while (true) {
+					// Find the root that contains the middle element
+					int prefixSize = -this.leafIndex;
+					int i = this.index;
+					while (i < this.end && prefixSize + this.sizes[i] <= half) {
+						prefixSize += this.sizes[i++];
+					}
+					if (i == this.end) {
+						return null;
+					} else if (this.depths[i] != 1) {
+						expand(i);
+					} else {
+						int split = i;
+						if (prefixSize <= 0) {
+							prefixSize += this.sizes[i];
+							split = i + 1;
+						}
+						if (prefixSize == this.size) {
+							return null;
+						} else {
+							final «spliteratorName» prefix = new «spliteratorDiamondName»(this.nodes, this.depths, this.sizes,
+									this.index, split, this.leafIndex, prefixSize);
+							this.index = split;
+							this.leafIndex = 0;
+							this.size -= prefixSize;
+							return prefix;
+						}
+					}
+				}
+			}
+
+			// Compares the elements of two spliterators of the same size that have not been advanced yet.
+			// Roots that are the same node in both spliterators are skipped.
+			static boolean elementsEqual(final «type.wildcardName("SeqSpliterator")» s1, final «type.wildcardName("SeqSpliterator")» s2) {
+				int offset1 = 0;
+				int offset2 = 0;
+				while (s1.index < s1.end) {
+					if (s1.sizes[s1.index] == 0) {
+						s1.index++;
+					} else if (s2.sizes[s2.index] == 0) {
+						s2.index++;
+					} else {
+						final int depth1 = s1.depths[s1.index];
+						final int depth2 = s2.depths[s2.index];
+						if (offset1 == 0 && offset2 == 0 && depth1 == depth2 && s1.nodes[s1.index] == s2.nodes[s2.index]) {
+							s1.index++;
+							s2.index++;
+						} else if (depth1 != 1) {
+							s1.expand(s1.index);
+						} else if (depth2 != 1) {
+							s2.expand(s2.index);
+						} else {
+							final «type.javaName»[] leaf1 = («type.javaName»[]) s1.nodes[s1.index];
+							final «type.javaName»[] leaf2 = («type.javaName»[]) s2.nodes[s2.index];
+							final int n = Math.min(leaf1.length - offset1, leaf2.length - offset2);
+							for (int i = 0; i < n; i++) {
+								«IF type == Type.OBJECT»
+									if (!leaf1[offset1 + i].equals(leaf2[offset2 + i])) {
+								«ELSE»
+									if (leaf1[offset1 + i] != leaf2[offset2 + i]) {
+								«ENDIF»
+									return false;
+								}
+							}
+							offset1 += n;
+							offset2 += n;
+							if (offset1 == leaf1.length) {
+								s1.index++;
+								offset1 = 0;
+							}
+							if (offset2 == leaf2.length) {
+								s2.index++;
+								offset2 = 0;
+							}
+						}
+					}
+				}
+				return true;
+			}
+
+			// Replaces nodes[i] with its children. Arrays are copied, because they can be shared with split prefixes.
+			private void expand(final int i) {
+				final int depth = this.depths[i];
+				final Object[] children;
+				final int[] childDepths;
+				final int[] childSizes;
+				final int from;
+				final int to;
+				if (depth == 0) {
+					final «spliteratorName» spliterator = («spliteratorName») ((«genericName») this.nodes[i]).spliterator();
+					children = spliterator.nodes;
+					childDepths = spliterator.depths;
+					childSizes = spliterator.sizes;
+					from = spliterator.index;
+					to = spliterator.end;
+				} else {
+					children = (Object[]) this.nodes[i];
+					childDepths = null;
+					childSizes = null;
+					from = 0;
+					to = children.length;
+				}
+
+				final int before = i - this.index;
+				final int after = this.end - i - 1;
+				final int count = to - from;
+				final Object[] newNodes = new Object[before + count + after];
+				final int[] newDepths = new int[newNodes.length];
+				final int[] newSizes = new int[newNodes.length];
+				System.arraycopy(this.nodes, this.index, newNodes, 0, before);
+				System.arraycopy(this.depths, this.index, newDepths, 0, before);
+				System.arraycopy(this.sizes, this.index, newSizes, 0, before);
+				System.arraycopy(children, from, newNodes, before, count);
+				if (depth == 0) {
+					System.arraycopy(childDepths, from, newDepths, before, count);
+					System.arraycopy(childSizes, from, newSizes, before, count);
+				} else {
+					// Only the first and the last children of a node can be incomplete
+					final int fullSize = 1 << (5 * (depth - 1));
+					for (int j = 0; j < count; j++) {
+						newDepths[before + j] = depth - 1;
+						newSizes[before + j] = (j == 0 || j == count - 1) ? nodeSize(children[j], depth - 1) : fullSize;
+					}
+				}
+				System.arraycopy(this.nodes, i + 1, newNodes, before + count, after);
+				System.arraycopy(this.depths, i + 1, newDepths, before + count, after);
+				System.arraycopy(this.sizes, i + 1, newSizes, before + count, after);
+
+				this.nodes = newNodes;
+				this.depths = newDepths;
+				this.sizes = newSizes;
+				this.index = 0;
+				this.end = newNodes.length;
+			}
+
+			static int nodeSize(final Object node, final int depth) {
+				if (depth == 1) {
+					return ((«type.javaName»[]) node).length;
+				} else {
+					final Object[] children = (Object[]) node;
+					if (children.length == 0) {
+						return 0;
+					} else if (children.length == 1) {
+						return nodeSize(children[0], depth - 1);
+					} else {
+						return nodeSize(children[0], depth - 1) + (children.length - 2) * (1 << (5 * (depth - 1))) +
+								nodeSize(children[children.length - 1], depth - 1);
+					}
+				}
+			}
+
+			@Override
+			public long estimateSize() {
+				return this.size;
+			}
+
+			@Override
+			public int characteristics() {
+				return Spliterator.NONNULL | Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.SIZED | Spliterator.SUBSIZED;
+			}
+		}
+		«IF type.javaUnboxedType»
+
+			final class «type.typeName»SeqChunkIterator implements Iterator<«type.javaName»[]> {
+				private final «spliteratorName» spliterator;
+				private final boolean copy;
+				private «type.javaName»[] next;
+
+				«type.typeName»SeqChunkIterator(final «spliteratorName» spliterator, final boolean copy) {
+					this.spliterator = spliterator;
+					this.copy = copy;
+					this.next = spliterator.nextLeaf();
+				}
+
+				@Override
+				public boolean hasNext() {
+					return (this.next != null);
+				}
+
+				@Override
+				public «type.javaName»[] next() {
+					final «type.javaName»[] leaf = this.next;
+					if (leaf == null) {
+						throw new NoSuchElementException();
+					} else {
+						this.next = this.spliterator.nextLeaf();
+						return this.copy ? leaf.clone() : leaf;
+					}
+				}
+			}
+		«ENDIF»
+	''' }
+}
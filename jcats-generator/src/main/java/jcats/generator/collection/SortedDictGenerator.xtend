@@ -19,6 +19,7 @@ final class SortedDictGenerator implements ClassGenerator {
 		import java.io.StringWriter;
 		import java.io.Serializable;
 		import java.util.ArrayList;
+		import java.util.Arrays;
 		import java.util.Collections;
 		import java.util.Comparator;
 		import java.util.Iterator;
@@ -27,6 +28,8 @@ final class SortedDictGenerator implements ClassGenerator {
 		import java.util.NoSuchElementException;
 		import java.util.SortedMap;
 		import java.util.Spliterator;
+		import java.util.concurrent.ForkJoinPool;
+		import java.util.concurrent.RecursiveTask;
 		import java.util.function.Consumer;
 		import java.util.stream.Stream;
 
@@ -278,53 +281,78 @@ final class SortedDictGenerator implements ClassGenerator {
 				«AVLCommonGenerator.initOrTail(genericName, shortName, "DeleteResult<>", "deleteMinimum")»
 			}
 
-			public «genericName» slice(final K from, final boolean fromInclusive, final K to, final boolean toInclusive) {
-				checkRange(this.ord, from, to);
-				final SortedDictBuilder<K, A> builder = new SortedDictBuilder<>(this.ord);
-				new SlicedSortedDictView<>(this, from, true, fromInclusive, to, true, toInclusive).forEach(builder::putEntry);
-				return builder.build();
+			«AVLCommonGenerator.navigation(genericName, "K", "entry.get1()", "key", "Option<P<K, A>>", "some", "none", "Entry", false)»
+
+			«AVLCommonGenerator.slice(genericName, shortName, "K", "checkRange", false)»
+
+			«AVLCommonGenerator.positional(genericName, shortName, "<K, A> ", "P<K, A>", "K", "entry.get1()", "entryAt", "checkRange", false)»
+
+			«AVLCommonGenerator.split(genericName, "<K, A> ", "K", "entry.get1()")»
+
+			«AVLCommonGenerator.join(genericName, diamondName, "<K, A> ", "P<K, A>", "Ord<K>")»
+
+			«AVLCommonGenerator.fromSorted(genericName, diamondName, "<K, A> ", "Object[]", "(P<K, A>) ", "Ord<K>")»
+
+			public «genericName» reverse() {
+				if (isEmpty()) {
+					return emptySortedDictBy(this.ord.reversed());
+				} else {
+					return mirror(this.ord.reversed());
+				}
 			}
 
-			public «genericName» sliceFrom(final K from, final boolean inclusive) {
-				final SortedDictBuilder<K, A> builder = new SortedDictBuilder<>(this.ord);
-				new SlicedSortedDictView<>(this, from, true, inclusive, null, false, false).forEach(builder::putEntry);
-				return builder.build();
+			/**
+			 * Returns the entries whose keys are contained in this or the other dictionary,
+			 * taking the value from this dictionary for keys contained in both.
+			 * Unlike repeated {@link #put} calls, the trees are split and joined recursively,
+			 * so subtrees that have no counterpart in the other dictionary are reused without being traversed.
+			 *
+			 * @throws IllegalArgumentException if the dictionaries have different orders
+			 */
+			public «genericName» union(final «genericName» other) {
+				return combineWith(other, UNION, null);
 			}
 
-			public «genericName» sliceTo(final K to, final boolean inclusive) {
-				final SortedDictBuilder<K, A> builder = new SortedDictBuilder<>(this.ord);
-				new SlicedSortedDictView<>(this, null, false, false, to, true, inclusive).forEach(builder::putEntry);
-				return builder.build();
+			/**
+			 * Returns the entries of this dictionary whose keys are contained in the other dictionary
+			 *
+			 * @throws IllegalArgumentException if the dictionaries have different orders
+			 */
+			public «genericName» intersect(final «genericName» other) {
+				return combineWith(other, INTERSECTION, null);
 			}
 
-			public «genericName» reverse() {
-				final SortedDictBuilder<K, A> builder = new SortedDictBuilder<>(this.ord.reversed());
-				builder.putAll(this);
-				return builder.build();
+			/**
+			 * Returns the entries of this dictionary whose keys are not contained in the other dictionary
+			 *
+			 * @throws IllegalArgumentException if the dictionaries have different orders
+			 */
+			public «genericName» difference(final «genericName» other) {
+				return combineWith(other, DIFFERENCE, null);
+			}
+
+			/**
+			 * Returns the entries whose keys are contained in exactly one of this and the other dictionary
+			 *
+			 * @throws IllegalArgumentException if the dictionaries have different orders
+			 */
+			public «genericName» symmetricDifference(final «genericName» other) {
+				return combineWith(other, SYMMETRIC_DIFFERENCE, null);
 			}
 
 			private «genericName» merge(final «genericName» other, final F3<K, A, A, A> mergeFunction) {
-				requireNonNull(other);
-				if (isEmpty()) {
-					return other;
-				} else if (other.isEmpty()) {
-					return this;
-				} else if (size() >= other.size()) {
-					«genericName» result = this;
-					for (final P<K, A> p : other) {
-						final K key = p.get1();
-						final A value2 = p.get2();
-						result = result.updateValueOrPut(key, value2, value1 -> mergeFunction.apply(key, value1, value2));
-					}
-					return result;
+				return combineWith(other, UNION, requireNonNull(mergeFunction));
+			}
+
+			«AVLCommonGenerator.combine(genericName, shortName, "<K, A> ", "K", "entry.get1()", "P<K, A>", "<K, A>",
+				", final F3<K, A, A, A> mergeFunction", ", mergeFunction", "mergeEntries(tree1.entry, parts.entry, mergeFunction)")»
+
+			private static <K, A> P<K, A> mergeEntries(final P<K, A> entry1, final P<K, A> entry2, final F3<K, A, A, A> mergeFunction) {
+				if (mergeFunction == null) {
+					return entry1;
 				} else {
-					«genericName» result = other;
-					for (final P<K, A> p : this) {
-						final K key = p.get1();
-						final A value1 = p.get2();
-						result = result.updateValueOrPut(key, value1, value2 -> mergeFunction.apply(key, value1, value2));
-					}
-					return result;
+					final A value = requireNonNull(mergeFunction.apply(entry1.get1(), entry1.get2(), entry2.get2()));
+					return (value == entry1.get2()) ? entry1 : p(entry1.get1(), value);
 				}
 			}
 
@@ -558,23 +586,62 @@ final class SortedDictGenerator implements ClassGenerator {
 			}
 
 			public static <K extends Comparable<K>, A> SortedDict<K, A> fromMap(final Map<K, A> map) {
-				final SortedDictBuilder<K, A> builder = builder();
-				builder.putMap(map);
-				return builder.build();
+				if (map instanceof SortedMap<?, ?> && ((SortedMap<K, A>) map).comparator() == null) {
+					return fromSortedMap((SortedMap<K, A>) map);
+				} else {
+					final SortedDictBuilder<K, A> builder = builder();
+					builder.putMap(map);
+					return builder.build();
+				}
 			}
 
 			public static <K, A> SortedDict<K, A> fromSortedMap(final SortedMap<K, A> map) {
 				final Comparator<? super K> comparator = map.comparator();
-				final SortedDictBuilder<K, A> builder;
-				if (comparator == null) {
-					builder = (SortedDictBuilder<K, A>) builder();
-				} else {
-					builder = builderBy(Ord.cast(Ord.fromComparator(comparator)));
+				final Ord<K> ord = (comparator == null) ? (Ord<K>) asc() : Ord.cast(Ord.fromComparator(comparator));
+				return ofSortedBy(ord, () -> map.entrySet().stream().map((final Map.Entry<K, A> entry) -> p(entry.getKey(), entry.getValue())).iterator());
+			}
+
+			public static <K extends Comparable<K>, A> SortedDict<K, A> ofSorted(final Iterable<P<K, A>> entries) throws IllegalArgumentException {
+				return ofSortedBy(asc(), entries);
+			}
+
+			/**
+			 * Creates a SortedDict from entries whose keys are already sorted by {@code ord}.
+			 * The tree is built bottom-up in O(n) time instead of inserting the entries one by one.
+			 * If adjacent entries have equal keys, the last one is kept.
+			 *
+			 * @throws IllegalArgumentException if the keys are not sorted by {@code ord}
+			 */
+			public static <K, A> SortedDict<K, A> ofSortedBy(final Ord<K> ord, final Iterable<P<K, A>> entries) throws IllegalArgumentException {
+				requireNonNull(ord);
+				Object[] array = new Object[sortedArrayCapacity(entries)];
+				int size = 0;
+				for (final P<K, A> entry : entries) {
+					requireNonNull(entry);
+					if (size > 0) {
+						final K lastKey = ((P<K, A>) array[size - 1]).get1();
+						final Order order = ord.order(lastKey, entry.get1());
+						if (order == EQ) {
+							array[size - 1] = entry;
+							continue;
+						} else if (order == GT) {
+							throw new IllegalArgumentException("Keys are not sorted: " + lastKey + " is followed by " + entry.get1());
+						} else if (order != LT) {
+							throw nullOrder(order);
+						}
+					}
+					if (size == array.length) {
+						array = Arrays.copyOf(array, 2 * size);
+					}
+					array[size++] = entry;
 				}
-				builder.putMap(map);
-				return builder.build();
+				return (size == 0) ? emptySortedDictBy(ord) : fromSortedArray(array, 0, size, ord);
 			}
 
+			/**
+			 * Returns the union of the dictionaries, combining the values of equal keys with {@code mergeFunction}.
+			 * For large dictionaries {@code mergeFunction} may be called concurrently from fork/join worker threads.
+			 */
 			@SafeVarargs
 			public static «paramGenericName» merge(final F3<K, A, A, A> mergeFunction, final «genericName» dict, final «genericName»... dicts) {
 				requireNonNull(mergeFunction);
@@ -617,6 +684,12 @@ final class SortedDictGenerator implements ClassGenerator {
 				boolean heightIncreased;
 			}
 
+			static final class SplitResult {
+				int height;
+			}
+
+			«AVLCommonGenerator.combineClasses(genericName, "P<K, A>", "<K, A>", true)»
+
 			static final class DeleteResult<K, A> {
 				P<K, A> entry;
 				boolean heightDecreased;
@@ -66,9 +66,7 @@ final class SortedKeyValueGenerator implements InterfaceGenerator {
 			SortedKeyValueView<K, A> view();
 
 			default SortedDict<K, A> toSortedDict() {
-				final SortedDictBuilder<K, A> builder = SortedDict.builderBy(ord());
-				forEach(builder::putEntry);
-				return builder.build();
+				return SortedDict.ofSortedBy(ord(), this);
 			}
 
 			default TreeMap<K, A> toTreeMap() {
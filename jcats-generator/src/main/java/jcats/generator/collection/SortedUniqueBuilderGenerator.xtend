@@ -100,7 +100,7 @@ final class SortedUniqueBuilderGenerator implements ClassGenerator {
 			}
 
 			«genericName» merge(final «genericName» other) {
-				this.unique = this.unique.merge(other.unique);
+				this.unique = this.unique.union(other.unique);
 				return this;
 			}
 
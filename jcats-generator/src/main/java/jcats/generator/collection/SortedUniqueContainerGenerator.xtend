@@ -124,9 +124,7 @@ final class SortedUniqueContainerGenerator implements InterfaceGenerator {
 			}
 
 			default «type.sortedUniqueGenericName» to«type.sortedUniqueShortName»() {
-				final «type.sortedUniqueBuilderGenericName» builder = «type.sortedUniqueShortName».builderBy(ord());
-				foreach(builder::put);
-				return builder.build();
+				return «type.sortedUniqueShortName».ofSortedBy(ord(), this);
 			}
 
 			default TreeSet<«type.genericBoxedName»> toTreeSet() {
@@ -33,14 +33,20 @@ final class SortedUniqueGenerator implements ClassGenerator {
 		package «Constants.COLLECTION»;
 
 		import java.io.Serializable;
+		import java.util.Arrays;
 		«IF type == Type.OBJECT»
 			import java.util.Collections;
 		«ENDIF»
 		import java.util.Iterator;
 		import java.util.NoSuchElementException;
+		import java.util.concurrent.ForkJoinPool;
+		import java.util.concurrent.RecursiveTask;
 		«IF type.primitive»
 			import java.util.PrimitiveIterator;
 		«ENDIF»
+		«IF type == Type.OBJECT»
+			import java.util.SortedSet;
+		«ENDIF»
 		import java.util.stream.Collector;
 		import java.util.stream.«type.streamName»;
 
@@ -196,34 +202,52 @@ final class SortedUniqueGenerator implements ClassGenerator {
 
 			«AVLCommonGenerator.deleteAndRotateRight(genericName, diamondName, deleteResultGenericName)»
 
-			«genericName» merge(final «genericName» other) {
-				// Assume this.ord == other.ord
-				if (isEmpty()) {
-					return other;
-				} else if (other.isEmpty()) {
-					return this;
-				} else {
-					«genericName» result;
-					final «genericName» from;
-					if (size() >= other.size()) {
-						result = this;
-						from = other;
-					} else {
-						result = other;
-						from = this;
-					}
-					for (final «type.genericName» value : from) {
-						result = result.put(value);
-					}
-					return result;
-				}
+			/**
+			 * Returns the values contained in this or the other set.
+			 * Unlike repeated {@link #put} calls, the trees are split and joined recursively,
+			 * so subtrees that have no counterpart in the other set are reused without being traversed.
+			 *
+			 * @throws IllegalArgumentException if the sets have different orders
+			 */
+			public «genericName» union(final «genericName» other) {
+				return combineWith(other, UNION);
+			}
+
+			/**
+			 * Returns the values contained in both this and the other set
+			 *
+			 * @throws IllegalArgumentException if the sets have different orders
+			 */
+			public «genericName» intersect(final «genericName» other) {
+				return combineWith(other, INTERSECTION);
+			}
+
+			/**
+			 * Returns the values of this set that are not contained in the other set
+			 *
+			 * @throws IllegalArgumentException if the sets have different orders
+			 */
+			public «genericName» difference(final «genericName» other) {
+				return combineWith(other, DIFFERENCE);
+			}
+
+			/**
+			 * Returns the values contained in exactly one of this and the other set
+			 *
+			 * @throws IllegalArgumentException if the sets have different orders
+			 */
+			public «genericName» symmetricDifference(final «genericName» other) {
+				return combineWith(other, SYMMETRIC_DIFFERENCE);
 			}
 
+			«AVLCommonGenerator.combine(genericName, shortName, if (type == Type.OBJECT) "<A> " else "", type.genericName, "entry", type.genericName,
+				if (type == Type.OBJECT) "<A>" else "", "", "", "")»
+
 			public «genericName» putAll(final Iterable<«type.genericBoxedName»> iterable) {
 				if (iterable instanceof «wildcardName») {
 					final «genericName» unique = («genericName») iterable;
 					if (unique.ord == this.ord) {
-						return merge(unique);
+						return union(unique);
 					}
 				}
 				final «type.sortedUniqueBuilderGenericName» builder = new «type.sortedUniqueBuilderDiamondName»(this);
@@ -291,29 +315,49 @@ final class SortedUniqueGenerator implements ClassGenerator {
 				«AVLCommonGenerator.initOrTail(genericName, shortName, deleteResultDiamondName, "deleteMinimum")»
 			}
 
-			public «genericName» slice(final «type.genericName» from, final boolean fromInclusive, final «type.genericName» to, final boolean toInclusive) {
-				«IF type.primitive»«slicedSortedUniqueViewShortName».«ENDIF»checkRange(this.ord, from, to);
-				final «type.sortedUniqueBuilderGenericName» builder = new «type.sortedUniqueBuilderDiamondName»(this.ord);
-				new «slicedSortedUniqueViewDiamondName»(this, from, true, fromInclusive, to, true, toInclusive).foreach(builder::put);
-				return builder.build();
+			public IntOption indexOf(final «type.genericName» value) {
+				«IF type == Type.OBJECT»
+					requireNonNull(value);
+				«ENDIF»
+				«genericName» unique = isEmpty() ? null : this;
+				int index = 0;
+				while (unique != null) {
+					final int leftSize = (unique.left == null) ? 0 : unique.left.size;
+					final Order order = this.ord.order(value, unique.entry);
+					if (order == EQ) {
+						return IntOption.intSome(index + leftSize);
+					} else if (order == LT) {
+						unique = unique.left;
+					} else if (order == GT) {
+						index += leftSize + 1;
+						unique = unique.right;
+					} else {
+						throw nullOrder(order);
+					}
+				}
+				return IntOption.intNone();
 			}
 
-			public «genericName» sliceFrom(final «type.genericName» from, final boolean inclusive) {
-				final «type.sortedUniqueBuilderGenericName» builder = new «type.sortedUniqueBuilderDiamondName»(this.ord);
-				new «slicedSortedUniqueViewDiamondName»(this, from, true, inclusive, «type.defaultValue», false, false).foreach(builder::put);
-				return builder.build();
-			}
+			«AVLCommonGenerator.navigation(genericName, type.genericName, "entry", "value", type.optionGenericName,
+				type.someName, type.noneName, "", type.primitive)»
 
-			public «genericName» sliceTo(final «type.genericName» to, final boolean inclusive) {
-				final «type.sortedUniqueBuilderGenericName» builder = new «type.sortedUniqueBuilderDiamondName»(this.ord);
-				new «slicedSortedUniqueViewDiamondName»(this, «type.defaultValue», false, false, to, true, inclusive).foreach(builder::put);
-				return builder.build();
-			}
+			«AVLCommonGenerator.slice(genericName, shortName, type.genericName, (if (type.primitive) slicedSortedUniqueViewShortName + "." else "") + "checkRange", type.primitive)»
+
+			«AVLCommonGenerator.positional(genericName, shortName, if (type == Type.OBJECT) "<A> " else "", type.genericName, type.genericName, "entry", "get",
+				(if (type.primitive) slicedSortedUniqueViewShortName + "." else "") + "checkRange", type.primitive)»
+
+			«AVLCommonGenerator.split(genericName, if (type == Type.OBJECT) "<A> " else "", type.genericName, "entry")»
+
+			«AVLCommonGenerator.join(genericName, diamondName, if (type == Type.OBJECT) "<A> " else "", type.genericName, type.ordGenericName)»
+
+			«AVLCommonGenerator.fromSorted(genericName, diamondName, if (type == Type.OBJECT) "<A> " else "", type.javaName + "[]", if (type == Type.OBJECT) "(A) " else "", type.ordGenericName)»
 
 			public «genericName» reverse() {
-				final «type.sortedUniqueBuilderGenericName» builder = new «type.sortedUniqueBuilderDiamondName»(this.ord.reversed());
-				builder.putAll(this);
-				return builder.build();
+				if (isEmpty()) {
+					return empty«shortName»By(this.ord.reversed());
+				} else {
+					return mirror(this.ord.reversed());
+				}
 			}
 
 			@Override
@@ -467,6 +511,10 @@ final class SortedUniqueGenerator implements ClassGenerator {
 				requireNonNull(iterable);
 				if (iterable instanceof «type.sortedUniqueContainerWildcardName») {
 					return ((«type.sortedUniqueContainerGenericName») iterable).to«shortName»();
+				«IF type == Type.OBJECT»
+					} else if (iterable instanceof SortedSet<?> && ((SortedSet<?>) iterable).comparator() == null) {
+						return ofSortedBy(asc(), iterable);
+				«ENDIF»
 				} else {
 					final «type.sortedUniqueBuilderGenericName» builder = builder();
 					builder.putAll(iterable);
@@ -474,6 +522,45 @@ final class SortedUniqueGenerator implements ClassGenerator {
 				}
 			}
 
+			public static «paramComparableGenericName» ofSorted(final «IF type == Type.OBJECT»Iterable<A>«ELSE»«type.containerGenericName»«ENDIF» values) throws IllegalArgumentException {
+				return ofSortedBy(«type.asc»(), values);
+			}
+
+			/**
+			 * Creates a «shortName» from values that are already sorted by {@code ord}.
+			 * The tree is built bottom-up in O(n) time instead of inserting the values one by one.
+			 * Equal adjacent values are kept once.
+			 *
+			 * @throws IllegalArgumentException if the values are not sorted by {@code ord}
+			 */
+			public static «paramGenericName» ofSortedBy(final «type.ordGenericName» ord, final «IF type == Type.OBJECT»Iterable<A>«ELSE»«type.containerGenericName»«ENDIF» values) throws IllegalArgumentException {
+				requireNonNull(ord);
+				«type.javaName»[] entries = new «type.javaName»[sortedArrayCapacity(values)];
+				int size = 0;
+				final «type.iteratorGenericName» iterator = values.iterator();
+				while (iterator.hasNext()) {
+					final «type.genericName» value = iterator.«type.iteratorNext»();
+					«IF type == Type.OBJECT»
+						requireNonNull(value);
+					«ENDIF»
+					if (size > 0) {
+						final Order order = ord.order(«IF type == Type.OBJECT»(A) «ENDIF»entries[size - 1], value);
+						if (order == EQ) {
+							continue;
+						} else if (order == GT) {
+							throw new IllegalArgumentException("Values are not sorted: " + entries[size - 1] + " is followed by " + value);
+						} else if (order != LT) {
+							throw nullOrder(order);
+						}
+					}
+					if (size == entries.length) {
+						entries = Arrays.copyOf(entries, 2 * size);
+					}
+					entries[size++] = value;
+				}
+				return (size == 0) ? empty«shortName»By(ord) : fromSortedArray(entries, 0, size, ord);
+			}
+
 			«fillUntil(type, paramComparableGenericName, type.sortedUniqueBuilderGenericName, "put")»
 
 			public static «paramComparableGenericName» fromIterator(final Iterator<«type.genericBoxedName»> iterator) {
@@ -504,7 +591,7 @@ final class SortedUniqueGenerator implements ClassGenerator {
 					}
 					«genericName» result = unique;
 					for (final «genericName» u : uniques) {
-						result = result.merge(u);
+						result = result.union(u);
 					}
 					return result;
 				}
@@ -540,6 +627,12 @@ final class SortedUniqueGenerator implements ClassGenerator {
 				boolean heightIncreased;
 			}
 
+			static final class SplitResult {
+				int height;
+			}
+
+			«AVLCommonGenerator.combineClasses(genericName, type.genericName, if (type == Type.OBJECT) "<A>" else "", false)»
+
 			static final class «deleteResultGenericName» {
 				«type.genericName» entry;
 				boolean heightDecreased;
@@ -611,6 +704,19 @@ final class SortedUniqueGenerator implements ClassGenerator {
 				return this.root.ord;
 			}
 
+			@Override
+			public «genericName» to«shortName»() {
+				if (this.hasFrom && this.hasTo) {
+					return this.root.slice(this.from, this.fromInclusive, this.to, this.toInclusive);
+				} else if (this.hasFrom) {
+					return this.root.sliceFrom(this.from, this.fromInclusive);
+				} else if (this.hasTo) {
+					return this.root.sliceTo(this.to, this.toInclusive);
+				} else {
+					return this.root;
+				}
+			}
+
 			«AVLCommonGenerator.slicedForEach("foreach", genericName, "unique", "entry", type.effGenericName, "apply")»
 
 			@Override
@@ -23,6 +23,9 @@ final class StackBuilderGenerator implements ClassGenerator {
 	override sourceCode() { '''
 		package «Constants.COLLECTION»;
 
+		«IF type.primitive»
+			import java.util.Arrays;
+		«ENDIF»
 		import java.util.Iterator;
 		«IF type.javaUnboxedType»
 			import java.util.function.«type.typeName»Consumer;
@@ -32,33 +35,57 @@ final class StackBuilderGenerator implements ClassGenerator {
 		import «Constants.FUNCTION».*;
 
 		import static java.util.Objects.requireNonNull;
+		«IF type.primitive»
+			import static «Constants.ARRAY»Builder.expandedCapacity;
+			import static «Constants.COMMON».«type.emptyArrayName»;
+		«ENDIF»
 		import static «Constants.COLLECTION».«type.stackShortName».*;
 
 		public final class «genericName» {
-			private «type.stackGenericName» start = empty«type.stackShortName»();
-			private «type.stackGenericName» tail;
-			private boolean exported;
+			«IF type == Type.OBJECT»
+				private «type.stackGenericName» start = empty«type.stackShortName»();
+				private «type.stackGenericName» tail;
+				private boolean exported;
 
-			«shortName»() {
-			}
+				«shortName»() {
+				}
+
+				public «genericName» append(final «type.genericName» value) {
+					if (this.exported) {
+						copy();
+					}
+
+					final «type.stackGenericName» t = single«type.stackShortName»(value);
+
+					if (this.tail == null) {
+						this.start = t;
+					} else {
+						this.tail.tail = t;
+					}
 
-			public «genericName» append(final «type.genericName» value) {
-				if (this.exported) {
-					copy();
+					this.tail = t;
+					return this;
 				}
 
-				final «type.stackGenericName» t = single«type.stackShortName»(value);
+			«ELSE»
+				private «type.javaName»[] values = «type.emptyArrayName»;
+				private int size;
 
-				if (this.tail == null) {
-					this.start = t;
-				} else {
-					this.tail.tail = t;
+				«shortName»() {
 				}
 
-				this.tail = t;
-				return this;
-			}
+				public «genericName» append(final «type.genericName» value) {
+					if (this.size == this.values.length) {
+						if (this.size == Integer.MAX_VALUE) {
+							throw new OutOfMemoryError("StackBuilder size limit exceeded");
+						}
+						this.values = Arrays.copyOf(this.values, expandedCapacity(this.values.length, this.size + 1));
+					}
+					this.values[this.size++] = value;
+					return this;
+				}
 
+			«ENDIF»
 			«IF type == Type.OBJECT»
 				@SafeVarargs
 			«ENDIF»
@@ -95,73 +122,118 @@ final class StackBuilderGenerator implements ClassGenerator {
 				return this;
 			}
 
-			«genericName» appendStackBuilder(final «genericName» builder) {
-				«type.stackGenericName» stack = builder.start;
-				while (stack.isNotEmpty()) {
-					append(stack.head);
-					stack = stack.tail;
+			«IF type == Type.OBJECT»
+				«genericName» appendStackBuilder(final «genericName» builder) {
+					«type.stackGenericName» stack = builder.start;
+					while (stack.isNotEmpty()) {
+						append(stack.head);
+						stack = stack.tail;
+					}
+					return this;
+				}
+
+			«ELSE»
+				«genericName» appendStackBuilder(final «genericName» builder) {
+					for (int i = 0; i < builder.size; i++) {
+						append(builder.values[i]);
+					}
+					return this;
 				}
-				return this;
-			}
 
+			«ENDIF»
 			public «genericName» append«type.streamName»(final «type.streamGenericName» stream) {
 				«streamForEach(type.genericJavaUnboxedName, "append", true)»
 				return this;
 			}
 
-			public boolean isEmpty() {
-				return this.start.isEmpty();
-			}
+			«IF type == Type.OBJECT»
+				public boolean isEmpty() {
+					return this.start.isEmpty();
+				}
 
-			public «type.stackGenericName» build() {
-				this.exported = this.start.isNotEmpty();
-				return this.start;
-			}
+				public «type.stackGenericName» build() {
+					this.exported = this.start.isNotEmpty();
+					return this.start;
+				}
 
-			public «type.stackGenericName» prependToStack(final «type.stackGenericName» stack) {
-				if (isEmpty()) {
-					return stack;
-				} else {
-					if (this.exported) {
-						copy();
+				public «type.stackGenericName» prependToStack(final «type.stackGenericName» stack) {
+					if (isEmpty()) {
+						return stack;
+					} else {
+						if (this.exported) {
+							copy();
+						}
+
+						this.tail.tail = stack;
+						return build();
+					}
+				}
+
+				private void copy() {
+					«type.stackGenericName» s = this.start;
+					final «type.stackGenericName» t = this.tail;
+					this.start = empty«type.stackShortName»();
+					this.tail = null;
+					this.exported = false;
+					while (s != t) {
+						append(s.head);
+						s = s.tail;
 					}
 
-					this.tail.tail = stack;
-					return build();
+					if (t != null) {
+						append(t.head);
+					}
 				}
-			}
 
-			private void copy() {
-				«type.stackGenericName» s = this.start;
-				final «type.stackGenericName» t = this.tail;
-				this.start = empty«type.stackShortName»();
-				this.tail = null;
-				this.exported = false;
-				while (s != t) {
-					append(s.head);
-					s = s.tail;
+				@Override
+				public String toString() {
+					final StringBuilder builder = new StringBuilder("«shortName»(");
+					«type.stackGenericName» stack = this.start;
+					while (stack.isNotEmpty()) {
+						builder.append(stack.head);
+						stack = stack.tail;
+						if (stack.isNotEmpty()) {
+							builder.append(", ");
+						}
+					}
+					builder.append(")");
+					return builder.toString();
 				}
 
-				if (t != null) {
-					append(t.head);
+			«ELSE»
+				public boolean isEmpty() {
+					return (this.size == 0);
 				}
-			}
 
-			@Override
-			public String toString() {
-				final StringBuilder builder = new StringBuilder("«shortName»(");
-				«type.stackGenericName» stack = this.start;
-				while (stack.isNotEmpty()) {
-					builder.append(stack.head);
-					stack = stack.tail;
-					if (stack.isNotEmpty()) {
-						builder.append(", ");
+				/**
+				 * O(size)
+				 */
+				public «type.stackGenericName» build() {
+					return «type.stackShortName».prependArray(this.values, this.size, empty«type.stackShortName»());
+				}
+
+				/**
+				 * O(size)
+				 */
+				public «type.stackGenericName» prependToStack(final «type.stackGenericName» stack) {
+					requireNonNull(stack);
+					return «type.stackShortName».prependArray(this.values, this.size, stack);
+				}
+
+				@Override
+				public String toString() {
+					final StringBuilder builder = new StringBuilder("«shortName»(");
+					for (int i = 0; i < this.size; i++) {
+						builder.append(this.values[i]);
+						if (i < this.size - 1) {
+							builder.append(", ");
+						}
 					}
+					builder.append(")");
+					return builder.toString();
 				}
-				builder.append(")");
-				return builder.toString();
-			}
 
+			«ENDIF»
 			«transform(genericName)»
 		}
 	''' }
@@ -24,16 +24,25 @@ final class StackGenerator implements ClassGenerator {
 	def paramGenericName() { type.paramGenericName("Stack") }
 	def builderGenericName() { type.genericName("StackBuilder") }
 	def builderDiamondName() { type.diamondName("StackBuilder") }
+	def nodeShortName() { type.shortName("StackNode") }
+
+	def head(String stack) { if (type == Type.OBJECT) '''«stack».head''' else '''«stack».node.values[«stack».offset]''' }
 
 	override sourceCode() { '''
 		package «Constants.COLLECTION»;
 
 		import java.io.Serializable;
+		«IF type.primitive»
+			import java.util.Arrays;
+		«ENDIF»
 		import java.util.Iterator;
 		import java.util.NoSuchElementException;
 		«IF type.javaUnboxedType»
 			import java.util.PrimitiveIterator;
 		«ENDIF»
+		«IF type.primitive»
+			import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+		«ENDIF»
 		import java.util.stream.Collector;
 		import java.util.stream.«type.streamName»;
 
@@ -58,52 +67,100 @@ final class StackGenerator implements ClassGenerator {
 		«ENDFOR»
 
 		public final class «type.covariantName("Stack")» implements «type.orderedContainerGenericName», Equatable<«genericName»>, Serializable {
-			private static final «wildcardName» EMPTY = new «diamondName»(«type.defaultValue», null);
+			«IF type == Type.OBJECT»
+				private static final «wildcardName» EMPTY = new «diamondName»(«type.defaultValue», null);
 
-			final «type.genericName» head;
-			«genericName» tail;
+				final «type.genericName» head;
+				«genericName» tail;
 
-			private «shortName»(final «type.genericName» head, final «genericName» tail) {
-				this.head = head;
-				this.tail = tail;
-			}
+				private «shortName»(final «type.genericName» head, final «genericName» tail) {
+					this.head = head;
+					this.tail = tail;
+				}
 
-			/**
-			 * O(size)
-			 */
-			@Override
-			public int size() throws SizeOverflowException {
-				int len = 0;
-				«genericName» stack = this;
-				while (stack.isNotEmpty()) {
-					stack = stack.tail;
-					if (++len < 0) {
-						throw new SizeOverflowException();
+				/**
+				 * O(size)
+				 */
+				@Override
+				public int size() throws SizeOverflowException {
+					int len = 0;
+					«genericName» stack = this;
+					while (stack.isNotEmpty()) {
+						stack = stack.tail;
+						if (++len < 0) {
+							throw new SizeOverflowException();
+						}
 					}
+					return len;
 				}
-				return len;
-			}
 
-			/**
-			 * O(1)
-			 */
-			@Override
-			public boolean isEmpty() {
-				return (this == EMPTY);
-			}
+				/**
+				 * O(1)
+				 */
+				@Override
+				public boolean isEmpty() {
+					return (this == EMPTY);
+				}
 
-			/**
-			 * O(1)
-			 */
-			@Override
-			public boolean isNotEmpty() {
-				return (this != EMPTY);
-			}
+				/**
+				 * O(1)
+				 */
+				@Override
+				public boolean isNotEmpty() {
+					return (this != EMPTY);
+				}
 
-			@Override
-			public boolean hasKnownFixedSize() {
-				return (this == EMPTY);
-			}
+				@Override
+				public boolean hasKnownFixedSize() {
+					return (this == EMPTY);
+				}
+			«ELSE»
+				private static final «shortName» EMPTY = new «shortName»(null, 0, null, 0);
+				private static final int MIN_NODE_SIZE = 4;
+				private static final int MAX_NODE_SIZE = 32;
+
+				// Values of this stack are node.values[offset .. node.values.length) followed by next
+				final «nodeShortName» node;
+				final int offset;
+				final «shortName» next;
+				private final int size;
+
+				private «shortName»(final «nodeShortName» node, final int offset, final «shortName» next, final int size) {
+					this.node = node;
+					this.offset = offset;
+					this.next = next;
+					this.size = size;
+				}
+
+				/**
+				 * O(1)
+				 */
+				@Override
+				public int size() {
+					return this.size;
+				}
+
+				/**
+				 * O(1)
+				 */
+				@Override
+				public boolean isEmpty() {
+					return (this.size == 0);
+				}
+
+				/**
+				 * O(1)
+				 */
+				@Override
+				public boolean isNotEmpty() {
+					return (this.size != 0);
+				}
+
+				@Override
+				public boolean hasKnownFixedSize() {
+					return true;
+				}
+			«ENDIF»
 
 			/**
 			 * O(1)
@@ -113,7 +170,7 @@ final class StackGenerator implements ClassGenerator {
 				if (isEmpty()) {
 					throw new NoSuchElementException();
 				} else {
-					return this.head;
+					return «head("this")»;
 				}
 			}
 
@@ -123,9 +180,17 @@ final class StackGenerator implements ClassGenerator {
 			public «genericName» tail() throws NoSuchElementException {
 				if (isEmpty()) {
 					throw new NoSuchElementException();
-				} else {
-					return this.tail;
-				}
+				«IF type == Type.OBJECT»
+					} else {
+						return this.tail;
+					}
+				«ELSE»
+					} else if (this.offset + 1 < this.node.values.length) {
+						return new «shortName»(this.node, this.offset + 1, this.next, this.size - 1);
+					} else {
+						return this.next;
+					}
+				«ENDIF»
 			}
 
 			/**
@@ -133,14 +198,29 @@ final class StackGenerator implements ClassGenerator {
 			 */
 			@Override
 			public «type.optionGenericName» findFirst() {
-				return isEmpty() ? «type.noneName»() : «type.someName»(this.head);
+				return isEmpty() ? «type.noneName»() : «type.someName»(«head("this")»);
 			}
 
 			/**
 			 * O(1)
 			 */
 			public «genericName» prepend(final «type.genericName» value) {
-				return new «diamondName»(«type.requireNonNull("value")», this);
+				«IF type == Type.OBJECT»
+					return new «diamondName»(«type.requireNonNull("value")», this);
+				«ELSE»
+					if (this.size == Integer.MAX_VALUE) {
+						throw new SizeOverflowException();
+					} else if (this.offset > 0 && this.node.claim(this.offset - 1)) {
+						// The slot before offset was free, so it can be used without copying the node
+						this.node.values[this.offset - 1] = value;
+						return new «shortName»(this.node, this.offset - 1, this.next, this.size + 1);
+					} else {
+						final int nodeSize = Math.min(MAX_NODE_SIZE, Math.max(MIN_NODE_SIZE, this.size));
+						final «type.javaName»[] values = new «type.javaName»[nodeSize];
+						values[nodeSize - 1] = value;
+						return new «shortName»(new «nodeShortName»(values, nodeSize - 1), nodeSize - 1, this, this.size + 1);
+					}
+				«ENDIF»
 			}
 
 			/**
@@ -198,13 +278,29 @@ final class StackGenerator implements ClassGenerator {
 			 * O(size)
 			 */
 			public «genericName» reverse() {
-				«genericName» result = empty«shortName»();
-				«genericName» stack = this;
-				while (stack.isNotEmpty()) {
-					result = new «diamondName»(stack.head, result);
-					stack = stack.tail;
-				}
-				return result;
+				«IF type == Type.OBJECT»
+					«genericName» result = empty«shortName»();
+					«genericName» stack = this;
+					while (stack.isNotEmpty()) {
+						result = new «diamondName»(stack.head, result);
+						stack = stack.tail;
+					}
+					return result;
+				«ELSE»
+					if (this.size <= 1) {
+						return this;
+					} else {
+						final «type.javaName»[] reversed = new «type.javaName»[this.size];
+						int i = this.size;
+						for («shortName» stack = this; stack.size != 0; stack = stack.next) {
+							final «type.javaName»[] values = stack.node.values;
+							for (int j = stack.offset; j < values.length; j++) {
+								reversed[--i] = values[j];
+							}
+						}
+						return prependArray(reversed, reversed.length, EMPTY);
+					}
+				«ENDIF»
 			}
 
 			/**
@@ -224,11 +320,7 @@ final class StackGenerator implements ClassGenerator {
 				«ENDIF»
 				} else {
 					final StackBuilder«IF type == Type.OBJECT»<B>«ELSE»<A>«ENDIF» builder = new StackBuilder<>();
-					«genericName» stack = this;
-					while (stack.isNotEmpty()) {
-						builder.append(f.apply(stack.head));
-						stack = stack.tail;
-					}
+					foreach((final «type.genericName» value) -> builder.append(f.apply(value)));
 					return builder.build();
 				}
 			}
@@ -244,11 +336,7 @@ final class StackGenerator implements ClassGenerator {
 					«ENDIF»
 					} else {
 						final «toType.stackBuilderGenericName» builder = «toType.stackShortName».builder();
-						«genericName» stack = this;
-						while (stack.isNotEmpty()) {
-							builder.append(f.apply(stack.head));
-							stack = stack.tail;
-						}
+						foreach((final «type.genericName» value) -> builder.append(f.apply(value)));
 						return builder.build();
 					}
 				}
@@ -264,11 +352,7 @@ final class StackGenerator implements ClassGenerator {
 					return emptyStack();
 				} else {
 					final StackBuilder«IF type == Type.OBJECT»<B>«ELSE»<A>«ENDIF» builder = new StackBuilder<>();
-					«genericName» stack = this;
-					while (stack.isNotEmpty()) {
-						builder.appendAll(f.apply(stack.head));
-						stack = stack.tail;
-					}
+					foreach((final «type.genericName» value) -> builder.appendAll(f.apply(value)));
 					return builder.build();
 				}
 			}
@@ -284,11 +368,7 @@ final class StackGenerator implements ClassGenerator {
 						return empty«toType.stackShortName»();
 					} else {
 						final «toType.stackBuilderGenericName» builder = «toType.stackShortName».builder();
-						«genericName» stack = this;
-						while (stack.isNotEmpty()) {
-							builder.appendAll(f.apply(stack.head));
-							stack = stack.tail;
-						}
+						foreach((final «type.genericName» value) -> builder.appendAll(f.apply(value)));
 						return builder.build();
 					}
 				}
@@ -300,13 +380,11 @@ final class StackGenerator implements ClassGenerator {
 					return empty«shortName»();
 				} else {
 					final «builderGenericName» builder = new «builderDiamondName»();
-					«genericName» stack = this;
-					while (stack.isNotEmpty()) {
-						if (predicate.apply(stack.head)) {
-							builder.append(stack.head);
+					foreach((final «type.genericName» value) -> {
+						if (predicate.apply(value)) {
+							builder.append(value);
 						}
-						stack = stack.tail;
-					}
+					});
 					return builder.build();
 				}
 			}
@@ -318,83 +396,207 @@ final class StackGenerator implements ClassGenerator {
 				}
 
 			«ENDIF»
-			public «genericName» limit(final int n) {
-				if (n < 0) {
-					throw new IllegalArgumentException(Integer.toString(n));
-				} else if (isEmpty() || n == 0) {
-					return empty«shortName»();
-				} else {
+			«IF type == Type.OBJECT»
+				public «genericName» limit(final int n) {
+					if (n < 0) {
+						throw new IllegalArgumentException(Integer.toString(n));
+					} else if (isEmpty() || n == 0) {
+						return empty«shortName»();
+					} else {
+						final «builderGenericName» builder = new «builderDiamondName»();
+						«genericName» stack = this;
+						int i = 0;
+						while (stack.isNotEmpty() && i < n) {
+							builder.append(stack.head);
+							stack = stack.tail;
+							i++;
+						}
+						return builder.build();
+					}
+				}
+
+				public «genericName» skip(final int n) {
+					if (n < 0) {
+						throw new IllegalArgumentException(Integer.toString(n));
+					} else {
+						«genericName» stack = this;
+						int i = 0;
+						while (stack.isNotEmpty() && i < n) {
+							stack = stack.tail;
+							i++;
+						}
+						return stack;
+					}
+				}
+
+				public «genericName» takeWhile(final «type.boolFName» predicate) {
 					final «builderGenericName» builder = new «builderDiamondName»();
 					«genericName» stack = this;
-					int i = 0;
-					while (stack.isNotEmpty() && i < n) {
+					while (stack.isNotEmpty() && predicate.apply(stack.head)) {
 						builder.append(stack.head);
 						stack = stack.tail;
-						i++;
 					}
 					return builder.build();
 				}
-			}
 
-			public «genericName» skip(final int n) {
-				if (n < 0) {
-					throw new IllegalArgumentException(Integer.toString(n));
-				} else {
+				public «genericName» dropWhile(final «type.boolFName» predicate) {
 					«genericName» stack = this;
-					int i = 0;
-					while (stack.isNotEmpty() && i < n) {
+					while (stack.isNotEmpty() && predicate.apply(stack.head)) {
 						stack = stack.tail;
-						i++;
 					}
 					return stack;
 				}
-			}
 
-			public «genericName» takeWhile(final «type.boolFName» predicate) {
-				final «builderGenericName» builder = new «builderDiamondName»();
-				«genericName» stack = this;
-				while (stack.isNotEmpty() && predicate.apply(stack.head)) {
-					builder.append(stack.head);
-					stack = stack.tail;
+				@Override
+				public void foreach(final «type.effGenericName» eff) {
+					«genericName» stack = this;
+					while (stack.isNotEmpty()) {
+						eff.apply(stack.head);
+						stack = stack.tail;
+					}
 				}
-				return builder.build();
-			}
 
-			public «genericName» dropWhile(final «type.boolFName» predicate) {
-				«genericName» stack = this;
-				while (stack.isNotEmpty() && predicate.apply(stack.head)) {
-					stack = stack.tail;
+				@Override
+				public boolean foreachUntil(final «type.boolFName» eff) {
+					«genericName» stack = this;
+					while (stack.isNotEmpty()) {
+						if (!eff.apply(stack.head)) {
+							return false;
+						}
+						stack = stack.tail;
+					}
+					return true;
 				}
-				return stack;
-			}
 
-			@Override
-			public void foreach(final «type.effGenericName» eff) {
-				«genericName» stack = this;
-				while (stack.isNotEmpty()) {
-					eff.apply(stack.head);
-					stack = stack.tail;
+				@Override
+				public «type.iteratorGenericName» iterator() {
+					«IF type.javaUnboxedType»
+						return isEmpty() ? «type.noneName»().iterator() : new «type.typeName»StackIterator(this);
+					«ELSE»
+						return isEmpty() ? emptyIterator() : new «type.iteratorDiamondName("Stack")»(this);
+					«ENDIF»
+				}
+			«ELSE»
+				public «genericName» limit(final int n) {
+					if (n < 0) {
+						throw new IllegalArgumentException(Integer.toString(n));
+					} else if (n == 0) {
+						return EMPTY;
+					} else if (n >= this.size) {
+						return this;
+					} else {
+						final «type.javaName»[] prefix = new «type.javaName»[n];
+						int i = 0;
+						for («shortName» stack = this; i < n; stack = stack.next) {
+							final int length = Math.min(n - i, stack.node.values.length - stack.offset);
+							System.arraycopy(stack.node.values, stack.offset, prefix, i, length);
+							i += length;
+						}
+						return prependArray(prefix, n, EMPTY);
+					}
 				}
-			}
 
-			@Override
-			public boolean foreachUntil(final «type.boolFName» eff) {
-				«genericName» stack = this;
-				while (stack.isNotEmpty()) {
-					if (!eff.apply(stack.head)) {
-						return false;
+				/**
+				 * O(n / 32)
+				 */
+				public «genericName» skip(final int n) {
+					if (n < 0) {
+						throw new IllegalArgumentException(Integer.toString(n));
+					} else if (n == 0) {
+						return this;
+					} else if (n >= this.size) {
+						return EMPTY;
+					} else {
+						«shortName» stack = this;
+						int i = n;
+						while (i >= stack.node.values.length - stack.offset) {
+							i -= stack.node.values.length - stack.offset;
+							stack = stack.next;
+						}
+						return (i == 0) ? stack : new «shortName»(stack.node, stack.offset + i, stack.next, stack.size - i);
+					}
+				}
+
+				public «genericName» takeWhile(final «type.boolFName» predicate) {
+					return limit(prefixLength(predicate));
+				}
+
+				public «genericName» dropWhile(final «type.boolFName» predicate) {
+					return skip(prefixLength(predicate));
+				}
+
+				private int prefixLength(final «type.boolFName» predicate) {
+					int n = 0;
+					for («shortName» stack = this; stack.size != 0; stack = stack.next) {
+						final «type.javaName»[] values = stack.node.values;
+						for (int i = stack.offset; i < values.length; i++) {
+							if (!predicate.apply(values[i])) {
+								return n;
+							}
+							n++;
+						}
+					}
+					return n;
+				}
+
+				@Override
+				public void foreach(final «type.effGenericName» eff) {
+					for («shortName» stack = this; stack.size != 0; stack = stack.next) {
+						final «type.javaName»[] values = stack.node.values;
+						for (int i = stack.offset; i < values.length; i++) {
+							eff.apply(values[i]);
+						}
 					}
-					stack = stack.tail;
 				}
-				return true;
-			}
 
+				@Override
+				public boolean foreachUntil(final «type.boolFName» eff) {
+					for («shortName» stack = this; stack.size != 0; stack = stack.next) {
+						final «type.javaName»[] values = stack.node.values;
+						for (int i = stack.offset; i < values.length; i++) {
+							if (!eff.apply(values[i])) {
+								return false;
+							}
+						}
+					}
+					return true;
+				}
+
+				@Override
+				public «type.iteratorGenericName» iterator() {
+					«IF type.javaUnboxedType»
+						return isEmpty() ? «type.noneName»().iterator() : new «type.typeName»StackIterator(this);
+					«ELSE»
+						return isEmpty() ? emptyIterator() : new «type.iteratorDiamondName("Stack")»(this);
+					«ENDIF»
+				}
+
+				/**
+				 * Returns values[0 .. length) followed by stack
+				 */
+				static «shortName» prependArray(final «type.javaName»[] values, final int length, final «shortName» stack) {
+					if (stack.size > Integer.MAX_VALUE - length) {
+						throw new SizeOverflowException();
+					}
+					«shortName» result = stack;
+					for (int to = length; to > 0; to -= MAX_NODE_SIZE) {
+						final int from = Math.max(0, to - MAX_NODE_SIZE);
+						final «nodeShortName» node = new «nodeShortName»(Arrays.copyOfRange(values, from, to), 0);
+						result = new «shortName»(node, 0, result, result.size + to - from);
+					}
+					return result;
+				}
+			«ENDIF»
+
+			/**
+			 * Iterates this stack from the bottom without building its reversed copy
+			 */
 			@Override
-			public «type.iteratorGenericName» iterator() {
+			public «type.iteratorGenericName» reverseIterator() {
 				«IF type.javaUnboxedType»
-					return isEmpty() ? «type.noneName»().iterator() : new «type.typeName»StackIterator(this);
+					return isEmpty() ? «type.noneName»().iterator() : new «type.typeName»StackReverseIterator(this);
 				«ELSE»
-					return isEmpty() ? emptyIterator() : new «type.iteratorDiamondName("Stack")»(this);
+					return isEmpty() ? emptyIterator() : new «type.iteratorDiamondName("StackReverse")»(this);
 				«ENDIF»
 			}
 
@@ -404,6 +606,7 @@ final class StackGenerator implements ClassGenerator {
 			public boolean equals(final Object obj) {
 				if (obj == this) {
 					return true;
+				«IF type == Type.OBJECT»
 				} else if (obj instanceof «wildcardName») {
 					«wildcardName» stack1 = this;
 					«wildcardName» stack2 = («wildcardName») obj;
@@ -419,6 +622,32 @@ final class StackGenerator implements ClassGenerator {
 						stack2 = stack2.tail;
 					}
 					return stack2.isEmpty();
+				«ELSE»
+				} else if (obj instanceof «shortName») {
+					final «shortName» other = («shortName») obj;
+					if (this.size != other.size) {
+						return false;
+					}
+					«shortName» stack2 = other;
+					int i2 = stack2.offset;
+					for («shortName» stack1 = this; stack1.size != 0; stack1 = stack1.next) {
+						if (stack1.node == stack2.node && stack1.offset == i2 && stack1.next == stack2.next) {
+							// The rest is shared
+							return true;
+						}
+						final «type.javaName»[] values1 = stack1.node.values;
+						for (int i1 = stack1.offset; i1 < values1.length; i1++) {
+							if (i2 == stack2.node.values.length) {
+								stack2 = stack2.next;
+								i2 = stack2.offset;
+							}
+							if (values1[i1] != stack2.node.values[i2++]) {
+								return false;
+							}
+						}
+					}
+					return true;
+				«ENDIF»
 				} else {
 					return false;
 				}
@@ -433,18 +662,26 @@ final class StackGenerator implements ClassGenerator {
 			}
 
 			public static «paramGenericName» single«shortName»(final «type.genericName» value) {
-				return new «diamondName»(«type.requireNonNull("value")», empty«shortName»());
+				«IF type == Type.OBJECT»
+					return new «diamondName»(«type.requireNonNull("value")», empty«shortName»());
+				«ELSE»
+					return EMPTY.prepend(value);
+				«ENDIF»
 			}
 
 			«IF type == Type.OBJECT»
 				@SafeVarargs
 			«ENDIF»
 			public static «paramGenericName» «shortName.firstToLowerCase»(final «type.genericName»... values) {
-				«genericName» stack = empty«shortName»();
-				for (int i = values.length - 1; i >= 0; i--) {
-					stack = new «diamondName»(«type.requireNonNull("values[i]")», stack);
-				}
-				return stack;
+				«IF type == Type.OBJECT»
+					«genericName» stack = empty«shortName»();
+					for (int i = values.length - 1; i >= 0; i--) {
+						stack = new «diamondName»(«type.requireNonNull("values[i]")», stack);
+					}
+					return stack;
+				«ELSE»
+					return prependArray(values, values.length, EMPTY);
+				«ENDIF»
 			}
 
 			«javadocSynonym(shortName.firstToLowerCase)»
@@ -542,27 +779,167 @@ final class StackGenerator implements ClassGenerator {
 		}
 
 		final class «type.iteratorGenericName("Stack")» implements «type.iteratorGenericName» {
-			private «genericName» stack;
+			«IF type == Type.OBJECT»
+				private «genericName» stack;
 
-			«type.iteratorShortName("Stack")»(final «genericName» stack) {
-				this.stack = stack;
-			}
+				«type.iteratorShortName("Stack")»(final «genericName» stack) {
+					this.stack = stack;
+				}
 
-			@Override
-			public boolean hasNext() {
-				return this.stack.isNotEmpty();
-			}
+				@Override
+				public boolean hasNext() {
+					return this.stack.isNotEmpty();
+				}
 
-			@Override
-			public «type.iteratorReturnType» «type.iteratorNext»() {
-				if (this.stack.isEmpty()) {
-					throw new NoSuchElementException();
-				} else {
-					final «type.genericName» result = this.stack.head;
-					this.stack = this.stack.tail;
-					return result;
+				@Override
+				public «type.iteratorReturnType» «type.iteratorNext»() {
+					if (this.stack.isEmpty()) {
+						throw new NoSuchElementException();
+					} else {
+						final «type.genericName» result = this.stack.head;
+						this.stack = this.stack.tail;
+						return result;
+					}
 				}
-			}
+			«ELSE»
+				private «type.javaName»[] values;
+				private int index;
+				private «shortName» next;
+
+				«type.iteratorShortName("Stack")»(final «shortName» stack) {
+					this.values = stack.node.values;
+					this.index = stack.offset;
+					this.next = stack.next;
+				}
+
+				@Override
+				public boolean hasNext() {
+					return (this.index < this.values.length);
+				}
+
+				@Override
+				public «type.iteratorReturnType» «type.iteratorNext»() {
+					if (this.index >= this.values.length) {
+						throw new NoSuchElementException();
+					} else {
+						final «type.genericName» result = this.values[this.index++];
+						if (this.index == this.values.length && this.next.isNotEmpty()) {
+							this.values = this.next.node.values;
+							this.index = this.next.offset;
+							this.next = this.next.next;
+						}
+						return result;
+					}
+				}
+			«ENDIF»
+		}
+
+		final class «type.iteratorGenericName("StackReverse")» implements «type.iteratorGenericName» {
+			«IF type == Type.OBJECT»
+				private static final int BLOCK_SIZE = 32;
+
+				// Every BLOCK_SIZE-th suffix of the stack, starting from the stack itself
+				private final «genericName»[] blocks;
+				private int block;
+				// Values of the current block, the next one is buffer[index - 1]
+				private final Object[] buffer = new Object[BLOCK_SIZE];
+				private int index;
+
+				«type.iteratorShortName("StackReverse")»(final «genericName» stack) {
+					int count = 0;
+					for («genericName» s = stack; s.isNotEmpty(); s = s.tail) {
+						count++;
+					}
+					this.blocks = new «shortName»[(count + BLOCK_SIZE - 1) / BLOCK_SIZE];
+					int i = 0;
+					for («genericName» s = stack; s.isNotEmpty(); s = s.tail) {
+						if (i % BLOCK_SIZE == 0) {
+							this.blocks[i / BLOCK_SIZE] = s;
+						}
+						i++;
+					}
+					this.block = this.blocks.length;
+				}
+
+				@Override
+				public boolean hasNext() {
+					return (this.index != 0 || this.block != 0);
+				}
+
+				@Override
+				public «type.iteratorReturnType» «type.iteratorNext»() {
+					if (this.index == 0) {
+						if (this.block == 0) {
+							throw new NoSuchElementException();
+						}
+						«genericName» stack = this.blocks[--this.block];
+						while (this.index < BLOCK_SIZE && stack.isNotEmpty()) {
+							this.buffer[this.index++] = stack.head;
+							stack = stack.tail;
+						}
+					}
+					return (A) this.buffer[--this.index];
+				}
+			«ELSE»
+				// Stacks starting at each node of the stack
+				private final «shortName»[] segments;
+				private int segment;
+				private «type.javaName»[] values;
+				private int index;
+				private int offset;
+
+				«type.iteratorShortName("StackReverse")»(final «shortName» stack) {
+					int count = 0;
+					for («shortName» s = stack; s.isNotEmpty(); s = s.next) {
+						count++;
+					}
+					this.segments = new «shortName»[count];
+					int i = 0;
+					for («shortName» s = stack; s.isNotEmpty(); s = s.next) {
+						this.segments[i++] = s;
+					}
+					this.segment = count;
+				}
+
+				@Override
+				public boolean hasNext() {
+					return (this.index != this.offset || this.segment != 0);
+				}
+
+				@Override
+				public «type.iteratorReturnType» «type.iteratorNext»() {
+					if (this.index == this.offset) {
+						if (this.segment == 0) {
+							throw new NoSuchElementException();
+						}
+						final «shortName» stack = this.segments[--this.segment];
+						this.values = stack.node.values;
+						this.offset = stack.offset;
+						this.index = this.values.length;
+					}
+					return this.values[--this.index];
+				}
+			«ENDIF»
 		}
+		«IF type.primitive»
+
+			final class «nodeShortName» implements Serializable {
+				private static final AtomicIntegerFieldUpdater<«nodeShortName»> START = AtomicIntegerFieldUpdater.newUpdater(«nodeShortName».class, "start");
+
+				final «type.javaName»[] values;
+				// values[0 .. start) are not used by any stack yet
+				private volatile int start;
+
+				«nodeShortName»(final «type.javaName»[] values, final int start) {
+					this.values = values;
+					this.start = start;
+				}
+
+				// Only one of the stacks sharing this node can put a value into the free slot before start
+				boolean claim(final int index) {
+					return START.compareAndSet(this, index + 1, index);
+				}
+			}
+		«ENDIF»
 	''' }
 }
@@ -326,6 +326,10 @@ final class Stream2Generator implements ClassGenerator {
 				return this.stream.collect(Array.collector());
 			}
 
+			public Unique<A> toUnique() {
+				return Unique.fromStream(this.stream);
+			}
+
 			«transform("Stream2<A>")»
 
 			public static <A> Stream2<A> from(final Stream<A> stream) {
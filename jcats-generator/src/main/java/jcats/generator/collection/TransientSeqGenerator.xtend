@@ -0,0 +1,403 @@
+package jcats.generator.collection
+
+import java.util.List
+import jcats.generator.Constants
+import jcats.generator.Generator
+import jcats.generator.Type
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+
+@FinalFieldsConstructor
+final class TransientSeqGenerator extends SeqGenerator {
+
+	def static List<Generator> generators() {
+		Type.values.toList.map[new TransientSeqGenerator(it) as Generator]
+	}
+
+	override className() { Constants.COLLECTION + "." + transientShortName }
+
+	def nodeName(int depth) { type.javaName + (1 .. depth).map["[]"].join }
+
+	override sourceCode() { '''
+		package «Constants.COLLECTION»;
+
+		import java.util.Arrays;
+		«IF type != Type.BOOLEAN»
+			import java.util.Collections;
+			import java.util.IdentityHashMap;
+		«ENDIF»
+		«IF type.javaUnboxedType»
+			import java.util.PrimitiveIterator;
+		«ELSE»
+			import java.util.Iterator;
+		«ENDIF»
+		import java.util.NoSuchElementException;
+		«IF type != Type.BOOLEAN»
+			import java.util.Set;
+		«ENDIF»
+
+		import «Constants.JCATS».*;
+		import «Constants.FUNCTION».*;
+
+		import static java.util.Objects.requireNonNull;
+		import static «Constants.COMMON».*;
+
+		/**
+		 * Mutable editing session of a {@link «shortName»}.
+		 *
+		 * <p>«IF type == Type.BOOLEAN»Words of the seq are changed in place by a {@link LongTransientSeq}«ELSE»Nodes copied by the transient are owned by it and are changed in place by the subsequent changes«ENDIF»,
+		 * so every «IF type == Type.BOOLEAN»word «ENDIF»node shared with the original seq is copied at most once. Appended and prepended elements
+		 * are buffered and become a part of the seq in {@link #persistent()}.
+		 *
+		 * <p>The transient is not thread-safe.
+		 */
+		public final class «transientName» implements Sized {
+			«genericName» seq;
+			// Prepended elements in reverse order
+			private «type.javaName»[] front;
+			private int frontSize;
+			private «type.javaName»[] back;
+			private int backSize;
+			«IF type == Type.BOOLEAN»
+				// Words of seq while they are changed in place, null otherwise
+				private LongTransientSeq words;
+			«ELSE»
+				// Nodes of seq that are not shared with any persistent seq
+				private final Set<Object> owned;
+			«ENDIF»
+
+			«transientShortName»(final «genericName» seq) {
+				this.seq = seq;
+				this.front = «type.emptyArrayName»;
+				this.back = «type.emptyArrayName»;
+				«IF type != Type.BOOLEAN»
+					this.owned = Collections.newSetFromMap(new IdentityHashMap<>());
+				«ENDIF»
+			}
+
+			@Override
+			public int size() {
+				return this.frontSize + this.seq.size() + this.backSize;
+			}
+
+			public «type.genericName» get(final int index) throws IndexOutOfBoundsException {
+				if (index < 0) {
+					«indexOutOfBounds»
+				} else if (index < this.frontSize) {
+					return «type.genericCast»this.front[this.frontSize - index - 1];
+				} else {
+					final int seqSize = this.seq.size();
+					final int seqIndex = index - this.frontSize;
+					if (seqIndex < seqSize) {
+						«IF type == Type.BOOLEAN»
+							return (this.words == null) ? this.seq.get(seqIndex) : getInWords(seqIndex);
+						«ELSE»
+							return this.seq.get(seqIndex);
+						«ENDIF»
+					} else if (seqIndex - seqSize < this.backSize) {
+						return «type.genericCast»this.back[seqIndex - seqSize];
+					} else {
+						«indexOutOfBounds»
+					}
+				}
+			}
+
+			/**
+			 * Amortized O(1) for the first and last elements, O(log(size)) otherwise
+			 */
+			public «transientName» set(final int index, final «type.genericName» value) throws IndexOutOfBoundsException {
+				«IF type == Type.OBJECT»
+					requireNonNull(value);
+				«ENDIF»
+				if (index < 0) {
+					«indexOutOfBounds»
+				} else if (index < this.frontSize) {
+					this.front[this.frontSize - index - 1] = value;
+				} else {
+					final int seqSize = this.seq.size();
+					final int seqIndex = index - this.frontSize;
+					if (seqIndex < seqSize) {
+						«IF type == Type.BOOLEAN»
+							setInWords(seqIndex, value);
+						«ELSE»
+							this.seq = setInSeq(this.seq, seqIndex, value);
+						«ENDIF»
+					} else if (seqIndex - seqSize < this.backSize) {
+						this.back[seqIndex - seqSize] = value;
+					} else {
+						«indexOutOfBounds»
+					}
+				}
+				return this;
+			}
+
+			/**
+			 * Amortized O(1) for the first and last elements, O(log(size)) otherwise
+			 */
+			public «transientName» update(final int index, final «type.endoGenericName» f) throws IndexOutOfBoundsException {
+				final «type.genericName» value = get(index);
+				return set(index, f.apply(value));
+			}
+
+			/**
+			 * Amortized O(1)
+			 */
+			public «transientName» append(final «type.genericName» value) throws SizeOverflowException {
+				«IF type == Type.OBJECT»
+					requireNonNull(value);
+				«ENDIF»
+				if (size() == Integer.MAX_VALUE) {
+					throw new SizeOverflowException();
+				}
+				if (this.backSize == this.back.length) {
+					this.back = Arrays.copyOf(this.back, ArrayBuilder.expandedCapacity(this.back.length, this.backSize + 1));
+				}
+				this.back[this.backSize++] = value;
+				return this;
+			}
+
+			/**
+			 * Amortized O(1)
+			 */
+			public «transientName» prepend(final «type.genericName» value) throws SizeOverflowException {
+				«IF type == Type.OBJECT»
+					requireNonNull(value);
+				«ENDIF»
+				if (size() == Integer.MAX_VALUE) {
+					throw new SizeOverflowException();
+				}
+				if (this.frontSize == this.front.length) {
+					this.front = Arrays.copyOf(this.front, ArrayBuilder.expandedCapacity(this.front.length, this.frontSize + 1));
+				}
+				this.front[this.frontSize++] = value;
+				return this;
+			}
+
+			/**
+			 * Removes the last element.
+			 * Amortized O(1)
+			 */
+			public «transientName» init() throws NoSuchElementException {
+				if (this.backSize == 0) {
+					if (this.seq.isEmpty()) {
+						if (this.frontSize == 0) {
+							throw new NoSuchElementException();
+						}
+						this.seq = frontToSeq();
+						this.frontSize = 0;
+					}
+					moveLastLeafToBack();
+				}
+				this.backSize--;
+				«IF type == Type.OBJECT»
+					this.back[this.backSize] = null;
+				«ENDIF»
+				return this;
+			}
+
+			/**
+			 * Removes the first element.
+			 * Amortized O(1)
+			 */
+			public «transientName» tail() throws NoSuchElementException {
+				if (this.frontSize == 0) {
+					if (this.seq.isEmpty()) {
+						if (this.backSize == 0) {
+							throw new NoSuchElementException();
+						}
+						this.seq = backToSeq();
+						this.backSize = 0;
+					}
+					moveFirstLeafToFront();
+				}
+				this.frontSize--;
+				«IF type == Type.OBJECT»
+					this.front[this.frontSize] = null;
+				«ENDIF»
+				return this;
+			}
+
+			/**
+			 * Returns a persistent seq with the current elements.
+			 * The transient can be used after this call, but the nodes shared with the returned seq will be copied again.
+			 * O(log(size) + number of buffered elements)
+			 */
+			public «genericName» persistent() {
+				«IF type == Type.BOOLEAN»
+					flushWords();
+				«ENDIF»
+				«genericName» result = this.seq;
+				if (this.frontSize > 0) {
+					result = frontToSeq().concat(result);
+				}
+				if (this.backSize > 0) {
+					result = result.concat(backToSeq());
+				}
+				this.seq = result;
+				«IF type == Type.OBJECT»
+					Arrays.fill(this.front, 0, this.frontSize, null);
+					Arrays.fill(this.back, 0, this.backSize, null);
+				«ENDIF»
+				this.frontSize = 0;
+				this.backSize = 0;
+				«IF type != Type.BOOLEAN»
+					this.owned.clear();
+				«ENDIF»
+				return result;
+			}
+
+			private «genericName» frontToSeq() {
+				final «type.javaName»[] array = new «type.javaName»[this.frontSize];
+				for (int i = 0; i < this.frontSize; i++) {
+					array[i] = this.front[this.frontSize - i - 1];
+				}
+				return «shortName».seqFromSharedArray(array);
+			}
+
+			private «genericName» backToSeq() {
+				return «shortName».seqFromSharedArray(Arrays.copyOf(this.back, this.backSize));
+			}
+
+			// Assume backSize == 0 and seq is not empty
+			private void moveLastLeafToBack() {
+				«IF type == Type.BOOLEAN»
+					flushWords();
+				«ENDIF»
+				final int seqSize = this.seq.size();
+				final int n = Math.min(seqSize, 32);
+				final «type.iteratorGenericName» iterator = this.seq.skip(seqSize - n).iterator();
+				if (this.back.length < n) {
+					this.back = new «type.javaName»[32];
+				}
+				for (int i = 0; i < n; i++) {
+					this.back[i] = iterator.«type.iteratorNext»();
+				}
+				this.backSize = n;
+				this.seq = this.seq.limit(seqSize - n);
+			}
+
+			// Assume frontSize == 0 and seq is not empty
+			private void moveFirstLeafToFront() {
+				«IF type == Type.BOOLEAN»
+					flushWords();
+				«ENDIF»
+				final int seqSize = this.seq.size();
+				final int n = Math.min(seqSize, 32);
+				final «type.iteratorGenericName» iterator = this.seq.iterator();
+				if (this.front.length < n) {
+					this.front = new «type.javaName»[32];
+				}
+				for (int i = n - 1; i >= 0; i--) {
+					this.front[i] = iterator.«type.iteratorNext»();
+				}
+				this.frontSize = n;
+				this.seq = this.seq.skip(n);
+			}
+
+			«IF type == Type.BOOLEAN»
+				private boolean getInWords(final int index) {
+					final int bit = ((BooleanPackedSeq) this.seq).offset + index;
+					return (this.words.get(bit >>> 6) & (1L << bit)) != 0;
+				}
+
+				private void setInWords(final int index, final boolean value) {
+					final BooleanPackedSeq packed = (BooleanPackedSeq) this.seq;
+					if (this.words == null) {
+						this.words = packed.words.toTransient();
+					}
+					final int bit = packed.offset + index;
+					final long word = this.words.get(bit >>> 6);
+					final long mask = 1L << bit;
+					if (((word & mask) != 0) != value) {
+						this.words.set(bit >>> 6, word ^ mask);
+					}
+				}
+
+				// Replaces the words of seq with the words changed in place
+				private void flushWords() {
+					if (this.words != null) {
+						final BooleanPackedSeq packed = (BooleanPackedSeq) this.seq;
+						this.seq = new BooleanPackedSeq(this.words.persistent(), packed.offset, packed.size);
+						this.words = null;
+					}
+				}
+			«ELSE»
+				private «genericName» setInSeq(final «genericName» seq, final int index, final «type.genericName» value) {
+					if (seq instanceof «type.shortName("Seq")»1) {
+						final «genericName(1)» seq1 = («genericName(1)») seq;
+						final «type.javaName»[] node1 = ownedLeaf(seq1.node1);
+						node1[index] = value;
+						return (node1 == seq1.node1) ? seq : new «diamondName(1)»(node1);
+					«FOR i : 2 .. 6»
+						} else if (seq instanceof «type.shortName("Seq")»«i») {
+							final «genericName(i)» seq«i» = («genericName(i)») seq;
+							if (index < seq«i».init.length) {
+								final «type.javaName»[] init = ownedLeaf(seq«i».init);
+								init[index] = value;
+								return (init == seq«i».init) ? seq : new «diamondName(i)»(seq«i».node«i», init, seq«i».tail«IF i > 2», seq«i».startIndex«ENDIF», seq«i».size);
+							} else if (index >= seq«i».size - seq«i».tail.length) {
+								final «type.javaName»[] tail = ownedLeaf(seq«i».tail);
+								tail[index + tail.length - seq«i».size] = value;
+								return (tail == seq«i».tail) ? seq : new «diamondName(i)»(seq«i».node«i», seq«i».init, tail«IF i > 2», seq«i».startIndex«ENDIF», seq«i».size);
+							} else {
+								final «nodeName(i)» node«i» = («nodeName(i)») setInNode(seq«i».node«i», «i», index - seq«i».init.length, value);
+								return (node«i» == seq«i».node«i») ? seq : new «diamondName(i)»(node«i», seq«i».init, seq«i».tail«IF i > 2», seq«i».startIndex«ENDIF», seq«i».size);
+							}
+					«ENDFOR»
+					} else {
+						final «relaxedName» relaxed = («relaxedName») seq;
+						final int i = relaxed.childIndex(index);
+						final «genericName» child = relaxed.children[i];
+						final «genericName» newChild = setInSeq(child, index - relaxed.offset(i), value);
+						if (newChild == child) {
+							return seq;
+						} else {
+							final «genericName»[] children = (this.owned.contains(relaxed.children)) ? relaxed.children : own(relaxed.children.clone());
+							children[i] = newChild;
+							return (children == relaxed.children) ? seq : new «relaxedDiamondName»(children, relaxed.sizes, relaxed.depth);
+						}
+					}
+				}
+
+				private Object setInNode(final Object node, final int depth, final int index, final «type.genericName» value) {
+					if (depth == 1) {
+						final «type.javaName»[] leaf = ownedLeaf((«type.javaName»[]) node);
+						leaf[index] = value;
+						return leaf;
+					} else {
+						// Only the first child of a node can be incomplete at the start
+						final Object[] children = (Object[]) node;
+						final int firstSize = «spliteratorShortName».nodeSize(children[0], depth - 1);
+						final int i;
+						final int childIndex;
+						if (index < firstSize) {
+							i = 0;
+							childIndex = index;
+						} else {
+							final int shift = 5 * (depth - 1);
+							i = 1 + ((index - firstSize) >>> shift);
+							childIndex = (index - firstSize) & ((1 << shift) - 1);
+						}
+						final Object child = children[i];
+						final Object newChild = setInNode(child, depth - 1, childIndex, value);
+						if (newChild == child) {
+							return node;
+						} else {
+							final Object[] newNode = (this.owned.contains(children)) ? children : own(children.clone());
+							newNode[i] = newChild;
+							return newNode;
+						}
+					}
+				}
+
+				private «type.javaName»[] ownedLeaf(final «type.javaName»[] leaf) {
+					return (this.owned.contains(leaf)) ? leaf : own(leaf.clone());
+				}
+
+				private <T> T own(final T node) {
+					this.owned.add(node);
+					return node;
+				}
+			«ENDIF»
+		}
+	''' }
+}
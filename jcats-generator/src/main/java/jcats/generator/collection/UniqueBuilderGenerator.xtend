@@ -39,6 +39,8 @@ final class UniqueBuilderGenerator implements ClassGenerator {
 		public final class «genericName» implements Sized {
 
 			private «type.uniqueGenericName» unique;
+			// Nodes tagged with this token were created by this builder and are updated in place
+			private final Object owner = new Object();
 
 			«shortName»() {
 				this.unique = empty«type.uniqueShortName»();
@@ -49,7 +51,7 @@ final class UniqueBuilderGenerator implements ClassGenerator {
 			}
 
 			public «genericName» put(final «type.genericName» value) {
-				this.unique = this.unique.put(value);
+				this.unique = this.unique.put(value, this.owner);
 				return this;
 			}
 
@@ -95,7 +97,14 @@ final class UniqueBuilderGenerator implements ClassGenerator {
 			}
 
 			«genericName» merge(final «genericName» other) {
-				this.unique = this.unique.merge(other.unique);
+				final «type.uniqueGenericName» otherUnique = other.build();
+				if (size() >= otherUnique.size()) {
+					otherUnique.foreach(this::put);
+				} else {
+					final «type.uniqueGenericName» unique = this.unique;
+					this.unique = otherUnique;
+					unique.foreach(this::put);
+				}
 				return this;
 			}
 
@@ -110,6 +119,8 @@ final class UniqueBuilderGenerator implements ClassGenerator {
 			}
 
 			public «type.uniqueGenericName» build() {
+				// Subsequent puts copy the frozen nodes, so the built instance does not change
+				this.unique = this.unique.freeze(this.owner);
 				return this.unique;
 			}
 
@@ -22,13 +22,19 @@ final class UniqueGenerator implements ClassGenerator {
 	def genericName() { type.genericName("Unique") }
 	def diamondName() { type.diamondName("Unique") }
 	def wildcardName() { type.wildcardName("Unique") }
-	def hashCode(String expr) { if (type == Type.OBJECT) expr + ".hashCode()" else type.boxedName + ".hashCode(" + expr + ")" }
+	def hashCode(String expr) { if (type == Type.OBJECT) "scramble(" + expr + ".hashCode())" else "scramble(" + type.boxedName + ".hashCode(" + expr + "))" }
+	def slotHash(String node, String value) { if (type == Type.OBJECT) node + ".slotHash(branch, " + value + ")" else hashCode(value) }
 	def equals(String expr1, String expr2) { if (type == Type.OBJECT) expr1 + ".equals(" + expr2 + ")" else expr1 + " == " + expr2 }
 
 	override sourceCode() { '''
 		package «Constants.COLLECTION»;
 
+		import java.io.IOException;
+		import java.io.InvalidObjectException;
+		import java.io.ObjectInputStream;
+		import java.io.ObjectOutputStream;
 		import java.io.Serializable;
+		import java.util.Arrays;
 		«IF type == Type.OBJECT»	
 			import java.util.Collections;
 		«ENDIF»
@@ -37,8 +43,17 @@ final class UniqueGenerator implements ClassGenerator {
 		«IF type.primitive»
 			import java.util.PrimitiveIterator;
 		«ENDIF»
+		import java.util.Spliterator;
+		«IF type.primitive»
+			import java.util.function.«type.typeName»Consumer;
+		«ELSE»
+			import java.util.function.Consumer;
+		«ENDIF»
 		import java.util.stream.Collector;
 		import java.util.stream.«type.streamName»;
+		«IF type != Type.INT»
+			import java.util.stream.IntStream;
+		«ENDIF»
 
 		import «Constants.JCATS».*;
 		import «Constants.FUNCTION».*;
@@ -51,7 +66,7 @@ final class UniqueGenerator implements ClassGenerator {
 		import static «Constants.COLLECTION».«type.seqShortName».*;
 
 		public final class «type.covariantName("Unique")» implements «type.uniqueContainerGenericName», Serializable {
-			static final «wildcardName» EMPTY = new «diamondName»(0, 0, Common.«Type.OBJECT.emptyArrayName», «IF type.primitive»null, «ENDIF»0);
+			static final «wildcardName» EMPTY = new «diamondName»(0, 0, Common.«Type.OBJECT.emptyArrayName», «IF type.primitive»null, 0«ELSE»0, EMPTY_HASHES, null«ENDIF»);
 
 			private final int treeMap;
 			private final int leafMap;
@@ -60,8 +75,19 @@ final class UniqueGenerator implements ClassGenerator {
 				private final «type.javaName»[] «type.javaName»Slots;
 			«ENDIF»
 			private final int size;
+			«IF type == Type.OBJECT»
+				// Hashes of the leaves and collisions in the order of their branches (see CACHE_HASHES), null if not cached
+				private final transient int[] hashes;
+			«ENDIF»
+			// Token of the builder or bulk operation that created the node (see isOwnedBy())
+			private final transient Object owner;
 
 			private «shortName»(final int treeMap, final int leafMap, final Object[] slots, «IF type.primitive»final «type.javaName»[] «type.javaName»Slots, «ENDIF»final int size) {
+				this(treeMap, leafMap, slots, «IF type.primitive»«type.javaName»Slots, «ENDIF»size, «IF type == Type.OBJECT»null, «ENDIF»null);
+			}
+
+			private «shortName»(final int treeMap, final int leafMap, final Object[] slots, «IF type.primitive»final «type.javaName»[] «type.javaName»Slots, «ENDIF»final int size,
+					«IF type == Type.OBJECT»final int[] hashes, «ENDIF»final Object owner) {
 				this.treeMap = treeMap;
 				this.leafMap = leafMap;
 				this.slots = slots;
@@ -69,6 +95,10 @@ final class UniqueGenerator implements ClassGenerator {
 					this.«type.javaName»Slots = «type.javaName»Slots;
 				«ENDIF»
 				this.size = size;
+				«IF type == Type.OBJECT»
+					this.hashes = hashes;
+				«ENDIF»
+				this.owner = owner;
 			}
 
 			@Override
@@ -85,7 +115,14 @@ final class UniqueGenerator implements ClassGenerator {
 				«IF type == Type.OBJECT»
 					requireNonNull(value);
 				«ENDIF»
-				return update(value, «hashCode("value")», 0);
+				return update(value, «hashCode("value")», 0, null);
+			}
+
+			«genericName» put(final «type.genericName» value, final Object owner) {
+				«IF type == Type.OBJECT»
+					requireNonNull(value);
+				«ENDIF»
+				return update(value, «hashCode("value")», 0, owner);
 			}
 
 			public «genericName» remove(final «type.genericName» value) {
@@ -190,13 +227,24 @@ final class UniqueGenerator implements ClassGenerator {
 			}
 
 			«IF type == Type.OBJECT»
-				«HashTableCommonGenerator.remap(shortName, genericName, diamondName)»
+				«HashTableCommonGenerator.remap(shortName, genericName, true)»
+
+				«HashTableCommonGenerator.cachedHashes(genericName)»
 			«ELSE»
 				private «genericName» remap(final int newTreeMap, final int newLeafMap, final int newSize) {
+					return remap(newTreeMap, newLeafMap, newSize, null);
+				}
+
+				private «genericName» remap(final int newTreeMap, final int newLeafMap, final int newSize, final Object owner) {
 					if (this.leafMap == newLeafMap && this.treeMap == newTreeMap) {
-						final Object[] newSlots = (this.slots == null) ? null : this.slots.clone();
-						final «type.javaName»[] new«type.typeName»Slots = (this.«type.javaName»Slots == null) ? null : this.«type.javaName»Slots.clone();
-						return new «diamondName»(newTreeMap, newLeafMap, newSlots, new«type.typeName»Slots, newSize);
+						if (isOwnedBy(owner)) {
+							// An owned node is replaced by the result, so they can share the slots
+							return new «genericName»(newTreeMap, newLeafMap, this.slots, this.«type.javaName»Slots, newSize, owner);
+						} else {
+							final Object[] newSlots = (this.slots == null) ? null : this.slots.clone();
+							final «type.javaName»[] new«type.typeName»Slots = (this.«type.javaName»Slots == null) ? null : this.«type.javaName»Slots.clone();
+							return new «genericName»(newTreeMap, newLeafMap, newSlots, new«type.typeName»Slots, newSize, owner);
+						}
 					} else if (newSize == 0) {
 						return empty«shortName»();
 					} else if (newTreeMap == 0) {
@@ -221,7 +269,7 @@ final class UniqueGenerator implements ClassGenerator {
 							oldTreeMap >>>= 1;
 							tempLeafMap >>>= 1;
 						}
-						return new «diamondName»(0, newLeafMap, null, new«type.typeName»Slots, newSize);
+						return new «genericName»(0, newLeafMap, null, new«type.typeName»Slots, newSize, owner);
 					} else  {
 						int oldSlotMap = this.treeMap | this.leafMap;
 						int tempSlotMap = newTreeMap | newLeafMap;
@@ -242,51 +290,64 @@ final class UniqueGenerator implements ClassGenerator {
 							oldSlotMap >>>= 1;
 							tempSlotMap >>>= 1;
 						}
-						return new «diamondName»(newTreeMap, newLeafMap, newSlots, null, newSize);
+						return new «genericName»(newTreeMap, newLeafMap, newSlots, null, newSize, owner);
 					}
 				}
 			«ENDIF»
 
-			private «genericName» update(final «type.genericName» value, final int valueHash, final int shift) {
+			«IF type == Type.OBJECT»
+				«HashTableCommonGenerator.owner(genericName, '''new «genericName»(this.treeMap, this.leafMap, this.slots, this.size, this.hashes, null)''')»
+			«ELSE»
+				«HashTableCommonGenerator.owner(genericName, '''new «genericName»(this.treeMap, this.leafMap, this.slots, this.«type.javaName»Slots, this.size, null)''')»
+			«ENDIF»
+
+			private «genericName» update(final «type.genericName» value, final int valueHash, final int shift, final Object owner) {
 				final int branch = branch(valueHash, shift);
 
 				switch (slotType(branch, this.treeMap, this.leafMap)) {
 					case VOID:
-						return remap(this.treeMap, this.leafMap | branch, this.size + 1).setEntry(branch, value);
+						return remap(this.treeMap, this.leafMap | branch, this.size + 1, owner).setEntry(branch, value)«IF type == Type.OBJECT».setHash(branch, valueHash)«ENDIF»;
 
 					case LEAF:
 						final «type.genericName» leaf = getEntry(branch);
-						final int leafHash = «hashCode("leaf")»;
+						final int leafHash = «slotHash("this", "leaf")»;
 						if (valueHash == leafHash) {
 							if («equals("value", "leaf")») {
 								return this;
 							} else {
 								final «type.javaName»[] collision = { value, leaf };
-								return remap(this.treeMap | branch, this.leafMap, this.size + 1).setCollision(branch, collision);
+								return remap(this.treeMap | branch, this.leafMap, this.size + 1, owner).setCollision(branch, collision);
 							}
 						} else {
-							final «genericName» tree = merge(leaf, leafHash, value, valueHash, shift + 5);
-							return remap(this.treeMap | branch, this.leafMap ^ branch, this.size + 1).setTree(branch, tree);
+							final «genericName» tree = merge(leaf, leafHash, value, valueHash, shift + 5, owner);
+							return remap(this.treeMap | branch, this.leafMap ^ branch, this.size + 1, owner).setTree(branch, tree);
 						}
 
 					case TREE:
 						final «genericName» oldTree = getTree(branch);
-						final «genericName» newTree = oldTree.update(value, valueHash, shift + 5);
+						final «genericName» newTree = oldTree.update(value, valueHash, shift + 5, owner);
 						if (newTree == oldTree) {
 							return this;
 						} else {
-							return remap(this.treeMap, this.leafMap, this.size + newTree.size - oldTree.size).setTree(branch, newTree);
+							return remap(this.treeMap, this.leafMap, this.size + newTree.size - oldTree.size, owner).setTree(branch, newTree);
 						}
 
 					case COLLISION:
 						final «type.javaName»[] oldCollision = getCollision(branch);
+						final int collisionHash = «slotHash("this", "oldCollision[0]")»;
+						if (valueHash != collisionHash) {
+							// The collision holds equal hashes only, so a different hash moves it one level down
+							final «genericName» collisionNode = fromCollision(oldCollision, collisionHash, shift + 5);
+							final «genericName» tree = collisionNode.update(value, valueHash, shift + 5, owner);
+							return remap(this.treeMap, this.leafMap ^ branch, this.size + 1, owner).setTree(branch, tree);
+						}
 						final «type.javaName»[] newCollision = updateCollision(oldCollision, value);
 						if (newCollision == oldCollision) {
 							return this;
 						} else if (newCollision.length > oldCollision.length) {
-							return remap(this.treeMap, this.leafMap, this.size + 1).setCollision(branch, newCollision);
+							return remap(this.treeMap, this.leafMap, this.size + 1, owner).setCollision(branch, newCollision);
 						} else {
-							return remap(this.treeMap, this.leafMap, this.size).setCollision(branch, newCollision);
+							return remap(this.treeMap, this.leafMap, this.size, owner).setCollision(branch, newCollision);
 						}
 
 					default:
@@ -294,9 +355,11 @@ final class UniqueGenerator implements ClassGenerator {
 				}
 			}
 
-			«HashTableCommonGenerator.remove(genericName, type.genericName, "value", type.genericName, equals("entry", "value"), type.javaName, type.primitive)»
+			«HashTableCommonGenerator.remove(genericName, type.genericName, "value", type.genericName, equals("entry", "value"), type.javaName, type.primitive, type == Type.OBJECT)»
 
-			«HashTableCommonGenerator.merge(type, paramGenericName, type.genericName, diamondName)»
+			«HashTableCommonGenerator.merge(type, paramGenericName, type.genericName, genericName, type == Type.OBJECT)»
+
+			«HashTableCommonGenerator.fromCollision(paramGenericName, genericName, type.javaName, type.primitive, "collision.length", type == Type.OBJECT)»
 
 			private static boolean getFromCollision(final «type.javaName»[] collision, final «type.javaName» value) {
 				for (final «type.javaName» entry : collision) {
@@ -333,32 +396,326 @@ final class UniqueGenerator implements ClassGenerator {
 				return collision;
 			}
 
-			«genericName» merge(final «genericName» other) {
+			/**
+			 * Returns the values contained in this or the other set.
+			 * Unlike repeated {@link #put} calls, the tries are combined node by node, so branches present in
+			 * only one of the sets and identical subtrees are reused without being traversed.
+			 */
+			public «genericName» union(final «genericName» other) {
 				requireNonNull(other);
-				if (isEmpty()) {
-					return other;
-				} else if (other.isEmpty()) {
-					return this;
+				return combine(this, other, 0, UNION);
+			}
+
+			/**
+			 * Returns the values contained in both this and the other set.
+			 * Branches present in only one of the sets are skipped without being traversed.
+			 */
+			public «genericName» intersect(final «genericName» other) {
+				requireNonNull(other);
+				return combine(this, other, 0, INTERSECTION);
+			}
+
+			/**
+			 * Returns the values of this set that are not contained in the other set.
+			 * Branches present only in this set are reused without being traversed.
+			 */
+			public «genericName» difference(final «genericName» other) {
+				requireNonNull(other);
+				return combine(this, other, 0, DIFFERENCE);
+			}
+
+			/**
+			 * Returns the values contained in exactly one of this and the other set.
+			 */
+			public «genericName» symmetricDifference(final «genericName» other) {
+				requireNonNull(other);
+				return combine(this, other, 0, SYMMETRIC_DIFFERENCE);
+			}
+
+			public boolean isSubsetOf(final «genericName» other) {
+				requireNonNull(other);
+				return isSubsetOf(this, other, 0);
+			}
+
+			public boolean isDisjointWith(final «genericName» other) {
+				requireNonNull(other);
+				return isDisjointWith(this, other, 0);
+			}
+
+			private static «paramGenericName» combine(final «genericName» a, final «genericName» b, final int shift, final int operation) {
+				if (a == b) {
+					return (operation == UNION || operation == INTERSECTION) ? a : empty«shortName»();
+				} else if (a.isEmpty()) {
+					return (operation == UNION || operation == SYMMETRIC_DIFFERENCE) ? b : a;
+				} else if (b.isEmpty()) {
+					return (operation == INTERSECTION) ? b : a;
+				}
+
+				int slotMap = combineSlotMaps(a.treeMap | a.leafMap, b.treeMap | b.leafMap, operation);
+				final Object[] slots = new Object[Integer.bitCount(slotMap)];
+				int treeMap = 0;
+				int leafMap = 0;
+				int size = 0;
+				int i = 0;
+				boolean sameAsA = true;
+				boolean sameAsB = true;
+				while (slotMap != 0) {
+					final int branch = Integer.lowestOneBit(slotMap);
+					slotMap ^= branch;
+					final int aType = slotType(branch, a.treeMap, a.leafMap);
+					final int bType = slotType(branch, b.treeMap, b.leafMap);
+					final int aIndex = arrayIndex(branch, a.treeMap, a.leafMap);
+					final int bIndex = arrayIndex(branch, b.treeMap, b.leafMap);
+					final int type;
+					if (bType == VOID) {
+						type = aType;
+						slots[i] = a.slotAt(aType, aIndex);
+						size += a.slotSize(aType, aIndex);
+						sameAsB = false;
+					} else if (aType == VOID) {
+						type = bType;
+						slots[i] = b.slotAt(bType, bIndex);
+						size += b.slotSize(bType, bIndex);
+						sameAsA = false;
+					} else {
+						final «genericName» node = combineSlots(a, aType, aIndex, b, bType, bIndex, shift, operation);
+						if (node.isEmpty()) {
+							sameAsA = false;
+							sameAsB = false;
+							continue;
+						} else if (node.isSingle()) {
+							type = LEAF;
+							slots[i] = node.slotAt(LEAF, 0);
+						} else if (node.treeMap == node.leafMap && Integer.bitCount(node.treeMap) == 1) {
+							type = COLLISION;
+							slots[i] = node.slots[0];
+						} else {
+							type = TREE;
+							slots[i] = node;
+						}
+						size += node.size;
+						sameAsA &= (type == aType) && sameSlot(type, slots[i], a.slotAt(aType, aIndex));
+						sameAsB &= (type == bType) && sameSlot(type, slots[i], b.slotAt(bType, bIndex));
+					}
+					if (type != LEAF) {
+						treeMap |= branch;
+					}
+					if (type != TREE) {
+						leafMap |= branch;
+					}
+					i++;
+				}
+
+				if (sameAsA && treeMap == a.treeMap && leafMap == a.leafMap) {
+					return a;
+				} else if (sameAsB && treeMap == b.treeMap && leafMap == b.leafMap) {
+					return b;
+				} else if (size == 0) {
+					return empty«shortName»();
+				} else {
+					return fromSlots(treeMap, leafMap, (i == slots.length) ? slots : Arrays.copyOf(slots, i), size);
+				}
+			}
+
+			private static «paramGenericName» combineSlots(final «genericName» a, final int aType, final int aIndex,
+					final «genericName» b, final int bType, final int bIndex, final int shift, final int operation) {
+				if (aType == TREE && bType == TREE) {
+					return combine(a.treeAt(aIndex), b.treeAt(bIndex), shift + 5, operation);
+				} else if (bType != TREE) {
+					«genericName» result = (aType == TREE) ? a.treeAt(aIndex) : a.slotAsNode(aType, aIndex, shift + 5);
+					«genericName» intersection = empty«shortName»();
+					final int count = b.slotSize(bType, bIndex);
+					for (int k = 0; k < count; k++) {
+						final «type.genericName» value = b.slotValue(bType, bIndex, k);
+						final int valueHash = «hashCode("value")»;
+						if (operation == UNION) {
+							result = result.update(value, valueHash, shift + 5, null);
+						} else if (operation == INTERSECTION) {
+							if (result.get(value, valueHash, shift + 5)) {
+								intersection = intersection.update(value, valueHash, shift + 5, null);
+							}
+						} else if (operation == DIFFERENCE || result.get(value, valueHash, shift + 5)) {
+							result = result.remove(value, valueHash, shift + 5);
+						} else {
+							result = result.update(value, valueHash, shift + 5, null);
+						}
+					}
+					return (operation == INTERSECTION) ? intersection : result;
 				} else {
-					«genericName» result;
-					final «genericName» from;
-					if (size() >= other.size()) {
-						result = this;
-						from = other;
+					«genericName» result = b.treeAt(bIndex);
+					«genericName» filtered = empty«shortName»();
+					final int count = a.slotSize(aType, aIndex);
+					for (int k = 0; k < count; k++) {
+						final «type.genericName» value = a.slotValue(aType, aIndex, k);
+						final int valueHash = «hashCode("value")»;
+						if (operation == UNION) {
+							result = result.update(value, valueHash, shift + 5, null);
+						} else if (operation == SYMMETRIC_DIFFERENCE) {
+							if (result.get(value, valueHash, shift + 5)) {
+								result = result.remove(value, valueHash, shift + 5);
+							} else {
+								result = result.update(value, valueHash, shift + 5, null);
+							}
+						} else if (result.get(value, valueHash, shift + 5) == (operation == INTERSECTION)) {
+							filtered = filtered.update(value, valueHash, shift + 5, null);
+						}
+					}
+					return (operation == INTERSECTION || operation == DIFFERENCE) ? filtered : result;
+				}
+			}
+
+			private static «IF type == Type.OBJECT»<A> «ENDIF»boolean isSubsetOf(final «genericName» a, final «genericName» b, final int shift) {
+				if (a == b || a.isEmpty()) {
+					return true;
+				} else if (a.size > b.size || ((a.treeMap | a.leafMap) & ~(b.treeMap | b.leafMap)) != 0) {
+					return false;
+				}
+
+				int slotMap = a.treeMap | a.leafMap;
+				while (slotMap != 0) {
+					final int branch = Integer.lowestOneBit(slotMap);
+					slotMap ^= branch;
+					final int aType = slotType(branch, a.treeMap, a.leafMap);
+					final int bType = slotType(branch, b.treeMap, b.leafMap);
+					final int aIndex = arrayIndex(branch, a.treeMap, a.leafMap);
+					final int bIndex = arrayIndex(branch, b.treeMap, b.leafMap);
+					if (aType == TREE && bType == TREE) {
+						if (!isSubsetOf(a.treeAt(aIndex), b.treeAt(bIndex), shift + 5)) {
+							return false;
+						}
+					} else if (aType == TREE) {
+						// The subtree is a subset of the leaf or collision if it contains as many of its values as it has
+						final «genericName» tree = a.treeAt(aIndex);
+						final int count = b.slotSize(bType, bIndex);
+						final int hash = «slotHash("b", "b.slotValue(bType, bIndex, 0)")»;
+						int contained = 0;
+						for (int k = 0; k < count; k++) {
+							if (tree.get(b.slotValue(bType, bIndex, k), hash, shift + 5)) {
+								contained++;
+							}
+						}
+						if (contained != tree.size) {
+							return false;
+						}
 					} else {
-						result = other;
-						from = this;
+						final int count = a.slotSize(aType, aIndex);
+						final int hash = «slotHash("a", "a.slotValue(aType, aIndex, 0)")»;
+						for (int k = 0; k < count; k++) {
+							if (!b.slotContains(bType, bIndex, a.slotValue(aType, aIndex, k), hash, shift)) {
+								return false;
+							}
+						}
 					}
-					for (final «type.genericName» value : from) {
-						result = result.put(value);
+				}
+				return true;
+			}
+
+			private static «IF type == Type.OBJECT»<A> «ENDIF»boolean isDisjointWith(final «genericName» a, final «genericName» b, final int shift) {
+				if (a == b) {
+					return a.isEmpty();
+				}
+
+				int slotMap = (a.treeMap | a.leafMap) & (b.treeMap | b.leafMap);
+				while (slotMap != 0) {
+					final int branch = Integer.lowestOneBit(slotMap);
+					slotMap ^= branch;
+					final int aType = slotType(branch, a.treeMap, a.leafMap);
+					final int bType = slotType(branch, b.treeMap, b.leafMap);
+					final int aIndex = arrayIndex(branch, a.treeMap, a.leafMap);
+					final int bIndex = arrayIndex(branch, b.treeMap, b.leafMap);
+					if (aType == TREE && bType == TREE) {
+						if (!isDisjointWith(a.treeAt(aIndex), b.treeAt(bIndex), shift + 5)) {
+							return false;
+						}
+					} else if (aType != TREE) {
+						final int count = a.slotSize(aType, aIndex);
+						final int hash = «slotHash("a", "a.slotValue(aType, aIndex, 0)")»;
+						for (int k = 0; k < count; k++) {
+							if (b.slotContains(bType, bIndex, a.slotValue(aType, aIndex, k), hash, shift)) {
+								return false;
+							}
+						}
+					} else {
+						final int count = b.slotSize(bType, bIndex);
+						final int hash = «slotHash("b", "b.slotValue(bType, bIndex, 0)")»;
+						for (int k = 0; k < count; k++) {
+							if (a.slotContains(aType, aIndex, b.slotValue(bType, bIndex, k), hash, shift)) {
+								return false;
+							}
+						}
 					}
-					return result;
 				}
+				return true;
+			}
+
+			private Object slotAt(final int type, final int index) {
+				return (type == LEAF) ? (Object) entryAt(index) : this.slots[index];
+			}
+
+			int branchSize(final int branch) {
+				return slotSize(slotType(branch, this.treeMap, this.leafMap), arrayIndex(branch, this.treeMap, this.leafMap));
+			}
+
+			«HashTableCommonGenerator.spliteratorSupport(genericName, type.spliteratorGenericName, type.diamondName("UniqueSpliterator"))»
+
+			private int slotSize(final int type, final int index) {
+				switch (type) {
+					case LEAF: return 1;
+					case TREE: return treeAt(index).size;
+					case COLLISION: return collisionAt(index).length;
+					default: throw new AssertionError();
+				}
+			}
+
+			private «type.genericName» slotValue(final int type, final int index, final int k) {
+				return (type == LEAF) ? entryAt(index) : «IF type == Type.OBJECT»(A) «ENDIF»collisionAt(index)[k];
+			}
+
+			private boolean slotContains(final int type, final int index, final «type.genericName» value, final int valueHash, final int shift) {
+				switch (type) {
+					case LEAF: return «equals("entryAt(index)", "value")»;
+					case TREE: return treeAt(index).get(value, valueHash, shift + 5);
+					case COLLISION: return getFromCollision(collisionAt(index), value);
+					default: return false;
+				}
+			}
+
+			/**
+			 * Returns a leaf or a collision as a node of the next level, so that it can be combined with a subtree
+			 */
+			private «genericName» slotAsNode(final int type, final int index, final int shift) {
+				if (type == LEAF) {
+					final «type.genericName» value = entryAt(index);
+					return «shortName».«IF type == Type.OBJECT»<A> «ENDIF»empty«shortName»().update(value, «hashCode("value")», shift, null);
+				} else {
+					final «type.javaName»[] collision = collisionAt(index);
+					return fromCollision(collision, «hashCode("collision[0]")», shift);
+				}
+			}
+
+			private static boolean sameSlot(final int type, final Object slot1, final Object slot2) {
+				return (slot1 == slot2) || (type == LEAF && slot1.equals(slot2));
+			}
+
+			private static «paramGenericName» fromSlots(final int treeMap, final int leafMap, final Object[] slots, final int size) {
+				«IF type.primitive»
+					if (treeMap == 0) {
+						final «type.javaName»[] «type.javaName»Slots = new «type.javaName»[slots.length];
+						for (int i = 0; i < slots.length; i++) {
+							«type.javaName»Slots[i] = («type.javaName») slots[i];
+						}
+						return new «diamondName»(0, leafMap, null, «type.javaName»Slots, size);
+					} else {
+						return new «diamondName»(treeMap, leafMap, slots, null, size);
+					}
+				«ELSE»
+					return new «diamondName»(treeMap, leafMap, slots, size);
+				«ENDIF»
 			}
 
 			public «genericName» putAll(final Iterable<«type.genericBoxedName»> iterable) {
 				if (iterable instanceof «wildcardName») {
-					return merge((«genericName») iterable);
+					return union((«genericName») iterable);
 				} else {
 					final «type.uniqueBuilderGenericName» builder = new «type.uniqueBuilderDiamondName»(this);
 					builder.putAll(iterable);
@@ -371,10 +728,11 @@ final class UniqueGenerator implements ClassGenerator {
 			«ENDIF»
 			public «IF type == Type.OBJECT»final «ENDIF»«genericName» putValues(final «type.genericName»... values) {
 				«genericName» unique = this;
+				final Object owner = new Object();
 				for (final «type.genericName» value : values) {
-					unique = unique.put(value);
+					unique = unique.put(value, owner);
 				}
-				return unique;
+				return unique.freeze(owner);
 			}
 
 			@Override
@@ -421,7 +779,26 @@ final class UniqueGenerator implements ClassGenerator {
 				«HashTableCommonGenerator.forEach("foreach", "eff", "apply", type.javaName, type.genericName, type.primitive)»
 			}
 
-			«uniqueEquals(type)»
+			«HashTableCommonGenerator.statistics(HashTableCommonGenerator.collectStatistics.toString)»
+
+			/**
+			 * «equalsDeprecatedJavaDoc»
+			 */
+			@Override
+			@Deprecated
+			public boolean equals(final Object obj) {
+				if (obj == this) {
+					return true;
+				} else if (obj instanceof «wildcardName») {
+					// Hash tables are compared branch by branch, so values of aligned leaves are not hashed
+					final «genericName» other = («genericName») obj;
+					return this.size == other.size && isSubsetOf(this, other, 0);
+				} else if (obj instanceof «type.uniqueContainerWildcardName») {
+					return «type.uniqueContainerShortName.firstToLowerCase»sEqual(this, («type.uniqueContainerWildcardName») obj);
+				} else {
+					return false;
+				}
+			}
 
 			«uniqueHashCode(type)»
 
@@ -442,10 +819,11 @@ final class UniqueGenerator implements ClassGenerator {
 			«ENDIF»
 			public static «paramGenericName» «shortName.firstToLowerCase»(final «type.genericName»... values) {
 				«genericName» unique = empty«shortName»();
+				final Object owner = new Object();
 				for (final «type.genericName» value : values) {
-					unique = unique.put(value);
+					unique = unique.put(value, owner);
 				}
-				return unique;
+				return unique.freeze(owner);
 			}
 
 			«javadocSynonym(shortName.firstToLowerCase)»
@@ -476,10 +854,82 @@ final class UniqueGenerator implements ClassGenerator {
 				return builder.build();
 			}
 
+			/**
+			 * Parallel streams are collected to an array and loaded with {@link #fromArrayParallel}
+			 */
 			public static «paramGenericName» from«type.streamName»(final «type.streamGenericName» stream) {
-				final «type.uniqueBuilderGenericName» builder = builder();
-				builder.put«type.streamName»(stream);
-				return builder.build();
+				if (stream.isParallel()) {
+					return fromArrayParallel(«IF type == Type.OBJECT»(A[]) «ENDIF»stream.toArray());
+				} else {
+					final «type.uniqueBuilderGenericName» builder = builder();
+					builder.put«type.streamName»(stream);
+					return builder.build();
+				}
+			}
+
+			/**
+			 * Builds a «shortName» from a large array on the common fork/join pool.
+			 * Values are partitioned by the branch they take at the root of the trie,
+			 * and each of the 32 root subtrees is built by a separate task.
+			 */
+			public static «paramGenericName» fromArrayParallel(final «type.genericName»[] values) {
+				requireNonNull(values);
+				if (values.length < PARALLEL_THRESHOLD) {
+					return «shortName.firstToLowerCase»(values);
+				}
+				final int[] hashes = new int[values.length];
+				Arrays.parallelSetAll(hashes, (final int i) -> «hashCode("values[i]")»);
+				final int[] offsets = new int[33];
+				final int[] indexes = sortByRootBranch(hashes, offsets);
+				final Object[] trees = new Object[32];
+				IntStream.range(0, 32).parallel().forEach((final int branchIndex) -> {
+					final Object owner = new Object();
+					«genericName» tree = empty«shortName»();
+					for (int i = offsets[branchIndex]; i < offsets[branchIndex + 1]; i++) {
+						final int index = indexes[i];
+						tree = tree.update(values[index], hashes[index], 5, owner);
+					}
+					trees[branchIndex] = tree.freeze(owner);
+				});
+				return fromRootSubtrees(trees);
+			}
+
+			/**
+			 * Parallel version of {@link #ofAll} for large containers, see {@link #fromArrayParallel}
+			 */
+			public static «paramGenericName» ofAllParallel(final «type.containerGenericName» container) {
+				if (container instanceof «wildcardName») {
+					return («genericName») container;
+				} else {
+					return fromArrayParallel(«IF type == Type.OBJECT»(A[]) «ENDIF»container.«type.toArrayName»());
+				}
+			}
+
+			private static «paramGenericName» fromRootSubtrees(final Object[] trees) {
+				final Object[] slots = new Object[32];
+				int treeMap = 0;
+				int leafMap = 0;
+				int size = 0;
+				int i = 0;
+				for (int branchIndex = 0; branchIndex < 32; branchIndex++) {
+					final «genericName» tree = («genericName») trees[branchIndex];
+					final int branch = 1 << branchIndex;
+					if (tree.isEmpty()) {
+						continue;
+					} else if (tree.isSingle()) {
+						slots[i++] = tree.slotAt(LEAF, 0);
+						leafMap |= branch;
+					} else if (tree.treeMap == tree.leafMap && Integer.bitCount(tree.treeMap) == 1) {
+						slots[i++] = tree.slots[0];
+						treeMap |= branch;
+						leafMap |= branch;
+					} else {
+						slots[i++] = tree;
+						treeMap |= branch;
+					}
+					size += tree.size;
+				}
+				return fromSlots(treeMap, leafMap, Arrays.copyOf(slots, i), size);
 			}
 
 			«IF type == Type.OBJECT»
@@ -493,12 +943,14 @@ final class UniqueGenerator implements ClassGenerator {
 				} else {
 					«genericName» unique = uniques[0];
 					for (int i = 1; i < uniques.length; i++) {
-						unique = unique.merge(uniques[i]);
+						unique = unique.union(uniques[i]);
 					}
 					return unique;
 				}
 			}
 
+			«HashTableCommonGenerator.writeReplace(type.diamondName("UniqueSerializationProxy"), type.shortName("UniqueSerializationProxy"))»
+
 			public static «type.paramGenericName("UniqueBuilder")» builder() {
 				return new «type.uniqueBuilderDiamondName»();
 			}
@@ -520,5 +972,17 @@ final class UniqueGenerator implements ClassGenerator {
 
 			«HashTableCommonGenerator.iterator(type)»
 		«ENDIF»
+
+		«HashTableCommonGenerator.serializationProxy(type.shortName("UniqueSerializationProxy"), type.genericName("UniqueSerializationProxy"),
+			genericName, type.uniqueBuilderGenericName, shortName + ".builder()", '''
+				final «type.iteratorGenericName» iterator = this.table.iterator();
+				while (iterator.hasNext()) {
+					out.write«type.typeName»(iterator.«type.iteratorNext»());
+				}
+			''', '''builder.put(«IF type == Type.OBJECT»(A) «ENDIF»in.read«type.typeName»());''')»
+
+		«HashTableCommonGenerator.spliterator(type.shortName("UniqueSpliterator"), type.genericName("UniqueSpliterator"), type.diamondName("UniqueSpliterator"),
+			genericName, type.spliteratorGenericName, if (type.primitive) type.typeName + "Consumer" else "Consumer<? super A>",
+			type.iteratorGenericName, type.iteratorNext, "foreach(action::accept)")»
 	''' }
 }
\ No newline at end of file
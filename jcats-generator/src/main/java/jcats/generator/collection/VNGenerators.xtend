@@ -221,7 +221,11 @@ final class VNGenerators {
 					@Override
 					public «type.seqGenericName» to«type.seqShortName»() {
 						final «type.javaName»[] node1 = { «(1 .. arity).map["this.a" + it].join(", ")» };
-						return new «type.diamondName("Seq1")»(node1);
+						«IF type == Type.BOOLEAN»
+							return «type.seqShortName».seqFromSharedArray(node1);
+						«ELSE»
+							return new «type.diamondName("Seq1")»(node1);
+						«ENDIF»
 					}
 
 					@Override
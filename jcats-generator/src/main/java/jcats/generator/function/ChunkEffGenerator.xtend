@@ -0,0 +1,35 @@
+package jcats.generator.function
+
+import java.util.List
+import jcats.generator.Constants
+import jcats.generator.Generator
+import jcats.generator.InterfaceGenerator
+import jcats.generator.Type
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+
+@FinalFieldsConstructor
+class ChunkEffGenerator implements InterfaceGenerator {
+	val Type type
+
+	def static List<Generator> generators() {
+		Type.javaUnboxedTypes.toList.map[new ChunkEffGenerator(it) as Generator]
+	}
+
+	override className() { Constants.FUNCTION + "." + shortName }
+
+	def String shortName() { type.typeName + "ChunkEff" }
+
+	override sourceCode() { '''
+		package «Constants.FUNCTION»;
+
+		/**
+		 * Represents a side-effect of a range of a «type.javaName» array.
+		 * The array is shared with the container and must not be modified.
+		 */
+		@FunctionalInterface
+		public interface «shortName» {
+
+			void apply(«type.javaName»[] chunk, int fromIndexInclusive, int toIndexExclusive);
+		}
+	''' }
+}
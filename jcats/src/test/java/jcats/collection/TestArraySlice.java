@@ -0,0 +1,86 @@
+package jcats.collection;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class TestArraySlice {
+
+	@Test
+	public void random() {
+		final Random random = new Random(5);
+		final long[] values = random.longs(1000).toArray();
+		final LongArray array = LongArray.longArray(values);
+		final List<Long> list = Lists.newArrayList(array);
+		for (int k = 0; k < 100; k++) {
+			final int from = random.nextInt(values.length + 1);
+			final int to = from + random.nextInt(values.length - from + 1);
+			final List<Long> expected = list.subList(from, to);
+			final LongArraySlice slice = array.sliceView(from, to);
+			assertEquals(expected.size(), slice.size());
+			assertEquals(expected, slice.toArrayList());
+			assertEquals(expected, Lists.newArrayList(slice.iterator()));
+			assertEquals(expected, slice.stream().boxed().collect(Collectors.toList()));
+			final List<Long> reversed = new ArrayList<>(expected);
+			Collections.reverse(reversed);
+			assertEquals(reversed, Lists.newArrayList(slice.reverseIterator()));
+			assertEquals(expected.hashCode(), slice.hashCode());
+			assertEquals(array.slice(from, to), slice);
+			assertEquals(array.slice(from, to), slice.compact());
+			assertEquals(slice, slice.compact());
+
+			if (!expected.isEmpty()) {
+				final int index = random.nextInt(expected.size());
+				assertEquals(expected.get(index).longValue(), slice.get(index));
+				assertEquals(expected.subList(index, expected.size()), slice.skip(index).toArrayList());
+				assertEquals(expected.subList(0, index), slice.limit(index).toArrayList());
+				final int to2 = index + random.nextInt(expected.size() - index + 1);
+				assertEquals(expected.subList(index, to2), slice.slice(index, to2).compact().toArrayList());
+			}
+		}
+	}
+
+	@Test
+	public void pages() {
+		final Array<String> array = Array.tabulate(95, Integer::toString);
+		final List<String> pages = new ArrayList<>();
+		ArraySlice<String> rest = array.sliceView(0, array.size());
+		while (rest.isNotEmpty()) {
+			pages.add(rest.limit(10).toString());
+			rest = rest.skip(10);
+		}
+		assertEquals(10, pages.size());
+		assertEquals(Array.tabulate(5, i -> Integer.toString(90 + i)).toString(), pages.get(9));
+		assertEquals(array, array.sliceView(0, array.size()).compact());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void getOutOfBounds() {
+		IntArray.tabulate(10, i -> i).sliceView(2, 5).get(3);
+	}
+
+	@Test
+	public void serializesOnlySlicedElements() throws Exception {
+		final IntArray array = IntArray.tabulate(100000, i -> i);
+		final IntArraySlice slice = array.sliceView(500, 510);
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(slice);
+		}
+		assertTrue(bytes.size() < 1000);
+		try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertEquals(array.slice(500, 510), in.readObject());
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package jcats.collection;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static jcats.collection.BooleanArray.*;
+import static org.junit.Assert.*;
+
+public class TestBooleanArray {
+
+	private static List<Boolean> randomList(final Random random, final int size) {
+		final List<Boolean> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			list.add(random.nextBoolean());
+		}
+		return list;
+	}
+
+	private static void assertArrayEquals(final List<Boolean> expected, final BooleanArray array) {
+		assertEquals(expected.size(), array.size());
+		assertEquals(expected, array.toArrayList());
+		assertEquals(expected.hashCode(), array.hashCode());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i), array.get(i));
+		}
+	}
+
+	@Test
+	public void random() {
+		final Random random = new Random(3);
+		for (final int size : new int[] { 0, 1, 63, 64, 65, 127, 128, 129, 1000 }) {
+			final List<Boolean> list = randomList(random, size);
+			final BooleanArray array = BooleanArray.ofAll(list);
+			assertArrayEquals(list, array);
+			assertEquals(array, BooleanSeq.ofAll(list));
+			assertEquals(list, BooleanArray.ofAll(array.toBooleanSeq()).toArrayList());
+
+			final int countTrue = Collections.frequency(list, true);
+			assertEquals(countTrue, array.countTrue());
+			assertEquals(size - countTrue, array.countFalse());
+			assertEquals(list.contains(true), array.contains(true));
+			assertEquals(list.contains(false), array.contains(false));
+
+			final List<Boolean> asc = new ArrayList<>(list);
+			Collections.sort(asc);
+			assertArrayEquals(asc, array.sortAsc());
+			Collections.reverse(asc);
+			assertArrayEquals(asc, array.sortDesc());
+
+			final List<Boolean> reversed = new ArrayList<>(list);
+			Collections.reverse(reversed);
+			assertArrayEquals(reversed, array.reverse());
+			assertEquals(reversed, Lists.newArrayList(array.reverseIterator()));
+
+			final List<Boolean> appended = new ArrayList<>(list);
+			appended.add(true);
+			appended.add(0, true);
+			assertArrayEquals(appended, array.append(true).prepend(true));
+			assertArrayEquals(appended.subList(1, appended.size()), array.append(true));
+
+			for (int k = 0; k < 10 && size > 0; k++) {
+				final int index = random.nextInt(size);
+				final List<Boolean> changed = new ArrayList<>(list);
+				changed.set(index, !list.get(index));
+				assertArrayEquals(changed, array.set(index, !list.get(index)));
+				assertArrayEquals(list, array);
+				final List<Boolean> removed = new ArrayList<>(list);
+				removed.remove(index);
+				assertArrayEquals(removed, array.removeAt(index));
+				final int to = index + random.nextInt(size - index + 1);
+				assertArrayEquals(list.subList(index, to), array.slice(index, to));
+				assertArrayEquals(list.subList(0, index), array.limit(index));
+				assertArrayEquals(list.subList(index, size), array.skip(index));
+				assertArrayEquals(list.subList(index, to), array.sliceView(index, to).compact());
+				assertEquals(list.subList(index, to), array.sliceView(index, to).toArrayList());
+			}
+
+			assertArrayEquals(list.subList(0, 0), array.filter(b -> false));
+			final List<Boolean> trues = new ArrayList<>(Collections.nCopies(countTrue, true));
+			assertArrayEquals(trues, array.filter(b -> b));
+
+			final List<Boolean> concatenated = new ArrayList<>(list);
+			concatenated.addAll(appended);
+			concatenated.addAll(list);
+			assertArrayEquals(concatenated, concat(array, array.append(true).prepend(true), array));
+			assertArrayEquals(concatenated.subList(0, size + appended.size()), array.appendAll(array.append(true).prepend(true)));
+		}
+	}
+
+	@Test
+	public void repeatAndTabulate() {
+		for (final int size : new int[] { 1, 64, 100 }) {
+			assertArrayEquals(Collections.nCopies(size, true), repeat(size, true));
+			assertArrayEquals(Collections.nCopies(size, false), repeat(size, false));
+			assertEquals(size / 3 + ((size % 3 == 0) ? 0 : 1), tabulate(size, i -> i % 3 == 0).countTrue());
+		}
+		assertSame(emptyBooleanArray(), repeat(0, true));
+	}
+}
@@ -0,0 +1,220 @@
+package jcats.collection;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static jcats.collection.BooleanSeq.*;
+import static org.junit.Assert.*;
+
+public class TestBooleanSeq {
+
+	private static final int[] SIZES = { 0, 1, 63, 64, 65, 127, 128, 129, 1000, 5000 };
+
+	private static List<Boolean> randomList(final Random random, final int size) {
+		final List<Boolean> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			list.add(random.nextBoolean());
+		}
+		return list;
+	}
+
+	private static void assertSeqEquals(final List<Boolean> expected, final BooleanSeq seq) {
+		assertEquals(expected.size(), seq.size());
+		assertEquals(expected, seq.toArrayList());
+		assertEquals(expected.hashCode(), seq.hashCode());
+		assertEquals(BooleanArray.ofAll(expected), seq.toBooleanArray());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i), seq.get(i));
+		}
+	}
+
+	@Test
+	public void random() {
+		final Random random = new Random(5);
+		for (final int size : SIZES) {
+			final List<Boolean> list = randomList(random, size);
+			final BooleanSeq seq = BooleanSeq.ofAll(list);
+			assertSeqEquals(list, seq);
+			assertEquals(seq, BooleanArray.ofAll(list).toBooleanSeq());
+			assertEquals(seq, seq.toBooleanArray().toBooleanSeq());
+
+			final int countTrue = Collections.frequency(list, true);
+			assertEquals(countTrue, seq.countTrue());
+			assertEquals(size - countTrue, seq.countFalse());
+			assertEquals(list.contains(true), seq.contains(true));
+			assertEquals(list.contains(false), seq.contains(false));
+
+			final List<Boolean> asc = new ArrayList<>(list);
+			Collections.sort(asc);
+			assertSeqEquals(asc, seq.sortAsc());
+			Collections.reverse(asc);
+			assertSeqEquals(asc, seq.sortDesc());
+
+			final List<Boolean> reversed = new ArrayList<>(list);
+			Collections.reverse(reversed);
+			assertSeqEquals(reversed, seq.reverse());
+			assertEquals(reversed, Lists.newArrayList(seq.reverseIterator()));
+
+			for (int k = 0; k < 10 && size > 0; k++) {
+				final int index = random.nextInt(size);
+				final List<Boolean> changed = new ArrayList<>(list);
+				changed.set(index, !list.get(index));
+				assertSeqEquals(changed, seq.set(index, !list.get(index)));
+				assertSeqEquals(list, seq);
+				final List<Boolean> inserted = new ArrayList<>(list);
+				inserted.add(index, true);
+				assertSeqEquals(inserted, seq.insertAt(index, true));
+				final List<Boolean> removed = new ArrayList<>(list);
+				removed.remove(index);
+				assertSeqEquals(removed, seq.removeAt(index));
+
+				// Slices start at any bit of a word, so their concatenation has to realign the words
+				final int to = index + random.nextInt(size - index + 1);
+				final BooleanSeq slice = seq.slice(index, to);
+				assertSeqEquals(list.subList(index, to), slice);
+				assertSeqEquals(list.subList(0, index), seq.limit(index));
+				assertSeqEquals(list.subList(index, size), seq.skip(index));
+				assertEquals(BooleanSeq.ofAll(list.subList(index, to)), slice);
+				final List<Boolean> reversedSlice = new ArrayList<>(list.subList(index, to));
+				Collections.reverse(reversedSlice);
+				assertSeqEquals(reversedSlice, slice.reverse());
+				final List<Boolean> concatenated = new ArrayList<>(list.subList(index, to));
+				concatenated.addAll(list);
+				concatenated.addAll(list.subList(index, to));
+				assertSeqEquals(concatenated, concat(slice, seq, slice));
+				assertSeqEquals(concatenated.subList(0, to - index + size), slice.appendAll(seq));
+				assertSeqEquals(concatenated.subList(to - index, concatenated.size()), slice.prependAll(seq));
+
+				final List<Boolean> appended = new ArrayList<>(list.subList(index, to));
+				appended.add(0, false);
+				appended.add(true);
+				assertSeqEquals(appended, slice.prepend(false).append(true));
+				assertSeqEquals(appended.subList(1, appended.size() - 1), slice.prepend(false).append(true).tail().init());
+			}
+		}
+	}
+
+	@Test
+	public void appendAndPrepend() {
+		final Random random = new Random(7);
+		final List<Boolean> list = new ArrayList<>();
+		BooleanSeq seq = emptyBooleanSeq();
+		for (int i = 0; i < 3000; i++) {
+			final boolean value = random.nextBoolean();
+			if (random.nextBoolean()) {
+				list.add(value);
+				seq = seq.append(value);
+			} else {
+				list.add(0, value);
+				seq = seq.prepend(value);
+			}
+		}
+		assertSeqEquals(list, seq);
+		assertEquals(BooleanSeq.ofAll(list), seq);
+		while (!list.isEmpty()) {
+			list.remove(list.size() - 1);
+			seq = seq.init();
+			if (!list.isEmpty()) {
+				list.remove(0);
+				seq = seq.tail();
+			}
+		}
+		assertSeqEquals(list, seq);
+	}
+
+	@Test
+	public void repeatAndTabulate() {
+		for (final int size : SIZES) {
+			assertSeqEquals(Collections.nCopies(size, true), repeat(size, true));
+			assertSeqEquals(Collections.nCopies(size, false), repeat(size, false));
+			assertEquals(size / 3 + ((size % 3 == 0) ? 0 : 1), tabulate(size, i -> i % 3 == 0).countTrue());
+		}
+		assertSame(emptyBooleanSeq(), repeat(0, true));
+	}
+
+	@Test
+	public void builder() {
+		final Random random = new Random(11);
+		for (final int size : SIZES) {
+			final List<Boolean> list = randomList(random, size);
+			final BooleanSeqBuilder builder = BooleanSeq.builder();
+			list.forEach(builder::append);
+			assertSeqEquals(list, builder.build());
+
+			// Builder that continues a seq whose words start in the middle of a word
+			final BooleanSeq prefix = BooleanSeq.ofAll(list).skip(size / 3);
+			final List<Boolean> appended = new ArrayList<>(list.subList(size / 3, size));
+			appended.addAll(list);
+			final BooleanSeqBuilder prefixBuilder = new BooleanSeqBuilder(prefix);
+			list.forEach(prefixBuilder::append);
+			assertSeqEquals(appended, prefixBuilder.build());
+		}
+	}
+
+	@Test
+	public void transientSeq() {
+		final Random random = new Random(13);
+		for (final int size : SIZES) {
+			final List<Boolean> list = randomList(random, size);
+			final BooleanSeq seq = BooleanSeq.ofAll(list).prepend(true).tail();
+			final List<Boolean> expected = new ArrayList<>(list);
+			final BooleanTransientSeq transientSeq = seq.toTransient();
+			for (int k = 0; k < 200; k++) {
+				final int action = random.nextInt(6);
+				final boolean value = random.nextBoolean();
+				if (action < 2 && !expected.isEmpty()) {
+					final int index = random.nextInt(expected.size());
+					expected.set(index, value);
+					transientSeq.set(index, value);
+				} else if (action == 2) {
+					expected.add(value);
+					transientSeq.append(value);
+				} else if (action == 3) {
+					expected.add(0, value);
+					transientSeq.prepend(value);
+				} else if (action == 4 && !expected.isEmpty()) {
+					expected.remove(expected.size() - 1);
+					transientSeq.init();
+				} else if (action == 5 && !expected.isEmpty()) {
+					expected.remove(0);
+					transientSeq.tail();
+				}
+				assertEquals(expected.size(), transientSeq.size());
+				if (!expected.isEmpty()) {
+					final int index = random.nextInt(expected.size());
+					assertEquals(expected.get(index), transientSeq.get(index));
+				}
+			}
+			assertSeqEquals(expected, transientSeq.persistent());
+			assertSeqEquals(list, seq);
+		}
+	}
+
+	@Test
+	public void cursor() {
+		final Random random = new Random(17);
+		for (final int size : SIZES) {
+			if (size == 0) {
+				continue;
+			}
+			final List<Boolean> list = randomList(random, size);
+			final BooleanSeq seq = BooleanSeq.ofAll(list).prepend(false).tail();
+			final List<Boolean> expected = new ArrayList<>(list);
+			final BooleanSeqCursor cursor = seq.cursor();
+			for (int k = 0; k < 500; k++) {
+				final int index = random.nextInt(size);
+				assertEquals(expected.get(index), cursor.get(index));
+				final boolean value = random.nextBoolean();
+				expected.set(index, value);
+				cursor.set(index, value);
+			}
+			assertSeqEquals(expected, cursor.toSeq());
+			assertSeqEquals(list, seq);
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package jcats.collection;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static jcats.collection.Deque.*;
+import static org.junit.Assert.*;
+
+public class TestDeque {
+
+	private static <A> void assertDequeEquals(final java.util.Deque<A> expected, final Deque<A> deque) {
+		final List<A> list = new ArrayList<>(expected);
+		assertEquals(list.size(), deque.size());
+		assertEquals(list, deque.toArrayList());
+		assertEquals(list, Lists.newArrayList(deque.iterator()));
+		final List<A> fromForeach = new ArrayList<>();
+		deque.foreach(fromForeach::add);
+		assertEquals(list, fromForeach);
+		final List<A> prefix = new ArrayList<>();
+		assertEquals(list.isEmpty(), deque.foreachUntil(value -> prefix.size() < list.size() / 2 && prefix.add(value)));
+		assertEquals(list.subList(0, list.size() / 2), prefix);
+		Collections.reverse(list);
+		assertEquals(list, Lists.newArrayList(deque.reverseIterator()));
+		assertEquals(new ArrayList<>(expected).hashCode(), deque.hashCode());
+		if (!expected.isEmpty()) {
+			assertEquals(expected.getFirst(), deque.first());
+			assertEquals(expected.getLast(), deque.last());
+		}
+	}
+
+	@Test
+	public void random() {
+		final Random random = new Random(13);
+		final java.util.Deque<Integer> expected = new ArrayDeque<>();
+		Deque<Integer> deque = emptyDeque();
+		for (int i = 0; i < 5000; i++) {
+			switch (random.nextInt(4)) {
+				case 0:
+					expected.addFirst(i);
+					deque = deque.prepend(i);
+					break;
+				case 1:
+					expected.addLast(i);
+					deque = deque.append(i);
+					break;
+				case 2:
+					if (!expected.isEmpty()) {
+						expected.removeFirst();
+						deque = deque.tail();
+					}
+					break;
+				default:
+					if (!expected.isEmpty()) {
+						expected.removeLast();
+						deque = deque.init();
+					}
+					break;
+			}
+			if (i % 100 == 0) {
+				assertDequeEquals(expected, deque);
+			}
+		}
+		assertDequeEquals(expected, deque);
+		assertEquals(Deque.ofAll(expected), deque);
+
+		final List<Integer> reversed = new ArrayList<>(expected);
+		Collections.reverse(reversed);
+		assertEquals(reversed, deque.reverse().toArrayList());
+
+		final List<Integer> concatenated = new ArrayList<>(expected);
+		concatenated.addAll(reversed);
+		assertEquals(concatenated, deque.concat(deque.reverse()).toArrayList());
+		assertEquals(concatenated, deque.appendAll(reversed).toArrayList());
+		assertEquals(concatenated, deque.reverse().prependAll(expected).toArrayList());
+	}
+
+	@Test
+	public void queue() {
+		Deque<Integer> queue = emptyDeque();
+		for (int i = 0; i < 100; i++) {
+			queue = queue.append(i);
+		}
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i, queue.first().intValue());
+			assertEquals(99, queue.last().intValue());
+			queue = queue.tail();
+		}
+		assertTrue(queue.isEmpty());
+		assertSame(emptyDeque(), queue);
+	}
+
+	@Test
+	public void primitive() {
+		final IntDeque deque = IntDeque.intDeque(1, 2, 3, 4, 5).prepend(0).append(6);
+		assertEquals(7, deque.size());
+		assertEquals(0, deque.first());
+		assertEquals(6, deque.last());
+		assertEquals(IntDeque.intDeque(1, 2, 3, 4, 5), deque.tail().init());
+		assertEquals(IntDeque.intDeque(0, 2, 4, 6), deque.filter(i -> i % 2 == 0));
+		assertEquals(LongDeque.longDeque(0, 10, 20, 30, 40, 50, 60), deque.mapToLong(i -> 10L * i));
+		assertEquals(Deque.deque("0", "1", "2", "3", "4", "5", "6"), deque.map(Integer::toString));
+	}
+
+	@Test
+	public void persistence() {
+		// Every version is reused, so rotations suspended in one version are forced from the others
+		final Random random = new Random(17);
+		final List<java.util.Deque<Integer>> expectedVersions = new ArrayList<>();
+		final List<Deque<Integer>> versions = new ArrayList<>();
+		expectedVersions.add(new ArrayDeque<>());
+		versions.add(emptyDeque());
+		for (int i = 0; i < 3000; i++) {
+			final int index = random.nextInt(versions.size());
+			final java.util.Deque<Integer> expected = new ArrayDeque<>(expectedVersions.get(index));
+			Deque<Integer> deque = versions.get(index);
+			for (int k = 0; k < 10; k++) {
+				switch (random.nextInt(5)) {
+					case 0:
+						expected.addFirst(i);
+						deque = deque.prepend(i);
+						break;
+					case 1:
+					case 2:
+						expected.addLast(i);
+						deque = deque.append(i);
+						break;
+					case 3:
+						if (!expected.isEmpty()) {
+							expected.removeFirst();
+							deque = deque.tail();
+						}
+						break;
+					default:
+						if (!expected.isEmpty()) {
+							expected.removeLast();
+							deque = deque.init();
+						}
+						break;
+				}
+			}
+			expectedVersions.add(expected);
+			versions.add(deque);
+		}
+		for (int i = 0; i < versions.size(); i++) {
+			assertDequeEquals(expectedVersions.get(i), versions.get(i));
+		}
+	}
+
+	@Test
+	public void serialization() throws IOException, ClassNotFoundException {
+		final Deque<Integer> deque = Deque.deque(1, 2, 3, 4, 5).prepend(0).append(6).tail();
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(deque);
+			out.writeObject(IntDeque.intDeque(1, 2, 3));
+			out.writeObject(emptyDeque());
+		}
+		try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertEquals(deque, in.readObject());
+			assertEquals(IntDeque.intDeque(1, 2, 3), in.readObject());
+			assertSame(emptyDeque(), in.readObject());
+		}
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void emptyTail() {
+		emptyDeque().tail();
+	}
+}
@@ -6,9 +6,15 @@ import jcats.P;
 import jcats.function.F;
 import org.junit.Test;
 
-import java.util.Iterator;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import static jcats.Option.none;
 import static jcats.Option.some;
@@ -16,6 +22,7 @@ import static jcats.P.p;
 import static jcats.collection.Dict.*;
 import static jcats.function.F.id;
 import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
 
 
 public class TestDict {
@@ -249,11 +256,10 @@ public class TestDict {
 		final P<String, Integer> entry3 = p("Aa", 3);
 		final P<String, Integer> entry4 = p("BB", 4);
 		dict = dict.putEntry(entry1).putEntry(entry2).putEntry(entry3).putEntry(entry4);
-		final Iterator<P<String, Integer>> iterator = dict.iterator();
-		assertSame(entry4, iterator.next());
-		assertSame(entry3, iterator.next());
-		assertSame(entry1, iterator.next());
-		assertSame(entry2, iterator.next());
+		// Entries are stored as inline key/value pairs, so iteration returns equal but not the same entries
+		assertEquals(ImmutableSet.of(entry1, entry2, entry3, entry4), Sets.newHashSet(dict));
+		assertEquals(some(3), dict.get("Aa"));
+		assertEquals(some(4), dict.get("BB"));
 	}
 
 	@Test
@@ -304,6 +310,31 @@ public class TestDict {
 		assertEquals(dict8, dict7.updateValueOrPut("AaBB", 0, f));
 	}
 
+	@Test
+	public void builderDoesNotChangeBuiltInstances() {
+		final DictBuilder<Integer, Integer> builder = builder();
+		for (int i = 0; i < 1000; i++) {
+			builder.put(i, i);
+		}
+		final Dict<Integer, Integer> dict1 = builder.build();
+		for (int i = 0; i < 2000; i++) {
+			builder.put(i, -i);
+		}
+		final Dict<Integer, Integer> dict2 = builder.build();
+		assertEquals(1000, dict1.size());
+		assertEquals(2000, dict2.size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i, dict1.getOrNull(i).intValue());
+			assertEquals(-i, dict2.getOrNull(i).intValue());
+		}
+
+		Dict<Integer, Integer> expected = emptyDict();
+		for (int i = 0; i < 2000; i++) {
+			expected = expected.put(i, -i);
+		}
+		assertEquals(expected, dict2);
+	}
+
 	@Test
 	public void random() {
 		final Random random = new Random();
@@ -319,4 +350,229 @@ public class TestDict {
 		}
 		assertTrue(dict.isEmpty());
 	}
+
+	@Test
+	public void randomWithCollisions() {
+		final long seed = System.currentTimeMillis();
+		final Random random = new Random(seed);
+		// "Aa" and "BB" have equal hash codes, so keys made of them collide in groups
+		final String[] parts = { "Aa", "BB", "a", "b", "c" };
+		Dict<String, Integer> dict = emptyDict();
+		final Map<String, Integer> map = new HashMap<>();
+		for (int i = 0; i < 5000; i++) {
+			final String key = parts[random.nextInt(parts.length)] + parts[random.nextInt(parts.length)] + parts[random.nextInt(parts.length)];
+			final int op = random.nextInt(3);
+			if (op == 0) {
+				dict = dict.remove(key);
+				map.remove(key);
+			} else if (op == 1) {
+				dict = dict.updateValueOrPut(key, 0, v -> v + 1);
+				map.merge(key, 0, (v1, v2) -> v1 + 1);
+			} else {
+				dict = dict.put(key, i);
+				map.put(key, i);
+			}
+			assertEquals("Seed " + seed, map.size(), dict.size());
+		}
+		for (final String key : map.keySet()) {
+			assertEquals("Seed " + seed, map.get(key), dict.getOrNull(key));
+		}
+		final Map<String, Integer> iterated = new HashMap<>();
+		dict.forEach(entry -> assertNull(iterated.put(entry.get1(), entry.get2())));
+		assertEquals("Seed " + seed, map, iterated);
+		final Map<String, Integer> traversed = new HashMap<>();
+		dict.foreach((key, value) -> assertNull(traversed.put(key, value)));
+		assertEquals("Seed " + seed, map, traversed);
+		assertEquals("Seed " + seed, map.size(), Sets.newHashSet(dict).size());
+		assertEquals(Dict.fromMap(map), dict);
+	}
+
+	@Test
+	public void hashTableStatistics() {
+		final Dict<String, Integer> dict = dict("a", 1, "Aa", 2, "BB", 3, "AaAa", 4, "BBBB", 5, "AaBB", 6);
+		final HashTableStatistics statistics = dict.hashTableStatistics();
+		assertEquals(6, statistics.size());
+		assertEquals(2, statistics.collisions());
+		assertEquals(5, statistics.collidingEntries());
+		assertEquals(3, statistics.maxCollisionLength());
+		assertTrue(statistics.maxDepth() >= 1);
+	}
+
+	@Test
+	public void setOperations() {
+		final long seed = System.currentTimeMillis();
+		final Random random = new Random(seed);
+		// "Aa" and "BB" have equal hash codes, so keys made of them collide in groups
+		final String[] parts = { "Aa", "BB", "a", "b", "c", "d" };
+		for (int n = 0; n < 50; n++) {
+			final Map<String, Integer> map1 = new HashMap<>();
+			final Map<String, Integer> map2 = new HashMap<>();
+			final int size = random.nextInt(300);
+			for (int i = 0; i < size; i++) {
+				final String key = parts[random.nextInt(parts.length)] + parts[random.nextInt(parts.length)] + parts[random.nextInt(parts.length)];
+				if (random.nextBoolean()) {
+					map1.put(key, i);
+				} else {
+					map2.put(key, -i);
+				}
+			}
+			final Dict<String, Integer> dict1 = Dict.fromMap(map1);
+			final Dict<String, Integer> dict2 = Dict.fromMap(map2);
+
+			final Map<String, Integer> union = new HashMap<>(map2);
+			union.putAll(map1);
+			final Map<String, Integer> intersection = new HashMap<>(map1);
+			intersection.keySet().retainAll(map2.keySet());
+			final Map<String, Integer> difference = new HashMap<>(map1);
+			difference.keySet().removeAll(map2.keySet());
+			final Map<String, Integer> symmetricDifference = new HashMap<>(union);
+			symmetricDifference.keySet().removeAll(intersection.keySet());
+
+			assertEquals("Seed " + seed, Dict.fromMap(union), dict1.union(dict2));
+			assertEquals("Seed " + seed, Dict.fromMap(intersection), dict1.intersect(dict2));
+			assertEquals("Seed " + seed, Dict.fromMap(difference), dict1.difference(dict2));
+			assertEquals("Seed " + seed, Dict.fromMap(symmetricDifference), dict1.symmetricDifference(dict2));
+			assertEquals("Seed " + seed, map2.keySet().containsAll(map1.keySet()), dict1.isSubsetOf(dict2));
+			assertEquals("Seed " + seed, intersection.isEmpty(), dict1.isDisjointWith(dict2));
+		}
+	}
+
+	@Test
+	public void setOperationsPreferValuesOfThisDict() {
+		Dict<Integer, String> large = emptyDict();
+		for (int i = 0; i < 1000; i++) {
+			large = large.put(i, "large");
+		}
+		final Dict<Integer, String> small = dict(1, "small", 2, "small", 5000, "small");
+		final Dict<Integer, String> union = small.union(large);
+		assertEquals(1001, union.size());
+		assertEquals("small", union.getOrNull(1));
+		assertEquals("large", union.getOrNull(3));
+		assertEquals("large", large.union(small).getOrNull(1));
+		assertEquals(dict(1, "small", 2, "small"), small.intersect(large));
+		assertEquals(dict(5000, "small"), small.difference(large));
+		assertSame(large, large.union(large.remove(3)));
+		assertSame(large, large.intersect(large));
+		assertTrue(small.remove(5000).isSubsetOf(large));
+		assertTrue(dict(5000, 0).isDisjointWith(large));
+	}
+
+	@Test
+	public void fromArrayParallel() {
+		final Random random = new Random();
+		final P<Integer, Integer>[] entries = new P[100000];
+		final Map<Integer, Integer> map = new HashMap<>();
+		for (int i = 0; i < entries.length; i++) {
+			entries[i] = p(random.nextInt(30000), i);
+			map.put(entries[i].get1(), i);
+		}
+		final Dict<Integer, Integer> dict = Dict.fromArrayParallel(entries);
+		assertEquals(Dict.fromMap(map), dict);
+		assertEquals(ofEntries(entries), dict);
+		assertEquals(dict, Dict.fromStream(Stream.of(entries).parallel()));
+		assertEquals(dict(1, 2), Dict.fromArrayParallel(new P[] { p(1, 1), p(1, 2) }));
+	}
+
+	@Test
+	public void parallelStream() {
+		Dict<String, Integer> dict = emptyDict();
+		for (int i = 0; i < 10000; i++) {
+			dict = dict.put(((i % 5 == 0) ? "Aa" : "BB") + i, i);
+		}
+		final Map<String, Integer> map = new HashMap<>();
+		dict.parallelStream().forEachOrdered(entry -> assertNull(map.put(entry.get1(), entry.get2())));
+		assertEquals(dict, Dict.fromMap(map));
+		assertEquals(10000L * 9999 / 2, dict.parallelStream().mapToLong(P::get2).sum());
+		assertEquals(dict.size(), dict.spliterator().getExactSizeIfKnown());
+	}
+
+	@Test
+	public void equalDictsAreComparedWithoutHashing() {
+		final HashCounter counter = new HashCounter();
+		Dict<Key, Integer> dict1 = emptyDict();
+		Dict<Key, Integer> dict2 = emptyDict();
+		for (int i = 0; i < 1000; i++) {
+			dict1 = dict1.put(new Key(i % 300, counter), i);
+			dict2 = dict2.put(new Key(i % 300, counter), i);
+		}
+		counter.calls = 0;
+		assertEquals(dict1, dict2);
+		assertEquals(0, counter.calls);
+		assertNotEquals(dict1, dict2.put(new Key(0, counter), -1));
+		assertEquals(dict1, dict2.remove(new Key(1, counter)).union(dict1));
+	}
+
+	@Test
+	public void cachedHashesAreNotRecomputed() {
+		assumeTrue(HashTableCommon.CACHE_HASHES);
+		final HashCounter counter = new HashCounter();
+		final DictBuilder<Key, Integer> builder = builder();
+		Dict<Key, Integer> dict = emptyDict();
+		for (int i = 0; i < 1000; i++) {
+			dict = dict.put(new Key(i, counter), i);
+			builder.put(new Key(i, counter), i);
+		}
+		for (int i = 0; i < 1000; i += 2) {
+			dict = dict.remove(new Key(i, counter));
+		}
+		// Every key is hashed once when it is inserted or removed
+		assertEquals(2500, counter.calls);
+		final Dict<Key, Integer> built = builder.build();
+		for (int i = 0; i < 1000; i++) {
+			assertEquals((i % 2 == 0) ? null : i, dict.getOrNull(new Key(i, counter)));
+			assertEquals(i, built.getOrNull(new Key(i, counter)).intValue());
+		}
+	}
+
+	private static final class HashCounter {
+		int calls;
+	}
+
+	private static final class Key {
+		private final int value;
+		private final HashCounter counter;
+
+		Key(final int value, final HashCounter counter) {
+			this.value = value;
+			this.counter = counter;
+		}
+
+		@Override
+		public int hashCode() {
+			this.counter.calls++;
+			// Every 100th key collides with another one
+			return (this.value % 100 == 0) ? 0 : this.value;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			return obj instanceof Key && ((Key) obj).value == this.value;
+		}
+	}
+
+	@Test
+	public void serialization() throws Exception {
+		Dict<String, Integer> dict = emptyDict();
+		for (int i = 0; i < LARGE_MAP_SIZE; i++) {
+			dict = dict.put(Integer.toString(i), i);
+		}
+		// "Aa" and "BB" have the same hash code
+		dict = dict.put("Aa", -1).put("BB", -2);
+		final Dict<String, Integer> copy = (Dict<String, Integer>) roundTrip(dict);
+		assertEquals(dict, copy);
+		assertEquals(-2, copy.getOrNull("BB").intValue());
+		assertEquals(dict.remove("Aa"), copy.remove("Aa"));
+		assertSame(emptyDict(), roundTrip(emptyDict()));
+	}
+
+	private static Object roundTrip(final Object object) throws Exception {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(object);
+		}
+		try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return in.readObject();
+		}
+	}
+
 }
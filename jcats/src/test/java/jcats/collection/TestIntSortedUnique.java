@@ -3,6 +3,7 @@ package jcats.collection;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
+import jcats.IntOption;
 import org.junit.Test;
 
 import java.util.List;
@@ -176,6 +177,28 @@ public class TestIntSortedUnique {
 		assertTrue(unique.contains('D'));
 	}
 
+	@Test
+	public void navigation() {
+		final IntSortedUnique unique = intSortedUnique(10, 20, 30);
+		assertEquals(IntOption.intSome(20), unique.floor(25));
+		assertEquals(IntOption.intSome(20), unique.floor(20));
+		assertEquals(IntOption.intNone(), unique.floor(5));
+		assertEquals(IntOption.intSome(30), unique.ceiling(25));
+		assertEquals(IntOption.intNone(), unique.ceiling(31));
+		assertEquals(IntOption.intSome(10), unique.lower(20));
+		assertEquals(IntOption.intNone(), unique.lower(10));
+		assertEquals(IntOption.intSome(30), unique.higher(20));
+		assertEquals(IntOption.intNone(), unique.higher(30));
+	}
+
+	@Test
+	public void ofSorted() {
+		final IntSortedUnique unique = IntSortedUnique.ofSorted(IntArray.intArray(1, 2, 2, 5, 8, 13, 21));
+		unique.checkHeight();
+		assertUniqueEquals("", new TreeSet<>(ImmutableList.of(1, 2, 5, 8, 13, 21)), unique);
+		assertUniqueEquals("", new TreeSet<>(ImmutableList.of(1, 2, 5, 8, 13, 21)).descendingSet(), unique.reverse());
+	}
+
 	private static IntSortedUnique createTestIntSortedUnique() {
 		IntSortedUnique unique = intSortedUnique('E', 'A', 'R', 'S', 'C', 'H', 'X', 'M', 'P', 'J', 'D', 'L');
 
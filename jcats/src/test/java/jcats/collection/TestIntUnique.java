@@ -2,9 +2,11 @@ package jcats.collection;
 
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Random;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import static jcats.collection.IntUnique.*;
 import static org.junit.Assert.*;
@@ -38,4 +40,31 @@ public class TestIntUnique {
 		}
 		assertTrue(unique.isEmpty());
 	}
+
+	@Test
+	public void fromArrayParallel() {
+		final Random random = new Random();
+		final int[] values = new int[100000];
+		final Set<Integer> set = new HashSet<>();
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextInt(50000) * 32;
+			set.add(values[i]);
+		}
+		final IntUnique unique = IntUnique.fromArrayParallel(values);
+		assertEquals(set.size(), unique.size());
+		assertEquals(set, unique.toHashSet());
+		assertEquals(intUnique(values), unique);
+		assertEquals(unique, ofAllParallel(IntSeq.intSeq(values)));
+		assertEquals(unique, IntStream2.from(Arrays.stream(values)).parallel().toIntUnique());
+		assertEquals(intUnique(1, 2, 3), IntUnique.fromArrayParallel(new int[] { 3, 2, 1, 2 }));
+	}
+
+	@Test
+	public void parallelStream() {
+		final IntUnique unique = ofAllParallel(IntSeq.ofAll(() -> IntStream.range(0, 100000).iterator()));
+		assertEquals(100000, unique.parallelStream().count());
+		assertEquals(100000L * 99999 / 2, unique.parallelStream().mapToLong(i -> i).sum());
+		assertEquals(unique, unique.parallelStream().toIntUnique());
+		assertNull(intUnique(1).spliterator().trySplit());
+	}
 }
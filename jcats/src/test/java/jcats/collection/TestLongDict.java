@@ -0,0 +1,200 @@
+package jcats.collection;
+
+import com.google.common.collect.Iterators;
+import jcats.LongObjectP;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static jcats.LongObjectP.longObjectP;
+import static jcats.LongOrd.longDesc;
+import static jcats.collection.LongDict.emptyLongDict;
+import static jcats.collection.LongDict.longDict;
+import static jcats.collection.LongSortedDict.emptyLongSortedDict;
+import static jcats.collection.LongSortedDict.emptyLongSortedDictBy;
+import static org.junit.Assert.*;
+
+public class TestLongDict {
+
+	@Test
+	public void hashCodeClashGet() {
+		final long a = 3, b = 0x3_0000_0000L;
+		final LongDict<String> dict = longDict(a, "a").put(b, "b");
+		assertEquals("a", dict.getOrNull(a));
+		assertEquals("b", dict.getOrNull(b));
+		assertNull(dict.getOrNull(17));
+		assertEquals("a", dict.remove(b).getOrNull(a));
+		assertFalse(dict.remove(b).containsKey(b));
+	}
+
+	@Test
+	public void putRandom() {
+		LongDict<Integer> dict = emptyLongDict();
+		LongSortedDict<Integer> sortedDict = emptyLongSortedDict();
+		final Map<Long, Integer> map = new HashMap<>();
+
+		final long seed = System.currentTimeMillis();
+		final Random random = new Random(seed);
+		final int size = 1000;
+
+		for (int i = 0; i < size; i++) {
+			final long key = random.nextInt(size) * 0x1_0000_0001L;
+			if (random.nextInt(4) == 0) {
+				dict = dict.remove(key);
+				sortedDict = sortedDict.remove(key);
+				map.remove(key);
+			} else {
+				dict = dict.put(key, i);
+				sortedDict = sortedDict.put(key, i);
+				map.put(key, i);
+			}
+		}
+
+		assertEquals("Seed " + seed, map.size(), dict.size());
+		assertEquals("Seed " + seed, map.size(), sortedDict.size());
+		sortedDict.checkHeight();
+		for (final Entry<Long, Integer> entry : map.entrySet()) {
+			assertEquals("Seed " + seed, entry.getValue(), dict.getOrNull(entry.getKey()));
+			assertEquals("Seed " + seed, entry.getValue(), sortedDict.getOrNull(entry.getKey()));
+		}
+		assertEquals(sortedDict.toLongDict(), dict);
+		assertEquals(sortedDict.hashCode(), dict.hashCode());
+		assertEquals(Dict.fromMap(map), dict.toDict());
+	}
+
+	@Test
+	public void putRemoveDistinctHashes() {
+		LongDict<Long> dict = emptyLongDict();
+		final Map<Long, Long> map = new HashMap<>();
+
+		final long seed = System.currentTimeMillis();
+		final Random random = new Random(seed);
+		final int size = 10000;
+
+		for (int i = 0; i < size; i++) {
+			final long key = random.nextInt(size);
+			if (random.nextInt(4) == 0) {
+				dict = dict.remove(key);
+				map.remove(key);
+			} else {
+				dict = dict.put(key, (long) i);
+				map.put(key, (long) i);
+			}
+		}
+
+		assertEquals("Seed " + seed, map.size(), dict.size());
+		final Map<Long, Long> iterated = new HashMap<>();
+		for (final LongObjectP<Long> entry : dict) {
+			assertNull("Seed " + seed, iterated.put(entry.get1(), entry.get2()));
+		}
+		assertEquals("Seed " + seed, map, iterated);
+		final Map<Long, Long> visited = new HashMap<>();
+		dict.foreach(visited::put);
+		assertEquals("Seed " + seed, map, visited);
+		assertEquals("Seed " + seed, map.get(dict.first().get1()), dict.first().get2());
+
+		final LongDict<Long> updated = dict.updateValue(dict.first().get1(), value -> value + 1);
+		assertEquals("Seed " + seed, dict.first().get2() + 1, (long) updated.getOrNull(dict.first().get1()));
+		assertEquals("Seed " + seed, map.get(dict.first().get1()), dict.getOrNull(dict.first().get1()));
+
+		for (final long key : map.keySet()) {
+			dict = dict.remove(key);
+		}
+		assertTrue("Seed " + seed, dict.isEmpty());
+	}
+
+	@Test
+	public void sortedIterator() {
+		final TreeMap<Long, String> map = new TreeMap<>();
+		LongSortedDict<String> dict = emptyLongSortedDict();
+		for (long i = 20; i > -20; i -= 3) {
+			dict = dict.put(i, Long.toString(i));
+			map.put(i, Long.toString(i));
+		}
+		assertTrue(Iterators.elementsEqual(map.keySet().iterator(), Iterators.transform(dict.iterator(), LongObjectP::get1)));
+		assertTrue(Iterators.elementsEqual(map.descendingKeySet().iterator(), Iterators.transform(dict.reverseIterator(), LongObjectP::get1)));
+		assertEquals(map.firstKey().longValue(), dict.first().get1());
+		assertEquals(map.lastKey().longValue(), dict.last().get1());
+		assertEquals(dict.size() - 1, dict.tail().size());
+	}
+
+	@Test
+	public void sortedByDescendingOrder() {
+		final LongSortedDict<String> dict = LongSortedDict.<String> emptyLongSortedDictBy(longDesc())
+				.put(1, "1").put(3, "3").put(2, "2");
+		final Iterator<LongObjectP<String>> iterator = dict.iterator();
+		assertEquals(longObjectP(3L, "3"), iterator.next());
+		assertEquals(longObjectP(2L, "2"), iterator.next());
+		assertEquals(longObjectP(1L, "1"), iterator.next());
+		assertSame(emptyLongSortedDictBy(longDesc()), dict.remove(1).remove(2).remove(3));
+	}
+
+	@Test
+	public void updateValueOrPut() {
+		LongDict<Integer> dict = emptyLongDict();
+		LongSortedDict<Integer> sortedDict = emptyLongSortedDict();
+		for (int i = 0; i < 100; i++) {
+			dict = dict.updateValueOrPut(i % 10, 1, n -> n + 1);
+			sortedDict = sortedDict.updateValueOrPut(i % 10, 1, n -> n + 1);
+		}
+		for (long i = 0; i < 10; i++) {
+			assertEquals(10, dict.getOrNull(i).intValue());
+			assertEquals(10, sortedDict.getOrNull(i).intValue());
+		}
+	}
+
+	@Test
+	public void builderDoesNotChangeBuiltInstances() {
+		final LongDictBuilder<Integer> builder = LongDict.builder();
+		for (int i = 0; i < 100; i++) {
+			builder.put(i, i);
+		}
+		final LongDict<Integer> dict = builder.build();
+		for (int i = 0; i < 100; i++) {
+			builder.put(i, -i);
+		}
+		for (long i = 0; i < 100; i++) {
+			assertEquals(i, dict.getOrNull(i).longValue());
+		}
+	}
+
+	@Test
+	public void asKeyValue() {
+		final LongDict<String> dict = LongDict.ofEntries(longObjectP(1L, "a"), longObjectP(2L, "b"));
+		assertEquals("b", dict.asKeyValue().getOrNull(2L));
+		assertEquals(2, Iterators.size(dict.asKeyValue().iterator()));
+		assertEquals(dict.toDict().hashCode(), dict.asKeyValue().hashCode());
+	}
+
+	@Test
+	public void serialization() throws Exception {
+		LongDict<String> dict = emptyLongDict();
+		for (long i = 0; i < 1000; i++) {
+			dict = dict.put(i << 32, Long.toString(i));
+		}
+		final LongDict<String> copy = (LongDict<String>) roundTrip(dict);
+		assertEquals(dict, copy);
+		assertEquals("7", copy.getOrNull(7L << 32));
+		assertSame(emptyLongDict(), roundTrip(emptyLongDict()));
+	}
+
+	private static Object roundTrip(final Object object) throws Exception {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(object);
+		}
+		try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return in.readObject();
+		}
+	}
+
+}
@@ -0,0 +1,96 @@
+package jcats.collection;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static jcats.collection.LongStack.*;
+import static org.junit.Assert.*;
+
+public class TestLongStack {
+
+	private static void assertStackEquals(final List<Long> expected, final LongStack stack) {
+		assertEquals(expected.size(), stack.size());
+		assertEquals(expected, stack.toArrayList());
+		assertEquals(expected, Lists.newArrayList(stack.iterator()));
+		assertEquals(expected.hashCode(), stack.hashCode());
+		if (!expected.isEmpty()) {
+			assertEquals(expected.get(0).longValue(), stack.first());
+		}
+	}
+
+	@Test
+	public void prependAndTail() {
+		final Random random = new Random(11);
+		LongStack stack = emptyLongStack();
+		final List<Long> list = new ArrayList<>();
+		final List<LongStack> stacks = new ArrayList<>();
+		final List<List<Long>> lists = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			if (random.nextInt(4) == 0 && stack.isNotEmpty()) {
+				stack = stack.tail();
+				list.remove(0);
+			} else {
+				final long value = random.nextLong();
+				stack = stack.prepend(value);
+				list.add(0, value);
+			}
+			if (random.nextInt(10) == 0) {
+				stacks.add(stack);
+				lists.add(new ArrayList<>(list));
+				// Prepend to a shared node from another stack
+				final LongStack fork = stack.prepend(-1L);
+				assertEquals(-1L, fork.first());
+				assertEquals(stack, fork.tail());
+			}
+		}
+		assertStackEquals(list, stack);
+		for (int i = 0; i < stacks.size(); i++) {
+			assertStackEquals(lists.get(i), stacks.get(i));
+		}
+	}
+
+	@Test
+	public void operations() {
+		final Random random = new Random(12);
+		for (final int size : new int[] { 0, 1, 31, 32, 33, 100, 1000 }) {
+			final List<Long> list = new ArrayList<>();
+			for (int i = 0; i < size; i++) {
+				list.add((long) random.nextInt(100));
+			}
+			final LongStack stack = LongStack.ofAll(list);
+			assertStackEquals(list, stack);
+			assertEquals(stack, LongStack.longStack(list.stream().mapToLong(Long::longValue).toArray()));
+			assertEquals(stack, stack.prepend(7L).tail());
+
+			final List<Long> reversed = new ArrayList<>(list);
+			Collections.reverse(reversed);
+			assertStackEquals(reversed, stack.reverse());
+			assertEquals(reversed, Lists.newArrayList(stack.reverseIterator()));
+			assertEquals(reversed.subList(0, size / 2), Lists.newArrayList(stack.skip(size - size / 2).reverseIterator()));
+
+			for (final int n : new int[] { 0, 1, size / 3, size - 1, size, size + 1 }) {
+				if (n >= 0) {
+					final int k = Math.min(n, size);
+					assertStackEquals(list.subList(0, k), stack.limit(n));
+					assertStackEquals(list.subList(k, size), stack.skip(n));
+				}
+			}
+			final int prefix = list.indexOf(99L) < 0 ? size : list.indexOf(99L);
+			assertStackEquals(list.subList(0, prefix), stack.takeWhile(x -> x != 99L));
+			assertStackEquals(list.subList(prefix, size), stack.dropWhile(x -> x != 99L));
+
+			final List<Long> concatenated = new ArrayList<>(list);
+			concatenated.addAll(list);
+			assertStackEquals(concatenated, stack.concat(stack));
+			final List<Long> appended = new ArrayList<>(list);
+			appended.add(5L);
+			assertStackEquals(appended, stack.append(5L));
+			assertNotEquals(stack, stack.append(5L));
+		}
+	}
+}
@@ -3,13 +3,19 @@ package jcats.collection;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
+import jcats.IntOption;
+import jcats.Ord;
+import jcats.P;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import static jcats.collection.Seq.*;
 import static org.junit.Assert.*;
@@ -441,6 +447,493 @@ public class TestSeq {
 		}
 	}
 
+	@Test
+	public void testRelaxedConcat() {
+		final Random random = new Random();
+		for (int i = 0; i < 20; i++) {
+			Seq<Integer> seq = emptySeq();
+			final List<Integer> list = new ArrayList<>();
+			for (int j = 0; j < 30; j++) {
+				final Seq<Integer> chunk = randomSeq(random, 0, 3 * RelaxedSeq.CONCAT_COPY_THRESHOLD);
+				if (random.nextBoolean()) {
+					seq = seq.appendAll(chunk);
+					list.addAll(Lists.newArrayList(chunk));
+				} else {
+					seq = seq.prependAll(chunk);
+					list.addAll(0, Lists.newArrayList(chunk));
+				}
+				assertEquals(list.size(), seq.size());
+			}
+			assertTrue(Iterables.elementsEqual(list, seq));
+			for (int j = 0; j < 1000; j++) {
+				final int index = random.nextInt(list.size());
+				assertElementEquals(seq, index, list.get(index));
+			}
+			final List<Integer> reversed = Lists.newArrayList(list);
+			Collections.reverse(reversed);
+			final List<Integer> reverseIterated = new ArrayList<>();
+			Iterators.addAll(reverseIterated, seq.reverseIterator());
+			assertEquals(reversed, reverseIterated);
+			assertEquals(list, Arrays.asList(seq.toPreciseArray(Integer[]::new)));
+		}
+	}
+
+	@Test
+	public void testRelaxedConcatIsLogarithmic() {
+		final Seq<Integer> chunk = Seq.tabulate(RelaxedSeq.CONCAT_COPY_THRESHOLD + 1, i -> i);
+		Seq<Integer> seq = emptySeq();
+		for (int i = 0; i < 1000; i++) {
+			seq = (i % 2 == 0) ? seq.appendAll(chunk) : seq.prependAll(chunk);
+		}
+		assertEquals(1000 * chunk.size(), seq.size());
+		assertTrue(seq instanceof RelaxedSeq<?>);
+		assertTrue(((RelaxedSeq<?>) seq).depth <= 10);
+	}
+
+	@Test
+	public void testRelaxedInitTail() {
+		final Seq<Integer> chunk = Seq.tabulate(RelaxedSeq.CONCAT_COPY_THRESHOLD + 1, i -> i);
+		Seq<Integer> seq = emptySeq();
+		for (int i = 0; i < 100; i++) {
+			seq = (i % 2 == 0) ? seq.appendAll(chunk) : seq.prependAll(chunk);
+		}
+		final RelaxedSeq<Integer> relaxed = (RelaxedSeq<Integer>) seq;
+		final List<Integer> list = Lists.newArrayList(seq);
+
+		// Only the path to the first or the last regular seq is copied
+		final RelaxedSeq<Integer> init = (RelaxedSeq<Integer>) seq.init();
+		assertEquals(relaxed.depth, init.depth);
+		assertSame(relaxed.children[0], init.children[0]);
+		assertTrue(Iterables.elementsEqual(list.subList(0, list.size() - 1), init));
+		final RelaxedSeq<Integer> tail = (RelaxedSeq<Integer>) seq.tail();
+		assertEquals(relaxed.depth, tail.depth);
+		assertSame(relaxed.children[relaxed.children.length - 1], tail.children[tail.children.length - 1]);
+		assertTrue(Iterables.elementsEqual(list.subList(1, list.size()), tail));
+	}
+
+	@Test
+	public void testRelaxedUpdate() {
+		final Random random = new Random();
+		final Seq<Integer> seq1 = randomSeq(random, 5000, 10000);
+		final Seq<Integer> seq2 = randomSeq(random, 5000, 10000);
+		final Seq<Integer> seq3 = randomSeq(random, 5000, 10000);
+		Seq<Integer> concat = concat(seq1, seq2, seq3);
+		final List<Integer> list = Lists.newArrayList(Iterables.concat(seq1, seq2, seq3));
+		for (int i = 0; i < 1000; i++) {
+			final int index = random.nextInt(list.size());
+			concat = concat.set(index, i);
+			list.set(index, i);
+			if (random.nextBoolean()) {
+				concat = concat.append(-i);
+				list.add(-i);
+			} else {
+				concat = concat.prepend(-i);
+				list.add(0, -i);
+			}
+		}
+		assertTrue(Iterables.elementsEqual(list, concat));
+	}
+
+	@Test
+	public void testRelaxedLimitSkip() {
+		final Random random = new Random();
+		final Seq<Integer> seq = concat(randomSeq(random, 3000, 5000), randomSeq(random, 3000, 5000),
+				randomSeq(random, 3000, 5000), randomSeq(random, 3000, 5000));
+		final List<Integer> list = Lists.newArrayList(seq);
+		for (int n = 0; n <= seq.size(); n += random.nextInt(50) + 1) {
+			assertTrue(Iterables.elementsEqual(list.subList(0, n), seq.limit(n)));
+			assertTrue(Iterables.elementsEqual(list.subList(n, list.size()), seq.skip(n)));
+		}
+
+		Seq<Integer> shrinking = seq;
+		int from = 0;
+		int to = list.size();
+		while (shrinking.isNotEmpty()) {
+			if (random.nextBoolean()) {
+				shrinking = shrinking.init();
+				to--;
+			} else {
+				shrinking = shrinking.tail();
+				from++;
+			}
+			assertEquals(to - from, shrinking.size());
+			if (from < to) {
+				assertEquals(list.get(from), shrinking.first());
+				assertEquals(list.get(to - 1), shrinking.last());
+			}
+		}
+	}
+
+	@Test
+	public void testCollectorCombiner() {
+		final List<Integer> list = new ArrayList<>();
+		for (int i = 0; i < 100_000; i++) {
+			list.add(i % 63);
+		}
+		final Seq<Integer> seq = list.parallelStream().collect(collector());
+		assertTrue(Iterables.elementsEqual(list, seq));
+	}
+
+	@Test
+	public void testInsertAt() {
+		final Random random = new Random();
+		Seq<Integer> seq = randomSeq(random, 0, 5000);
+		final List<Integer> list = Lists.newArrayList(seq);
+		for (int i = 0; i < 2000; i++) {
+			final int index = random.nextInt(list.size() + 1);
+			if (random.nextInt(4) == 0) {
+				final Seq<Integer> values = randomSeq(random, 0, 3000);
+				seq = seq.insertAllAt(index, values);
+				list.addAll(index, Lists.newArrayList(values));
+			} else {
+				seq = seq.insertAt(index, i);
+				list.add(index, i);
+			}
+			assertEquals(list.size(), seq.size());
+		}
+		assertTrue(Iterables.elementsEqual(list, seq));
+
+		try {
+			seq.insertAt(-1, 0);
+			fail();
+		} catch (final IndexOutOfBoundsException ignored) {
+		}
+		try {
+			seq.insertAt(seq.size() + 1, 0);
+			fail();
+		} catch (final IndexOutOfBoundsException ignored) {
+		}
+	}
+
+	@Test
+	public void testRemoveAt() {
+		final Random random = new Random();
+		Seq<Integer> seq = concat(randomSeq(random, 2000, 5000), randomSeq(random, 2000, 5000), randomSeq(random, 2000, 5000));
+		final List<Integer> list = Lists.newArrayList(seq);
+		while (!list.isEmpty()) {
+			final int index = random.nextInt(list.size());
+			seq = seq.removeAt(index);
+			list.remove(index);
+			assertEquals(list.size(), seq.size());
+			if (list.size() % 500 == 0) {
+				assertTrue(Iterables.elementsEqual(list, seq));
+			}
+		}
+		assertTrue(seq.isEmpty());
+	}
+
+	@Test
+	public void testSplitAt() {
+		final Random random = new Random();
+		final Seq<Integer> seq = concat(randomSeq(random, 2000, 5000), randomSeq(random, 2000, 5000));
+		final List<Integer> list = Lists.newArrayList(seq);
+		for (int n = 0; n <= seq.size(); n += random.nextInt(100) + 1) {
+			final P<Seq<Integer>, Seq<Integer>> split = seq.splitAt(n);
+			assertTrue(Iterables.elementsEqual(list.subList(0, n), split.get1()));
+			assertTrue(Iterables.elementsEqual(list.subList(n, list.size()), split.get2()));
+			assertTrue(Iterables.elementsEqual(list, split.get1().concat(split.get2())));
+		}
+		final IntSeq intSeq = IntSeq.tabulate(10_000, i -> i);
+		final P<IntSeq, IntSeq> intSplit = intSeq.splitAt(4_321);
+		assertEquals(4_321, intSplit.get1().size());
+		assertEquals(4_321, intSplit.get2().first());
+		assertEquals(intSeq, intSplit.get1().appendAll(intSplit.get2()));
+	}
+
+	@Test
+	public void testSpliterator() {
+		final Random random = new Random();
+		for (final int size : new int[] { 0, 1, 31, 32, 33, 1_000, 1_057, 32_773, 100_000, (1 << 20) + 77 }) {
+			for (final boolean concat : new boolean[] { false, true }) {
+				final int prefixSize = Math.min(size, concat ? size / 3 : 100);
+				IntSeq seq = IntSeq.tabulate(size - prefixSize, i -> i + prefixSize);
+				if (concat) {
+					seq = seq.prependAll(IntSeq.tabulate(prefixSize, i -> i));
+				} else {
+					for (int i = prefixSize - 1; i >= 0; i--) {
+						seq = seq.prepend(i);
+					}
+				}
+				assertEquals(size, seq.size());
+
+				final Spliterator.OfInt spliterator = seq.spliterator();
+				assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+				final List<Integer> list = new ArrayList<>();
+				traverseSplitting(spliterator, list, random, 0);
+				assertEquals(size, list.size());
+				for (int i = 0; i < size; i++) {
+					assertEquals(i, (int) list.get(i));
+				}
+			}
+		}
+	}
+
+	private static void traverseSplitting(final Spliterator.OfInt spliterator, final List<Integer> list, final Random random, final int depth) {
+		final long size = spliterator.estimateSize();
+		final int listSize = list.size();
+		if (random.nextInt(4) == 0) {
+			spliterator.tryAdvance((final int value) -> list.add(value));
+		}
+		final Spliterator.OfInt prefix = (depth < 12) ? spliterator.trySplit() : null;
+		if (prefix == null) {
+			spliterator.forEachRemaining((final int value) -> list.add(value));
+		} else {
+			assertTrue(prefix.estimateSize() > 0);
+			assertTrue(spliterator.estimateSize() > 0);
+			traverseSplitting(prefix, list, random, depth + 1);
+			traverseSplitting(spliterator, list, random, depth + 1);
+		}
+		assertEquals(size, list.size() - listSize);
+		assertEquals(0, spliterator.estimateSize());
+		assertFalse(spliterator.tryAdvance((final int value) -> fail()));
+	}
+
+	@Test
+	public void testParallelStream() {
+		final Random random = new Random();
+		final Seq<Integer> seq = concat(randomSeq(random, 30_000, 50_000), randomSeq(random, 30_000, 50_000));
+		assertEquals(Lists.newArrayList(seq), seq.parallelStream().collect(Collectors.toList()));
+		final IntSeq intSeq = IntSeq.tabulate(1_000_000, i -> i);
+		assertEquals(999_999L * 1_000_000L / 2, intSeq.parallelStream().asLongStream().sum());
+	}
+
+	@Test
+	public void testTransient() {
+		final Random random = new Random();
+		for (final int size : new int[] { 0, 1, 40, 1_100, 40_000, 1_100_000 }) {
+			final Seq<Integer> original = (size > 10_000)
+					? concat(Seq.tabulate(size / 2, i -> i), Seq.tabulate(size / 2, i -> -i))
+					: randomSeq(random, size, size);
+			final List<Integer> originalList = Lists.newArrayList(original);
+			final List<Integer> list = Lists.newArrayList(original);
+			final TransientSeq<Integer> transientSeq = original.toTransient();
+			final List<Seq<Integer>> snapshots = new ArrayList<>();
+			final List<List<Integer>> snapshotLists = new ArrayList<>();
+			for (int i = 0; i < 20_000; i++) {
+				final int op = random.nextInt(10);
+				if (op < 4 && !list.isEmpty()) {
+					final int index = random.nextInt(list.size());
+					transientSeq.set(index, i);
+					list.set(index, i);
+				} else if (op == 4 && !list.isEmpty()) {
+					final int index = random.nextInt(list.size());
+					transientSeq.update(index, x -> x + 1);
+					list.set(index, list.get(index) + 1);
+				} else if (op == 5) {
+					transientSeq.append(i);
+					list.add(i);
+				} else if (op == 6) {
+					transientSeq.prepend(i);
+					list.add(0, i);
+				} else if (op == 7 && !list.isEmpty()) {
+					transientSeq.init();
+					list.remove(list.size() - 1);
+				} else if (op == 8 && !list.isEmpty()) {
+					transientSeq.tail();
+					list.remove(0);
+				} else if (random.nextInt(100) == 0) {
+					snapshots.add(transientSeq.persistent());
+					snapshotLists.add(new ArrayList<>(list));
+				}
+				assertEquals(list.size(), transientSeq.size());
+				if (!list.isEmpty()) {
+					final int index = random.nextInt(list.size());
+					assertEquals(list.get(index), transientSeq.get(index));
+				}
+			}
+			assertTrue(Iterables.elementsEqual(list, transientSeq.persistent()));
+			assertTrue(Iterables.elementsEqual(originalList, original));
+			for (int i = 0; i < snapshots.size(); i++) {
+				assertTrue(Iterables.elementsEqual(snapshotLists.get(i), snapshots.get(i)));
+			}
+		}
+	}
+
+	@Test
+	public void testEdit() {
+		final IntSeq seq = IntSeq.tabulate(100_000, i -> i);
+		final IntSeq edited = seq.edit(t -> {
+			for (int i = 0; i < t.size(); i += 3) {
+				t.update(i, x -> -x);
+			}
+			t.append(-1).prepend(-2).tail().init();
+		});
+		assertEquals(IntSeq.tabulate(100_000, i -> i), seq);
+		assertEquals(IntSeq.tabulate(100_000, i -> (i % 3 == 0) ? -i : i), edited);
+		try {
+			emptySeq().toTransient().init();
+			fail();
+		} catch (final NoSuchElementException ignored) {
+		}
+	}
+
+	@Test
+	public void testChunks() {
+		for (final int size : new int[] { 0, 1, 32, 33, 1000, 40_000 }) {
+			final IntSeq seq = IntSeq.tabulate(size, i -> (i * 7) % 1001 - 500);
+			final IntSeq relaxed = seq.concat(IntSeq.tabulate(size, i -> i));
+			for (final IntSeq s : Arrays.asList(seq, relaxed)) {
+				final List<Integer> expected = s.toArrayList();
+				final List<Integer> fromChunks = new ArrayList<>();
+				s.foreachChunk((chunk, from, to) -> {
+					assertTrue(from < to);
+					for (int i = from; i < to; i++) {
+						fromChunks.add(chunk[i]);
+					}
+				});
+				assertEquals(expected, fromChunks);
+				final List<Integer> fromIterator = new ArrayList<>();
+				s.chunkIterator().forEachRemaining(chunk -> Arrays.stream(chunk).forEach(fromIterator::add));
+				assertEquals(expected, fromIterator);
+
+				assertEquals(expected.stream().mapToInt(i -> i).sum(), s.sum());
+				assertEquals(expected.stream().max(Integer::compare).map(IntOption::intSome).orElse(IntOption.intNone()), s.max());
+				assertEquals(expected.stream().min(Integer::compare).map(IntOption::intSome).orElse(IntOption.intNone()), s.min());
+				assertEquals(expected.contains(499), s.contains(499));
+				assertEquals(expected.contains(1000), s.contains(1000));
+				final int index = expected.indexOf(size / 2 - 1);
+				assertEquals((index < 0) ? IntOption.intNone() : IntOption.intSome(index), s.indexOf(size / 2 - 1));
+			}
+		}
+		final DoubleSeq doubles = DoubleSeq.tabulate(10_000, i -> 0.1).concat(DoubleSeq.tabulate(100, i -> -i));
+		assertEquals(1000.0 - 4950.0, doubles.sum(), 1e-9);
+		assertEquals(0.1, doubles.max().get(), 0.0);
+		assertEquals(-99.0, doubles.min().get(), 0.0);
+		assertTrue(DoubleSeq.tabulate(10, i -> Double.NaN).max().isNotEmpty());
+		final IntArray array = IntArray.tabulate(100, i -> 100 - i);
+		assertEquals(5050, array.sum());
+		assertEquals(100, array.max().get());
+		assertEquals(1, array.min().get());
+		assertEquals(3, array.indexOf(97).get());
+		assertEquals(1, Iterators.size(array.chunkIterator()));
+		assertFalse(IntArray.emptyIntArray().chunkIterator().hasNext());
+	}
+
+	@Test
+	public void chunkIteratorReturnsCopies() {
+		final IntArray array = IntArray.tabulate(100, i -> i);
+		array.chunkIterator().next()[0] = -1;
+		assertEquals(0, array.get(0));
+		final IntSeq seq = IntSeq.tabulate(1000, i -> i);
+		seq.chunkIterator().forEachRemaining(chunk -> Arrays.fill(chunk, -1));
+		assertEquals(IntSeq.tabulate(1000, i -> i), seq);
+		assertEquals(999, seq.max().get());
+	}
+
+	@Test
+	public void testCursor() {
+		final Random random = new Random(11);
+		for (final int size : new int[] { 0, 1, 32, 33, 1000, 40_000 }) {
+			final IntSeq seq = IntSeq.tabulate(size, i -> i);
+			final IntSeq relaxed = seq.concat(seq);
+			for (final IntSeq s : Arrays.asList(seq, relaxed)) {
+				final IntSeqCursor cursor = s.cursor();
+				for (int i = 0; i < s.size(); i++) {
+					assertEquals(s.get(i), cursor.get(i));
+				}
+				for (int i = s.size() - 1; i >= 0; i--) {
+					assertEquals(s.get(i), cursor.get(i));
+				}
+				IntSeq expected = s;
+				for (int k = 0; k < 200 && s.isNotEmpty(); k++) {
+					final int index = random.nextInt(s.size());
+					final int value = random.nextInt();
+					expected = expected.set(index, value);
+					cursor.set(index, value);
+					if (k % 50 == 0) {
+						assertEquals(expected, cursor.toSeq());
+					}
+				}
+				for (int i = 0; i < s.size(); i++) {
+					cursor.update(i, x -> x + 1);
+				}
+				expected = expected.mapToInt(x -> x + 1);
+				assertEquals(expected, cursor.toSeq());
+				for (int i = 0; i < s.size(); i++) {
+					assertEquals(expected.get(i), cursor.get(i));
+				}
+				assertEquals(IntSeq.tabulate(size, i -> i), seq);
+				try {
+					cursor.get(s.size());
+					fail();
+				} catch (final IndexOutOfBoundsException ignored) {
+				}
+			}
+		}
+		for (int k = 0; k < 20; k++) {
+			final Seq<Integer> seq = randomSeq(random, 0, 50_000);
+			final SeqCursor<Integer> cursor = seq.cursor();
+			for (int i = 0; i < seq.size(); i++) {
+				assertEquals(seq.get(i), cursor.get(i));
+				cursor.set(i, i);
+			}
+			assertEquals(Seq.tabulate(seq.size(), i -> i), cursor.toSeq());
+		}
+	}
+
+	@Test
+	public void testSort() {
+		final Random random = new Random(7);
+		for (final int size : new int[] { 0, 1, 33, 1000, 100_000 }) {
+			final long[] values = random.longs(size, -1000, 1000).toArray();
+			final long[] asc = values.clone();
+			Arrays.sort(asc);
+			final LongSeq seq = LongSeq.longSeq(values);
+			final LongSeq expectedAsc = LongSeq.longSeq(asc);
+			final LongSeq expectedDesc = expectedAsc.reverse();
+			assertEquals(expectedAsc, seq.sortAsc());
+			assertEquals(expectedAsc, seq.parallelSortAsc());
+			assertEquals(expectedDesc, seq.sortDesc());
+			assertEquals(expectedDesc, seq.parallelSortDesc());
+			assertEquals(expectedDesc.toLongArray(), LongArray.longArray(values).parallelSortDesc());
+
+			// Sort by the last digit only: equal keys must keep the original order
+			final Seq<Integer> objects = Seq.tabulate(size, i -> random.nextInt(1000));
+			final List<Integer> expected = new ArrayList<>(objects.asCollection());
+			expected.sort((x, y) -> Integer.compare(x % 10, y % 10));
+			final Ord<Integer> byDigit = Ord.fromComparator((x, y) -> Integer.compare(x % 10, y % 10));
+			assertEquals(expected, objects.sort(byDigit).toArrayList());
+			assertEquals(expected, objects.parallelSort(byDigit).toArrayList());
+			assertEquals(expected, objects.toArray().parallelSort(byDigit).toArrayList());
+		}
+	}
+
+	@Test
+	public void testEqualsAndHashCode() {
+		final Random random = new Random(9);
+		for (int i = 0; i < 30; i++) {
+			final Seq<Integer> seq1 = randomSeq(random, 0, 5000);
+			final Seq<Integer> seq2 = randomSeq(random, 0, 5000);
+			final Seq<Integer> concat = concat(concat(seq1, seq2), seq1);
+			final List<Integer> list = Lists.newArrayList(Iterables.concat(seq1, seq2, seq1));
+			final Seq<Integer> copy = Seq.ofAll(list);
+			assertEquals(list.hashCode(), concat.hashCode());
+			assertEquals(list.hashCode(), concat.hashCode());
+			assertEquals(copy, concat);
+			assertEquals(concat, copy);
+			assertEquals(copy.hashCode(), concat.hashCode());
+			assertTrue(concat.isStrictlyEqualTo(concat(seq1, concat(seq2, seq1))));
+			assertEquals(concat, concat.toArray());
+
+			if (!list.isEmpty()) {
+				final int index = random.nextInt(list.size());
+				final Seq<Integer> changed = concat.set(index, 100);
+				list.set(index, 100);
+				assertEquals(list.hashCode(), changed.hashCode());
+				assertEquals(Seq.ofAll(list), changed);
+				assertNotEquals(concat, changed);
+				assertNotEquals(changed, concat.set(index, 101));
+				assertEquals(changed, concat.update(index, x -> 100));
+				assertNotEquals(concat, concat.append(0));
+			}
+
+			final IntSeq ints1 = IntSeq.tabulate(seq1.size(), j -> j);
+			final IntSeq ints2 = IntSeq.concat(ints1, IntSeq.tabulate(seq2.size(), j -> j));
+			assertEquals(IntSeq.ofAll(ints2), ints2);
+			assertEquals(Lists.newArrayList(ints2).hashCode(), ints2.hashCode());
+		}
+	}
+
 	private static Seq<Integer> randomSeq(final Random random, final int minSize, final int maxSize) {
 		final int size = randInt(random, minSize, maxSize);
 		Seq<Integer> seq = emptySeq();
@@ -3,6 +3,7 @@ package jcats.collection;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
+import jcats.Option;
 import jcats.Ord;
 import jcats.P;
 import org.junit.Test;
@@ -183,6 +184,157 @@ public class TestSortedDict {
 		assertTrue(dict.containsKey('D'));
 	}
 
+	@Test
+	public void sliceRandom() {
+		final long seed = System.currentTimeMillis();
+		final Random random = new Random(seed);
+		SortedDict<Integer, Integer> dict = emptySortedDict();
+		final TreeMap<Integer, Integer> map = new TreeMap<>();
+		for (int i = 0; i < 1000; i++) {
+			final int key = random.nextInt(2000);
+			dict = dict.put(key, i);
+			map.put(key, i);
+		}
+
+		for (int i = 0; i < 200; i++) {
+			final int from = random.nextInt(2002) - 1;
+			final int to = from + random.nextInt(2002 - from);
+			final boolean fromInclusive = random.nextBoolean();
+			final boolean toInclusive = random.nextBoolean();
+			final String message = "Assertion failed for seed: " + seed;
+			assertDictEquals(message, map.subMap(from, fromInclusive, to, toInclusive), dict.slice(from, fromInclusive, to, toInclusive));
+			assertDictEquals(message, map.tailMap(from, fromInclusive), dict.sliceFrom(from, fromInclusive));
+			assertDictEquals(message, map.headMap(to, toInclusive), dict.sliceTo(to, toInclusive));
+		}
+		assertSame(dict, dict.sliceFrom(-1, true));
+		assertSame(dict.left, dict.sliceTo(dict.entry.get1(), false));
+	}
+
+	@Test
+	public void positionalAccessRandom() {
+		final long seed = System.currentTimeMillis();
+		final Random random = new Random(seed);
+		SortedDict<Integer, Integer> dict = emptySortedDict();
+		final TreeMap<Integer, Integer> map = new TreeMap<>();
+		for (int i = 0; i < 1000; i++) {
+			final int key = random.nextInt(2000);
+			dict = dict.put(key, i);
+			map.put(key, i);
+		}
+		final List<Entry<Integer, Integer>> entries = ImmutableList.copyOf(map.entrySet());
+		final String message = "Assertion failed for seed: " + seed;
+
+		for (int i = 0; i < entries.size(); i++) {
+			assertEquals(message, entries.get(i), dict.entryAt(i).toEntry());
+			assertEquals(message, i, dict.rankOf(entries.get(i).getKey()));
+		}
+		for (int i = 0; i < 200; i++) {
+			final int key = random.nextInt(2002) - 1;
+			assertEquals(message, map.headMap(key).size(), dict.rankOf(key));
+
+			final int from = random.nextInt(2002) - 1;
+			final int to = from + random.nextInt(2002 - from);
+			final boolean fromInclusive = random.nextBoolean();
+			final boolean toInclusive = random.nextBoolean();
+			assertEquals(message, map.subMap(from, fromInclusive, to, toInclusive).size(), dict.countInRange(from, fromInclusive, to, toInclusive));
+
+			final int fromIndex = random.nextInt(entries.size() + 1);
+			final int toIndex = fromIndex + random.nextInt(entries.size() - fromIndex + 1);
+			final TreeMap<Integer, Integer> expected = new TreeMap<>();
+			for (final Entry<Integer, Integer> entry : entries.subList(fromIndex, toIndex)) {
+				expected.put(entry.getKey(), entry.getValue());
+			}
+			assertDictEquals(message, expected, dict.sliceByIndex(fromIndex, toIndex));
+		}
+		assertSame(dict, dict.sliceByIndex(0, dict.size()));
+		assertEquals(0, SortedDict.<Integer, Integer> emptySortedDict().countInRange(1, true, 2, true));
+		assertTrue(dict.sliceByIndex(5, 5).isEmpty());
+	}
+
+	@Test
+	public void navigationRandom() {
+		final long seed = System.currentTimeMillis();
+		final Random random = new Random(seed);
+		SortedDict<Integer, Integer> dict = emptySortedDict();
+		final TreeMap<Integer, Integer> map = new TreeMap<>();
+		for (int i = 0; i < 1000; i++) {
+			final int key = random.nextInt(2000);
+			dict = dict.put(key, i);
+			map.put(key, i);
+		}
+
+		final String message = "Assertion failed for seed: " + seed;
+		for (int key = -1; key <= 2000; key++) {
+			assertEquals(message, Option.fromNullable(map.floorEntry(key)), dict.floorEntry(key).map(P::toEntry));
+			assertEquals(message, Option.fromNullable(map.ceilingEntry(key)), dict.ceilingEntry(key).map(P::toEntry));
+			assertEquals(message, Option.fromNullable(map.lowerEntry(key)), dict.lowerEntry(key).map(P::toEntry));
+			assertEquals(message, Option.fromNullable(map.higherEntry(key)), dict.higherEntry(key).map(P::toEntry));
+		}
+	}
+
+	@Test
+	public void ofSortedRandom() {
+		final long seed = System.currentTimeMillis();
+		final Random random = new Random(seed);
+		final String message = "Assertion failed for seed: " + seed;
+		for (int size = 0; size < 300; size++) {
+			final TreeMap<Integer, Integer> map = new TreeMap<>();
+			for (int i = 0; i < size; i++) {
+				map.put(random.nextInt(2 * size + 1), i);
+			}
+
+			assertDictEquals(message, map, SortedDict.fromSortedMap(map));
+			assertDictEquals(message, map, SortedDict.fromMap(map));
+			assertDictEquals(message, map.descendingMap(), SortedDict.fromSortedMap(map).reverse());
+			assertDictEquals(message, map.descendingMap(), SortedDict.fromSortedMap(map.descendingMap()));
+		}
+	}
+
+	@Test
+	public void ofSortedKeepsLastOfEqualKeys() {
+		final SortedDict<Integer, String> dict = SortedDict.ofSorted(array(p(1, "a"), p(2, "b"), p(2, "c"), p(3, "d")));
+		dict.checkHeight();
+		assertEquals(3, dict.size());
+		assertEquals("c", dict.getOrNull(2));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void ofSortedRejectsUnsortedKeys() {
+		SortedDict.ofSorted(array(p(2, "a"), p(1, "b")));
+	}
+
+	@Test
+	public void setOperationsRandom() {
+		final long seed = System.currentTimeMillis();
+		final Random random = new Random(seed);
+		final String message = "Assertion failed for seed: " + seed;
+		for (int i = 0; i < 50; i++) {
+			final int size = (i == 0) ? 20000 : random.nextInt(500);
+			final TreeMap<Integer, Integer> map1 = new TreeMap<>();
+			final TreeMap<Integer, Integer> map2 = new TreeMap<>();
+			for (int j = 0; j < size; j++) {
+				map1.put(random.nextInt(2 * size + 1), j);
+				map2.put(random.nextInt(2 * size + 1) + random.nextInt(size + 1), -j);
+			}
+			final SortedDict<Integer, Integer> dict1 = SortedDict.fromSortedMap(map1);
+			final SortedDict<Integer, Integer> dict2 = SortedDict.fromSortedMap(map2);
+
+			final TreeMap<Integer, Integer> union = new TreeMap<>(map2);
+			union.putAll(map1);
+			final TreeMap<Integer, Integer> intersection = new TreeMap<>(map1);
+			intersection.keySet().retainAll(map2.keySet());
+			final TreeMap<Integer, Integer> difference = new TreeMap<>(map1);
+			difference.keySet().removeAll(map2.keySet());
+			final TreeMap<Integer, Integer> merged = new TreeMap<>(map1);
+			map2.forEach((key, value) -> merged.merge(key, value, Integer::sum));
+
+			assertDictEquals(message, union, dict1.union(dict2));
+			assertDictEquals(message, intersection, dict1.intersect(dict2));
+			assertDictEquals(message, difference, dict1.difference(dict2));
+			assertDictEquals(message, merged, SortedDict.merge((key, value1, value2) -> value1 + value2, dict1, dict2));
+		}
+	}
+
 	private static SortedDict<Character, String> createTestDict() {
 		SortedDict<Character, String> dict = emptySortedDict();
 		dict = dict.put('E', "e");
@@ -3,8 +3,12 @@ package jcats.collection;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
+import jcats.IntOption;
+import jcats.Option;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.SortedSet;
@@ -174,6 +178,211 @@ public class TestSortedUnique {
 		assertTrue(unique.contains('D'));
 	}
 
+	@Test
+	public void sliceRandom() {
+		final long seed = System.currentTimeMillis();
+		final Random random = new Random(seed);
+		SortedUnique<Integer> unique = emptySortedUnique();
+		final TreeSet<Integer> set = new TreeSet<>();
+		for (int i = 0; i < 1000; i++) {
+			final int value = random.nextInt(2000);
+			unique = unique.put(value);
+			set.add(value);
+		}
+
+		for (int i = 0; i < 200; i++) {
+			final int from = random.nextInt(2002) - 1;
+			final int to = from + random.nextInt(2002 - from);
+			final boolean fromInclusive = random.nextBoolean();
+			final boolean toInclusive = random.nextBoolean();
+			final String message = "Assertion failed for seed: " + seed;
+			assertUniqueEquals(message, set.subSet(from, fromInclusive, to, toInclusive), unique.slice(from, fromInclusive, to, toInclusive));
+			assertUniqueEquals(message, set.tailSet(from, fromInclusive), unique.sliceFrom(from, fromInclusive));
+			assertUniqueEquals(message, set.headSet(to, toInclusive), unique.sliceTo(to, toInclusive));
+		}
+	}
+
+	@Test
+	public void sliceSharesSubtrees() {
+		SortedUnique<Integer> unique = emptySortedUnique();
+		for (int i = 0; i < 1000; i++) {
+			unique = unique.put(i);
+		}
+		assertSame(unique, unique.sliceFrom(0, true));
+		assertSame(unique, unique.sliceTo(999, true));
+		assertSame(unique, unique.slice(-1, false, 1000, false));
+		assertSame(unique.right, unique.sliceFrom(unique.entry, false));
+		assertSame(unique.left, unique.sliceTo(unique.entry, false));
+		assertTrue(unique.slice(5, false, 6, false).isEmpty());
+		assertEquals(emptySortedUnique(), unique.sliceFrom(1000, true));
+	}
+
+	@Test
+	public void positionalAccessRandom() {
+		final long seed = System.currentTimeMillis();
+		final Random random = new Random(seed);
+		SortedUnique<Integer> unique = emptySortedUnique();
+		final TreeSet<Integer> set = new TreeSet<>();
+		for (int i = 0; i < 1000; i++) {
+			final int value = random.nextInt(2000);
+			unique = unique.put(value);
+			set.add(value);
+		}
+		final List<Integer> values = ImmutableList.copyOf(set);
+		final String message = "Assertion failed for seed: " + seed;
+
+		for (int i = 0; i < values.size(); i++) {
+			assertEquals(message, values.get(i), unique.get(i));
+			assertEquals(message, IntOption.intSome(i), unique.indexOf(values.get(i)));
+			assertEquals(message, i, unique.rankOf(values.get(i)));
+		}
+		for (int i = 0; i < 200; i++) {
+			final int value = random.nextInt(2002) - 1;
+			assertEquals(message, set.headSet(value).size(), unique.rankOf(value));
+			assertEquals(message, set.contains(value) ? IntOption.intSome(set.headSet(value).size()) : IntOption.intNone(), unique.indexOf(value));
+
+			final int from = random.nextInt(2002) - 1;
+			final int to = from + random.nextInt(2002 - from);
+			final boolean fromInclusive = random.nextBoolean();
+			final boolean toInclusive = random.nextBoolean();
+			assertEquals(message, set.subSet(from, fromInclusive, to, toInclusive).size(), unique.countInRange(from, fromInclusive, to, toInclusive));
+
+			final int fromIndex = random.nextInt(values.size() + 1);
+			final int toIndex = fromIndex + random.nextInt(values.size() - fromIndex + 1);
+			assertUniqueEquals(message, new TreeSet<>(values.subList(fromIndex, toIndex)), unique.sliceByIndex(fromIndex, toIndex));
+		}
+		assertSame(unique, unique.sliceByIndex(0, unique.size()));
+		assertSame(unique.left, unique.sliceByIndex(0, unique.left.size()));
+		assertSame(unique.right, unique.sliceByIndex(unique.left.size() + 1, unique.size()));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void getOutOfBounds() {
+		createTestSortedUnique().get(12);
+	}
+
+	@Test
+	public void navigationRandom() {
+		final long seed = System.currentTimeMillis();
+		final Random random = new Random(seed);
+		SortedUnique<Integer> unique = emptySortedUnique();
+		final TreeSet<Integer> set = new TreeSet<>();
+		for (int i = 0; i < 1000; i++) {
+			final int value = random.nextInt(2000);
+			unique = unique.put(value);
+			set.add(value);
+		}
+
+		final String message = "Assertion failed for seed: " + seed;
+		for (int value = -1; value <= 2000; value++) {
+			assertEquals(message, Option.fromNullable(set.floor(value)), unique.floor(value));
+			assertEquals(message, Option.fromNullable(set.ceiling(value)), unique.ceiling(value));
+			assertEquals(message, Option.fromNullable(set.lower(value)), unique.lower(value));
+			assertEquals(message, Option.fromNullable(set.higher(value)), unique.higher(value));
+		}
+		assertTrue(SortedUnique.<Integer> emptySortedUnique().floor(0).isEmpty());
+	}
+
+	@Test
+	public void ofSortedRandom() {
+		final long seed = System.currentTimeMillis();
+		final Random random = new Random(seed);
+		final String message = "Assertion failed for seed: " + seed;
+		for (int size = 0; size < 300; size++) {
+			final TreeSet<Integer> set = new TreeSet<>();
+			final List<Integer> values = new ArrayList<>();
+			for (int i = 0; i < size; i++) {
+				values.add(random.nextInt(size + 1));
+			}
+			Collections.sort(values);
+			set.addAll(values);
+
+			SortedUnique<Integer> unique = ofSorted(values);
+			assertUniqueEquals(message, set, unique);
+			assertUniqueEquals(message, set.descendingSet(), unique.reverse());
+			assertUniqueEquals(message, set, ofAll(set));
+			for (int i = 0; i < 20; i++) {
+				final int value = random.nextInt(size + 1);
+				if (random.nextBoolean()) {
+					unique = unique.put(value);
+					set.add(value);
+				} else {
+					unique = unique.remove(value);
+					set.remove(value);
+				}
+			}
+			assertUniqueEquals(message, set, unique);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void ofSortedRejectsUnsortedValues() {
+		ofSorted(array(1, 3, 2));
+	}
+
+	@Test
+	public void slicedViewToSortedUniqueSharesSubtrees() {
+		SortedUnique<Integer> unique = emptySortedUnique();
+		for (int i = 0; i < 100; i++) {
+			unique = unique.put(i);
+		}
+		assertSame(unique.left, unique.view().sliceTo(unique.entry, false).toSortedUnique());
+		assertEquals(unique.sliceFrom(30, true), unique.view().sliceFrom(30, true).toSortedUnique());
+	}
+
+	@Test
+	public void setOperationsRandom() {
+		final long seed = System.currentTimeMillis();
+		final Random random = new Random(seed);
+		final String message = "Assertion failed for seed: " + seed;
+		for (int i = 0; i < 50; i++) {
+			final int size = (i == 0) ? 20000 : random.nextInt(500);
+			final TreeSet<Integer> set1 = new TreeSet<>();
+			final TreeSet<Integer> set2 = new TreeSet<>();
+			SortedUnique<Integer> unique1 = emptySortedUnique();
+			SortedUnique<Integer> unique2 = emptySortedUnique();
+			for (int j = 0; j < size; j++) {
+				final int value1 = random.nextInt(2 * size + 1);
+				final int value2 = random.nextInt(2 * size + 1) + random.nextInt(size + 1);
+				unique1 = unique1.put(value1);
+				unique2 = unique2.put(value2);
+				set1.add(value1);
+				set2.add(value2);
+			}
+
+			final TreeSet<Integer> union = new TreeSet<>(set1);
+			union.addAll(set2);
+			final TreeSet<Integer> intersection = new TreeSet<>(set1);
+			intersection.retainAll(set2);
+			final TreeSet<Integer> difference = new TreeSet<>(set1);
+			difference.removeAll(set2);
+			final TreeSet<Integer> symmetricDifference = new TreeSet<>(union);
+			symmetricDifference.removeAll(intersection);
+
+			assertUniqueEquals(message, union, unique1.union(unique2));
+			assertUniqueEquals(message, intersection, unique1.intersect(unique2));
+			assertUniqueEquals(message, difference, unique1.difference(unique2));
+			assertUniqueEquals(message, symmetricDifference, unique1.symmetricDifference(unique2));
+			assertSame(unique1, unique1.union(unique1));
+			assertSame(unique1, unique1.difference(emptySortedUnique()));
+		}
+	}
+
+	@Test
+	public void unionReusesSubtreesWithoutCounterpart() {
+		final SortedUnique<Integer> low = ofSorted(Array.<Integer> tabulate(100, i -> i));
+		final SortedUnique<Integer> high = ofSorted(Array.<Integer> tabulate(100, i -> i + 1000));
+		final SortedUnique<Integer> union = low.union(high);
+		union.checkHeight();
+		assertEquals(200, union.size());
+		assertSame(low.left, union.left.left);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unionRejectsDifferentOrders() {
+		sortedUnique(1, 2).union(sortedUnique(1, 2).reverse());
+	}
+
 	private static SortedUnique<Character> createTestSortedUnique() {
 		SortedUnique<Character> unique = sortedUnique('E', 'A', 'R', 'S', 'C', 'H', 'X', 'M', 'P', 'J', 'D', 'L');
 
@@ -5,11 +5,21 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
 
 import static jcats.collection.Unique.*;
 import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
 
 public class TestUnique {
 
@@ -139,6 +149,34 @@ public class TestUnique {
 		assertFalse(map.contains("BB"));
 	}
 
+	@Test
+	public void builderDoesNotChangeBuiltInstances() {
+		final UniqueBuilder<Integer> builder = builder();
+		final List<Unique<Integer>> built = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			builder.put(i * 31);
+			if (i % 500 == 0) {
+				built.add(builder.build());
+			}
+		}
+		for (int k = 0; k < built.size(); k++) {
+			final Unique<Integer> unique = built.get(k);
+			final int size = k * 500 + 1;
+			assertEquals(size, unique.size());
+			assertTrue(unique.contains((size - 1) * 31));
+			assertFalse(unique.contains(size * 31));
+		}
+
+		Unique<Integer> expected = emptyUnique();
+		for (int i = 0; i < 5000; i++) {
+			expected = expected.put(i * 31);
+		}
+		assertEquals(expected, builder.build());
+		assertEquals(expected, IntStream.range(0, 5000).parallel().mapToObj(i -> i * 31).collect(collector()));
+		assertEquals(expected, built.get(3).putAll(expected));
+		assertEquals(1501, built.get(3).size());
+	}
+
 	private static Unique<String> getLargeMap() {
 		Unique<String> m = emptyUnique();
 		for (int i = 0; i < LARGE_MAP_SIZE; i++) {
@@ -210,5 +248,154 @@ public class TestUnique {
 		}
 		assertTrue(unique.isEmpty());
 	}
+
+	@Test
+	public void scrambledHashesSpreadMultiplesOf32() {
+		assumeTrue(HashTableCommon.SCRAMBLE_HASHES);
+		final Set<Integer> hashes = new HashSet<>();
+		final Set<Integer> rootBranches = new HashSet<>();
+		for (int i = 0; i < 1024; i++) {
+			final int hash = HashTableCommon.scramble(i * 32);
+			hashes.add(hash);
+			rootBranches.add(hash & 0b11111);
+		}
+		assertEquals(1024, hashes.size());
+		assertEquals(32, rootBranches.size());
+	}
+
+	@Test
+	public void hashTableStatistics() {
+		final Unique<String> unique = unique("a", "Aa", "BB", "AaAa", "BBBB", "AaBB");
+		final HashTableStatistics statistics = unique.hashTableStatistics();
+		assertEquals(6, statistics.size());
+		assertEquals(2, statistics.collisions());
+		assertEquals(5, statistics.collidingEntries());
+		assertEquals(3, statistics.maxCollisionLength());
+		assertEquals(0, emptyUnique().hashTableStatistics().maxDepth());
+	}
+
+	@Test
+	public void setOperations() {
+		final long seed = System.currentTimeMillis();
+		final Random random = new Random(seed);
+		// "Aa" and "BB" have equal hash codes, so strings made of them collide in groups
+		final String[] parts = { "Aa", "BB", "a", "b", "c", "d" };
+		for (int n = 0; n < 50; n++) {
+			final Set<String> set1 = new HashSet<>();
+			final Set<String> set2 = new HashSet<>();
+			final int size = random.nextInt(300);
+			for (int i = 0; i < size; i++) {
+				final String value = parts[random.nextInt(parts.length)] + parts[random.nextInt(parts.length)] + parts[random.nextInt(parts.length)];
+				if (random.nextBoolean()) {
+					set1.add(value);
+				} else {
+					set2.add(value);
+				}
+			}
+			final Unique<String> unique1 = ofAll(set1);
+			final Unique<String> unique2 = ofAll(set2);
+			assertEquals("Seed " + seed, ofAll(Sets.union(set1, set2)), unique1.union(unique2));
+			assertEquals("Seed " + seed, ofAll(Sets.intersection(set1, set2)), unique1.intersect(unique2));
+			assertEquals("Seed " + seed, ofAll(Sets.difference(set1, set2)), unique1.difference(unique2));
+			assertEquals("Seed " + seed, ofAll(Sets.symmetricDifference(set1, set2)), unique1.symmetricDifference(unique2));
+			assertEquals("Seed " + seed, set1.size() + set2.size() - Sets.intersection(set1, set2).size(), unique1.union(unique2).size());
+			assertEquals("Seed " + seed, set2.containsAll(set1), unique1.isSubsetOf(unique2));
+			assertEquals("Seed " + seed, Sets.intersection(set1, set2).isEmpty(), unique1.isDisjointWith(unique2));
+			assertTrue("Seed " + seed, unique1.intersect(unique2).isSubsetOf(unique1));
+			assertTrue("Seed " + seed, unique1.difference(unique2).isDisjointWith(unique2));
+		}
+	}
+
+	@Test
+	public void setOperationsReuseOperands() {
+		final Unique<Integer> large = ofAll(() -> IntStream.range(0, 1000).iterator());
+		final Unique<Integer> small = large.remove(17).remove(500);
+		assertSame(large, large.union(small));
+		assertSame(large, small.union(large));
+		assertSame(small, small.intersect(large));
+		assertSame(large, large.difference(emptyUnique()));
+		assertSame(large, large.union(large));
+		assertTrue(large.difference(large).isEmpty());
+		assertEquals(unique(17, 500), large.difference(small));
+		assertTrue(small.isSubsetOf(large));
+		assertFalse(large.isSubsetOf(small));
+		assertTrue(unique(17, 500).isDisjointWith(small));
+	}
+
+	@Test
+	public void fromArrayParallel() {
+		final String[] parts = { "Aa", "BB", "a", "b", "c", "d", "e", "f" };
+		final Random random = new Random();
+		final String[] values = new String[50000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = parts[random.nextInt(parts.length)] + parts[random.nextInt(parts.length)] + parts[random.nextInt(parts.length)] +
+					parts[random.nextInt(parts.length)] + parts[random.nextInt(parts.length)] + parts[random.nextInt(parts.length)];
+		}
+		final Unique<String> unique = Unique.fromArrayParallel(values);
+		assertEquals(Sets.newHashSet(values), unique.toHashSet());
+		assertEquals(unique(values), unique);
+		assertEquals(unique, Stream2.of(values).parallel().toUnique());
+		assertEquals(unique, ofAllParallel(Array.array(values)));
+	}
+
+	@Test
+	public void spliteratorSplitsIntoExactlySizedParts() {
+		final Unique<String> unique = ofAll(() -> IntStream.range(0, 10000).mapToObj(i -> (i % 7 == 0) ? "Aa" + i : "BB" + i).iterator());
+		final List<Spliterator<String>> parts = new ArrayList<>();
+		split(unique.spliterator(), parts);
+		assertTrue(parts.size() > 100);
+		final Set<String> set = new HashSet<>();
+		for (final Spliterator<String> part : parts) {
+			assertTrue(part.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.DISTINCT));
+			final long size = part.getExactSizeIfKnown();
+			final int before = set.size();
+			if (size > 1) {
+				assertTrue(part.tryAdvance(set::add));
+			}
+			part.forEachRemaining(set::add);
+			assertEquals(size, set.size() - before);
+			assertEquals(0, part.estimateSize());
+		}
+		assertEquals(unique.toHashSet(), set);
+		assertEquals(unique.size(), unique.parallelStream().count());
+		assertEquals(unique, unique.parallelStream().toUnique());
+	}
+
+	private static void split(final Spliterator<String> spliterator, final List<Spliterator<String>> parts) {
+		final long size = spliterator.estimateSize();
+		final Spliterator<String> prefix = spliterator.trySplit();
+		if (prefix == null) {
+			parts.add(spliterator);
+		} else {
+			assertEquals(size, prefix.estimateSize() + spliterator.estimateSize());
+			split(prefix, parts);
+			split(spliterator, parts);
+		}
+	}
+
+	@Test
+	public void serialization() throws Exception {
+		// "Aa" and "BB" have the same hash code
+		final Unique<String> unique = getLargeMap().put("Aa").put("BB");
+		final Unique<String> copy = (Unique<String>) roundTrip(unique);
+		assertEquals(unique, copy);
+		assertTrue(copy.contains("Aa") && copy.contains("BB"));
+		assertEquals(unique.remove("Aa"), copy.remove("Aa"));
+		assertSame(emptyUnique(), roundTrip(emptyUnique()));
+
+		final IntUnique ints = IntUnique.ofAll(IntSeq.tabulate(1000, i -> i * 31));
+		assertEquals(ints, roundTrip(ints));
+	}
+
+	private static Object roundTrip(final Object object) throws Exception {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(object);
+		}
+		try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return in.readObject();
+		}
+	}
+
 }
 